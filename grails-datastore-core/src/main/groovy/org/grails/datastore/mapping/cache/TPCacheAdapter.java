@@ -49,4 +49,18 @@ public interface TPCacheAdapter<T> {
      * @throws CacheException runtime exception indicating any cache-related problems
      */
     T getCachedEntry(Serializable key) throws CacheException;
+
+    /**
+     * Removes the entry for the specified key, if any. Called when the entity is deleted or changed by a bulk operation
+     * so that stale state is not served from the cache.
+     * @param key the entry key
+     * @throws CacheException runtime exception indicating any cache-related problems
+     */
+    void evictEntry(Serializable key) throws CacheException;
+
+    /**
+     * Removes all entries. Called after bulk operations that may have changed any entry.
+     * @throws CacheException runtime exception indicating any cache-related problems
+     */
+    void clear() throws CacheException;
 }
@@ -0,0 +1,181 @@
+/* Copyright (C) 2016 original authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.grails.datastore.mapping.cache.impl;
+
+import java.io.Serializable;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.grails.datastore.mapping.cache.TPCacheAdapter;
+import org.grails.datastore.mapping.cache.exception.CacheException;
+import org.springframework.util.Assert;
+
+import com.googlecode.concurrentlinkedhashmap.ConcurrentLinkedHashMap;
+import com.googlecode.concurrentlinkedhashmap.EvictionListener;
+
+/**
+ * A {@link TPCacheAdapter} holding at most a given number of entries, evicting the least recently used entry
+ * when full. Entries can optionally expire a fixed time after they were cached. Hits, misses and evictions
+ * are counted so that the cache can be sized from its actual usage.
+ *
+ * Can be configured for an entity in the mapping block, for example:
+ *
+ * <pre><code>
+ * static mapping = {
+ *     secondLevelCache maxSize: 1000, timeToLive: 60000
+ * }
+ * </code></pre>
+ *
+ * @author Graeme Rocher
+ * @since 6.0
+ */
+public class BoundedTPCacheAdapter<T> implements TPCacheAdapter<T> {
+
+    public static final int DEFAULT_MAX_SIZE = 10000;
+    public static final String MAX_SIZE = "maxSize";
+    public static final String TIME_TO_LIVE = "timeToLive";
+
+    private final ConcurrentLinkedHashMap<Serializable, CachedEntry<T>> cache;
+    private final long timeToLiveNanos;
+    private final int maxSize;
+    private final AtomicLong hitCount = new AtomicLong();
+    private final AtomicLong missCount = new AtomicLong();
+    private final AtomicLong evictionCount = new AtomicLong();
+
+    public BoundedTPCacheAdapter() {
+        this(DEFAULT_MAX_SIZE);
+    }
+
+    public BoundedTPCacheAdapter(int maxSize) {
+        this(maxSize, 0, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * @param maxSize The maximum number of entries
+     * @param timeToLive The time after which an entry expires, 0 for entries that never expire
+     * @param unit The unit of the time to live
+     */
+    public BoundedTPCacheAdapter(int maxSize, long timeToLive, TimeUnit unit) {
+        Assert.isTrue(maxSize > 0, "Maximum size must be greater than zero");
+        Assert.isTrue(timeToLive >= 0, "Time to live must not be negative");
+        this.maxSize = maxSize;
+        this.timeToLiveNanos = unit.toNanos(timeToLive);
+        this.cache = new ConcurrentLinkedHashMap.Builder<Serializable, CachedEntry<T>>()
+                .maximumWeightedCapacity(maxSize)
+                .listener(new EvictionListener<Serializable, CachedEntry<T>>() {
+                    public void onEviction(Serializable key, CachedEntry<T> value) {
+                        evictionCount.incrementAndGet();
+                    }
+                })
+                .build();
+    }
+
+    /**
+     * Creates an adapter from the settings of an entity mapping
+     *
+     * @param settings The settings, supporting {@link #MAX_SIZE} and {@link #TIME_TO_LIVE} in milliseconds
+     * @return The adapter
+     */
+    public static <T> BoundedTPCacheAdapter<T> fromSettings(Map<String, Object> settings) {
+        int maxSize = DEFAULT_MAX_SIZE;
+        long timeToLive = 0;
+        Object maxSizeSetting = settings.get(MAX_SIZE);
+        if (maxSizeSetting instanceof Number) {
+            maxSize = ((Number) maxSizeSetting).intValue();
+        }
+        Object timeToLiveSetting = settings.get(TIME_TO_LIVE);
+        if (timeToLiveSetting instanceof Number) {
+            timeToLive = ((Number) timeToLiveSetting).longValue();
+        }
+        return new BoundedTPCacheAdapter<T>(maxSize, timeToLive, TimeUnit.MILLISECONDS);
+    }
+
+    public void cacheEntry(Serializable key, T entry) throws CacheException {
+        long expiresAt = timeToLiveNanos > 0 ? System.nanoTime() + timeToLiveNanos : 0;
+        cache.put(key, new CachedEntry<T>(entry, expiresAt));
+    }
+
+    public T getCachedEntry(Serializable key) throws CacheException {
+        CachedEntry<T> cached = cache.get(key);
+        if (cached == null) {
+            missCount.incrementAndGet();
+            return null;
+        }
+        if (cached.isExpired()) {
+            if (cache.remove(key, cached)) {
+                evictionCount.incrementAndGet();
+            }
+            missCount.incrementAndGet();
+            return null;
+        }
+        hitCount.incrementAndGet();
+        return cached.value;
+    }
+
+    public void evictEntry(Serializable key) throws CacheException {
+        cache.remove(key);
+    }
+
+    public void clear() throws CacheException {
+        cache.clear();
+    }
+
+    /**
+     * @return The number of entries currently cached, including expired entries not yet evicted
+     */
+    public int size() {
+        return cache.size();
+    }
+
+    public int getMaxSize() {
+        return maxSize;
+    }
+
+    /**
+     * @return The number of lookups that found a live entry
+     */
+    public long getHitCount() {
+        return hitCount.get();
+    }
+
+    /**
+     * @return The number of lookups that found no entry or an expired one
+     */
+    public long getMissCount() {
+        return missCount.get();
+    }
+
+    /**
+     * @return The number of entries evicted because the cache was full or the entry expired
+     */
+    public long getEvictionCount() {
+        return evictionCount.get();
+    }
+
+    private static class CachedEntry<T> {
+        final T value;
+        final long expiresAt;
+
+        CachedEntry(T value, long expiresAt) {
+            this.value = value;
+            this.expiresAt = expiresAt;
+        }
+
+        boolean isExpired() {
+            return expiresAt != 0 && System.nanoTime() - expiresAt >= 0;
+        }
+    }
+}
@@ -20,5 +20,13 @@ public class HashMapTPCacheAdapter<T> implements TPCacheAdapter<T> {
         return cache.get(key);
     }
 
+    public void evictEntry(Serializable key) throws CacheException {
+        cache.remove(key);
+    }
+
+    public void clear() throws CacheException {
+        cache.clear();
+    }
+
     private ConcurrentHashMap<Object, T> cache = new ConcurrentHashMap<Object, T>();
 }
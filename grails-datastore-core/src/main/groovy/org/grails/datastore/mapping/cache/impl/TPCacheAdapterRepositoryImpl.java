@@ -2,8 +2,11 @@ package org.grails.datastore.mapping.cache.impl;
 
 import org.grails.datastore.mapping.cache.TPCacheAdapter;
 import org.grails.datastore.mapping.cache.TPCacheAdapterRepository;
+import org.grails.datastore.mapping.config.Entity;
+import org.grails.datastore.mapping.model.ClassMapping;
 import org.grails.datastore.mapping.model.PersistentEntity;
 
+import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
 
 /**
@@ -17,7 +20,40 @@ public class TPCacheAdapterRepositoryImpl<T> implements TPCacheAdapterRepository
             return null;
         }
 
-        return adapters.get(entity.getJavaClass().getName());
+        String name = entity.getJavaClass().getName();
+        TPCacheAdapter<T> adapter = adapters.get(name);
+        if (adapter == null) {
+            Map<String, Object> settings = getSecondLevelCacheSettings(entity);
+            if (settings != null) {
+                TPCacheAdapter<T> newAdapter = createTPCacheAdapter(entity, settings);
+                adapter = adapters.putIfAbsent(name, newAdapter);
+                if (adapter == null) {
+                    adapter = newAdapter;
+                }
+            }
+        }
+        return adapter;
+    }
+
+    /**
+     * Creates the adapter for an entity that configures a second-level cache in its mapping block
+     * and has no adapter set explicitly. Creates a {@link BoundedTPCacheAdapter} by default.
+     *
+     * @param entity The entity
+     * @param settings The settings from the mapping block
+     * @return The adapter
+     */
+    protected TPCacheAdapter<T> createTPCacheAdapter(PersistentEntity entity, Map<String, Object> settings) {
+        return BoundedTPCacheAdapter.fromSettings(settings);
+    }
+
+    private Map<String, Object> getSecondLevelCacheSettings(PersistentEntity entity) {
+        ClassMapping mapping = entity.getMapping();
+        if (mapping == null) {
+            return null;
+        }
+        Object mappedForm = mapping.getMappedForm();
+        return mappedForm instanceof Entity ? ((Entity) mappedForm).getSecondLevelCache() : null;
     }
 
     public void setTPCacheAdapter(PersistentEntity entity, TPCacheAdapter<T> cacheAdapter) {
@@ -17,18 +17,28 @@ package org.grails.datastore.mapping.collection;
 import org.grails.datastore.mapping.core.Session;
 import org.grails.datastore.mapping.engine.AssociationIndexer;
 import org.grails.datastore.mapping.engine.AssociationQueryExecutor;
+import org.grails.datastore.mapping.engine.EntityPersister;
+import org.grails.datastore.mapping.engine.Persister;
 import org.grails.datastore.mapping.model.PersistentEntity;
 import org.grails.datastore.mapping.model.types.Association;
 import org.grails.datastore.mapping.query.Query;
+import org.springframework.core.convert.ConversionService;
 
 import java.io.Serializable;
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.Iterator;
 import java.util.List;
+import java.util.NoSuchElementException;
 
 /**
  * Abstract base class for persistent collections.
  *
+ * An extra lazy collection (see {@link #setExtraLazy(boolean)}) that is not initialized answers {@link #size()},
+ * {@link #isEmpty()} and {@link #contains(Object)} from the keys of its elements, and loads its elements in pages of
+ * {@link #getPageSize()} while iterating. Any modification initializes the collection.
+ *
  * @author Burt Beckwith
  */
 @SuppressWarnings({"rawtypes", "unchecked"})
@@ -46,6 +56,14 @@ public abstract class AbstractPersistentCollection implements PersistentCollecti
     protected final Collection collection;
     protected int originalSize;
     protected boolean proxyEntities = false;
+    protected boolean extraLazy = false;
+    protected int pageSize = DEFAULT_PAGE_SIZE;
+    protected transient List queriedKeys;
+
+    /**
+     * The number of elements an extra lazy collection loads at a time while iterating
+     */
+    public static final int DEFAULT_PAGE_SIZE = 100;
 
     protected AbstractPersistentCollection(Class childType, Session session, Collection collection) {
         this.childType = childType;
@@ -62,6 +80,7 @@ public abstract class AbstractPersistentCollection implements PersistentCollecti
         this.session = session;
         this.associationKey = associationKey;
         this.proxyEntities = association.getMapping().getMappedForm().isLazy();
+        this.extraLazy = association.getMapping().getMappedForm().isExtraLazy();
         this.childType = association.getAssociatedEntity().getJavaClass();
         this.indexer = new AssociationQueryExecutor() {
 
@@ -113,6 +132,36 @@ public abstract class AbstractPersistentCollection implements PersistentCollecti
         this.proxyEntities = proxyEntities;
     }
 
+    /**
+     * Whether to answer size and membership from the keys of the elements and load the elements in pages while iterating
+     *
+     * @param extraLazy True if the collection should be extra lazy
+     */
+    public void setExtraLazy(boolean extraLazy) {
+        this.extraLazy = extraLazy;
+    }
+
+    /**
+     * @return Whether the collection is extra lazy
+     */
+    public boolean isExtraLazy() {
+        return extraLazy;
+    }
+
+    /**
+     * @param pageSize The number of elements an extra lazy collection loads at a time while iterating
+     */
+    public void setPageSize(int pageSize) {
+        this.pageSize = pageSize > 0 ? pageSize : DEFAULT_PAGE_SIZE;
+    }
+
+    /**
+     * @return The number of elements an extra lazy collection loads at a time while iterating
+     */
+    public int getPageSize() {
+        return pageSize;
+    }
+
     @Override
     public boolean hasChanged() {
         return isDirty();
@@ -142,6 +191,10 @@ public abstract class AbstractPersistentCollection implements PersistentCollecti
     /* Collection methods */
 
     public Iterator iterator() {
+        final Collection elementKeys = getExtraLazyKeys();
+        if (elementKeys != null) {
+            return new PagedIterator(elementKeys);
+        }
         initialize();
 
         final Iterator iterator = collection.iterator();
@@ -162,16 +215,28 @@ public abstract class AbstractPersistentCollection implements PersistentCollecti
     }
 
     public int size() {
+        Collection elementKeys = getExtraLazyKeys();
+        if (elementKeys != null) {
+            return elementKeys.size();
+        }
         initialize();
         return collection.size();
     }
 
     public boolean isEmpty() {
+        Collection elementKeys = getExtraLazyKeys();
+        if (elementKeys != null) {
+            return elementKeys.isEmpty();
+        }
         initialize();
         return collection.isEmpty();
     }
 
     public boolean contains(Object o) {
+        Collection elementKeys = getExtraLazyKeys();
+        if (elementKeys != null) {
+            return containsKeyOf(elementKeys, o);
+        }
         initialize();
         return collection.contains(o);
     }
@@ -296,7 +361,8 @@ public abstract class AbstractPersistentCollection implements PersistentCollecti
                 }
             }
             else {
-                List results = indexer.query(associationKey);
+                List results = queriedKeys != null ? queriedKeys : indexer.query(associationKey);
+                queriedKeys = null;
                 if(indexer.doesReturnKeys()) {
 
                     PersistentEntity entity = indexer.getIndexedEntity();
@@ -321,6 +387,123 @@ public abstract class AbstractPersistentCollection implements PersistentCollecti
         }
     }
 
+    /**
+     * Returns the keys of the elements if the collection is extra lazy and not yet initialized. The keys are
+     * queried once, without loading the elements, and reused when the collection is initialized.
+     *
+     * @return The keys or null if the elements have to be loaded
+     */
+    protected Collection getExtraLazyKeys() {
+        if (!extraLazy || initialized || session == null) {
+            return null;
+        }
+        if (associationKey == null) {
+            return keys;
+        }
+        if (indexer == null || !indexer.doesReturnKeys()) {
+            return null;
+        }
+        if (queriedKeys == null) {
+            queriedKeys = indexer.query(associationKey);
+        }
+        return queriedKeys;
+    }
+
+    /**
+     * Checks whether the identifier of the given object is one of the given keys
+     *
+     * @param elementKeys The keys of the elements
+     * @param o The object
+     * @return True if it is
+     */
+    protected boolean containsKeyOf(Collection elementKeys, Object o) {
+        if (o == null || elementKeys.isEmpty() || !getElementType().isInstance(o)) {
+            return false;
+        }
+        Persister persister = session.getPersister(o);
+        if (!(persister instanceof EntityPersister)) {
+            return false;
+        }
+        Serializable id = ((EntityPersister) persister).getObjectIdentifier(o);
+        if (id == null) {
+            return false;
+        }
+        if (elementKeys.contains(id)) {
+            return true;
+        }
+        // the keys may have been stored with a different type than the identifier
+        Object first = elementKeys.iterator().next();
+        if (first == null || first.getClass().isInstance(id)) {
+            return false;
+        }
+        ConversionService conversionService = session.getMappingContext().getConversionService();
+        if (!conversionService.canConvert(id.getClass(), first.getClass())) {
+            return false;
+        }
+        return elementKeys.contains(conversionService.convert(id, first.getClass()));
+    }
+
+    /**
+     * Loads the elements with the given keys
+     *
+     * @param elementKeys The keys
+     * @return The elements
+     */
+    protected List loadElements(List elementKeys) {
+        Class type = getElementType();
+        if (proxyEntities) {
+            List proxies = new ArrayList(elementKeys.size());
+            for (Object key : elementKeys) {
+                proxies.add(session.proxy(type, (Serializable) key));
+            }
+            return proxies;
+        }
+        return session.retrieveAll(type, elementKeys);
+    }
+
+    private Class getElementType() {
+        if (childType != null) {
+            return childType;
+        }
+        return indexer.getIndexedEntity().getJavaClass();
+    }
+
+    /**
+     * Iterates over the elements of an extra lazy collection, loading a page of elements at a time
+     */
+    private class PagedIterator implements Iterator {
+        private final List elementKeys;
+        private Iterator page = Collections.emptyIterator();
+        private int nextPageStart = 0;
+        private Object current;
+
+        PagedIterator(Collection elementKeys) {
+            this.elementKeys = elementKeys instanceof List ? (List) elementKeys : new ArrayList(elementKeys);
+        }
+
+        public boolean hasNext() {
+            return page.hasNext() || nextPageStart < elementKeys.size();
+        }
+
+        public Object next() {
+            if (!page.hasNext()) {
+                if (nextPageStart >= elementKeys.size()) {
+                    throw new NoSuchElementException();
+                }
+                int end = Math.min(nextPageStart + pageSize, elementKeys.size());
+                page = loadElements(elementKeys.subList(nextPageStart, end)).iterator();
+                nextPageStart = end;
+            }
+            current = page.next();
+            return current;
+        }
+
+        public void remove() {
+            // initializes the collection, the remaining keys are still iterated
+            AbstractPersistentCollection.this.remove(current);
+        }
+    }
+
     protected void loadInverseChildKeys(Session session, Class childType, Collection keys) {
         if(!keys.isEmpty()) {
             if(proxyEntities) {
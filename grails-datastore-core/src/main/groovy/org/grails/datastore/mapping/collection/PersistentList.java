@@ -68,6 +68,11 @@ public class PersistentList extends AbstractPersistentCollection implements List
     }
 
     public Object get(int index) {
+        Collection elementKeys = getExtraLazyKeys();
+        if (elementKeys instanceof List) {
+            List elementKey = ((List) elementKeys).subList(index, index + 1);
+            return loadElements(elementKey).get(0);
+        }
         initialize();
         return list.get(index);
     }
@@ -32,6 +32,12 @@ public class PersistentSortedSet extends AbstractPersistentCollection implements
         super(associationKey, session, indexer, new TreeSet());
     }
 
+    @Override
+    protected Collection getExtraLazyKeys() {
+        // the elements have to be loaded to be sorted
+        return null;
+    }
+
     public Comparator comparator() {
         return getSortedSet().comparator();
     }
@@ -55,6 +55,18 @@ public class Entity {
      */
     boolean version = true
 
+    /**
+     * @return The settings of the bounded second-level cache of the entity, for example [maxSize: 1000, timeToLive: 60000], or null if not cached
+     * @see org.grails.datastore.mapping.cache.impl.BoundedTPCacheAdapter
+     */
+    Map<String, Object> secondLevelCache = null
+
+    /**
+     * @return The batch size to use for lazy loading, or null if lazily loaded instances are loaded one at a time
+     * @see org.grails.datastore.mapping.proxy.ProxyBatchLoader
+     */
+    Integer batchSize = null
+
 
     public Object getSort() {
         return defaultSort;
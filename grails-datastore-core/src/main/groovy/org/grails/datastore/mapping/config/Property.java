@@ -36,6 +36,7 @@ public class Property implements Cloneable {
     private boolean reference = false;
     private FetchType fetchStrategy = FetchType.LAZY;
     private Boolean lazy = null;
+    private boolean extraLazy = false;
     private String targetName;
     private String generator;
     private String propertyName;
@@ -280,6 +281,23 @@ public class Property implements Cloneable {
         this.lazy = lazy;
     }
 
+    /**
+     * Whether a lazy collection answers size(), isEmpty() and contains() from the keys of its elements and loads its
+     * elements in pages while iterating, instead of loading all of its elements when first accessed.
+     *
+     * @return Whether the collection is extra lazy
+     */
+    public boolean isExtraLazy() {
+        return extraLazy;
+    }
+
+    /**
+     * @param extraLazy Set to true if the collection should be extra lazy
+     */
+    public void setExtraLazy(boolean extraLazy) {
+        this.extraLazy = extraLazy;
+    }
+
     /**
      * @return Whether the property is nullable
      */
@@ -27,4 +27,16 @@ public interface Settings {
      * The default mapping
      */
     String SETTING_DEFAULT_MAPPING = PREFIX + '.' + "default.mapping";
+    /**
+     * Whether to initialize the persistent entities in parallel
+     */
+    String SETTING_PARALLEL_INITIALIZATION = PREFIX + '.' + "parallelInitialization";
+    /**
+     * Whether to discover the properties of entities from the metadata generated at compile time
+     */
+    String SETTING_GENERATED_METADATA = PREFIX + '.' + "generatedMetadata";
+    /**
+     * Whether to only validate the changed properties of instances that track changes
+     */
+    String SETTING_VALIDATE_CHANGED_PROPERTIES_ONLY = PREFIX + '.' + "validation.changedPropertiesOnly";
 }
@@ -21,6 +21,7 @@ import java.util.concurrent.ConcurrentLinkedQueue;
 
 import javax.persistence.FlushModeType;
 
+import org.grails.datastore.mapping.cache.TPCacheAdapter;
 import org.grails.datastore.mapping.cache.TPCacheAdapterRepository;
 import org.grails.datastore.mapping.config.Entity;
 import org.grails.datastore.mapping.core.impl.*;
@@ -30,6 +31,7 @@ import org.grails.datastore.mapping.engine.*;
 import org.grails.datastore.mapping.model.MappingContext;
 import org.grails.datastore.mapping.model.PersistentEntity;
 import org.grails.datastore.mapping.model.PersistentProperty;
+import org.grails.datastore.mapping.proxy.ProxyBatchLoader;
 import org.grails.datastore.mapping.query.Query;
 import org.grails.datastore.mapping.query.api.QueryableCriteria;
 import org.grails.datastore.mapping.transactions.Transaction;
@@ -62,6 +64,11 @@ public abstract class AbstractSession<N> extends AbstractAttributeStoringSession
 
     public static final String ENTITY_ACCESS = "org.grails.gorm.ENTITY_ACCESS";
 
+    /**
+     * The default maximum number of pending inserts or updates handed to a persister at once on flush
+     */
+    public static final int DEFAULT_FLUSH_BATCH_SIZE = 100;
+
     private static final EvictionListener<PersistentEntity, Collection<PendingInsert>> EXCEPTION_THROWING_INSERT_LISTENER =
             new EvictionListener<PersistentEntity, Collection<PendingInsert>>() {
         public void onEviction(PersistentEntity key, Collection<PendingInsert> value) {
@@ -91,14 +98,15 @@ public abstract class AbstractSession<N> extends AbstractAttributeStoringSession
     protected Transaction transaction;
     private Datastore datastore;
     private FlushModeType flushMode = FlushModeType.AUTO;
-    protected Map<Class, Map<Serializable, Object>> firstLevelCache = new ConcurrentHashMap<Class, Map<Serializable, Object>>();
-    protected Map<Class, Map<Serializable, Object>> firstLevelEntryCache = new ConcurrentHashMap<Class, Map<Serializable, Object>>();
-    protected Map<Class, Map<Serializable, Object>> firstLevelEntryCacheDirtyCheck = new ConcurrentHashMap<Class, Map<Serializable, Object>>();
-    protected Map<CollectionKey, Collection> firstLevelCollectionCache = new ConcurrentHashMap<CollectionKey, Collection>();
+    private boolean concurrent = false;
+    protected Map<Class, Map<Serializable, Object>> firstLevelCache = new EntityIdentityMaps();
+    protected Map<Class, Map<Serializable, Object>> firstLevelEntryCache = new EntityIdentityMaps();
+    protected Map<Class, Map<Serializable, Object>> firstLevelEntryCacheDirtyCheck = new EntityIdentityMaps();
+    protected Map<CollectionKey, Collection> firstLevelCollectionCache = new HashMap<CollectionKey, Collection>();
 
     protected TPCacheAdapterRepository cacheAdapterRepository;
 
-    private Collection<Integer> objectsPendingOperations = new ConcurrentLinkedQueue<Integer>();
+    private Set<Integer> objectsPendingOperations = new HashSet<Integer>();
     private Map<PersistentEntity, Collection<PendingInsert>> pendingInserts =
         new Builder<PersistentEntity, Collection<PendingInsert>>()
            .listener(EXCEPTION_THROWING_INSERT_LISTENER)
@@ -120,6 +128,7 @@ public abstract class AbstractSession<N> extends AbstractAttributeStoringSession
 
     protected boolean stateless = false;
     protected boolean flushActive = false;
+    private int flushBatchSize = DEFAULT_FLUSH_BATCH_SIZE;
 
 
     public AbstractSession(Datastore datastore, MappingContext mappingContext,
@@ -157,6 +166,44 @@ public abstract class AbstractSession<N> extends AbstractAttributeStoringSession
         return this.stateless;
     }
 
+    /**
+     * @return Whether the session state may be accessed by several threads at once
+     */
+    public boolean isConcurrent() {
+        return concurrent;
+    }
+
+    /**
+     * By default the first-level cache of a session is not thread safe, since a session is normally used by a single
+     * thread. Sessions that are shared between threads must be switched to the concurrent mode, preferably before
+     * they are used. Objects already cached are retained.
+     *
+     * @param concurrent Whether the session state may be accessed by several threads at once
+     */
+    public void setConcurrent(boolean concurrent) {
+        if (this.concurrent == concurrent) {
+            return;
+        }
+        this.concurrent = concurrent;
+        firstLevelCache = copyOf(firstLevelCache, concurrent);
+        firstLevelEntryCache = copyOf(firstLevelEntryCache, concurrent);
+        firstLevelEntryCacheDirtyCheck = copyOf(firstLevelEntryCacheDirtyCheck, concurrent);
+        Map<CollectionKey, Collection> collectionCache = concurrent ?
+                new ConcurrentHashMap<CollectionKey, Collection>() : new HashMap<CollectionKey, Collection>();
+        collectionCache.putAll(firstLevelCollectionCache);
+        firstLevelCollectionCache = collectionCache;
+        Set<Integer> pending = concurrent ?
+                Collections.newSetFromMap(new ConcurrentHashMap<Integer, Boolean>()) : new HashSet<Integer>();
+        pending.addAll(objectsPendingOperations);
+        objectsPendingOperations = pending;
+    }
+
+    private static EntityIdentityMaps copyOf(Map<Class, Map<Serializable, Object>> maps, boolean concurrent) {
+        EntityIdentityMaps copy = new EntityIdentityMaps(concurrent);
+        copy.copyAll(maps);
+        return copy;
+    }
+
     public void addPostFlushOperation(Runnable runnable) {
         if (runnable != null && !postFlushOperations.contains(runnable)) {
             postFlushOperations.add(runnable);
@@ -185,10 +232,7 @@ public abstract class AbstractSession<N> extends AbstractAttributeStoringSession
     @Override
     public void registerPending(Object obj) {
         if(obj != null) {
-            final int identityHashCode = System.identityHashCode(obj);
-            if(!objectsPendingOperations.contains(identityHashCode)) {
-                objectsPendingOperations.add(identityHashCode);
-            }
+            objectsPendingOperations.add(System.identityHashCode(obj));
         }
     }
 
@@ -384,28 +428,89 @@ public abstract class AbstractSession<N> extends AbstractAttributeStoringSession
 
 
     /**
-     * The default implementation of flushPendingUpdates is to iterate over each update operation
-     * and execute them one by one. This may be suboptimal for stores that support batch update
-     * operations. Subclasses can override this method to implement batch update more efficiently.
+     * @return The maximum number of pending inserts or updates of an entity handed to its persister at once on flush
+     */
+    public int getFlushBatchSize() {
+        return flushBatchSize;
+    }
+
+    /**
+     * Sets the maximum number of pending inserts or updates of an entity handed to its persister at once on flush.
+     * Larger batches mean fewer round trips for persisters that support bulk writes at the cost of memory.
+     *
+     * @param flushBatchSize The batch size
+     */
+    public void setFlushBatchSize(int flushBatchSize) {
+        Assert.isTrue(flushBatchSize > 0, "Flush batch size must be greater than zero");
+        this.flushBatchSize = flushBatchSize;
+    }
+
+    /**
+     * The default implementation of flushPendingUpdates groups the update operations by entity and hands
+     * them to {@link EntityPersister#executePendingUpdates(List)} in batches of {@link #getFlushBatchSize()}.
+     * Subclasses can override this method to implement batch update differently.
      *
      * @param updates
      */
     protected void flushPendingUpdates(Map<PersistentEntity, Collection<PendingUpdate>> updates) {
-        for (Collection<PendingUpdate> pending : updates.values()) {
-            flushPendingOperations(pending);
+        for (Map.Entry<PersistentEntity, Collection<PendingUpdate>> entry : updates.entrySet()) {
+            Persister persister = getPersister(entry.getKey());
+            if (persister instanceof EntityPersister) {
+                flushPendingOperationsInBatches((EntityPersister) persister, entry.getValue(), false);
+            }
+            else {
+                flushPendingOperations(entry.getValue());
+            }
         }
     }
 
     /**
-     * The default implementation of flushPendingInserts is to iterate over each insert operations
-     * and execute them one by one. This may be suboptimal for stores that support batch insert
-     * operations. Subclasses can override this method to implement batch insert more efficiently.
+     * The default implementation of flushPendingInserts groups the insert operations by entity and hands
+     * them to {@link EntityPersister#executePendingInserts(List)} in batches of {@link #getFlushBatchSize()}.
+     * Subclasses can override this method to implement batch insert differently.
      *
      * @param inserts The insert operations
      */
     protected void flushPendingInserts(Map<PersistentEntity, Collection<PendingInsert>> inserts) {
-        for (Collection<PendingInsert> pending : inserts.values()) {
-            flushPendingOperations(pending);
+        for (Map.Entry<PersistentEntity, Collection<PendingInsert>> entry : inserts.entrySet()) {
+            Persister persister = getPersister(entry.getKey());
+            if (persister instanceof EntityPersister) {
+                flushPendingOperationsInBatches((EntityPersister) persister, entry.getValue(), true);
+            }
+            else {
+                flushPendingOperations(entry.getValue());
+            }
+        }
+    }
+
+    private void flushPendingOperationsInBatches(EntityPersister persister, Collection operations, boolean inserts) {
+        final int batchSize = flushBatchSize;
+        List batch = new ArrayList(Math.min(batchSize, operations.size()));
+        try {
+            // operations scheduled while flushing are appended to the queue and picked up by the iterator
+            for (Object operation : operations) {
+                batch.add(operation);
+                if (batch.size() >= batchSize) {
+                    executeBatch(persister, batch, inserts);
+                    batch.clear();
+                }
+            }
+            if (!batch.isEmpty()) {
+                executeBatch(persister, batch, inserts);
+            }
+        } catch (RuntimeException e) {
+            setFlushMode(FlushModeType.COMMIT);
+            exceptionOccurred = true;
+            throw e;
+        }
+    }
+
+    private void executeBatch(EntityPersister persister, List batch, boolean inserts) {
+        if (inserts) {
+            persister.executePendingInserts(batch);
+        }
+        else {
+            persister.executePendingUpdates(batch);
         }
     }
 
@@ -449,6 +554,8 @@ public abstract class AbstractSession<N> extends AbstractAttributeStoringSession
         firstLevelCollectionCache.clear();
         clearPendingOperations();
         attributes.clear();
+        // the keys of the proxies pending batch loading belong to the state being cleared
+        clearSessionProperty(ProxyBatchLoader.SESSION_PROPERTY);
         exceptionOccurred = false;
     }
 
@@ -461,6 +568,10 @@ public abstract class AbstractSession<N> extends AbstractAttributeStoringSession
     }
 
     private void clearMaps(Map<Class, Map<Serializable, Object>> mapOfMaps) {
+        if (mapOfMaps instanceof EntityIdentityMaps) {
+            ((EntityIdentityMaps) mapOfMaps).clearMaps();
+            return;
+        }
         for (Map<Serializable, Object> cache : mapOfMaps.values()) {
             cache.clear();
         }
@@ -483,7 +594,7 @@ public abstract class AbstractSession<N> extends AbstractAttributeStoringSession
             p = createPersister(cls, getMappingContext());
             if (p != null) {
                 if(!isStateless(((EntityPersister)p).getPersistentEntity())) {
-                    firstLevelCache.put(cls, new ConcurrentHashMap<Serializable, Object>());
+                    getOrCreate(firstLevelCache, cls);
                 }
                 persisters.put(cls, p);
             }
@@ -508,7 +619,7 @@ public abstract class AbstractSession<N> extends AbstractAttributeStoringSession
     }
 
     public boolean isCached(Class type, Serializable key) {
-        PersistentEntity entity = getMappingContext().getPersistentEntity(type.getName());
+        PersistentEntity entity = getMappingContext().getPersistentEntityForClass(type);
         if (type == null || key == null || isStateless(entity)) {
             return false;
         }
@@ -520,7 +631,7 @@ public abstract class AbstractSession<N> extends AbstractAttributeStoringSession
         if (type == null || key == null || instance == null) {
             return;
         }
-        if(isStateless(getMappingContext().getPersistentEntity(type.getName()))) return;
+        if(isStateless(getMappingContext().getPersistentEntityForClass(type))) return;
         getInstanceCache(type).put(key, instance);
     }
 
@@ -529,7 +640,7 @@ public abstract class AbstractSession<N> extends AbstractAttributeStoringSession
         if (type == null || key == null) {
             return null;
         }
-        if(isStateless(getMappingContext().getPersistentEntity(type.getName()))) return null;
+        if(isStateless(getMappingContext().getPersistentEntityForClass(type))) return null;
         return getInstanceCache(type).get(key);
     }
 
@@ -696,6 +807,7 @@ public abstract class AbstractSession<N> extends AbstractAttributeStoringSession
     public long deleteAll(QueryableCriteria criteria) {
         List list = criteria.list();
         delete(list);
+        clearTPCache(criteria.getPersistentEntity());
         return list.size();
     }
 
@@ -716,9 +828,31 @@ public abstract class AbstractSession<N> extends AbstractAttributeStoringSession
             }
         }
         persist(list);
+        clearTPCache(criteria.getPersistentEntity());
         return list.size();
     }
 
+    /**
+     * Clears the third party cache regions of the given entity and its subclasses. Subclasses that implement
+     * {@link #deleteAll(QueryableCriteria)} or {@link #updateAll(QueryableCriteria, Map)} with a bulk operation
+     * of the underlying datastore should call this, since they can't know which cached entries were affected.
+     *
+     * @param entity The entity
+     */
+    protected void clearTPCache(PersistentEntity entity) {
+        if (cacheAdapterRepository == null || entity == null) {
+            return;
+        }
+
+        TPCacheAdapter cacheAdapter = cacheAdapterRepository.getTPCacheAdapter(entity);
+        if (cacheAdapter != null) {
+            cacheAdapter.clear();
+        }
+        for (PersistentEntity child : mappingContext.getChildEntities(entity)) {
+            clearTPCache(child);
+        }
+    }
+
     public void delete(final Object obj) {
         if (obj == null) {
             return;
@@ -870,16 +1004,19 @@ public abstract class AbstractSession<N> extends AbstractAttributeStoringSession
     }
 
     private Map<Serializable, Object> getInstanceCache(Class c) {
-        Map<Serializable, Object> cache = firstLevelCache.get(c);
-        if (cache == null) {
-            cache = new ConcurrentHashMap<Serializable, Object>();
-            firstLevelCache.put(c, cache);
-        }
-        return cache;
+        return getOrCreate(firstLevelCache, c);
     }
 
     private Map<Serializable, Object> getEntryCache(Class c, boolean forDirtyCheck) {
         Map<Class, Map<Serializable, Object>> caches = forDirtyCheck ? firstLevelEntryCacheDirtyCheck : firstLevelEntryCache;
+        return getOrCreate(caches, c);
+    }
+
+    private static Map<Serializable, Object> getOrCreate(Map<Class, Map<Serializable, Object>> caches, Class c) {
+        if (caches instanceof EntityIdentityMaps) {
+            return ((EntityIdentityMaps) caches).getOrCreate(c);
+        }
+        // the caches were replaced by a subclass
         Map<Serializable, Object> cache = caches.get(c);
         if (cache == null) {
             cache = new ConcurrentHashMap<Serializable, Object>();
@@ -0,0 +1,395 @@
+/* Copyright (C) 2016 original authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.grails.datastore.mapping.core.impl;
+
+import java.io.Serializable;
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+/**
+ * A map from identifier to object for a single entity type, used as the first-level cache of a session.
+ *
+ * The map uses open addressing with linear probing. Integral identifiers ({@link Long}, {@link Integer},
+ * {@link Short} and {@link Byte}) are stored unboxed in a separate table, so that <code>1</code> and <code>1L</code>
+ * are the same key and lookups do not call <code>hashCode</code> or <code>equals</code>. Null values are not
+ * supported, putting null removes the key.
+ *
+ * This class is not thread safe.
+ *
+ * @author Graeme Rocher
+ * @since 6.0
+ */
+@SuppressWarnings("unchecked")
+public class EntityIdentityMap<V> extends AbstractMap<Serializable, V> {
+
+    private static final int INITIAL_CAPACITY = 16;
+
+    private long[] longKeys;
+    private Object[] longValues;
+    private int longSize;
+
+    private Object[] objectKeys;
+    private Object[] objectValues;
+    private int objectSize;
+
+    public V get(long id) {
+        if (longSize == 0) {
+            return null;
+        }
+        int mask = longKeys.length - 1;
+        int i = hash(id) & mask;
+        Object value;
+        while ((value = longValues[i]) != null) {
+            if (longKeys[i] == id) {
+                return (V) value;
+            }
+            i = (i + 1) & mask;
+        }
+        return null;
+    }
+
+    public V put(long id, V value) {
+        if (value == null) {
+            return remove(id);
+        }
+        if (longKeys == null) {
+            longKeys = new long[INITIAL_CAPACITY];
+            longValues = new Object[INITIAL_CAPACITY];
+        }
+        else if ((longSize + 1) * 2 > longKeys.length) {
+            resizeLongTable(longKeys.length * 2);
+        }
+        int mask = longKeys.length - 1;
+        int i = hash(id) & mask;
+        Object existing;
+        while ((existing = longValues[i]) != null) {
+            if (longKeys[i] == id) {
+                longValues[i] = value;
+                return (V) existing;
+            }
+            i = (i + 1) & mask;
+        }
+        longKeys[i] = id;
+        longValues[i] = value;
+        longSize++;
+        return null;
+    }
+
+    public V remove(long id) {
+        if (longSize == 0) {
+            return null;
+        }
+        int mask = longKeys.length - 1;
+        int i = hash(id) & mask;
+        Object value;
+        while ((value = longValues[i]) != null) {
+            if (longKeys[i] == id) {
+                removeLongAt(i);
+                return (V) value;
+            }
+            i = (i + 1) & mask;
+        }
+        return null;
+    }
+
+    @Override
+    public V get(Object key) {
+        if (key == null) {
+            return null;
+        }
+        if (isIntegral(key)) {
+            return get(((Number) key).longValue());
+        }
+        if (objectSize == 0) {
+            return null;
+        }
+        int mask = objectKeys.length - 1;
+        int i = hash(key.hashCode()) & mask;
+        Object k;
+        while ((k = objectKeys[i]) != null) {
+            if (k.equals(key)) {
+                return (V) objectValues[i];
+            }
+            i = (i + 1) & mask;
+        }
+        return null;
+    }
+
+    @Override
+    public V put(Serializable key, V value) {
+        if (key == null) {
+            throw new NullPointerException("Identifier cannot be null");
+        }
+        if (isIntegral(key)) {
+            return put(((Number) key).longValue(), value);
+        }
+        if (value == null) {
+            return remove(key);
+        }
+        if (objectKeys == null) {
+            objectKeys = new Object[INITIAL_CAPACITY];
+            objectValues = new Object[INITIAL_CAPACITY];
+        }
+        else if ((objectSize + 1) * 2 > objectKeys.length) {
+            resizeObjectTable(objectKeys.length * 2);
+        }
+        int mask = objectKeys.length - 1;
+        int i = hash(key.hashCode()) & mask;
+        Object k;
+        while ((k = objectKeys[i]) != null) {
+            if (k.equals(key)) {
+                Object existing = objectValues[i];
+                objectValues[i] = value;
+                return (V) existing;
+            }
+            i = (i + 1) & mask;
+        }
+        objectKeys[i] = key;
+        objectValues[i] = value;
+        objectSize++;
+        return null;
+    }
+
+    @Override
+    public V remove(Object key) {
+        if (key == null) {
+            return null;
+        }
+        if (isIntegral(key)) {
+            return remove(((Number) key).longValue());
+        }
+        if (objectSize == 0) {
+            return null;
+        }
+        int mask = objectKeys.length - 1;
+        int i = hash(key.hashCode()) & mask;
+        Object k;
+        while ((k = objectKeys[i]) != null) {
+            if (k.equals(key)) {
+                Object value = objectValues[i];
+                removeObjectAt(i);
+                return (V) value;
+            }
+            i = (i + 1) & mask;
+        }
+        return null;
+    }
+
+    @Override
+    public boolean containsKey(Object key) {
+        return get(key) != null;
+    }
+
+    @Override
+    public boolean containsValue(Object value) {
+        return value != null && (contains(longValues, value) || contains(objectValues, value));
+    }
+
+    @Override
+    public int size() {
+        return longSize + objectSize;
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return longSize == 0 && objectSize == 0;
+    }
+
+    @Override
+    public void clear() {
+        if (longSize > 0) {
+            Arrays.fill(longValues, null);
+            longSize = 0;
+        }
+        if (objectSize > 0) {
+            Arrays.fill(objectKeys, null);
+            Arrays.fill(objectValues, null);
+            objectSize = 0;
+        }
+    }
+
+    /**
+     * @return A view of the entries. Its iterator does not support removal
+     */
+    @Override
+    public Set<Entry<Serializable, V>> entrySet() {
+        return new AbstractSet<Entry<Serializable, V>>() {
+            @Override
+            public Iterator<Entry<Serializable, V>> iterator() {
+                return new EntryIterator();
+            }
+
+            @Override
+            public int size() {
+                return EntityIdentityMap.this.size();
+            }
+        };
+    }
+
+    private static boolean isIntegral(Object key) {
+        return key instanceof Long || key instanceof Integer || key instanceof Short || key instanceof Byte;
+    }
+
+    private static boolean contains(Object[] values, Object value) {
+        if (values == null) {
+            return false;
+        }
+        for (Object v : values) {
+            if (v != null && v.equals(value)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static int hash(long id) {
+        return hash((int) (id ^ (id >>> 32)));
+    }
+
+    private static int hash(int h) {
+        h *= 0x9E3779B9;
+        return h ^ (h >>> 16);
+    }
+
+    private void resizeLongTable(int capacity) {
+        long[] oldKeys = longKeys;
+        Object[] oldValues = longValues;
+        longKeys = new long[capacity];
+        longValues = new Object[capacity];
+        int mask = capacity - 1;
+        for (int j = 0; j < oldValues.length; j++) {
+            if (oldValues[j] != null) {
+                int i = hash(oldKeys[j]) & mask;
+                while (longValues[i] != null) {
+                    i = (i + 1) & mask;
+                }
+                longKeys[i] = oldKeys[j];
+                longValues[i] = oldValues[j];
+            }
+        }
+    }
+
+    private void resizeObjectTable(int capacity) {
+        Object[] oldKeys = objectKeys;
+        Object[] oldValues = objectValues;
+        objectKeys = new Object[capacity];
+        objectValues = new Object[capacity];
+        int mask = capacity - 1;
+        for (int j = 0; j < oldKeys.length; j++) {
+            if (oldKeys[j] != null) {
+                int i = hash(oldKeys[j].hashCode()) & mask;
+                while (objectKeys[i] != null) {
+                    i = (i + 1) & mask;
+                }
+                objectKeys[i] = oldKeys[j];
+                objectValues[i] = oldValues[j];
+            }
+        }
+    }
+
+    // backward shift deletion, keeps probe sequences intact without tombstones
+    private void removeLongAt(int gap) {
+        int mask = longKeys.length - 1;
+        int i = (gap + 1) & mask;
+        while (longValues[i] != null) {
+            int home = hash(longKeys[i]) & mask;
+            if (((i - home) & mask) >= ((i - gap) & mask)) {
+                longKeys[gap] = longKeys[i];
+                longValues[gap] = longValues[i];
+                gap = i;
+            }
+            i = (i + 1) & mask;
+        }
+        longKeys[gap] = 0;
+        longValues[gap] = null;
+        longSize--;
+    }
+
+    private void removeObjectAt(int gap) {
+        int mask = objectKeys.length - 1;
+        int i = (gap + 1) & mask;
+        while (objectKeys[i] != null) {
+            int home = hash(objectKeys[i].hashCode()) & mask;
+            if (((i - home) & mask) >= ((i - gap) & mask)) {
+                objectKeys[gap] = objectKeys[i];
+                objectValues[gap] = objectValues[i];
+                gap = i;
+            }
+            i = (i + 1) & mask;
+        }
+        objectKeys[gap] = null;
+        objectValues[gap] = null;
+        objectSize--;
+    }
+
+    private class EntryIterator implements Iterator<Entry<Serializable, V>> {
+        private final Object[] longValuesSnapshot = longValues;
+        private final long[] longKeysSnapshot = longKeys;
+        private final Object[] objectKeysSnapshot = objectKeys;
+        private final Object[] objectValuesSnapshot = objectValues;
+        private int longIndex = advanceLong(0);
+        private int objectIndex = advanceObject(0);
+
+        public boolean hasNext() {
+            return longIndex >= 0 || objectIndex >= 0;
+        }
+
+        public Entry<Serializable, V> next() {
+            Entry<Serializable, V> entry;
+            if (longIndex >= 0) {
+                entry = new SimpleImmutableEntry<Serializable, V>(longKeysSnapshot[longIndex], (V) longValuesSnapshot[longIndex]);
+                longIndex = advanceLong(longIndex + 1);
+            }
+            else if (objectIndex >= 0) {
+                entry = new SimpleImmutableEntry<Serializable, V>((Serializable) objectKeysSnapshot[objectIndex], (V) objectValuesSnapshot[objectIndex]);
+                objectIndex = advanceObject(objectIndex + 1);
+            }
+            else {
+                throw new NoSuchElementException();
+            }
+            return entry;
+        }
+
+        public void remove() {
+            throw new UnsupportedOperationException("remove");
+        }
+
+        private int advanceLong(int from) {
+            if (longValuesSnapshot != null) {
+                for (int i = from; i < longValuesSnapshot.length; i++) {
+                    if (longValuesSnapshot[i] != null) {
+                        return i;
+                    }
+                }
+            }
+            return -1;
+        }
+
+        private int advanceObject(int from) {
+            if (objectKeysSnapshot != null) {
+                for (int i = from; i < objectKeysSnapshot.length; i++) {
+                    if (objectKeysSnapshot[i] != null) {
+                        return i;
+                    }
+                }
+            }
+            return -1;
+        }
+    }
+}
@@ -0,0 +1,266 @@
+/* Copyright (C) 2016 original authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.grails.datastore.mapping.core.impl;
+
+import java.io.Serializable;
+import java.util.AbstractMap;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Holds one identifier to object map per entity type for a session.
+ *
+ * The maps of a session are held in a small open addressing table keyed by the identity of the type, which starts
+ * with room for a few types and grows with the number of types the session actually uses. The maps are
+ * {@link EntityIdentityMap} instances, which are not thread safe. A session that is shared between threads
+ * can use the concurrent mode instead, which is backed by {@link ConcurrentHashMap} instances.
+ *
+ * This class is a {@link Map} of type to map, so that it can be used where a session used to hold its caches in a
+ * map of maps. Unlike {@link #clearMaps()}, {@link #clear()} removes the maps of all types.
+ *
+ * @author Graeme Rocher
+ * @since 6.0
+ */
+@SuppressWarnings({"rawtypes", "unchecked"})
+public class EntityIdentityMaps extends AbstractMap<Class, Map<Serializable, Object>> {
+
+    private static final int INITIAL_CAPACITY = 8;
+
+    private final boolean concurrent;
+    private Class[] types;
+    private Map<Serializable, Object>[] maps;
+    private int size;
+    private ConcurrentMap<Class, Map<Serializable, Object>> concurrentMaps;
+
+    public EntityIdentityMaps() {
+        this(false);
+    }
+
+    /**
+     * @param concurrent Whether the maps may be accessed by several threads at once
+     */
+    public EntityIdentityMaps(boolean concurrent) {
+        this.concurrent = concurrent;
+        if (concurrent) {
+            concurrentMaps = new ConcurrentHashMap<Class, Map<Serializable, Object>>();
+        }
+        else {
+            types = new Class[INITIAL_CAPACITY];
+            maps = new Map[INITIAL_CAPACITY];
+        }
+    }
+
+    public boolean isConcurrent() {
+        return concurrent;
+    }
+
+    /**
+     * @param type The entity type
+     * @return The map of the given type or null if nothing was cached for it yet
+     */
+    @Override
+    public Map<Serializable, Object> get(Object type) {
+        if (concurrent) {
+            return type == null ? null : concurrentMaps.get(type);
+        }
+        int index = indexOf(type);
+        return index < 0 ? null : maps[index];
+    }
+
+    /**
+     * @param type The entity type
+     * @return The map of the given type, created if necessary
+     */
+    public Map<Serializable, Object> getOrCreate(Class type) {
+        if (concurrent) {
+            Map<Serializable, Object> map = concurrentMaps.get(type);
+            if (map == null) {
+                Map<Serializable, Object> newMap = new ConcurrentHashMap<Serializable, Object>();
+                map = concurrentMaps.putIfAbsent(type, newMap);
+                if (map == null) {
+                    map = newMap;
+                }
+            }
+            return map;
+        }
+
+        int index = indexOf(type);
+        if (index >= 0) {
+            return maps[index];
+        }
+        Map<Serializable, Object> map = new EntityIdentityMap<Object>();
+        insert(type, map);
+        return map;
+    }
+
+    @Override
+    public Map<Serializable, Object> put(Class type, Map<Serializable, Object> map) {
+        if (concurrent) {
+            return concurrentMaps.put(type, map);
+        }
+        int index = indexOf(type);
+        if (index >= 0) {
+            Map<Serializable, Object> previous = maps[index];
+            maps[index] = map;
+            return previous;
+        }
+        insert(type, map);
+        return null;
+    }
+
+    @Override
+    public Map<Serializable, Object> remove(Object type) {
+        if (concurrent) {
+            return type == null ? null : concurrentMaps.remove(type);
+        }
+        int index = indexOf(type);
+        if (index < 0) {
+            return null;
+        }
+        Map<Serializable, Object> previous = maps[index];
+        types[index] = null;
+        maps[index] = null;
+        size--;
+        // reinsert the rest of the cluster, so that lookups don't stop at the freed slot
+        int mask = types.length - 1;
+        for (int i = (index + 1) & mask; types[i] != null; i = (i + 1) & mask) {
+            Class displaced = types[i];
+            Map<Serializable, Object> map = maps[i];
+            types[i] = null;
+            maps[i] = null;
+            size--;
+            insert(displaced, map);
+        }
+        return previous;
+    }
+
+    @Override
+    public boolean containsKey(Object type) {
+        return get(type) != null;
+    }
+
+    @Override
+    public int size() {
+        return concurrent ? concurrentMaps.size() : size;
+    }
+
+    /**
+     * Removes the maps of all types
+     */
+    @Override
+    public void clear() {
+        if (concurrent) {
+            concurrentMaps.clear();
+        }
+        else {
+            Arrays.fill(types, null);
+            Arrays.fill(maps, null);
+            size = 0;
+        }
+    }
+
+    /**
+     * @return The maps by type. In non-concurrent mode this is a copy, which is not updated by later changes
+     */
+    @Override
+    public Set<Entry<Class, Map<Serializable, Object>>> entrySet() {
+        if (concurrent) {
+            return concurrentMaps.entrySet();
+        }
+        Map<Class, Map<Serializable, Object>> copy = new LinkedHashMap<Class, Map<Serializable, Object>>(size * 2);
+        for (int i = 0; i < types.length; i++) {
+            if (types[i] != null) {
+                copy.put(types[i], maps[i]);
+            }
+        }
+        return copy.entrySet();
+    }
+
+    /**
+     * Copies all the cached objects of the given maps into the maps of these maps
+     *
+     * @param other The other maps
+     */
+    public void copyAll(Map<Class, Map<Serializable, Object>> other) {
+        for (Map.Entry<Class, Map<Serializable, Object>> entry : other.entrySet()) {
+            getOrCreate(entry.getKey()).putAll(entry.getValue());
+        }
+    }
+
+    /**
+     * Clears the maps of all types, which are retained
+     */
+    public void clearMaps() {
+        if (concurrent) {
+            for (Map<Serializable, Object> map : concurrentMaps.values()) {
+                map.clear();
+            }
+        }
+        else {
+            for (Map<Serializable, Object> map : maps) {
+                if (map != null) {
+                    map.clear();
+                }
+            }
+        }
+    }
+
+    private int indexOf(Object type) {
+        if (type == null) {
+            return -1;
+        }
+        int mask = types.length - 1;
+        for (int i = System.identityHashCode(type) & mask; ; i = (i + 1) & mask) {
+            Class candidate = types[i];
+            if (candidate == type) {
+                return i;
+            }
+            if (candidate == null) {
+                return -1;
+            }
+        }
+    }
+
+    private void insert(Class type, Map<Serializable, Object> map) {
+        if (type == null) {
+            throw new IllegalArgumentException("The type of an entity identity map cannot be null");
+        }
+        // keep the table at most half full
+        if ((size + 1) * 2 > types.length) {
+            Class[] oldTypes = types;
+            Map<Serializable, Object>[] oldMaps = maps;
+            types = new Class[oldTypes.length * 2];
+            maps = new Map[oldTypes.length * 2];
+            size = 0;
+            for (int i = 0; i < oldTypes.length; i++) {
+                if (oldTypes[i] != null) {
+                    insert(oldTypes[i], oldMaps[i]);
+                }
+            }
+        }
+        int mask = types.length - 1;
+        int i = System.identityHashCode(type) & mask;
+        while (types[i] != null) {
+            i = (i + 1) & mask;
+        }
+        types[i] = type;
+        maps[i] = map;
+        size++;
+    }
+}
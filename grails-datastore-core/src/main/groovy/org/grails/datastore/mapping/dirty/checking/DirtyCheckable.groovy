@@ -5,6 +5,9 @@ import groovy.transform.CompileStatic
 /**
  * Interface to classes that are able to track changes to their internal state.
  *
+ * Properties that were assigned an ordinal by the dirty checking transformation (see {@link DirtyPropertyOrdinals})
+ * are tracked in a bitmask and their original values are kept in an array that is only allocated on the first change.
+ * Any other property is tracked by name.
  *
  * @author Graeme Rocher
  * @since 2.0
@@ -14,6 +17,9 @@ public trait DirtyCheckable {
 
     public static final  String DIRTY_CLASS_MARKER = '$DIRTY_MARKER'
 
+    private transient boolean $trackingChanges
+    private transient long $dirtyPropertyBits
+    private transient Object[] $originalValues
     private transient Map<String, Object> $changedProperties
 
     /**
@@ -21,14 +27,17 @@ public trait DirtyCheckable {
      * changes
      */
     void trackChanges() {
-        $changedProperties = new LinkedHashMap<String, Object>()
+        $trackingChanges = true
+        $dirtyPropertyBits = 0L
+        $originalValues = null
+        $changedProperties = null
     }
 
     /**
      * @return True if the instance has any changes
      */
     boolean hasChanged() {
-        $changedProperties == null || $changedProperties
+        !$trackingChanges || $dirtyPropertyBits != 0L || ($changedProperties != null && !$changedProperties.isEmpty())
     }
 
     /**
@@ -36,14 +45,34 @@ public trait DirtyCheckable {
      * @return True if the given property has any changes
      */
     boolean hasChanged(String propertyName) {
-        $changedProperties == null ||  $changedProperties && $changedProperties.containsKey(propertyName)
+        if(!$trackingChanges) {
+            return true
+        }
+        int ordinal = DirtyPropertyOrdinals.forClass(getClass()).getOrdinal(propertyName)
+        if(ordinal > -1) {
+            return ($dirtyPropertyBits & (1L << ordinal)) != 0L
+        }
+        return $changedProperties != null && $changedProperties.containsKey(propertyName)
+    }
+
+    /**
+     * @return True if this instance tracks changes and was not marked dirty as a whole, so that {@link #hasChanged(String)}
+     * only reports the properties that have actually changed
+     */
+    boolean tracksPropertyChanges() {
+        $trackingChanges && ($changedProperties == null || !$changedProperties.containsKey(getClass().name))
     }
 
     /**
      * Marks this instance as dirty
      */
     void markDirty() {
-        if( $changedProperties != null) $changedProperties.put getClass().name, DIRTY_CLASS_MARKER
+        if($trackingChanges) {
+            if($changedProperties == null) {
+                $changedProperties = new LinkedHashMap<String, Object>()
+            }
+            $changedProperties.put getClass().name, DIRTY_CLASS_MARKER
+        }
     }
 
     /**
@@ -51,8 +80,8 @@ public trait DirtyCheckable {
      * @param propertyName The property name
      */
     void markDirty(String propertyName) {
-        if( $changedProperties != null && !$changedProperties.containsKey(propertyName))  {
-            $changedProperties.put propertyName, ((GroovyObject)this).getProperty(propertyName)
+        if($trackingChanges && !hasChanged(propertyName)) {
+            recordOriginalValue(propertyName, ((GroovyObject)this).getProperty(propertyName))
         }
     }
 
@@ -62,10 +91,10 @@ public trait DirtyCheckable {
      * @param newValue The new value
      */
     void markDirty(String propertyName, newValue) {
-        if( $changedProperties != null && !$changedProperties.containsKey(propertyName))  {
+        if($trackingChanges && !hasChanged(propertyName)) {
             def oldValue = ((GroovyObject) this).getProperty(propertyName)
             if(newValue != oldValue) {
-                $changedProperties.put propertyName, oldValue
+                recordOriginalValue(propertyName, oldValue)
             }
         }
     }
@@ -76,9 +105,31 @@ public trait DirtyCheckable {
      * @param newValue The new value
      */
     void markDirty(String propertyName, newValue, oldValue) {
-        if( $changedProperties != null && !$changedProperties.containsKey(propertyName))  {
+        if($trackingChanges && !hasChanged(propertyName)) {
             if(newValue != oldValue) {
-                $changedProperties.put propertyName, oldValue
+                recordOriginalValue(propertyName, oldValue)
+            }
+        }
+    }
+
+    /**
+     * Marks the property with the given ordinal as dirty. Used by the setters generated by the dirty checking transformation
+     *
+     * @param ordinal The ordinal of the property
+     * @param propertyName The property name
+     * @param newValue The new value
+     * @param oldValue The old value
+     */
+    void markDirty(int ordinal, String propertyName, newValue, oldValue) {
+        if($trackingChanges) {
+            if(ordinal < DirtyPropertyOrdinals.MAX_ORDINALS) {
+                long bit = 1L << ordinal
+                if(($dirtyPropertyBits & bit) == 0L && newValue != oldValue) {
+                    storeOriginalValue(ordinal, oldValue)
+                }
+            }
+            else {
+                markDirty(propertyName, newValue, oldValue)
             }
         }
     }
@@ -87,12 +138,28 @@ public trait DirtyCheckable {
      * @return A list of the dirty property names
      */
     List<String> listDirtyPropertyNames() {
+        if(!$trackingChanges) {
+            return Collections.emptyList()
+        }
+        List<String> names = new ArrayList<String>()
+        long bits = $dirtyPropertyBits
+        if(bits != 0L) {
+            DirtyPropertyOrdinals ordinals = DirtyPropertyOrdinals.forClass(getClass())
+            while(bits != 0L) {
+                int ordinal = Long.numberOfTrailingZeros(bits)
+                names.add(ordinals.getPropertyName(ordinal))
+                bits &= bits - 1L
+            }
+        }
         if($changedProperties != null) {
-            return Collections.unmodifiableList(
-                $changedProperties.keySet().findAll { String n -> n != getClass().name }.toList()
-            )
+            String className = getClass().name
+            for(String name in $changedProperties.keySet()) {
+                if(name != className) {
+                    names.add(name)
+                }
+            }
         }
-        return Collections.emptyList()
+        return Collections.unmodifiableList(names)
     }
 
     /**
@@ -102,10 +169,36 @@ public trait DirtyCheckable {
      * @return The original value
      */
     Object getOriginalValue(String propertyName) {
-        if($changedProperties != null && $changedProperties.containsKey(propertyName)) {
-            return $changedProperties.get(propertyName)
-        } else {
-            return null
+        if($trackingChanges) {
+            int ordinal = DirtyPropertyOrdinals.forClass(getClass()).getOrdinal(propertyName)
+            if(ordinal > -1) {
+                return ($dirtyPropertyBits & (1L << ordinal)) != 0L ? $originalValues[ordinal] : null
+            }
+            if($changedProperties != null) {
+                return $changedProperties.get(propertyName)
+            }
+        }
+        return null
+    }
+
+    private void recordOriginalValue(String propertyName, Object oldValue) {
+        int ordinal = DirtyPropertyOrdinals.forClass(getClass()).getOrdinal(propertyName)
+        if(ordinal > -1) {
+            storeOriginalValue(ordinal, oldValue)
+        }
+        else {
+            if($changedProperties == null) {
+                $changedProperties = new LinkedHashMap<String, Object>()
+            }
+            $changedProperties.put propertyName, oldValue
+        }
+    }
+
+    private void storeOriginalValue(int ordinal, Object oldValue) {
+        if($originalValues == null) {
+            $originalValues = new Object[Math.min(DirtyPropertyOrdinals.forClass(getClass()).size(), DirtyPropertyOrdinals.MAX_ORDINALS)]
         }
+        $originalValues[ordinal] = oldValue
+        $dirtyPropertyBits |= (1L << ordinal)
     }
-}
\ No newline at end of file
+}
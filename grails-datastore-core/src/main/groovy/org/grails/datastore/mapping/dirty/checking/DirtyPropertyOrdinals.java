@@ -0,0 +1,132 @@
+/* Copyright (C) 2016 original authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.grails.datastore.mapping.dirty.checking;
+
+import java.lang.reflect.Field;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The ordinals of the dirty checked properties of a class.
+ *
+ * The dirty checking transformation declares the names of the properties it tracks in each class in the static
+ * field {@link #PROPERTY_NAMES}. The ordinals of a class hierarchy start with the properties of the root class, so
+ * the ordinal of a property is the number of properties tracked by the super classes plus its position in the
+ * names of its declaring class. The first {@link #MAX_ORDINALS} properties are tracked in a bitmask by
+ * {@link DirtyCheckable}, any further properties by name.
+ *
+ * @author Graeme Rocher
+ * @since 6.0
+ */
+public final class DirtyPropertyOrdinals {
+
+    /**
+     * The name of the static field holding the names of the properties tracked by a class
+     */
+    public static final String PROPERTY_NAMES = "$DIRTY_PROPERTY_NAMES";
+
+    /**
+     * The name of the static field holding the ordinal of the first property tracked by a class
+     */
+    public static final String ORDINAL_BASE = "$DIRTY_ORDINAL_BASE";
+
+    /**
+     * The number of properties that can be tracked in a bitmask
+     */
+    public static final int MAX_ORDINALS = 64;
+
+    private static final DirtyPropertyOrdinals NONE = new DirtyPropertyOrdinals(new String[0]);
+
+    private static final ClassValue<DirtyPropertyOrdinals> ORDINALS = new ClassValue<DirtyPropertyOrdinals>() {
+        @Override
+        protected DirtyPropertyOrdinals computeValue(Class<?> type) {
+            List<String> names = new ArrayList<String>();
+            Class<?> superClass = type.getSuperclass();
+            if(superClass != null) {
+                for (String name : forClass(superClass).propertyNames) {
+                    names.add(name);
+                }
+            }
+            try {
+                Field field = type.getDeclaredField(PROPERTY_NAMES);
+                for (String name : (String[]) field.get(null)) {
+                    names.add(name);
+                }
+            } catch (NoSuchFieldException e) {
+                // no properties tracked by this class
+            } catch (IllegalAccessException e) {
+                // no properties tracked by this class
+            }
+            return names.isEmpty() ? NONE : new DirtyPropertyOrdinals(names.toArray(new String[names.size()]));
+        }
+    };
+
+    private final String[] propertyNames;
+    private final Map<String, Integer> ordinalsByName;
+
+    private DirtyPropertyOrdinals(String[] propertyNames) {
+        this.propertyNames = propertyNames;
+        this.ordinalsByName = new HashMap<String, Integer>(propertyNames.length * 2);
+        // a property redeclared by a subclass is tracked through the setter of the subclass
+        for (int i = 0; i < propertyNames.length; i++) {
+            ordinalsByName.put(propertyNames[i], i);
+        }
+    }
+
+    /**
+     * @param type The class
+     * @return The ordinals of the properties of the class
+     */
+    public static DirtyPropertyOrdinals forClass(Class<?> type) {
+        return ORDINALS.get(type);
+    }
+
+    /**
+     * Used by the static initializer of transformed classes
+     *
+     * @param type The class
+     * @return The ordinal of the first property tracked by the class
+     */
+    public static int getOrdinalBase(Class<?> type) {
+        Class<?> superClass = type.getSuperclass();
+        return superClass == null ? 0 : forClass(superClass).size();
+    }
+
+    /**
+     * @param propertyName The property name
+     * @return The ordinal of the property or -1 if it is not tracked in a bitmask
+     */
+    public int getOrdinal(String propertyName) {
+        Integer ordinal = ordinalsByName.get(propertyName);
+        return ordinal != null && ordinal < MAX_ORDINALS ? ordinal : -1;
+    }
+
+    /**
+     * @param ordinal The ordinal
+     * @return The name of the property with the given ordinal
+     */
+    public String getPropertyName(int ordinal) {
+        return propertyNames[ordinal];
+    }
+
+    /**
+     * @return The number of properties tracked by the class and its super classes
+     */
+    public int size() {
+        return propertyNames.length;
+    }
+}
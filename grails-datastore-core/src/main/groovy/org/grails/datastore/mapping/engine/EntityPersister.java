@@ -22,6 +22,9 @@ import java.util.List;
 import org.grails.datastore.mapping.config.Property;
 import org.grails.datastore.mapping.core.Session;
 import org.grails.datastore.mapping.core.SessionImplementor;
+import org.grails.datastore.mapping.core.impl.PendingInsert;
+import org.grails.datastore.mapping.core.impl.PendingOperationExecution;
+import org.grails.datastore.mapping.core.impl.PendingUpdate;
 import org.grails.datastore.mapping.engine.event.PostDeleteEvent;
 import org.grails.datastore.mapping.engine.event.PostInsertEvent;
 import org.grails.datastore.mapping.engine.event.PostLoadEvent;
@@ -262,6 +265,34 @@ public abstract class EntityPersister implements Persister {
         deleteEntity(getPersistentEntity(), obj);
     }
 
+    /**
+     * Executes a batch of pending inserts for the entity of this persister when the session is flushed.
+     * The default implementation executes them one by one. Persisters for datastores that can write
+     * many entries in a single round trip can override this to do so.
+     *
+     * @param inserts The pending inserts, in the order they were scheduled
+     */
+    @SuppressWarnings("rawtypes")
+    public void executePendingInserts(List<PendingInsert> inserts) {
+        for (PendingInsert insert : inserts) {
+            PendingOperationExecution.executePendingOperation(insert);
+        }
+    }
+
+    /**
+     * Executes a batch of pending updates for the entity of this persister when the session is flushed.
+     * The default implementation executes them one by one. Persisters for datastores that can write
+     * many entries in a single round trip can override this to do so.
+     *
+     * @param updates The pending updates, in the order they were scheduled
+     */
+    @SuppressWarnings("rawtypes")
+    public void executePendingUpdates(List<PendingUpdate> updates) {
+        for (PendingUpdate update : updates) {
+            PendingOperationExecution.executePendingOperation(update);
+        }
+    }
+
     protected abstract void deleteEntity(PersistentEntity pe, Object obj);
 
     protected abstract void deleteEntities(PersistentEntity pe, @SuppressWarnings("rawtypes") Iterable objects);
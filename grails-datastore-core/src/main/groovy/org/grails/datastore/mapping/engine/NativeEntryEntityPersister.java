@@ -75,6 +75,8 @@ import org.springframework.dao.CannotAcquireLockException;
 public abstract class NativeEntryEntityPersister<T, K> extends ThirdPartyCacheEntityPersister<T> {
     public static final String EMBEDDED_PREFIX = "embedded:";
     protected ClassMapping classMapping;
+    // whether a subclass overrides executeInsert, in which case inserts are not executed in bulk
+    private Boolean overridesExecuteInsert;
 
     public NativeEntryEntityPersister(MappingContext mappingContext, PersistentEntity entity,
               Session session, ApplicationEventPublisher publisher) {
@@ -122,6 +124,7 @@ public abstract class NativeEntryEntityPersister<T, K> extends ThirdPartyCacheEn
             session.setFlushMode(FlushModeType.COMMIT);
             cascadeBeforeDelete(persistentEntity, entityAccess, key, obj);
             deleteEntry(getEntityFamily(), key, obj);
+            evictFromTPCache(persistentEntity, (Serializable) key);
             cascadeAfterDelete(persistentEntity, entityAccess, key, obj);
         }
         finally {
@@ -139,7 +142,7 @@ public abstract class NativeEntryEntityPersister<T, K> extends ThirdPartyCacheEn
         Collection collection = ((Collection) propValue);
         for (Iterator iter = collection.iterator(); iter.hasNext(); ) {
             Object child = iter.next();
-            deleteEntity(getMappingContext().getPersistentEntity(child.getClass().getName()), child);
+            deleteEntity(getMappingContext().getPersistentEntityForClass(child.getClass()), child);
             iter.remove();
         }
     }
@@ -248,6 +251,9 @@ public abstract class NativeEntryEntityPersister<T, K> extends ThirdPartyCacheEn
 
             if (!keys.isEmpty()) {
                 deleteEntries(getEntityFamily(), new ArrayList<K>(keys));
+                for (K key : keys) {
+                    evictFromTPCache(persistentEntity, (Serializable) key);
+                }
                 for (Object object : deleteList) {
                     firePostDeleteEvent(persistentEntity, createEntityAccess(persistentEntity, object));
                 }
@@ -544,7 +550,7 @@ public abstract class NativeEntryEntityPersister<T, K> extends ThirdPartyCacheEn
                         if (isLazy) {
                             if (List.class.isAssignableFrom(association.getType())) {
                                 ea.setPropertyNoConversion(association.getName(),
-                                        new PersistentList(nativeKey, session, indexer));
+                                        configureExtraLazy(new PersistentList(nativeKey, session, indexer), associationPropertyMapping));
                             }
                             else if (SortedSet.class.isAssignableFrom(association.getType())) {
                                 ea.setPropertyNoConversion(association.getName(),
@@ -552,7 +558,7 @@ public abstract class NativeEntryEntityPersister<T, K> extends ThirdPartyCacheEn
                             }
                             else if (Set.class.isAssignableFrom(association.getType())) {
                                 ea.setPropertyNoConversion(association.getName(),
-                                        new PersistentSet(nativeKey, session, indexer));
+                                        configureExtraLazy(new PersistentSet(nativeKey, session, indexer), associationPropertyMapping));
                             }
                         }
                         else {
@@ -583,11 +589,11 @@ public abstract class NativeEntryEntityPersister<T, K> extends ThirdPartyCacheEn
                             Collection keys = getManyToManyKeys(persistentEntity, obj, nativeKey,
                                     nativeEntry, manyToMany);
                             if (List.class.isAssignableFrom(manyToMany.getType())) {
-                                collection = new PersistentList(keys, childType, session);
+                                collection = configureExtraLazy(new PersistentList(keys, childType, session), associationPropertyMapping);
                                 ea.setPropertyNoConversion(manyToMany.getName(), collection);
                             }
                             else if (Set.class.isAssignableFrom(manyToMany.getType())) {
-                                collection = new PersistentSet(keys, childType, session);
+                                collection = configureExtraLazy(new PersistentSet(keys, childType, session), associationPropertyMapping);
                                 ea.setPropertyNoConversion(manyToMany.getName(), collection);
                             }
                             else {
@@ -789,6 +795,13 @@ public abstract class NativeEntryEntityPersister<T, K> extends ThirdPartyCacheEn
         return kv.getFetchStrategy() == FetchType.LAZY;
     }
 
+    private <C extends AbstractPersistentCollection> C configureExtraLazy(C collection, PropertyMapping<Property> associationPropertyMapping) {
+        if (associationPropertyMapping != null && associationPropertyMapping.getMappedForm() != null) {
+            collection.setExtraLazy(associationPropertyMapping.getMappedForm().isExtraLazy());
+        }
+        return collection;
+    }
+
     @Override
     protected Serializable persistEntity(final PersistentEntity persistentEntity, Object obj, boolean isInsert) {
         T tmp = null;
@@ -830,14 +843,7 @@ public abstract class NativeEntryEntityPersister<T, K> extends ThirdPartyCacheEn
 
             cacheNativeEntry(persistentEntity, (Serializable) k, tmp);
 
-            pendingOperation = new PendingInsertAdapter<T, K>(persistentEntity, k, tmp, entityAccess) {
-                public void run() {
-                    K insertResult = executeInsert(persistentEntity, entityAccess, getNativeKey(), getNativeEntry());
-                    if(insertResult == null) {
-                        setVetoed(true);
-                    }
-                }
-            };
+            pendingOperation = new NativeEntryPendingInsert(persistentEntity, k, tmp, entityAccess);
 
             entityAccess.setProperty(entityAccess.getIdentifierName(), k);
         }
@@ -853,19 +859,7 @@ public abstract class NativeEntryEntityPersister<T, K> extends ThirdPartyCacheEn
                 tmp = createNewEntry(family);
             }
 
-            final T finalTmp = tmp;
-            final K finalK = k;
-            pendingOperation = new PendingUpdateAdapter<T, K>(persistentEntity, finalK, finalTmp, entityAccess) {
-                public void run() {
-                    if (cancelUpdate(persistentEntity, entityAccess)) {
-                        setVetoed(true);
-                        return;
-                    }
-                    updateEntry(persistentEntity, entityAccess, getNativeKey(), getNativeEntry());
-                    updateTPCache(persistentEntity, finalTmp, (Serializable) finalK);
-                    firePostUpdateEvent(persistentEntity, entityAccess);
-                }
-            };
+            pendingOperation = new NativeEntryPendingUpdate(persistentEntity, k, tmp, entityAccess);
         }
 
         final T e = tmp;
@@ -1495,37 +1489,112 @@ public abstract class NativeEntryEntityPersister<T, K> extends ThirdPartyCacheEn
     }
 
     /**
-     * Simplistic default implementation of retrieveAllEntities that iterates over each key and retrieves the entities
-     * one-by-one. Data stores that support batch retrieval can optimize this to retrieve all entities in one go.
+     * Retrieves the entities for the given keys. Instances already held by the session are reused and the entries of the
+     * remaining keys are fetched in one go with {@link #retrieveEntries(PersistentEntity, String, List)}.
      *
      * @param persistentEntity The persist entity
      * @param keys The keys
-     * @return A list of entities
+     * @return A list of entities, in the order of the keys, containing null for keys that do not exist
      */
     @Override
     protected List<Object> retrieveAllEntities(PersistentEntity persistentEntity, Iterable<Serializable> keys) {
-        List<Object> results = new ArrayList<Object>();
+        List<Serializable> keyList = new ArrayList<Serializable>();
         for (Serializable key : keys) {
-            results.add(retrieveEntity(persistentEntity, key));
+            keyList.add(key);
         }
-        return results;
+        return retrieveAllEntitiesInternal(persistentEntity, keyList);
     }
 
     /**
-     * Simplistic default implementation of retrieveAllEntities that iterates over each key and retrieves the entities
-     * one-by-one. Data stores that support batch retrieval can optimize this to retrieve all entities in one go.
+     * Retrieves the entities for the given keys. Instances already held by the session are reused and the entries of the
+     * remaining keys are fetched in one go with {@link #retrieveEntries(PersistentEntity, String, List)}.
      *
      * @param persistentEntity The persist entity
      * @param keys The keys
-     * @return A list of entities
+     * @return A list of entities, in the order of the keys, containing null for keys that do not exist
      */
     @Override
     protected List<Object> retrieveAllEntities(PersistentEntity persistentEntity, Serializable[] keys) {
-        List<Object> results = new ArrayList<Object>();
+        return retrieveAllEntitiesInternal(persistentEntity, Arrays.asList(keys));
+    }
+
+    private List<Object> retrieveAllEntitiesInternal(PersistentEntity persistentEntity, List<Serializable> keys) {
+        SessionImplementor<Object> si = (SessionImplementor<Object>) session;
+        Class type = persistentEntity.getJavaClass();
+        int size = keys.size();
+        Object[] results = new Object[size];
+        Serializable[] nativeKeys = new Serializable[size];
+        Map<Serializable, T> entries = new HashMap<Serializable, T>();
+        List<Serializable> toRetrieve = new ArrayList<Serializable>();
+
+        for (int i = 0; i < size; i++) {
+            Serializable key = keys.get(i);
+            if (key == null) {
+                continue;
+            }
+            Object cached = si.getCachedInstance(type, convertIdIfNecessary(persistentEntity, key));
+            if (cached != null) {
+                results[i] = cached;
+                continue;
+            }
+
+            Serializable nativeKey = convertToNativeKey(key);
+            nativeKeys[i] = nativeKey;
+            if (!entries.containsKey(nativeKey)) {
+                T nativeEntry = getFromTPCache(persistentEntity, key);
+                entries.put(nativeKey, nativeEntry);
+                if (nativeEntry == null) {
+                    toRetrieve.add(nativeKey);
+                }
+            }
+        }
+
+        if (!toRetrieve.isEmpty()) {
+            Map<Serializable, T> retrieved = retrieveEntries(persistentEntity, getEntityFamily(), toRetrieve);
+            if (retrieved != null) {
+                entries.putAll(retrieved);
+            }
+        }
+
+        // the same key may be requested more than once, make sure it results in the same instance
+        Map<Serializable, Object> created = new HashMap<Serializable, Object>();
+        for (int i = 0; i < size; i++) {
+            Serializable nativeKey = nativeKeys[i];
+            if (nativeKey == null) {
+                continue;
+            }
+            Object obj = created.get(nativeKey);
+            if (obj == null) {
+                T nativeEntry = entries.get(nativeKey);
+                if (nativeEntry != null) {
+                    obj = createObjectFromNativeEntry(persistentEntity, nativeKey, nativeEntry);
+                    created.put(nativeKey, obj);
+                }
+            }
+            results[i] = obj;
+        }
+        return new ArrayList<Object>(Arrays.asList(results));
+    }
+
+    /**
+     * Retrieves the native entries for many keys. The default implementation calls
+     * {@link #retrieveEntry(PersistentEntity, String, Serializable)} for each key, datastores that support batch
+     * retrieval should override this to fetch all the entries in one go.
+     *
+     * @param persistentEntity The persistent entity
+     * @param family The family
+     * @param keys The native keys
+     * @return The native entries by key. Keys that do not exist are omitted
+     */
+    protected Map<Serializable, T> retrieveEntries(PersistentEntity persistentEntity, String family, List<Serializable> keys) {
+        Map<Serializable, T> entries = new HashMap<Serializable, T>();
         for (Serializable key : keys) {
-            results.add(retrieveEntity(persistentEntity, key));
+            T nativeEntry = retrieveEntry(persistentEntity, family, key);
+            if (nativeEntry != null) {
+                entries.put(key, nativeEntry);
+            }
         }
-        return results;
+        return entries;
     }
 
     /**
@@ -1615,6 +1684,168 @@ public abstract class NativeEntryEntityPersister<T, K> extends ThirdPartyCacheEn
      */
     protected abstract void deleteEntries(String family, List<K> keys);
 
+    /**
+     * Stores many native entries to the actual datastore at once. The default implementation calls
+     * {@link #storeEntry(PersistentEntity, EntityAccess, Object, Object)} for each insert, datastores
+     * that support bulk writes can override this to store them in a single round trip.
+     *
+     * @param persistentEntity The persistent entity
+     * @param inserts The inserts holding the EntityAccess, key and native entry to store
+     * @return The native keys, in the order of the inserts
+     */
+    protected List<K> storeEntries(PersistentEntity persistentEntity, List<? extends PendingInsert<T, K>> inserts) {
+        List<K> keys = new ArrayList<K>(inserts.size());
+        for (PendingInsert<T, K> insert : inserts) {
+            keys.add(storeEntry(persistentEntity, insert.getEntityAccess(), insert.getNativeKey(), insert.getNativeEntry()));
+        }
+        return keys;
+    }
+
+    /**
+     * Updates many existing entries in the actual datastore at once. The default implementation calls
+     * {@link #updateEntry(PersistentEntity, EntityAccess, Object, Object)} for each update, datastores
+     * that support bulk writes can override this to update them in a single round trip.
+     *
+     * @param persistentEntity The persistent entity
+     * @param updates The updates holding the EntityAccess, key and native entry to update
+     */
+    protected void updateEntries(PersistentEntity persistentEntity, List<? extends PendingUpdate<T, K>> updates) {
+        for (PendingUpdate<T, K> update : updates) {
+            updateEntry(persistentEntity, update.getEntityAccess(), update.getNativeKey(), update.getNativeEntry());
+        }
+    }
+
+    /**
+     * Executes the inserts scheduled by this persister in bulk. The pre operations of all the inserts are run first,
+     * then the entries that were not cancelled are stored with {@link #storeEntries(PersistentEntity, List)} and
+     * finally the cascade operations of all the inserts are run. The pre operations and cascades of one insert
+     * therefore no longer run directly before and after the insert itself.
+     *
+     * If a subclass overrides {@link #executeInsert(PersistentEntity, NativeEntryModifyingEntityAccess, Object, Object)}
+     * the inserts are executed one at a time instead, so that the override and the original ordering are retained.
+     */
+    @Override
+    public void executePendingInserts(List<PendingInsert> inserts) {
+        if (overridesExecuteInsert() || !isOwnOperations(inserts, NativeEntryPendingInsert.class)) {
+            super.executePendingInserts(inserts);
+            return;
+        }
+
+        runPreOperations(inserts);
+        final PersistentEntity persistentEntity = getPersistentEntity();
+        List<NativeEntryPendingInsert> toStore = new ArrayList<NativeEntryPendingInsert>(inserts.size());
+        for (PendingInsert insert : inserts) {
+            NativeEntryPendingInsert pendingInsert = (NativeEntryPendingInsert) insert;
+            if (cancelInsert(persistentEntity, pendingInsert.getEntityAccess())) {
+                pendingInsert.setVetoed(true);
+            }
+            else {
+                toStore.add(pendingInsert);
+            }
+        }
+        if (toStore.isEmpty()) {
+            return;
+        }
+
+        List<K> keys = storeEntries(persistentEntity, toStore);
+        for (int i = 0; i < toStore.size(); i++) {
+            NativeEntryPendingInsert pendingInsert = toStore.get(i);
+            K newId = keys.get(i);
+            NativeEntryModifyingEntityAccess entityAccess = pendingInsert.getEntityAccess();
+            entityAccess.setIdentifier(newId);
+            updateTPCache(persistentEntity, pendingInsert.getNativeEntry(), (Serializable) newId);
+            firePostInsertEvent(persistentEntity, entityAccess);
+            if (newId == null) {
+                pendingInsert.setVetoed(true);
+            }
+        }
+        runCascadeOperations(toStore);
+    }
+
+    /**
+     * Executes the updates scheduled by this persister in bulk. The pre operations of all the updates are run first,
+     * then the entries that were not cancelled are updated with {@link #updateEntries(PersistentEntity, List)} and
+     * finally the cascade operations of all the updates are run. The pre operations and cascades of one update
+     * therefore no longer run directly before and after the update itself.
+     */
+    @Override
+    public void executePendingUpdates(List<PendingUpdate> updates) {
+        if (!isOwnOperations(updates, NativeEntryPendingUpdate.class)) {
+            super.executePendingUpdates(updates);
+            return;
+        }
+
+        runPreOperations(updates);
+        final PersistentEntity persistentEntity = getPersistentEntity();
+        List<NativeEntryPendingUpdate> toUpdate = new ArrayList<NativeEntryPendingUpdate>(updates.size());
+        for (PendingUpdate update : updates) {
+            NativeEntryPendingUpdate pendingUpdate = (NativeEntryPendingUpdate) update;
+            if (cancelUpdate(persistentEntity, pendingUpdate.getEntityAccess())) {
+                pendingUpdate.setVetoed(true);
+            }
+            else {
+                toUpdate.add(pendingUpdate);
+            }
+        }
+        if (toUpdate.isEmpty()) {
+            return;
+        }
+
+        updateEntries(persistentEntity, toUpdate);
+        for (NativeEntryPendingUpdate pendingUpdate : toUpdate) {
+            updateTPCache(persistentEntity, pendingUpdate.getNativeEntry(), (Serializable) pendingUpdate.getNativeKey());
+            firePostUpdateEvent(persistentEntity, pendingUpdate.getEntityAccess());
+        }
+        runCascadeOperations(toUpdate);
+    }
+
+    private boolean overridesExecuteInsert() {
+        Boolean overrides = overridesExecuteInsert;
+        if (overrides == null) {
+            overrides = false;
+            for (Class<?> c = getClass(); c != NativeEntryEntityPersister.class && c != null; c = c.getSuperclass()) {
+                try {
+                    c.getDeclaredMethod("executeInsert", PersistentEntity.class, NativeEntryModifyingEntityAccess.class, Object.class, Object.class);
+                    overrides = true;
+                    break;
+                } catch (NoSuchMethodException e) {
+                    // not overridden at this level
+                }
+            }
+            overridesExecuteInsert = overrides;
+        }
+        return overrides;
+    }
+
+    private boolean isOwnOperations(List<? extends PendingOperation> operations, Class<?> type) {
+        for (PendingOperation operation : operations) {
+            if (!type.isInstance(operation) || ((NativeEntryPendingOperation) operation).getPersister() != this) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private void runPreOperations(List<? extends PendingOperation> operations) {
+        for (PendingOperation operation : operations) {
+            List<PendingOperation> preOperations = operation.getPreOperations();
+            for (PendingOperation preOperation : preOperations) {
+                preOperation.run();
+            }
+        }
+    }
+
+    private void runCascadeOperations(List<? extends PendingOperation> operations) {
+        for (PendingOperation operation : operations) {
+            if (!operation.isVetoed()) {
+                List<PendingOperation> cascadeOperations = operation.getCascadeOperations();
+                for (PendingOperation cascadeOperation : cascadeOperations) {
+                    cascadeOperation.run();
+                }
+            }
+        }
+    }
+
     /**
      * Executes an insert for the given entity, entity access, identifier and native entry.
      * Any before interceptors will be triggered
@@ -1637,6 +1868,77 @@ public abstract class NativeEntryEntityPersister<T, K> extends ThirdPartyCacheEn
         return newId;
     }
 
+    /**
+     * Implemented by the pending operations scheduled by this persister
+     */
+    protected interface NativeEntryPendingOperation {
+        NativeEntryEntityPersister getPersister();
+    }
+
+    /**
+     * An insert of a native entry scheduled by this persister
+     */
+    protected class NativeEntryPendingInsert extends PendingInsertAdapter<T, K> implements NativeEntryPendingOperation {
+
+        private final NativeEntryModifyingEntityAccess entityAccess;
+
+        public NativeEntryPendingInsert(PersistentEntity persistentEntity, K nativeKey, T nativeEntry, NativeEntryModifyingEntityAccess entityAccess) {
+            super(persistentEntity, nativeKey, nativeEntry, entityAccess);
+            this.entityAccess = entityAccess;
+        }
+
+        @Override
+        public NativeEntryModifyingEntityAccess getEntityAccess() {
+            return entityAccess;
+        }
+
+        @Override
+        public NativeEntryEntityPersister getPersister() {
+            return NativeEntryEntityPersister.this;
+        }
+
+        public void run() {
+            K insertResult = executeInsert(getEntity(), entityAccess, getNativeKey(), getNativeEntry());
+            if(insertResult == null) {
+                setVetoed(true);
+            }
+        }
+    }
+
+    /**
+     * An update of a native entry scheduled by this persister
+     */
+    protected class NativeEntryPendingUpdate extends PendingUpdateAdapter<T, K> implements NativeEntryPendingOperation {
+
+        private final NativeEntryModifyingEntityAccess entityAccess;
+
+        public NativeEntryPendingUpdate(PersistentEntity persistentEntity, K nativeKey, T nativeEntry, NativeEntryModifyingEntityAccess entityAccess) {
+            super(persistentEntity, nativeKey, nativeEntry, entityAccess);
+            this.entityAccess = entityAccess;
+        }
+
+        @Override
+        public NativeEntryModifyingEntityAccess getEntityAccess() {
+            return entityAccess;
+        }
+
+        @Override
+        public NativeEntryEntityPersister getPersister() {
+            return NativeEntryEntityPersister.this;
+        }
+
+        public void run() {
+            PersistentEntity persistentEntity = getEntity();
+            if (cancelUpdate(persistentEntity, entityAccess)) {
+                setVetoed(true);
+                return;
+            }
+            updateEntry(persistentEntity, entityAccess, getNativeKey(), getNativeEntry());
+            updateTPCache(persistentEntity, getNativeEntry(), (Serializable) getNativeKey());
+            firePostUpdateEvent(persistentEntity, entityAccess);
+        }
+    }
+
     protected class NativeEntryModifyingEntityAccess extends BeanEntityAccess {
 
         T nativeEntry;
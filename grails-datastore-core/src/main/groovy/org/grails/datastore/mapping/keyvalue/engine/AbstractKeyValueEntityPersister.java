@@ -15,6 +15,7 @@
 package org.grails.datastore.mapping.keyvalue.engine;
 
 import org.springframework.context.ApplicationEventPublisher;
+import org.grails.datastore.mapping.cache.TPCacheAdapterRepository;
 import org.grails.datastore.mapping.core.Session;
 import org.grails.datastore.mapping.engine.NativeEntryEntityPersister;
 import org.grails.datastore.mapping.keyvalue.mapping.config.Family;
@@ -42,6 +43,12 @@ public abstract class AbstractKeyValueEntityPersister<T,K> extends NativeEntryEn
         entityFamily = getFamily(entity, classMapping);
     }
 
+    protected AbstractKeyValueEntityPersister(MappingContext context, PersistentEntity entity,
+               Session session, ApplicationEventPublisher publisher, TPCacheAdapterRepository<T> cacheAdapterRepository) {
+        super(context, entity, session, publisher, cacheAdapterRepository);
+        entityFamily = getFamily(entity, classMapping);
+    }
+
     @Override
     public String getEntityFamily() {
         return entityFamily;
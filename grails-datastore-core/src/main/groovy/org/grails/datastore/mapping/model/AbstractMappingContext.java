@@ -16,19 +16,26 @@ package org.grails.datastore.mapping.model;
 
 import java.beans.Introspector;
 import java.util.*;
+import java.util.concurrent.Callable;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
 
 import org.grails.datastore.mapping.config.ConfigurationUtils;
+import org.grails.datastore.mapping.config.Settings;
 import org.grails.datastore.mapping.engine.BeanEntityAccess;
 import org.grails.datastore.mapping.engine.EntityAccess;
 import org.grails.datastore.mapping.engine.types.CustomTypeMarshaller;
+import org.grails.datastore.mapping.model.config.GormMappingConfigurationStrategy;
 import org.grails.datastore.mapping.model.lifecycle.Initializable;
 import org.grails.datastore.mapping.model.types.conversion.DefaultConversionService;
 import org.grails.datastore.mapping.proxy.JavassistProxyFactory;
 import org.grails.datastore.mapping.proxy.ProxyFactory;
 import org.grails.datastore.mapping.proxy.ProxyHandler;
 import org.grails.datastore.mapping.reflect.ClassPropertyFetcher;
+import org.grails.datastore.mapping.reflect.GeneratedPropertyMetadata;
 import org.grails.datastore.mapping.reflect.EntityReflector;
 import org.grails.datastore.mapping.reflect.FieldEntityAccess;
 import org.grails.datastore.mapping.reflect.ReflectionUtils;
@@ -65,7 +72,12 @@ public abstract class AbstractMappingContext implements MappingContext, Initiali
     protected ProxyFactory proxyFactory;
     protected ValidatorRegistry validatorRegistry;
     private boolean canInitializeEntities = true;
+    private boolean parallelInitialization;
     private boolean initialized;
+    // marks classes that are not entities in persistentEntitiesByClass, since the map cannot hold null values
+    private static final Object NOT_AN_ENTITY = new Object();
+    // cleared whenever the registered entities change, so that no stale lookups survive
+    private final Map<Class, Object> persistentEntitiesByClass = new ConcurrentHashMap<Class, Object>();
 
     public ConversionService getConversionService() {
         return conversionService;
@@ -79,6 +91,42 @@ public abstract class AbstractMappingContext implements MappingContext, Initiali
         this.canInitializeEntities = canInitializeEntities;
     }
 
+    /**
+     * Sets whether the introspection of the entity classes and the creation of their reflectors runs in parallel
+     * when several entities are initialized at once. Resolving the properties and associations of the entities
+     * and linking the inheritance hierarchies remain sequential.
+     *
+     * @param parallelInitialization True if entities should be initialized in parallel
+     */
+    public void setParallelInitialization(boolean parallelInitialization) {
+        this.parallelInitialization = parallelInitialization;
+    }
+
+    public boolean isParallelInitialization() {
+        return parallelInitialization;
+    }
+
+    /**
+     * Sets whether the properties of entities are discovered from the metadata generated for them at compile time,
+     * where it is available, rather than by introspecting the entity classes.
+     *
+     * @param useGeneratedMetadata True if the generated metadata should be used
+     */
+    public void setUseGeneratedMetadata(boolean useGeneratedMetadata) {
+        MappingConfigurationStrategy strategy = getMappingSyntaxStrategy();
+        if(strategy instanceof GormMappingConfigurationStrategy) {
+            ((GormMappingConfigurationStrategy) strategy).setUseGeneratedMetadata(useGeneratedMetadata);
+        }
+    }
+
+    /**
+     * @return True if the properties of entities are discovered from the metadata generated for them at compile time
+     */
+    public boolean isUseGeneratedMetadata() {
+        MappingConfigurationStrategy strategy = getMappingSyntaxStrategy();
+        return strategy instanceof GormMappingConfigurationStrategy && ((GormMappingConfigurationStrategy) strategy).isUseGeneratedMetadata();
+    }
+
     public abstract MappingFactory getMappingFactory();
 
     @Override
@@ -87,6 +135,8 @@ public abstract class AbstractMappingContext implements MappingContext, Initiali
             return;
         }
 
+        configureInitialization(configuration);
+
         String simpleName = Introspector.decapitalize(getClass().getSimpleName());
         String suffix = "MappingContext";
 
@@ -105,6 +155,18 @@ public abstract class AbstractMappingContext implements MappingContext, Initiali
         }
     }
 
+    /**
+     * Applies the settings that control how persistent entities are initialized
+     *
+     * @param configuration The configuration
+     */
+    protected void configureInitialization(PropertyResolver configuration) {
+        setParallelInitialization(configuration.getProperty(Settings.SETTING_PARALLEL_INITIALIZATION, Boolean.class, parallelInitialization));
+        if(configuration.containsProperty(Settings.SETTING_GENERATED_METADATA)) {
+            setUseGeneratedMetadata(configuration.getProperty(Settings.SETTING_GENERATED_METADATA, Boolean.class, false));
+        }
+    }
+
     @Override
     public ProxyHandler getProxyHandler() {
         return getProxyFactory();
@@ -233,9 +295,7 @@ public abstract class AbstractMappingContext implements MappingContext, Initiali
 
         }
         if(canInitializeEntities) {
-            for (PersistentEntity entity : entities) {
-                initializePersistentEntity(entity);
-            }
+            initializePersistentEntities(entities);
         }
         for (Listener eventListener : eventListeners) {
             for (PersistentEntity entity : entities) {
@@ -288,14 +348,11 @@ public abstract class AbstractMappingContext implements MappingContext, Initiali
         persistentEntities.remove(entity);
         persistentEntities.add(entity);
         persistentEntitiesByName.put(entity.getName(), entity);
-
+        persistentEntitiesByClass.clear();
     }
 
     public void initialize() {
-        for(PersistentEntity entity : persistentEntities) {
-            initializePersistentEntity(entity);
-            FieldEntityAccess.getOrIntializeReflector(entity);
-        }
+        initializePersistentEntities(new ArrayList<PersistentEntity>(persistentEntities));
         this.initialized = true;
     }
 
@@ -303,16 +360,104 @@ public abstract class AbstractMappingContext implements MappingContext, Initiali
         return initialized;
     }
 
+    /**
+     * Initializes the given entities. In parallel mode the classes of the entities are introspected and their
+     * reflectors created on a fork-join pool, whilst the mapping of the entities is resolved sequentially since it
+     * initializes associated and parent entities as it goes. The inheritance hierarchies are linked last, in the
+     * order of the given entities, so the result is the same as for sequential initialization.
+     *
+     * @param entities The entities
+     */
+    protected void initializePersistentEntities(Collection<PersistentEntity> entities) {
+        if(!parallelInitialization || entities.size() < 2) {
+            for (PersistentEntity entity : entities) {
+                initializePersistentEntity(entity);
+            }
+            return;
+        }
+
+        ForkJoinPool pool = new ForkJoinPool();
+        try {
+            List<Callable<Object>> introspections = new ArrayList<Callable<Object>>(entities.size());
+            for (final PersistentEntity entity : entities) {
+                introspections.add(new Callable<Object>() {
+                    @Override
+                    public Object call() throws Exception {
+                        // the bean introspection is lazy, so it has to be requested to happen on the pool
+                        Class javaClass = entity.getJavaClass();
+                        ClassPropertyFetcher cpf = ClassPropertyFetcher.forClass(javaClass);
+                        if(isUseGeneratedMetadata() && GeneratedPropertyMetadata.forClass(javaClass).isAvailable()) {
+                            return cpf;
+                        }
+                        return cpf.getPropertyDescriptors();
+                    }
+                });
+            }
+            invokeAll(pool, introspections);
+
+            for (PersistentEntity entity : entities) {
+                initializeMapping(entity);
+            }
+
+            List<Callable<Object>> reflectors = new ArrayList<Callable<Object>>(entities.size());
+            for (final PersistentEntity entity : entities) {
+                reflectors.add(new Callable<Object>() {
+                    @Override
+                    public Object call() throws Exception {
+                        return entity.getReflector();
+                    }
+                });
+            }
+            invokeAll(pool, reflectors);
+        }
+        finally {
+            pool.shutdown();
+        }
+
+        for (PersistentEntity entity : entities) {
+            linkInheritanceHierarchy(entity);
+        }
+    }
+
+    private static void invokeAll(ForkJoinPool pool, List<Callable<Object>> tasks) {
+        for (Future<Object> future : pool.invokeAll(tasks)) {
+            try {
+                future.get();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Interrupted whilst initializing persistent entities", e);
+            } catch (ExecutionException e) {
+                Throwable cause = e.getCause();
+                if(cause instanceof RuntimeException) {
+                    throw (RuntimeException) cause;
+                }
+                if(cause instanceof Error) {
+                    throw (Error) cause;
+                }
+                throw new IllegalStateException("Error initializing persistent entities: " + cause.getMessage(), cause);
+            }
+        }
+    }
+
     private void initializePersistentEntity(PersistentEntity entity) {
+        initializeMapping(entity);
+        entity.getReflector();
+        linkInheritanceHierarchy(entity);
+    }
+
+    private void initializeMapping(PersistentEntity entity) {
         try {
             entity.initialize();
         }
         catch(IllegalMappingException x) {
             persistentEntities.remove(entity);
             persistentEntitiesByName.remove(entity.getName());
+            persistentEntitiesByClass.clear();
             throw x;
         }
+    }
 
+    private void linkInheritanceHierarchy(PersistentEntity entity) {
         if (!entity.isRoot()) {
             PersistentEntity root = entity.getRootEntity();
             Map<String, PersistentEntity> children = persistentEntitiesByDiscriminator.get(root);
@@ -330,7 +475,6 @@ public abstract class AbstractMappingContext implements MappingContext, Initiali
             }
             directChildren.add(entity);
         }
-
     }
 
     /**
@@ -396,7 +540,7 @@ public abstract class AbstractMappingContext implements MappingContext, Initiali
     }
 
     public boolean isPersistentEntity(Class type) {
-        return type != null && getPersistentEntity(type.getName()) != null;
+        return type != null && getPersistentEntityForClass(type) != null;
 
     }
 
@@ -413,6 +557,27 @@ public abstract class AbstractMappingContext implements MappingContext, Initiali
         return persistentEntitiesByName.get(name);
     }
 
+    /**
+     * Obtains the PersistentEntity for the given class. The result, including the absence of an entity, is cached
+     * per class until the registered entities change, so that repeated lookups need no string handling
+     *
+     * @param type The class of the entity or of a proxy of the entity
+     * @return The entity or null
+     */
+    @Override
+    public PersistentEntity getPersistentEntityForClass(Class type) {
+        if(type == null) {
+            return null;
+        }
+        Object cached = persistentEntitiesByClass.get(type);
+        if(cached == null) {
+            PersistentEntity entity = getPersistentEntity(type.getName());
+            persistentEntitiesByClass.put(type, entity != null ? entity : NOT_AN_ENTITY);
+            return entity;
+        }
+        return cached == NOT_AN_ENTITY ? null : (PersistentEntity) cached;
+    }
+
     /**
      * Obtains a {@link EntityReflector} instance for the given entity
      *
@@ -432,7 +597,7 @@ public abstract class AbstractMappingContext implements MappingContext, Initiali
 
             if (entity.getJavaClass() != instance.getClass()) {
                 // try subclass
-                final PersistentEntity subEntity = getPersistentEntity(instance.getClass().getName());
+                final PersistentEntity subEntity = getPersistentEntityForClass(instance.getClass());
                 if (subEntity != null) {
                     entity = subEntity;
                 }
@@ -61,7 +61,7 @@ public abstract class AbstractPersistentEntity<T extends Entity> implements Pers
     private PersistentProperty[] compositeIdentity;
     private final String mappingStrategy;
     private final boolean isAbstract;
-    private EntityReflector entityReflector;
+    private volatile EntityReflector entityReflector;
 
     public AbstractPersistentEntity(Class javaClass, MappingContext context) {
         Assert.notNull(javaClass, "The argument [javaClass] cannot be null");
@@ -191,12 +191,17 @@ public abstract class AbstractPersistentEntity<T extends Entity> implements Pers
 
 
         propertiesInitialized = true;
-        this.entityReflector = getMappingContext().getEntityReflector(this);
     }
 
     @Override
     public EntityReflector getReflector() {
-        return this.entityReflector;
+        // created on first use, so that the mapping context can create the reflectors of several entities in parallel
+        EntityReflector reflector = this.entityReflector;
+        if(reflector == null && propertiesInitialized) {
+            reflector = getMappingContext().getEntityReflector(this);
+            this.entityReflector = reflector;
+        }
+        return reflector;
     }
 
     protected boolean isAnnotatedSuperClass(MappingConfigurationStrategy mappingSyntaxStrategy, Class superClass) {
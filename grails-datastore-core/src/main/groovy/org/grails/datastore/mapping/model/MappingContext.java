@@ -67,6 +67,14 @@ public interface MappingContext {
      */
     PersistentEntity getPersistentEntity(String name);
 
+    /**
+     * Obtains the PersistentEntity for the given class. Proxy classes resolve to the entity they proxy
+     *
+     * @param type The class of the entity or of a proxy of the entity
+     * @return The entity or null
+     */
+    PersistentEntity getPersistentEntityForClass(Class type);
+
     /**
      * Returns true if the given entity is in an inheritance hierarchy
      * @param entity The entity
@@ -45,6 +45,7 @@ import org.grails.datastore.mapping.model.PersistentEntity;
 import org.grails.datastore.mapping.model.PersistentProperty;
 import org.grails.datastore.mapping.model.types.*;
 import org.grails.datastore.mapping.reflect.ClassPropertyFetcher;
+import org.grails.datastore.mapping.reflect.GeneratedPropertyMetadata;
 import org.grails.datastore.mapping.reflect.ReflectionUtils;
 import org.springframework.util.StringUtils;
 
@@ -82,6 +83,7 @@ public class GormMappingConfigurationStrategy implements MappingConfigurationStr
     private MappingFactory propertyFactory;
     private static final Set EXCLUDED_PROPERTIES = new HashSet(Arrays.asList("class", "metaClass"));
     private boolean canExpandMappingContext = true;
+    private boolean useGeneratedMetadata = false;
 
     public GormMappingConfigurationStrategy(MappingFactory propertyFactory) {
         this.propertyFactory = propertyFactory;
@@ -94,6 +96,18 @@ public class GormMappingConfigurationStrategy implements MappingConfigurationStr
         this.canExpandMappingContext = canExpandMappingContext;
     }
 
+    /**
+     * Whether to discover the properties of entities from the metadata generated at compile time where it is available
+     * rather than by introspecting the entity classes. See {@link GeneratedPropertyMetadata}
+     */
+    public void setUseGeneratedMetadata(boolean useGeneratedMetadata) {
+        this.useGeneratedMetadata = useGeneratedMetadata;
+    }
+
+    public boolean isUseGeneratedMetadata() {
+        return useGeneratedMetadata;
+    }
+
     /**
      * Tests whether an class is a persistent entity
      *
@@ -150,7 +164,7 @@ public class GormMappingConfigurationStrategy implements MappingConfigurationStr
         // hasOne for declaring a one-to-one association with the foreign key in the child
         Map hasOneMap = getAssociationMap(cpf, HAS_ONE);
 
-        for (PropertyDescriptor descriptor : cpf.getPropertyDescriptors()) {
+        for (PropertyDescriptor descriptor : getPropertyDescriptors(entity.getJavaClass(), cpf)) {
             if (descriptor.getPropertyType() == null || descriptor.getPropertyType() == Object.class) {
                 // indexed property
                 continue;
@@ -213,6 +227,82 @@ public class GormMappingConfigurationStrategy implements MappingConfigurationStr
         return persistentProperties;
     }
 
+    private PropertyDescriptor[] getPropertyDescriptors(Class javaClass, ClassPropertyFetcher cpf) {
+        PropertyDescriptor[] generated = getGeneratedPropertyDescriptors(javaClass);
+        if (generated != null) {
+            return generated;
+        }
+        PropertyDescriptor[] descriptors = cpf.getPropertyDescriptors();
+        return descriptors == null ? new PropertyDescriptor[0] : descriptors;
+    }
+
+    /**
+     * @return The property descriptors generated at compile time or null if they are not used or not available
+     */
+    private PropertyDescriptor[] getGeneratedPropertyDescriptors(Class javaClass) {
+        if (useGeneratedMetadata) {
+            GeneratedPropertyMetadata metadata = GeneratedPropertyMetadata.forClass(javaClass);
+            if (metadata.isAvailable()) {
+                return metadata.getPropertyDescriptors();
+            }
+        }
+        return null;
+    }
+
+    private Class getPropertyType(ClassPropertyFetcher cpf, String name, boolean onlyInstanceProperties) {
+        if (useGeneratedMetadata) {
+            PropertyDescriptor descriptor = GeneratedPropertyMetadata.forClass(cpf.getJavaClass()).getPropertyDescriptor(name);
+            if (descriptor != null) {
+                return descriptor.getPropertyType();
+            }
+        }
+        return cpf.getPropertyType(name, onlyInstanceProperties);
+    }
+
+    private List<PropertyDescriptor> getPropertiesAssignableToType(Class type, ClassPropertyFetcher cpf) {
+        PropertyDescriptor[] generated = getGeneratedPropertyDescriptors(cpf.getJavaClass());
+        if (generated == null) {
+            return cpf.getPropertiesAssignableToType(type);
+        }
+        List<PropertyDescriptor> properties = new ArrayList<PropertyDescriptor>();
+        for (PropertyDescriptor descriptor : generated) {
+            Class<?> propertyType = descriptor.getPropertyType();
+            if (propertyType != null && type.isAssignableFrom(propertyType)) {
+                properties.add(descriptor);
+            }
+        }
+        return properties;
+    }
+
+    private PropertyDescriptor[] getPropertiesOfType(Class javaClass, Class propertyType) {
+        PropertyDescriptor[] generated = getGeneratedPropertyDescriptors(javaClass);
+        if (generated == null) {
+            return ReflectionUtils.getPropertiesOfType(javaClass, propertyType);
+        }
+        List<PropertyDescriptor> properties = new ArrayList<PropertyDescriptor>();
+        for (PropertyDescriptor descriptor : generated) {
+            Class<?> type = descriptor.getPropertyType();
+            // like ReflectionUtils.getPropertiesOfType, the properties that can hold an instance of the type
+            if (type != null && type.isAssignableFrom(propertyType) && !type.equals(Object.class)) {
+                properties.add(descriptor);
+            }
+        }
+        return properties.toArray(new PropertyDescriptor[properties.size()]);
+    }
+
+    private PropertyDescriptor getPropertyDescriptor(Class javaClass, ClassPropertyFetcher cpf, String name) {
+        if (useGeneratedMetadata) {
+            GeneratedPropertyMetadata metadata = GeneratedPropertyMetadata.forClass(javaClass);
+            if (metadata.isAvailable()) {
+                PropertyDescriptor descriptor = metadata.getPropertyDescriptor(name);
+                if (descriptor != null) {
+                    return descriptor;
+                }
+            }
+        }
+        return cpf.getPropertyDescriptor(name);
+    }
+
     protected boolean supportsCustomType(Class<?> propertyType) {
         return propertyFactory.isCustomType(propertyType);
     }
@@ -346,7 +436,7 @@ public class GormMappingConfigurationStrategy implements MappingConfigurationStr
             // If a property of the required type does not exist, search
             // for any collection properties on the related class.
             if (pd == null) {
-                pd = findProperty(referencedCpf.getPropertiesAssignableToType(Collection.class), mappingProperty);
+                pd = findProperty(getPropertiesAssignableToType(Collection.class, referencedCpf), mappingProperty);
             }
 
             // We've run out of options. The given "mappedBy" setting is invalid.
@@ -391,7 +481,7 @@ public class GormMappingConfigurationStrategy implements MappingConfigurationStr
 
                     // if there is one defined get the type
                     if (relatedClassPropertyName != null) {
-                        relatedClassPropertyType = referencedCpf.getPropertyType(relatedClassPropertyName);
+                        relatedClassPropertyType = getPropertyType(referencedCpf, relatedClassPropertyName, false);
                     }
                 }
 
@@ -484,7 +574,20 @@ public class GormMappingConfigurationStrategy implements MappingConfigurationStr
     }
 
     private List<PropertyDescriptor> getPropertiesAssignableFromType(Class type, ClassPropertyFetcher propertyFetcher) {
-        List<PropertyDescriptor> props = propertyFetcher.getPropertiesAssignableFromType(type);
+        List<PropertyDescriptor> props;
+        PropertyDescriptor[] generated = getGeneratedPropertyDescriptors(propertyFetcher.getJavaClass());
+        if (generated != null) {
+            props = new ArrayList<PropertyDescriptor>();
+            for (PropertyDescriptor descriptor : generated) {
+                Class<?> propertyType = descriptor.getPropertyType();
+                if (propertyType != null && propertyType.isAssignableFrom(type)) {
+                    props.add(descriptor);
+                }
+            }
+        }
+        else {
+            props = propertyFetcher.getPropertiesAssignableFromType(type);
+        }
         // exclude properties of type object!
         List<PropertyDescriptor> valid = new ArrayList<PropertyDescriptor>(props.size());
         for (PropertyDescriptor prop : props) {
@@ -577,13 +680,13 @@ public class GormMappingConfigurationStrategy implements MappingConfigurationStr
         if (!forceUnidirectional(property, mappedBy)) {
             if (relatedClassRelationships != null && !relatedClassRelationships.isEmpty()) {
 
-                PropertyDescriptor[] descriptors = ReflectionUtils.getPropertiesOfType(entity.getJavaClass(), propType);
+                PropertyDescriptor[] descriptors = getPropertiesOfType(entity.getJavaClass(), propType);
                 relatedClassPropertyName = findOneToManyThatMatchesType(entity, property, relatedClassRelationships, mappedBy, relatedCpf);
 
                 Object mappedByValue = relatedClassPropertyName != null ? mappedBy.get(relatedClassPropertyName) : null;
                 if(mappedByValue != null && property.getName().equals(mappedByValue)) {
 
-                    relatedClassPropertyType = relatedCpf.getPropertyType(relatedClassPropertyName, true);
+                    relatedClassPropertyType = getPropertyType(relatedCpf, relatedClassPropertyName, true);
                 }
                 else {
 
@@ -592,7 +695,7 @@ public class GormMappingConfigurationStrategy implements MappingConfigurationStr
                     if (descriptors.length == 1 && isNotMappedToDifferentProperty(property,relatedClassPropertyName, mappedBy)) {
                         if (StringUtils.hasText(relatedClassPropertyName)) {
                             // get the type of the property
-                            PropertyDescriptor potentialProperty = relatedCpf.getPropertyDescriptor(relatedClassPropertyName);
+                            PropertyDescriptor potentialProperty = getPropertyDescriptor(propType, relatedCpf, relatedClassPropertyName);
 
                             // ensure circular links are not possible between one-to-one associations
                             if(!potentialProperty.equals(property)) {
@@ -610,14 +713,14 @@ public class GormMappingConfigurationStrategy implements MappingConfigurationStr
                                 if (property.getName().equals(mappedBy.get(mappedByPropertyName))) {
                                     Class<?> mappedByRelatedType = (Class<?>) relatedClassRelationships.get(mappedByPropertyName);
                                     if (mappedByRelatedType != null && propType.isAssignableFrom(mappedByRelatedType))
-                                        relatedClassPropertyType = relatedCpf.getPropertyType(mappedByPropertyName);
+                                        relatedClassPropertyType = getPropertyType(relatedCpf, mappedByPropertyName, false);
                                 }
                             }
                         }
                         else {
                             String classNameAsProperty = Introspector.decapitalize(propType.getName());
                             if (property.getName().equals(classNameAsProperty) && !mappedBy.containsKey(relatedClassPropertyName)) {
-                                relatedClassPropertyType = relatedCpf.getPropertyType(relatedClassPropertyName);
+                                relatedClassPropertyType = getPropertyType(relatedCpf, relatedClassPropertyName, false);
                             }
                         }
                     }
@@ -760,7 +863,7 @@ public class GormMappingConfigurationStrategy implements MappingConfigurationStr
             Object mappedByValue = mappedBy.get(currentKey);
             if (currentClass.isAssignableFrom(entity.getJavaClass())) {
                 if(mappedByValue == null || pd.getName().equals(mappedByValue)) {
-                    PropertyDescriptor candidate = relatedCpf.getPropertyDescriptor(currentKey);
+                    PropertyDescriptor candidate = getPropertyDescriptor(relatedCpf.getJavaClass(), relatedCpf, currentKey);
                     if(candidate != null && !candidate.equals(pd)) {
                         return currentKey;
                     }
@@ -849,7 +952,7 @@ public class GormMappingConfigurationStrategy implements MappingConfigurationStr
                 identifiers[i] = p;
             }
             else {
-                final PropertyDescriptor pd = cpf.getPropertyDescriptor(name);
+                final PropertyDescriptor pd = getPropertyDescriptor(javaClass, cpf, name);
                 if (pd != null) {
                     identifiers[i] = propertyFactory.createIdentity(entity, context, pd);
                 }
@@ -870,7 +973,7 @@ public class GormMappingConfigurationStrategy implements MappingConfigurationStr
         IdentityMapping id = mapping.getIdentifier();
         final String[] names = id.getIdentifierName();
         if (names.length == 1) {
-            final PropertyDescriptor pd = cpf.getPropertyDescriptor(names[0]);
+            final PropertyDescriptor pd = getPropertyDescriptor(javaClass, cpf, names[0]);
 
             if (pd != null) {
                 return propertyFactory.createIdentity(entity, context, pd);
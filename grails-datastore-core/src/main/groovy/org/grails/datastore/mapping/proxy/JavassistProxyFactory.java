@@ -45,7 +45,9 @@ public class JavassistProxyFactory implements org.grails.datastore.mapping.proxy
     private static final Map<Class, Class > ID_TYPES = new ConcurrentHashMap<Class, Class >();
     private static final Class[] EMPTY_CLASS_ARRAY = {};
 
-    private static final Set<String> EXCLUDES = new HashSet(Arrays.asList("$getStaticMetaClass"));
+    // the generated field accessors read and write the fields of the proxy itself, like field reflection does,
+    // so that reading an entity through its reflector doesn't initialize a proxy
+    private static final Set<String> EXCLUDES = new HashSet(Arrays.asList("$getStaticMetaClass", "$readField", "$writeField"));
 
     public boolean isProxy(Object object) {
         return object instanceof EntityProxy;
@@ -115,6 +117,7 @@ public class JavassistProxyFactory implements org.grails.datastore.mapping.proxy
         MethodHandler mi = createMethodHandler(session, cls, proxyClass, id);
         Object proxy = ReflectionUtils.instantiate(proxyClass);
         ((ProxyObject)proxy).setHandler(mi);
+        ProxyBatchLoader.register(session, cls, id);
         return proxy;
     }
 
@@ -0,0 +1,156 @@
+/* Copyright (C) 2016 original authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.grails.datastore.mapping.proxy;
+
+import org.grails.datastore.mapping.config.Entity;
+import org.grails.datastore.mapping.core.Session;
+import org.grails.datastore.mapping.model.PersistentEntity;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Loads the targets of the proxies of a session in batches.
+ *
+ * The keys of the proxies created for an entity whose mapping specifies a batch size greater than one are
+ * registered with the loader of the session. When one of these proxies is initialized, the targets of up to
+ * batch size - 1 other uninitialized proxies of the same type are retrieved with the same call to
+ * {@link Session#retrieveAll(Class, Iterable)}, which places them in the session cache for when their proxies are
+ * initialized. The loader is discarded when the session is cleared or disconnected. For example:
+ *
+ * <pre>
+ *     static mapping = {
+ *         batchSize 50
+ *     }
+ * </pre>
+ *
+ * @author Graeme Rocher
+ * @since 6.0
+ */
+public class ProxyBatchLoader {
+
+    /**
+     * The name of the session property holding the loader of a session
+     */
+    public static final String SESSION_PROPERTY = ProxyBatchLoader.class.getName();
+
+    private final Session session;
+    private final Map<Class, Set<Serializable>> pendingKeys = new HashMap<Class, Set<Serializable>>();
+
+    protected ProxyBatchLoader(Session session) {
+        this.session = session;
+    }
+
+    /**
+     * Registers the key of a proxy that has been created, if the entity is loaded in batches
+     *
+     * @param session The session
+     * @param type The type of the proxy
+     * @param key The key of the proxy
+     */
+    public static void register(Session session, Class type, Serializable key) {
+        if (key != null && getBatchSize(session, type) > 1) {
+            forSession(session).addPendingKey(type, key);
+        }
+    }
+
+    /**
+     * Retrieves the target of a proxy, together with the targets of other pending proxies if the entity is loaded in batches
+     *
+     * @param session The session
+     * @param type The type of the proxy
+     * @param key The key of the proxy
+     * @return The target or null if it doesn't exist
+     */
+    public static Object retrieve(Session session, Class type, Serializable key) {
+        int batchSize = getBatchSize(session, type);
+        if (batchSize > 1) {
+            return forSession(session).load(type, key, batchSize);
+        }
+        return session.retrieve(type, key);
+    }
+
+    /**
+     * @param session The session
+     * @return The loader of the session
+     */
+    public static ProxyBatchLoader forSession(Session session) {
+        ProxyBatchLoader loader = (ProxyBatchLoader) session.getSessionProperty(SESSION_PROPERTY);
+        if (loader == null) {
+            loader = new ProxyBatchLoader(session);
+            session.setSessionProperty(SESSION_PROPERTY, loader);
+        }
+        return loader;
+    }
+
+    /**
+     * @param session The session
+     * @param type The entity type
+     * @return The batch size of the entity or 1 if the entity is not loaded in batches
+     */
+    public static int getBatchSize(Session session, Class type) {
+        PersistentEntity entity = session.getMappingContext().getPersistentEntityForClass(type);
+        if (entity == null) {
+            return 1;
+        }
+        Entity mappedForm = entity.getMapping().getMappedForm();
+        // the targets of a stateless entity are not cached, so there is no point in loading more of them
+        if (mappedForm == null || mappedForm.isStateless() || mappedForm.getBatchSize() == null) {
+            return 1;
+        }
+        return mappedForm.getBatchSize();
+    }
+
+    protected void addPendingKey(Class type, Serializable key) {
+        Set<Serializable> keys = pendingKeys.get(type);
+        if (keys == null) {
+            keys = new LinkedHashSet<Serializable>();
+            pendingKeys.put(type, keys);
+        }
+        keys.add(key);
+    }
+
+    protected Object load(Class type, Serializable key, int batchSize) {
+        Set<Serializable> keys = pendingKeys.get(type);
+        if (keys != null) {
+            keys.remove(key);
+        }
+        if (keys == null || keys.isEmpty()) {
+            return session.retrieve(type, key);
+        }
+
+        List<Serializable> batch = new ArrayList<Serializable>(Math.min(batchSize, keys.size() + 1));
+        batch.add(key);
+        for (Iterator<Serializable> i = keys.iterator(); i.hasNext() && batch.size() < batchSize; ) {
+            batch.add(i.next());
+            i.remove();
+        }
+        List results = session.retrieveAll(type, batch);
+        // the results may omit missing keys or come back in a different order, so the target is matched by its key
+        for (Object result : results) {
+            if (result != null && key.equals(session.getObjectIdentifier(result))) {
+                return result;
+            }
+        }
+        // retrieving the batch cached the target if it exists, unless its identifier is of another type than the key
+        return session.retrieve(type, key);
+    }
+}
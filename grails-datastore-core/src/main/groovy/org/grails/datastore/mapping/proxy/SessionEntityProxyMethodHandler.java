@@ -66,7 +66,7 @@ public class SessionEntityProxyMethodHandler extends EntityProxyMethodHandler {
     }
 
     protected void initializeTarget() {
-        target = session.retrieve(cls, id);
+        target = ProxyBatchLoader.retrieve(session, cls, id);
     }
 
     @Override
@@ -23,6 +23,8 @@ import java.util.List;
 import java.util.Map;
 import java.util.regex.Pattern;
 
+import groovy.lang.Closure;
+
 import javax.persistence.FetchType;
 import javax.persistence.FlushModeType;
 import javax.persistence.LockModeType;
@@ -589,6 +591,72 @@ public abstract class Query implements Cloneable{
         return results.isEmpty() ? null : results.get(0);
     }
 
+    /**
+     * Executes the query passing the results to the given closure in batches of the given size, so that large results
+     * can be processed without keeping every result in memory. Once a batch has been processed the session is
+     * flushed and the instances of the batch are evicted from it.
+     *
+     * <p>The default implementation pages through the results using the offset and max of the query, ordering by
+     * the identifier if no order is specified, hence the closure should not modify the results in a way that changes
+     * whether or where they match the query. Implementations that support cursors should override this method.</p>
+     *
+     * @param batchSize The number of results of each batch
+     * @param callable The closure, called with the list of results of each batch
+     */
+    public void eachBatch(int batchSize, Closure callable) {
+        Assert.isTrue(batchSize > 0, "Argument [batchSize] must be greater than zero");
+
+        int originalOffset = offset;
+        int originalMax = max;
+        Order identifierOrder = null;
+        if (orderBy.isEmpty() && entity.getIdentity() != null) {
+            identifierOrder = Order.asc(entity.getIdentity().getName());
+            order(identifierOrder);
+        }
+        int processed = 0;
+        try {
+            while (originalMax < 0 || processed < originalMax) {
+                int size = originalMax < 0 ? batchSize : Math.min(batchSize, originalMax - processed);
+                offset(originalOffset + processed);
+                max(size);
+                List results = list();
+                if (results.isEmpty()) {
+                    break;
+                }
+                callable.call(results);
+                releaseBatch(results);
+                processed += results.size();
+                if (results.size() < size) {
+                    break;
+                }
+            }
+        } finally {
+            offset(originalOffset);
+            max(originalMax);
+            if (identifierOrder != null) {
+                orderBy.remove(identifierOrder);
+            }
+        }
+    }
+
+    /**
+     * Flushes the session and evicts the instances of a batch processed by {@link #eachBatch(int, Closure)}
+     *
+     * @param results The results of the batch
+     */
+    protected void releaseBatch(List results) {
+        if (session == null) {
+            return;
+        }
+        session.flush();
+        MappingContext mappingContext = session.getMappingContext();
+        for (Object result : results) {
+            if (result != null && mappingContext.isPersistentEntity(result)) {
+                session.clear(result);
+            }
+        }
+    }
+
     /**
      * Here purely for compatibility
      *
@@ -641,7 +709,7 @@ public abstract class Query implements Cloneable{
 
     private Serializable findInstanceId(Object value) {
         MappingContext ctx = entity.getMappingContext();
-        PersistentEntity pe = ctx.getPersistentEntity(value.getClass().getName());
+        PersistentEntity pe = ctx.getPersistentEntityForClass(value.getClass());
         return ctx.getEntityReflector(pe).getIdentifier(value);
     }
 
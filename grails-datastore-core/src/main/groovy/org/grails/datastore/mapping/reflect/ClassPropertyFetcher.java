@@ -27,6 +27,11 @@ import java.util.*;
 /**
  * Reads the properties of a class in an optimized manner avoiding exceptions.
  *
+ * Instances are cached per class with a {@link ClassValue}, so {@link #forClass(Class)} is lock-free and the cache
+ * does not prevent classes from being unloaded. The introspection results are immutable once created and can be
+ * shared between threads. The bean introspection of the class is only performed once property descriptors or
+ * instance properties are requested, reading static properties does not require it.
+ *
  * @author Graeme Rocher
  * @since 1.0
  */
@@ -36,37 +41,57 @@ public class ClassPropertyFetcher {
     private final Class clazz;
     // static fetchers for this class, but also for all super classes with the property.
     // first item in each list is most derived version of static property.
-    final Map<String, List<PropertyFetcher>> staticFetchers = new HashMap<String, List<PropertyFetcher>>();
-    final Map<String, PropertyFetcher> instanceFetchers = new HashMap<String, PropertyFetcher>();
+    final Map<String, List<PropertyFetcher>> staticFetchers;
+    final Map<String, PropertyFetcher> fieldFetchers;
     private final ReferenceInstanceCallback callback;
-    private PropertyDescriptor[] propertyDescriptors;
-    private Map<String, PropertyDescriptor> propertyDescriptorsByName = new HashMap<String, PropertyDescriptor>();
-    private Map<String, Field> fieldsByName = new HashMap<String, Field>();
-    private Map<Class, List<PropertyDescriptor>> typeToPropertyMap = new HashMap<Class, List<PropertyDescriptor>>();
+    private final Map<String, Field> fieldsByName;
+    private final int cacheGeneration;
+    private volatile BeanIntrospection beanIntrospection;
+
+    // incremented by clearCache(), fetchers created for an earlier generation are replaced on their next lookup
+    private static volatile int currentCacheGeneration = 0;
 
-    private static Map<Class, ClassPropertyFetcher> cachedClassPropertyFetchers = new WeakHashMap<Class, ClassPropertyFetcher>();
+    private static final ClassValue<ClassPropertyFetcher> cachedClassPropertyFetchers = new ClassValue<ClassPropertyFetcher>() {
+        @Override
+        protected ClassPropertyFetcher computeValue(Class<?> type) {
+            return new ClassPropertyFetcher(type);
+        }
+    };
 
     public static ClassPropertyFetcher forClass(final Class c) {
         ClassPropertyFetcher cpf = cachedClassPropertyFetchers.get(c);
-        if (cpf == null) {
-            cpf = new ClassPropertyFetcher(c);
-            cachedClassPropertyFetchers.put(c, cpf);
+        if (cpf.cacheGeneration != currentCacheGeneration) {
+            cachedClassPropertyFetchers.remove(c);
+            cpf = cachedClassPropertyFetchers.get(c);
         }
         return cpf;
     }
 
     public static void clearCache()  {
-        cachedClassPropertyFetchers.clear();
+        currentCacheGeneration++;
     }
 
     ClassPropertyFetcher(final Class clazz) {
         this.clazz = clazz;
+        this.cacheGeneration = currentCacheGeneration;
         this.callback = new ReferenceInstanceCallback() {
             public Object getReferenceInstance() {
                return ReflectionUtils.instantiate(clazz);
             }
         };
-        init();
+
+        Map<String, List<PropertyFetcher>> staticFetchers = new HashMap<String, List<PropertyFetcher>>();
+        Map<String, PropertyFetcher> fieldFetchers = new HashMap<String, PropertyFetcher>();
+        Map<String, Field> fieldsByName = new HashMap<String, Field>();
+
+        init(staticFetchers, fieldFetchers, fieldsByName);
+
+        for (Map.Entry<String, List<PropertyFetcher>> entry : staticFetchers.entrySet()) {
+            entry.setValue(Collections.unmodifiableList(entry.getValue()));
+        }
+        this.staticFetchers = Collections.unmodifiableMap(staticFetchers);
+        this.fieldFetchers = Collections.unmodifiableMap(fieldFetchers);
+        this.fieldsByName = Collections.unmodifiableMap(fieldsByName);
     }
 
     /**
@@ -80,69 +105,98 @@ public class ClassPropertyFetcher {
         return callback == null ? null : callback.getReferenceInstance();
     }
 
+    /**
+     * @return A copy of the property descriptors of the class or null if the class could not be introspected
+     */
     public PropertyDescriptor[] getPropertyDescriptors() {
-        return propertyDescriptors;
+        PropertyDescriptor[] propertyDescriptors = getBeanIntrospection().propertyDescriptors;
+        return propertyDescriptors == null ? null : propertyDescriptors.clone();
     }
 
     public boolean isReadableProperty(String name) {
         return staticFetchers.containsKey(name) ||
-               instanceFetchers.containsKey(name);
+               getBeanIntrospection().getterFetchers.containsKey(name) ||
+               fieldFetchers.containsKey(name);
     }
 
-    private void init() {
+    private void init(Map<String, List<PropertyFetcher>> staticFetchers,
+                      Map<String, PropertyFetcher> fieldFetchers,
+                      Map<String, Field> fieldsByName) {
 
         List<Class> allClasses = resolveAllClasses(clazz);
         for (Class c : allClasses) {
             Field[] fields = c.getDeclaredFields();
             for (Field field : fields) {
-                processField(field);
+                processField(field, staticFetchers, fieldFetchers, fieldsByName);
             }
             Method[] methods = c.getDeclaredMethods();
             for (Method method : methods) {
-                processMethod(method);
+                processMethod(method, staticFetchers);
             }
         }
+    }
 
-        try {
-            propertyDescriptors = Introspector.getBeanInfo(clazz).getPropertyDescriptors();
-        } catch (IntrospectionException e) {
-            // ignore
-        }
-
-        if (propertyDescriptors == null) {
-            return;
+    private BeanIntrospection getBeanIntrospection() {
+        BeanIntrospection introspection = this.beanIntrospection;
+        if (introspection == null) {
+            // introspecting twice in a race is harmless, the results are equal
+            introspection = new BeanIntrospection(clazz);
+            this.beanIntrospection = introspection;
         }
+        return introspection;
+    }
 
-        for (PropertyDescriptor desc : propertyDescriptors) {
-            propertyDescriptorsByName.put(desc.getName(),desc);
-            final Class<?> propertyType = desc.getPropertyType();
-            if (propertyType == null) continue;
-            List<PropertyDescriptor> pds = typeToPropertyMap.get(propertyType);
-            if (pds == null) {
-                pds = new ArrayList<PropertyDescriptor>();
-                typeToPropertyMap.put(propertyType, pds);
+    /**
+     * The results of the bean introspection of a class. Static read methods are not included since
+     * {@link Introspector} ignores them, they are registered as static fetchers by {@link #processMethod}.
+     */
+    private static class BeanIntrospection {
+        final PropertyDescriptor[] propertyDescriptors;
+        final Map<String, PropertyDescriptor> propertyDescriptorsByName;
+        final Map<Class, List<PropertyDescriptor>> typeToPropertyMap;
+        final Map<String, PropertyFetcher> getterFetchers;
+
+        BeanIntrospection(Class clazz) {
+            PropertyDescriptor[] propertyDescriptors = null;
+            try {
+                propertyDescriptors = Introspector.getBeanInfo(clazz).getPropertyDescriptors();
+            } catch (IntrospectionException e) {
+                // ignore
             }
-            pds.add(desc);
 
-            Method readMethod = desc.getReadMethod();
-            if (readMethod != null) {
-                boolean staticReadMethod = Modifier.isStatic(readMethod.getModifiers());
-                if (staticReadMethod) {
-                    List<PropertyFetcher> propertyFetchers = staticFetchers.get(desc.getName());
-                    if (propertyFetchers == null) {
-                        staticFetchers.put(desc.getName(), propertyFetchers = new ArrayList<PropertyFetcher>());
+            Map<String, PropertyDescriptor> propertyDescriptorsByName = new HashMap<String, PropertyDescriptor>();
+            Map<Class, List<PropertyDescriptor>> typeToPropertyMap = new HashMap<Class, List<PropertyDescriptor>>();
+            Map<String, PropertyFetcher> getterFetchers = new HashMap<String, PropertyFetcher>();
+            if (propertyDescriptors != null) {
+                for (PropertyDescriptor desc : propertyDescriptors) {
+                    propertyDescriptorsByName.put(desc.getName(),desc);
+                    final Class<?> propertyType = desc.getPropertyType();
+                    if (propertyType == null) continue;
+                    List<PropertyDescriptor> pds = typeToPropertyMap.get(propertyType);
+                    if (pds == null) {
+                        pds = new ArrayList<PropertyDescriptor>();
+                        typeToPropertyMap.put(propertyType, pds);
+                    }
+                    pds.add(desc);
+
+                    Method readMethod = desc.getReadMethod();
+                    if (readMethod != null && !Modifier.isStatic(readMethod.getModifiers())) {
+                        getterFetchers.put(desc.getName(),
+                                new GetterPropertyFetcher(readMethod, false));
                     }
-                    propertyFetchers.add(
-                            new GetterPropertyFetcher(readMethod, true));
-                } else {
-                    instanceFetchers.put(desc.getName(),
-                            new GetterPropertyFetcher(readMethod, false));
                 }
             }
+            for (Map.Entry<Class, List<PropertyDescriptor>> entry : typeToPropertyMap.entrySet()) {
+                entry.setValue(Collections.unmodifiableList(entry.getValue()));
+            }
+            this.propertyDescriptors = propertyDescriptors;
+            this.propertyDescriptorsByName = Collections.unmodifiableMap(propertyDescriptorsByName);
+            this.typeToPropertyMap = Collections.unmodifiableMap(typeToPropertyMap);
+            this.getterFetchers = Collections.unmodifiableMap(getterFetchers);
         }
     }
 
-    private void processMethod(Method method) {
+    private void processMethod(Method method, Map<String, List<PropertyFetcher>> staticFetchers) {
         if (method.isSynthetic()) {
             return;
         }
@@ -177,7 +231,8 @@ public class ClassPropertyFetcher {
         }
     }
 
-    private void processField(Field field) {
+    private void processField(Field field, Map<String, List<PropertyFetcher>> staticFetchers,
+                              Map<String, PropertyFetcher> fieldFetchers, Map<String, Field> fieldsByName) {
         if (field.isSynthetic()) {
             return;
         }
@@ -198,7 +253,7 @@ public class ClassPropertyFetcher {
                     }
                     propertyFetchers.add(new FieldReaderFetcher(field, staticField));
                 } else {
-                    instanceFetchers.put(name, new FieldReaderFetcher(field, staticField));
+                    fieldFetchers.put(name, new FieldReaderFetcher(field, staticField));
                 }
             }
         }
@@ -307,7 +362,11 @@ public class ClassPropertyFetcher {
             fetcher = f == null ? null : f.get(0);
         }
         if (fetcher == null) {
-            fetcher = instanceFetchers.get(name);
+            // getters take precedence over public fields of the same name
+            fetcher = getBeanIntrospection().getterFetchers.get(name);
+            if (fetcher == null) {
+                fetcher = fieldFetchers.get(name);
+            }
         }
         return fetcher;
     }
@@ -322,11 +381,11 @@ public class ClassPropertyFetcher {
     }
 
     public PropertyDescriptor getPropertyDescriptor(String name) {
-        return propertyDescriptorsByName.get(name);
+        return getBeanIntrospection().propertyDescriptorsByName.get(name);
     }
 
     public List<PropertyDescriptor> getPropertiesOfType(Class javaClass) {
-        final List<PropertyDescriptor> propertyDescriptorList = typeToPropertyMap.get(javaClass);
+        final List<PropertyDescriptor> propertyDescriptorList = getBeanIntrospection().typeToPropertyMap.get(javaClass);
         if (propertyDescriptorList == null) return Collections.emptyList();
         return propertyDescriptorList;
     }
@@ -334,6 +393,7 @@ public class ClassPropertyFetcher {
     @SuppressWarnings("unchecked")
     public List<PropertyDescriptor> getPropertiesAssignableToType(Class assignableType) {
         List<PropertyDescriptor> properties = new ArrayList<PropertyDescriptor>();
+        Map<Class, List<PropertyDescriptor>> typeToPropertyMap = getBeanIntrospection().typeToPropertyMap;
         for (Class type : typeToPropertyMap.keySet()) {
             if (assignableType.isAssignableFrom(type)) {
                 properties.addAll(typeToPropertyMap.get(type));
@@ -345,6 +405,7 @@ public class ClassPropertyFetcher {
     @SuppressWarnings("unchecked")
     public List<PropertyDescriptor> getPropertiesAssignableFromType(Class assignableType) {
         List<PropertyDescriptor> properties = new ArrayList<PropertyDescriptor>();
+        Map<Class, List<PropertyDescriptor>> typeToPropertyMap = getBeanIntrospection().typeToPropertyMap;
         for (Class type : typeToPropertyMap.keySet()) {
             if (type.isAssignableFrom( assignableType )) {
                 properties.addAll(typeToPropertyMap.get(type));
@@ -3,7 +3,9 @@ package org.grails.datastore.mapping.reflect;
 import org.codehaus.groovy.runtime.InvokerHelper;
 import org.codehaus.groovy.transform.trait.Traits;
 import org.grails.datastore.mapping.engine.EntityAccess;
+import org.grails.datastore.mapping.model.AbstractMappingContext;
 import org.grails.datastore.mapping.model.AbstractPersistentEntity;
+import org.grails.datastore.mapping.model.MappingContext;
 import org.grails.datastore.mapping.model.PersistentEntity;
 import org.grails.datastore.mapping.model.PersistentProperty;
 import org.springframework.cglib.reflect.FastClass;
@@ -22,7 +24,8 @@ import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
 
 /**
- * Uses field reflection or CGlib to improve performance
+ * Uses field reflection or CGlib to improve performance. Fields of entities for which accessors were generated at
+ * compile time (see {@link GeneratedFieldAccess}) are read and written through those accessors instead.
  *
  * @author Graeme Rocher
  * @since 5.0
@@ -153,11 +156,11 @@ public class FieldEntityAccess implements EntityAccess {
                 Field field = ReflectionUtils.findField(javaClass, identityName);
                 if(field != null) {
                     ReflectionUtils.makeAccessible(field);
-                    identifierReader = new FieldReader(field);
-                    identifierWriter = new FieldWriter(field);
+                    identifierReader = createReader(field);
+                    identifierWriter = createWriter(field);
                 }
                 else {
-                    PropertyDescriptor descriptor = cpf.getPropertyDescriptor(identityName);
+                    PropertyDescriptor descriptor = getPropertyDescriptor(entity, cpf, identityName);
                     Method readMethod = descriptor.getReadMethod();
 
                     Traits.TraitBridge traitBridge = readMethod.getAnnotation(Traits.TraitBridge.class);
@@ -166,8 +169,8 @@ public class FieldEntityAccess implements EntityAccess {
                         field = ReflectionUtils.findField(javaClass, traitFieldName);
                         if(field != null) {
                             ReflectionUtils.makeAccessible(field);
-                            identifierReader = new FieldReader(field);
-                            identifierWriter = new FieldWriter(field);
+                            identifierReader = createReader(field);
+                            identifierWriter = createWriter(field);
                         }
                         else {
                             Method writeMethod = descriptor.getWriteMethod();
@@ -200,13 +203,13 @@ public class FieldEntityAccess implements EntityAccess {
                     Field field = ReflectionUtils.findField(javaClass, propertyName);
                     if (field != null) {
                         ReflectionUtils.makeAccessible(field);
-                        FieldReader reader = new FieldReader(field);
+                        PropertyReader reader = createReader(field);
                         readerMap.put(propertyName, reader);
-                        FieldWriter writer = new FieldWriter(field);
+                        PropertyWriter writer = createWriter(field);
                         writerMap.put(propertyName, writer);
                     } else {
 
-                        PropertyDescriptor descriptor = cpf.getPropertyDescriptor(propertyName);
+                        PropertyDescriptor descriptor = getPropertyDescriptor(entity, cpf, propertyName);
                         Method readMethod = descriptor.getReadMethod();
                         Method writeMethod = descriptor.getWriteMethod();
                         FastMethodReader reader = new FastMethodReader(fastClass.getMethod(readMethod));
@@ -226,16 +229,16 @@ public class FieldEntityAccess implements EntityAccess {
                 Field field = ReflectionUtils.findField(javaClass, propertyName);
                 if(field != null) {
                     ReflectionUtils.makeAccessible(field);
-                    FieldReader reader = new FieldReader(field);
+                    PropertyReader reader = createReader(field);
                     readers[i] = reader;
                     readerMap.put(propertyName, reader);
-                    FieldWriter writer = new FieldWriter(field);
+                    PropertyWriter writer = createWriter(field);
                     writers[i] = writer;
                     writerMap.put(propertyName, writer);
                 }
                 else {
 
-                    PropertyDescriptor descriptor = cpf.getPropertyDescriptor(propertyName);
+                    PropertyDescriptor descriptor = getPropertyDescriptor(entity, cpf, propertyName);
                     Method readMethod = descriptor.getReadMethod();
                     Method writeMethod = descriptor.getWriteMethod();
                     FastMethodReader reader = new FastMethodReader(fastClass.getMethod(readMethod));
@@ -249,6 +252,77 @@ public class FieldEntityAccess implements EntityAccess {
             }
         }
 
+        /**
+         * Looks up the descriptor of a property without a backing field, from the metadata generated at compile time
+         * if the mapping context uses it, so that the class isn't introspected
+         *
+         * @param entity The entity
+         * @param cpf The property fetcher of the entity class
+         * @param name The property name
+         * @return The property descriptor
+         */
+        private static PropertyDescriptor getPropertyDescriptor(PersistentEntity entity, ClassPropertyFetcher cpf, String name) {
+            MappingContext mappingContext = entity.getMappingContext();
+            if (mappingContext instanceof AbstractMappingContext && ((AbstractMappingContext) mappingContext).isUseGeneratedMetadata()) {
+                PropertyDescriptor descriptor = GeneratedPropertyMetadata.forClass(entity.getJavaClass()).getPropertyDescriptor(name);
+                if (descriptor != null) {
+                    return descriptor;
+                }
+            }
+            return cpf.getPropertyDescriptor(name);
+        }
+
+        /**
+         * Creates a reader for the given field, using the accessors generated at compile time when the declaring
+         * class has them
+         *
+         * @param field The field
+         * @return The reader
+         */
+        protected PropertyReader createReader(Field field) {
+            int index = findGeneratedFieldIndex(field);
+            if(index > -1) {
+                return new GeneratedFieldReader(index, field.getType());
+            }
+            return new FieldReader(field);
+        }
+
+        /**
+         * Creates a writer for the given field, using the accessors generated at compile time when the declaring
+         * class has them
+         *
+         * @param field The field
+         * @return The writer
+         */
+        protected PropertyWriter createWriter(Field field) {
+            int index = findGeneratedFieldIndex(field);
+            if(index > -1) {
+                return new GeneratedFieldWriter(index, field.getType());
+            }
+            return new FieldWriter(field);
+        }
+
+        private static int findGeneratedFieldIndex(Field field) {
+            Class<?> declaringClass = field.getDeclaringClass();
+            if(!GeneratedFieldAccess.class.isAssignableFrom(declaringClass)) {
+                return -1;
+            }
+            try {
+                String[] names = (String[]) declaringClass.getDeclaredField(GeneratedFieldAccess.FIELD_NAMES).get(null);
+                int base = declaringClass.getDeclaredField(GeneratedFieldAccess.FIELD_INDEX_BASE).getInt(null);
+                for (int i = 0; i < names.length; i++) {
+                    if(names[i].equals(field.getName())) {
+                        return base + i;
+                    }
+                }
+            } catch (NoSuchFieldException e) {
+                // no accessors were generated for the declaring class
+            } catch (IllegalAccessException e) {
+                // fall back to reflection
+            }
+            return -1;
+        }
+
         @Override
         public PersistentEntity getPersitentEntity() {
             return this.entity;
@@ -379,6 +453,46 @@ public class FieldEntityAccess implements EntityAccess {
             }
         }
 
+        static class GeneratedFieldReader implements PropertyReader {
+            final int index;
+            final Class propertyType;
+
+            public GeneratedFieldReader(int index, Class propertyType) {
+                this.index = index;
+                this.propertyType = propertyType;
+            }
+
+            @Override
+            public Class propertyType() {
+                return propertyType;
+            }
+
+            @Override
+            public Object read(Object object) {
+                return ((GeneratedFieldAccess) object).$readField(index);
+            }
+        }
+
+        static class GeneratedFieldWriter implements PropertyWriter {
+            final int index;
+            final Class propertyType;
+
+            public GeneratedFieldWriter(int index, Class propertyType) {
+                this.index = index;
+                this.propertyType = propertyType;
+            }
+
+            @Override
+            public Class propertyType() {
+                return propertyType;
+            }
+
+            @Override
+            public void write(Object object, Object value) {
+                ((GeneratedFieldAccess) object).$writeField(index, value);
+            }
+        }
+
         static class FieldReader implements PropertyReader {
             final Field field;
 
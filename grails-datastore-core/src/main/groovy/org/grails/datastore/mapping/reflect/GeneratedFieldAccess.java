@@ -0,0 +1,49 @@
+/* Copyright (C) 2016 original authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.grails.datastore.mapping.reflect;
+
+/**
+ * Implemented by entities for which field accessors were generated at compile time. Each class of the hierarchy
+ * that was transformed declares the static fields {@link #FIELD_NAMES} and {@link #FIELD_INDEX_BASE}, the field
+ * at position <code>i</code> of the names has the index <code>base + i</code>. The accessors read and write the
+ * fields directly, without reflection and without going through dirty checking setters.
+ *
+ * @author Graeme Rocher
+ * @since 6.0
+ */
+public interface GeneratedFieldAccess {
+
+    /**
+     * The name of the static field holding the names of the fields declared by a class
+     */
+    String FIELD_NAMES = "$GORM_FIELD_NAMES";
+
+    /**
+     * The name of the static field holding the index of the first field declared by a class
+     */
+    String FIELD_INDEX_BASE = "$GORM_FIELD_INDEX_BASE";
+
+    /**
+     * @param index The field index
+     * @return The value of the field
+     */
+    Object $readField(int index);
+
+    /**
+     * @param index The field index
+     * @param value The new value of the field
+     */
+    void $writeField(int index, Object value);
+}
@@ -0,0 +1,143 @@
+/* Copyright (C) 2016 original authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.grails.datastore.mapping.reflect;
+
+import java.beans.IntrospectionException;
+import java.beans.Introspector;
+import java.beans.PropertyDescriptor;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * The readable and writable properties of an entity class, as recorded at compile time.
+ *
+ * The entity transformation declares the getter and setter names of the properties of each entity class in the
+ * static field {@link #PROPERTY_ACCESSORS}, as consecutive pairs. The property descriptors are created from these
+ * names on first use, which avoids the bean introspection of the class. The metadata is only available if every
+ * class of the hierarchy declares it and all the accessors can be resolved, otherwise the bean introspection
+ * of the class has to be used instead.
+ *
+ * @author Graeme Rocher
+ * @since 6.0
+ */
+public final class GeneratedPropertyMetadata {
+
+    /**
+     * The name of the static field holding the getter and setter names of the properties declared by a class
+     */
+    public static final String PROPERTY_ACCESSORS = "$GORM_PROPERTY_ACCESSORS";
+
+    private static final GeneratedPropertyMetadata NONE = new GeneratedPropertyMetadata(null);
+
+    private static final ClassValue<GeneratedPropertyMetadata> METADATA = new ClassValue<GeneratedPropertyMetadata>() {
+        @Override
+        protected GeneratedPropertyMetadata computeValue(Class<?> type) {
+            Map<String, PropertyDescriptor> descriptors = readPropertyDescriptors(type);
+            return descriptors == null ? NONE : new GeneratedPropertyMetadata(descriptors);
+        }
+    };
+
+    private final Map<String, PropertyDescriptor> propertyDescriptorsByName;
+    private final PropertyDescriptor[] propertyDescriptors;
+
+    private GeneratedPropertyMetadata(Map<String, PropertyDescriptor> propertyDescriptorsByName) {
+        if (propertyDescriptorsByName == null) {
+            this.propertyDescriptorsByName = null;
+            this.propertyDescriptors = null;
+        }
+        else {
+            this.propertyDescriptorsByName = Collections.unmodifiableMap(propertyDescriptorsByName);
+            this.propertyDescriptors = propertyDescriptorsByName.values().toArray(new PropertyDescriptor[propertyDescriptorsByName.size()]);
+        }
+    }
+
+    /**
+     * @param type The class
+     * @return The metadata of the class
+     */
+    public static GeneratedPropertyMetadata forClass(Class<?> type) {
+        return METADATA.get(type);
+    }
+
+    /**
+     * @return Whether metadata was generated for the whole class hierarchy
+     */
+    public boolean isAvailable() {
+        return propertyDescriptors != null;
+    }
+
+    /**
+     * @return A copy of the descriptors of the readable and writable properties ordered by name, or null if no metadata is available
+     */
+    public PropertyDescriptor[] getPropertyDescriptors() {
+        return propertyDescriptors == null ? null : propertyDescriptors.clone();
+    }
+
+    /**
+     * @param name The property name
+     * @return The descriptor of the property or null if there is no such property or no metadata is available
+     */
+    public PropertyDescriptor getPropertyDescriptor(String name) {
+        return propertyDescriptorsByName == null ? null : propertyDescriptorsByName.get(name);
+    }
+
+    private static Map<String, PropertyDescriptor> readPropertyDescriptors(Class<?> type) {
+        List<Class<?>> hierarchy = new ArrayList<Class<?>>();
+        for (Class<?> c = type; c != null && c != Object.class; c = c.getSuperclass()) {
+            hierarchy.add(c);
+        }
+        if (hierarchy.isEmpty()) {
+            return null;
+        }
+        Collections.reverse(hierarchy);
+
+        // ordered by name like the results of the bean introspection, redeclared properties are replaced
+        Map<String, PropertyDescriptor> descriptors = new TreeMap<String, PropertyDescriptor>();
+        try {
+            for (Class<?> c : hierarchy) {
+                Field field = c.getDeclaredField(PROPERTY_ACCESSORS);
+                if (!Modifier.isStatic(field.getModifiers())) {
+                    return null;
+                }
+                ReflectionUtils.makeAccessible(field);
+                String[] accessors = (String[]) field.get(null);
+                for (int i = 0; i < accessors.length - 1; i += 2) {
+                    Method getter = type.getMethod(accessors[i]);
+                    Method setter = type.getMethod(accessors[i + 1], getter.getReturnType());
+                    String getterName = getter.getName();
+                    String propertyName = Introspector.decapitalize(getterName.substring(getterName.startsWith("is") ? 2 : 3));
+                    descriptors.put(propertyName, new PropertyDescriptor(propertyName, getter, setter));
+                }
+            }
+        } catch (NoSuchFieldException e) {
+            return null;
+        } catch (NoSuchMethodException e) {
+            return null;
+        } catch (IllegalAccessException e) {
+            return null;
+        } catch (IntrospectionException e) {
+            return null;
+        } catch (ClassCastException e) {
+            return null;
+        }
+        return descriptors;
+    }
+}
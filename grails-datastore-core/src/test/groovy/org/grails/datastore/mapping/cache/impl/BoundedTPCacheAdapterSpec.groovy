@@ -0,0 +1,108 @@
+package org.grails.datastore.mapping.cache.impl
+
+import java.util.concurrent.TimeUnit
+
+import org.grails.datastore.mapping.config.Entity
+import org.grails.datastore.mapping.model.ClassMapping
+import org.grails.datastore.mapping.model.PersistentEntity
+
+import spock.lang.Specification
+
+class BoundedTPCacheAdapterSpec extends Specification {
+
+    void "the least recently used entry is evicted when the cache is full"() {
+        given:
+        def adapter = new BoundedTPCacheAdapter<String>(2)
+
+        when:
+        adapter.cacheEntry(1L, "one")
+        adapter.cacheEntry(2L, "two")
+        adapter.getCachedEntry(1L)
+        adapter.cacheEntry(3L, "three")
+
+        then:
+        adapter.size() == 2
+        adapter.getCachedEntry(1L) == "one"
+        adapter.getCachedEntry(2L) == null
+        adapter.getCachedEntry(3L) == "three"
+        adapter.evictionCount == 1
+        adapter.hitCount == 3
+        adapter.missCount == 1
+    }
+
+    void "entries expire after the time to live"() {
+        given:
+        def adapter = new BoundedTPCacheAdapter<String>(10, 10, TimeUnit.MILLISECONDS)
+
+        when:
+        adapter.cacheEntry(1L, "one")
+        Thread.sleep(50)
+
+        then:
+        adapter.getCachedEntry(1L) == null
+        adapter.size() == 0
+        adapter.evictionCount == 1
+        adapter.missCount == 1
+    }
+
+    void "entries can be evicted individually or all at once"() {
+        given:
+        def adapter = new BoundedTPCacheAdapter<String>(10)
+        adapter.cacheEntry(1L, "one")
+        adapter.cacheEntry(2L, "two")
+        adapter.cacheEntry(3L, "three")
+
+        when:
+        adapter.evictEntry(2L)
+
+        then:
+        adapter.getCachedEntry(1L) == "one"
+        adapter.getCachedEntry(2L) == null
+
+        when:
+        adapter.clear()
+
+        then:
+        adapter.size() == 0
+        adapter.getCachedEntry(3L) == null
+    }
+
+    void "the repository creates an adapter from the mapping of an entity"() {
+        given:
+        def repository = new TPCacheAdapterRepositoryImpl<Map>()
+        def cached = mockEntity(String, new Entity(secondLevelCache: [maxSize: 5, timeToLive: 1000]))
+        def uncached = mockEntity(Integer, new Entity())
+
+        when:
+        def adapter = repository.getTPCacheAdapter(cached)
+
+        then:
+        adapter instanceof BoundedTPCacheAdapter
+        ((BoundedTPCacheAdapter) adapter).maxSize == 5
+        repository.getTPCacheAdapter(cached).is(adapter)
+        repository.getTPCacheAdapter(uncached) == null
+    }
+
+    void "an explicitly set adapter takes precedence over the mapping"() {
+        given:
+        def repository = new TPCacheAdapterRepositoryImpl<Map>()
+        def entity = mockEntity(String, new Entity(secondLevelCache: [maxSize: 5]))
+        def adapter = new HashMapTPCacheAdapter<Map>()
+
+        when:
+        repository.setTPCacheAdapter(String, adapter)
+
+        then:
+        repository.getTPCacheAdapter(entity).is(adapter)
+    }
+
+    private PersistentEntity mockEntity(Class type, Entity mappedForm) {
+        ClassMapping mapping = Mock(ClassMapping) {
+            getMappedForm() >> mappedForm
+        }
+        return Mock(PersistentEntity) {
+            getJavaClass() >> type
+            getMapping() >> mapping
+        }
+    }
+}
@@ -0,0 +1,119 @@
+package org.grails.datastore.mapping.core.impl
+
+import spock.lang.Specification
+
+class EntityIdentityMapSpec extends Specification {
+
+    void "integral identifiers of different types are the same key"() {
+        given:
+        def map = new EntityIdentityMap<String>()
+
+        when:
+        map.put(1L, "one")
+
+        then:
+        map.get(1) == "one"
+        map.get((short) 1) == "one"
+        map.get(1L) == "one"
+        map.containsKey(1)
+        map.size() == 1
+    }
+
+    void "the map behaves like a hash map under random operations"() {
+        given:
+        def map = new EntityIdentityMap<Object>()
+        def expected = new HashMap<Serializable, Object>()
+        def random = new Random(42)
+
+        when:
+        10000.times {
+            Serializable key = random.nextBoolean() ? (Serializable) (long) random.nextInt(500) : "key${random.nextInt(500)}".toString()
+            if (random.nextInt(3) == 0) {
+                assert map.remove(key) == expected.remove(key)
+            }
+            else {
+                def value = new Object()
+                assert map.put(key, value) == expected.put(key, value)
+            }
+        }
+
+        then:
+        map.size() == expected.size()
+        expected.every { k, v -> map.get(k).is(v) }
+        map.entrySet().collectEntries { [(it.key): it.value] } == expected
+    }
+
+    void "values can be found and the map cleared"() {
+        given:
+        def map = new EntityIdentityMap<String>()
+        map.put(1L, "one")
+        map.put("two", "two")
+
+        expect:
+        map.containsValue("one")
+        map.containsValue("two")
+        !map.containsValue("three")
+
+        when:
+        map.clear()
+
+        then:
+        map.isEmpty()
+        map.get(1L) == null
+        map.get("two") == null
+    }
+
+    void "the maps of a session are created per type"() {
+        given:
+        def maps = new EntityIdentityMaps(concurrent)
+
+        when:
+        maps.getOrCreate(String).put(1L, "one")
+        maps.getOrCreate(Integer).put(1L, 1)
+
+        then:
+        maps.get(String).get(1L) == "one"
+        maps.get(Integer).get(1L) == 1
+        maps.get(Date) == null
+
+        when:
+        def copy = new EntityIdentityMaps(!concurrent)
+        copy.copyAll(maps)
+        maps.clearMaps()
+
+        then:
+        maps.get(String).isEmpty()
+        copy.get(String).get(1L) == "one"
+
+        when:
+        maps.clear()
+
+        then:
+        maps.isEmpty()
+        maps.get(String) == null
+
+        where:
+        concurrent << [false, true]
+    }
+
+    void "the maps of many types can be added and removed"() {
+        given:
+        def maps = new EntityIdentityMaps()
+        List<Class> types = [String, Integer, Long, Date, List, Map, Set, Double, Float, Short, Byte, Character, Boolean, BigDecimal, BigInteger, Number, Object]
+
+        when:
+        types.each { maps.put(it, [(1L): it.simpleName]) }
+
+        then:
+        maps.size() == types.size()
+        types.every { maps.get(it).get(1L) == it.simpleName }
+        maps.keySet() == types as Set
+
+        when:
+        types.findAll { it.simpleName.length() % 2 == 0 }.each { maps.remove(it) }
+
+        then:
+        types.every { type -> type.simpleName.length() % 2 == 0 ? !maps.containsKey(type) : maps.get(type).get(1L) == type.simpleName }
+        maps.size() == types.count { it.simpleName.length() % 2 != 0 }
+    }
+}
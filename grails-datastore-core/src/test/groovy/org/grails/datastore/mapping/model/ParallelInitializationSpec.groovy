@@ -0,0 +1,69 @@
+package org.grails.datastore.mapping.model
+
+import grails.persistence.Entity
+import spock.lang.Specification
+
+/**
+ * Tests that initializing entities in parallel produces the same model as sequential initialization
+ */
+class ParallelInitializationSpec extends Specification {
+
+    void "Test parallel initialization links inheritance hierarchies like sequential initialization"() {
+        given:
+            def classes = [ParallelVehicle, ParallelCar, ParallelTruck, ParallelSportsCar, ParallelGarage] as Class[]
+            def sequential = new TestMappingContext()
+            def parallel = new TestMappingContext(parallelInitialization: true)
+
+        when:
+            sequential.addPersistentEntities(classes)
+            parallel.addPersistentEntities(classes)
+            def vehicle = parallel.getPersistentEntity(ParallelVehicle.name)
+            def car = parallel.getPersistentEntity(ParallelCar.name)
+
+        then:"The same entities, properties and hierarchies are created"
+            parallel.persistentEntities*.name as Set == sequential.persistentEntities*.name as Set
+            classes.every { Class type ->
+                def expected = sequential.getPersistentEntity(type.name)
+                def actual = parallel.getPersistentEntity(type.name)
+                actual.initialized &&
+                    actual.reflector != null &&
+                    actual.persistentPropertyNames as Set == expected.persistentPropertyNames as Set &&
+                    actual.rootEntity.name == expected.rootEntity.name
+            }
+            parallel.getChildEntities(vehicle)*.name as Set == [ParallelCar, ParallelTruck, ParallelSportsCar]*.name as Set
+            parallel.getDirectChildEntities(car)*.name == [ParallelSportsCar.name]
+            parallel.getChildEntityByDiscriminator(vehicle, 'ParallelSportsCar').javaClass == ParallelSportsCar
+            parallel.isInInheritanceHierarchy(vehicle)
+            parallel.getPersistentEntity(ParallelGarage.name).getPropertyByName('vehicles').associatedEntity.is(vehicle)
+    }
+}
+
+@Entity
+class ParallelVehicle {
+    Long id
+    Long version
+    String make
+}
+
+@Entity
+class ParallelCar extends ParallelVehicle {
+    Integer doors
+}
+
+@Entity
+class ParallelSportsCar extends ParallelCar {
+    Integer topSpeed
+}
+
+@Entity
+class ParallelTruck extends ParallelVehicle {
+    Integer payload
+}
+
+@Entity
+class ParallelGarage {
+    Long id
+    Long version
+    String name
+    static hasMany = [vehicles: ParallelVehicle]
+}
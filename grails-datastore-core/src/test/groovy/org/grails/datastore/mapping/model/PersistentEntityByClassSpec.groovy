@@ -0,0 +1,83 @@
+package org.grails.datastore.mapping.model
+
+import grails.persistence.Entity
+import javassist.util.proxy.ProxyFactory
+import spock.lang.Specification
+
+/**
+ * Tests the class based lookup of entities in {@link AbstractMappingContext}
+ */
+class PersistentEntityByClassSpec extends Specification {
+
+    void "Test entities are found by class once added"() {
+        given:
+            def context = new TestMappingContext()
+
+        expect:"Unknown classes are not entities"
+            context.getPersistentEntityForClass(ClassLookupPerson) == null
+            !context.isPersistentEntity(ClassLookupPerson)
+            context.getPersistentEntityForClass(null) == null
+
+        when:"The entity is added after a failed lookup"
+            def entity = context.addPersistentEntity(ClassLookupPerson)
+
+        then:"The lookup is invalidated and finds the entity"
+            context.getPersistentEntityForClass(ClassLookupPerson).is(entity)
+            context.isPersistentEntity(ClassLookupPerson)
+            context.isPersistentEntity(new ClassLookupPerson())
+            !context.isPersistentEntity(String)
+    }
+
+    void "Test classes that are not entities are resolved only once"() {
+        given:
+            def context = new CountingMappingContext()
+
+        when:"A class that is not an entity is looked up repeatedly"
+            10.times {
+                assert !context.isPersistentEntity("value")
+                assert context.getPersistentEntityForClass(String) == null
+            }
+
+        then:"It is resolved by name only once"
+            context.lookups.count { it == String.name } == 1
+
+        when:"A class is cached as not being an entity and is then added as an entity"
+            assert !context.isPersistentEntity(ClassLookupPerson)
+            context.addPersistentEntity(ClassLookupPerson)
+
+        then:"The cached lookups are invalidated"
+            context.isPersistentEntity(ClassLookupPerson)
+            context.getPersistentEntityForClass(String) == null
+    }
+
+    void "Test proxy classes resolve to the proxied entity"() {
+        given:
+            def context = new TestMappingContext()
+            def entity = context.addPersistentEntity(ClassLookupPerson)
+            def factory = new ProxyFactory()
+            factory.superclass = ClassLookupPerson
+            Class proxyClass = factory.createClass()
+
+        expect:
+            proxyClass.name.contains('_$$_')
+            context.getPersistentEntityForClass(proxyClass).is(entity)
+            context.isPersistentEntity(proxyClass)
+    }
+}
+
+class CountingMappingContext extends TestMappingContext {
+    List<String> lookups = []
+
+    @Override
+    PersistentEntity getPersistentEntity(String name) {
+        lookups << name
+        return super.getPersistentEntity(name)
+    }
+}
+
+@Entity
+class ClassLookupPerson {
+    Long id
+    Long version
+    String name
+}
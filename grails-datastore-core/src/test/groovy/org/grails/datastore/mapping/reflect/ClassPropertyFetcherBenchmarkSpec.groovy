@@ -0,0 +1,91 @@
+package org.grails.datastore.mapping.reflect
+
+import org.slf4j.Logger
+import org.slf4j.LoggerFactory
+import spock.lang.Requires
+import spock.lang.Specification
+
+import java.util.concurrent.Callable
+import java.util.concurrent.CountDownLatch
+import java.util.concurrent.ExecutorService
+import java.util.concurrent.Executors
+import java.util.concurrent.Future
+
+/**
+ * Microbenchmark of {@link ClassPropertyFetcher#forClass(Class)} lookups and property reads with concurrent threads.
+ * Enabled with -Dgorm.reflect.benchmark=true, the number of threads is set with -Dgorm.reflect.benchmark.threads
+ * (8 by default) and the number of lookups of each thread with -Dgorm.reflect.benchmark.operations (1000000 by default).
+ *
+ * @author Graeme Rocher
+ */
+@Requires({ Boolean.getBoolean("gorm.reflect.benchmark") })
+class ClassPropertyFetcherBenchmarkSpec extends Specification {
+
+    static final Logger LOG = LoggerFactory.getLogger(ClassPropertyFetcherBenchmarkSpec)
+    static final int THREADS = Integer.getInteger("gorm.reflect.benchmark.threads", 8)
+    static final int OPERATIONS = Integer.getInteger("gorm.reflect.benchmark.operations", 1000000)
+    static final int WARMUP_OPERATIONS = 10000
+
+    void "Test the throughput of lookups and property reads with one and with concurrent threads"() {
+        given:
+        def instance = new BenchmarkBean(name: "Bob", age: 30)
+        Closure<Boolean> lookup = { ClassPropertyFetcher.forClass(BenchmarkBean) != null }
+        Closure<Boolean> read = { ClassPropertyFetcher.forClass(BenchmarkBean).getPropertyValue(instance, "name") == "Bob" }
+
+        when:"Fetchers are looked up and used by a single thread and by concurrent threads"
+        long singleLookup = measure("forClass", 1, lookup)
+        long concurrentLookup = measure("forClass", THREADS, lookup)
+        long singleRead = measure("forClass and getPropertyValue", 1, read)
+        long concurrentRead = measure("forClass and getPropertyValue", THREADS, read)
+
+        then:"Every lookup succeeded"
+        singleLookup > 0
+        concurrentLookup > 0
+        singleRead > 0
+        concurrentRead > 0
+    }
+
+    /**
+     * Runs the operation on the given number of threads and returns the elapsed time in nanoseconds
+     */
+    protected long measure(String name, int threads, Closure<Boolean> operation) {
+        for(int i = 0; i < WARMUP_OPERATIONS; i++) {
+            operation.call()
+        }
+        ExecutorService executor = Executors.newFixedThreadPool(threads)
+        try {
+            CountDownLatch start = new CountDownLatch(1)
+            List<Future<Integer>> futures = (1..threads).collect {
+                executor.submit({
+                    start.await()
+                    int failures = 0
+                    for(int i = 0; i < OPERATIONS; i++) {
+                        if(!operation.call()) {
+                            failures++
+                        }
+                    }
+                    return failures
+                } as Callable<Integer>)
+            }
+            long begin = System.nanoTime()
+            start.countDown()
+            int failures = futures.sum { it.get() } as int
+            long elapsed = System.nanoTime() - begin
+            if(failures > 0) {
+                throw new IllegalStateException("$name failed $failures times")
+            }
+            long total = (long) threads * OPERATIONS
+            LOG.info(String.format("%s with %d threads: %d calls in %d ms, %.0f calls per second",
+                    name, threads, total, (long) (elapsed / 1e6d), total / (elapsed / 1e9d)))
+            return elapsed
+        }
+        finally {
+            executor.shutdownNow()
+        }
+    }
+}
+
+class BenchmarkBean {
+    String name
+    Integer age
+}
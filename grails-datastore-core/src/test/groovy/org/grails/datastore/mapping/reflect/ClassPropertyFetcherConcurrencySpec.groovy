@@ -0,0 +1,108 @@
+package org.grails.datastore.mapping.reflect
+
+import spock.lang.Specification
+
+import java.util.concurrent.Callable
+import java.util.concurrent.CountDownLatch
+import java.util.concurrent.ExecutorService
+import java.util.concurrent.Executors
+import java.util.concurrent.Future
+
+/**
+ * Tests concurrent use of the {@link ClassPropertyFetcher} cache
+ */
+class ClassPropertyFetcherConcurrencySpec extends Specification {
+
+    void "Test concurrent lookups return the same fetcher and read properties correctly"() {
+        given:
+            int threads = 8
+            ExecutorService executor = Executors.newFixedThreadPool(threads)
+            CountDownLatch start = new CountDownLatch(1)
+            def instance = new ConcurrentBean(name: "Bob", age: 30)
+
+        when:
+            List<Future<List<ClassPropertyFetcher>>> futures = (1..threads).collect {
+                executor.submit({
+                    start.await()
+                    List<ClassPropertyFetcher> seen = []
+                    1000.times {
+                        ClassPropertyFetcher cpf = ClassPropertyFetcher.forClass(ConcurrentBean)
+                        assert cpf.getPropertyValue(instance, "name") == "Bob"
+                        assert cpf.getPropertyValue(instance, "age") == 30
+                        assert cpf.getStaticPropertyValue("mapWith", String) == "simple"
+                        seen << cpf
+                    }
+                    return seen.unique()
+                } as Callable<List<ClassPropertyFetcher>>)
+            }
+            start.countDown()
+            def fetchers = futures.collectMany { it.get() }.unique()
+
+        then:
+            fetchers.size() == 1
+            fetchers[0].is(ClassPropertyFetcher.forClass(ConcurrentBean))
+
+        cleanup:
+            executor.shutdownNow()
+    }
+
+    void "Test lookups remain correct while the cache is cleared concurrently"() {
+        given:
+            int threads = 8
+            ExecutorService executor = Executors.newFixedThreadPool(threads + 1)
+            CountDownLatch start = new CountDownLatch(1)
+            def instance = new ConcurrentBean(name: "Fred", age: 40)
+
+        when:
+            List<Future> futures = (1..threads).collect {
+                executor.submit({
+                    start.await()
+                    1000.times {
+                        ClassPropertyFetcher cpf = ClassPropertyFetcher.forClass(ConcurrentBean)
+                        assert cpf.getPropertyValue(instance, "name") == "Fred"
+                        assert cpf.isReadableProperty("age")
+                    }
+                    return null
+                } as Callable)
+            }
+            futures << executor.submit({
+                start.await()
+                100.times { ClassPropertyFetcher.clearCache() }
+                return null
+            } as Callable)
+            start.countDown()
+            futures*.get()
+            def before = ClassPropertyFetcher.forClass(ConcurrentBean)
+            ClassPropertyFetcher.clearCache()
+
+        then:"Clearing the cache creates a new fetcher on the next lookup"
+            !ClassPropertyFetcher.forClass(ConcurrentBean).is(before)
+
+        cleanup:
+            executor.shutdownNow()
+    }
+
+    void "Test introspection results cannot be modified"() {
+        given:
+            def cpf = ClassPropertyFetcher.forClass(ConcurrentBean)
+
+        when:
+            cpf.getPropertiesOfType(String).clear()
+
+        then:
+            thrown UnsupportedOperationException
+
+        when:
+            cpf.getPropertyDescriptors()[0] = null
+
+        then:
+            cpf.getPropertyDescriptors().every { it != null }
+    }
+}
+
+class ConcurrentBean {
+    static String mapWith = "simple"
+
+    String name
+    Integer age
+}
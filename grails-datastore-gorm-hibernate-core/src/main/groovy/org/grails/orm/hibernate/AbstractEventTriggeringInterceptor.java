@@ -63,7 +63,7 @@ public abstract class AbstractEventTriggeringInterceptor extends AbstractPersist
         Mapping mapping = binder.getMapping(entity.getClass());
         List<String> dataSourceNames = null;
         if (mapping == null) {
-            final PersistentEntity dc = hibernateMappingContext.getPersistentEntity(entity.getClass().getName());
+            final PersistentEntity dc = hibernateMappingContext.getPersistentEntityForClass(entity.getClass());
             if (dc != null) {
                 dataSourceNames = getDatasourceNames(dc);
             }
@@ -38,6 +38,8 @@ public abstract class AbstractHibernateDatastore extends AbstractDatastore imple
     public static final String CONFIG_PROPERTY_CACHE_QUERIES = "grails.hibernate.cache.queries";
     public static final String CONFIG_PROPERTY_OSIV_READONLY = "grails.hibernate.osiv.readonly";
     public static final String CONFIG_PROPERTY_PASS_READONLY_TO_HIBERNATE = "grails.hibernate.pass.readonly";
+    public static final String CONFIG_PROPERTY_GET_ALL_CHUNK_SIZE = "grails.hibernate.getAll.chunkSize";
+    public static final int DEFAULT_GET_ALL_CHUNK_SIZE = 500;
     protected final SessionFactory sessionFactory;
     protected AbstractEventTriggeringInterceptor eventTriggeringInterceptor;
     private final boolean osivReadOnly;
@@ -45,6 +47,7 @@ public abstract class AbstractHibernateDatastore extends AbstractDatastore imple
     private final boolean isCacheQueries;
     private final int defaultFlushMode;
     private final boolean failOnError;
+    private final int getAllChunkSize;
     private final String dataSourceName;
 
 
@@ -67,6 +70,7 @@ public abstract class AbstractHibernateDatastore extends AbstractDatastore imple
             defaultFlushMode = config.getProperty(SETTING_FLUSH_MODE, Integer.class, FlushMode.COMMIT.level);
         }
         failOnError = config.getProperty(SETTING_FAIL_ON_ERROR, Boolean.class, false);
+        getAllChunkSize = Math.max(1, config.getProperty(CONFIG_PROPERTY_GET_ALL_CHUNK_SIZE, Integer.class, DEFAULT_GET_ALL_CHUNK_SIZE));
     }
 
     public boolean isAutoFlush() {
@@ -93,6 +97,13 @@ public abstract class AbstractHibernateDatastore extends AbstractDatastore imple
         return isCacheQueries;
     }
 
+    /**
+     * @return The maximum number of identifiers in the IN list of each query executed by getAll
+     */
+    public int getGetAllChunkSize() {
+        return getAllChunkSize;
+    }
+
     public AbstractHibernateDatastore(MappingContext mappingContext, SessionFactory sessionFactory, PropertyResolver config) {
         this(mappingContext, sessionFactory, config, null, Mapping.DEFAULT_DATA_SOURCE);
     }
@@ -8,6 +8,7 @@ import org.grails.orm.hibernate.cfg.CompositeIdentity
 import org.grails.orm.hibernate.exceptions.GrailsQueryException
 import org.grails.orm.hibernate.query.GrailsHibernateQueryUtils
 import org.grails.orm.hibernate.support.HibernateRuntimeUtils
+import org.grails.orm.hibernate.support.LongObjectHashMap
 import org.grails.datastore.gorm.GormStaticApi
 import org.grails.datastore.gorm.finders.DynamicFinder
 import org.grails.datastore.gorm.finders.FinderMethod
@@ -19,6 +20,11 @@ import org.hibernate.Session
 import org.hibernate.criterion.Example
 import org.hibernate.criterion.Projections
 import org.hibernate.criterion.Restrictions
+import org.hibernate.engine.spi.EntityKey
+import org.hibernate.engine.spi.PersistenceContext
+import org.hibernate.engine.spi.SessionImplementor
+import org.hibernate.engine.spi.Status
+import org.hibernate.persister.entity.EntityPersister
 import org.hibernate.transform.DistinctRootEntityResultTransformer
 import org.springframework.core.convert.ConversionService
 import org.springframework.transaction.PlatformTransactionManager
@@ -34,6 +40,8 @@ import java.util.regex.Pattern
 @CompileStatic
 abstract class AbstractHibernateGormStaticApi<D> extends GormStaticApi<D> {
 
+    private static final List<Class> NUMERIC_IDENTITY_TYPES = [Long, Integer, Short, long, int, short] as List<Class>
+
     protected ProxyHandler proxyHandler
     protected Pattern queryPattern
     protected IHibernateTemplate hibernateTemplate
@@ -373,22 +381,102 @@ abstract class AbstractHibernateGormStaticApi<D> extends GormStaticApi<D> {
 
         (List)hibernateTemplate.execute { Session session ->
             def identityType = persistentEntity.identity.type
-            ids = ids.collect { HibernateRuntimeUtils.convertValueToType((Serializable)it, identityType, conversionService) }
-            def criteria = session.createCriteria(persistentClass)
-            hibernateTemplate.applySettings(criteria)
+            int count = ids.size()
+            Serializable[] convertedIds = new Serializable[count]
+            Object[] results = new Object[count]
+
+            // instances already in the session are not queried again
+            List<Serializable> idsToLoad = new ArrayList<Serializable>(count)
+            Set<Serializable> pendingIds = new HashSet<Serializable>()
+            PersistenceContext persistenceContext = null
+            EntityPersister persister = null
+            if (session instanceof SessionImplementor) {
+                SessionImplementor sessionImplementor = (SessionImplementor) session
+                persistenceContext = sessionImplementor.persistenceContext
+                persister = sessionImplementor.factory.getEntityPersister(persistentEntity.javaClass.name)
+            }
+            for (int i = 0; i < count; i++) {
+                Serializable id = HibernateRuntimeUtils.convertValueToType((Serializable) ids.get(i), identityType, conversionService)
+                convertedIds[i] = id
+                if (id == null) continue
+
+                Object cached = persistenceContext != null ? getManagedInstance(persistenceContext, ((SessionImplementor) session).generateEntityKey(id, persister)) : null
+                if (cached != null) {
+                    results[i] = persistentClass.isInstance(cached) ? cached : null
+                }
+                else if (pendingIds.add(id)) {
+                    idsToLoad.add(id)
+                }
+            }
+            if (idsToLoad.isEmpty()) {
+                return new ArrayList(Arrays.asList(results))
+            }
+
+            boolean numericIds = identityType in NUMERIC_IDENTITY_TYPES
+            LongObjectHashMap<Object> loadedByLong = numericIds ? new LongObjectHashMap<Object>(idsToLoad.size()) : null
+            Map<Object, Object> loaded = numericIds ? null : new HashMap<Object, Object>(idsToLoad.size() * 2)
             def identityName = persistentEntity.identity.name
-            criteria.add(Restrictions.'in'(identityName, ids))
-            def results = criteria.list()
-            def idsMap = [:]
-            for (object in results) {
-                idsMap[object[identityName]] = object
+            int chunkSize = getAllChunkSize
+            for (int start = 0; start < idsToLoad.size(); start += chunkSize) {
+                List<Serializable> chunk = padIdentifiers(idsToLoad.subList(start, Math.min(start + chunkSize, idsToLoad.size())), chunkSize)
+                def criteria = session.createCriteria(persistentClass)
+                hibernateTemplate.applySettings(criteria)
+                criteria.add(Restrictions.'in'(identityName, chunk))
+                for (object in criteria.list()) {
+                    Serializable id = session.getIdentifier(object)
+                    if (numericIds) {
+                        loadedByLong.put(((Number) id).longValue(), object)
+                    }
+                    else {
+                        loaded.put(id, object)
+                    }
+                }
             }
-            results.clear()
-            for (id in ids) {
-                results << idsMap[id]
+
+            for (int i = 0; i < count; i++) {
+                Serializable id = convertedIds[i]
+                if (results[i] == null && id != null) {
+                    results[i] = numericIds ? loadedByLong.get(((Number) id).longValue()) : loaded.get(id)
+                }
             }
-            results
+            new ArrayList(Arrays.asList(results))
+        }
+    }
+
+    /**
+     * @return The maximum number of identifiers in the IN list of each query executed by getAll
+     */
+    protected int getGetAllChunkSize() {
+        datastore instanceof AbstractHibernateDatastore ? ((AbstractHibernateDatastore) datastore).getAllChunkSize : AbstractHibernateDatastore.DEFAULT_GET_ALL_CHUNK_SIZE
+    }
+
+    /**
+     * Pads the identifiers of a chunk, by repeating the last one, to the next power of two or the chunk size so that
+     * only a few distinct IN lists are executed and their statements and plans can be reused.
+     */
+    private static List<Serializable> padIdentifiers(List<Serializable> ids, int chunkSize) {
+        int size = ids.size()
+        int paddedSize = Math.min(Integer.highestOneBit(size) == size ? size : Integer.highestOneBit(size) << 1, chunkSize)
+        if (paddedSize <= size) {
+            return ids
+        }
+        List<Serializable> padded = new ArrayList<Serializable>(paddedSize)
+        padded.addAll(ids)
+        Serializable last = ids.get(size - 1)
+        while (padded.size() < paddedSize) {
+            padded.add(last)
+        }
+        padded
+    }
+
+    private static Object getManagedInstance(PersistenceContext persistenceContext, EntityKey key) {
+        Object instance = persistenceContext.getEntity(key)
+        if (instance == null) {
+            return null
         }
+        // deleted instances are left to the query, which will not find them once flushed
+        Status status = persistenceContext.getEntry(instance)?.status
+        status == Status.MANAGED || status == Status.READ_ONLY ? instance : null
     }
 
     protected Map filterQueryArgumentMap(Map query) {
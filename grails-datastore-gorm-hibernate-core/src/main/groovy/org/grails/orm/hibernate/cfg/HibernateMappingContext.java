@@ -45,12 +45,14 @@ public class HibernateMappingContext extends AbstractMappingContext {
 
     public HibernateMappingContext(PropertyResolver configuration, Object contextObject, Class...persistentClasses) {
         this(configuration.getProperty(Settings.SETTING_DEFAULT_MAPPING, Closure.class, null), contextObject);
+        configureInitialization(configuration);
         addPersistentEntities(persistentClasses);
     }
 
     public HibernateMappingContext(PropertyResolver configuration, Object contextObject, Closure defaultConstraints, Class...persistentClasses) {
         this(configuration.getProperty(Settings.SETTING_DEFAULT_MAPPING, Closure.class, null), contextObject);
         setDefaultConstraints(defaultConstraints);
+        configureInitialization(configuration);
         addPersistentEntities(persistentClasses);
     }
 
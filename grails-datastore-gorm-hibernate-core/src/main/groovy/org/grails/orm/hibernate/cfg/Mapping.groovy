@@ -126,11 +126,6 @@ class Mapping extends Entity {
      */
     String versionColumn
 
-    /**
-     * The batch size to use for lazy loading
-     */
-    Integer batchSize
-
     /**
      * Whether to use dynamically created update queries, at the cost of some performance
      */
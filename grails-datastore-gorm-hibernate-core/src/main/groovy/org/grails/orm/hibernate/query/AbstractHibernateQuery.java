@@ -14,7 +14,10 @@
  */
 package org.grails.orm.hibernate.query;
 
+import groovy.lang.Closure;
+
 import java.lang.reflect.Field;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.HashMap;
 import java.util.LinkedList;
@@ -36,6 +39,7 @@ import org.grails.datastore.mapping.model.PersistentEntity;
 import org.grails.datastore.mapping.model.PersistentProperty;
 import org.grails.datastore.mapping.model.types.Association;
 import org.grails.datastore.mapping.model.types.Embedded;
+import org.grails.datastore.mapping.model.types.ToMany;
 import org.grails.datastore.mapping.query.AssociationQuery;
 import org.grails.datastore.mapping.query.Query;
 import org.grails.datastore.mapping.query.api.QueryableCriteria;
@@ -652,6 +656,91 @@ public abstract class AbstractHibernateQuery extends Query {
     public List list() {
         if(criteria == null) throw new IllegalStateException("Cannot execute query using a detached criteria instance");
 
+        prepareCriteriaForList();
+
+        return criteria.list();
+    }
+
+    /**
+     * Scrolls forward through the results with a fetch size equal to the batch size rather than paging through them,
+     * flushing the session and evicting the instances of each batch once it has been processed.
+     *
+     * <p>Scrolling returns the raw rows of the query, so the result transformer of the criteria is not applied.
+     * Rows are only merged when the same root entity is returned by consecutive rows, as a join fetch of a single
+     * valued association does. Eager fetches of collections, or of nested association paths, return one row per
+     * element of the collection in an order that isn't guaranteed to keep the rows of a root entity together, so
+     * they are rejected. Make such associations lazy for the query, for example with
+     * <code>fetchMode 'books', FetchMode.SELECT</code>, or use list() with max and offset instead.</p>
+     *
+     * @param batchSize The number of results of each batch
+     * @param callable The closure, called with the list of results of each batch
+     */
+    @Override
+    public void eachBatch(int batchSize, Closure callable) {
+        if(criteria == null) throw new IllegalStateException("Cannot execute query using a detached criteria instance");
+        if(batchSize < 1) throw new IllegalArgumentException("Argument [batchSize] must be greater than zero");
+        String eagerCollection = findEagerCollectionFetch();
+        if(eagerCollection != null) {
+            throw new InvalidDataAccessResourceUsageException("Cannot scroll through the results of a query that eagerly fetches the collection [" +
+                    eagerCollection + "] of [" + entity.getName() + "] in batches, as the rows of each result would be repeated");
+        }
+
+        int projectionLength = prepareCriteriaForList();
+        criteria.setFetchSize(batchSize);
+
+        ScrollableResults results = criteria.scroll(ScrollMode.FORWARD_ONLY);
+        try {
+            List batch = new ArrayList(batchSize);
+            Object previous = null;
+            while (results.next()) {
+                Object[] row = results.get();
+                Object result = row.length == 1 ? row[0] : row;
+                if(projectionLength == 0 && result == previous) {
+                    // rows of a fetch join that belong to the same root entity
+                    continue;
+                }
+                previous = result;
+                batch.add(result);
+                if(batch.size() == batchSize) {
+                    callable.call(batch);
+                    releaseBatch(batch);
+                    batch = new ArrayList(batchSize);
+                }
+            }
+            if(!batch.isEmpty()) {
+                callable.call(batch);
+                releaseBatch(batch);
+            }
+        } finally {
+            results.close();
+        }
+    }
+
+    /**
+     * @return The name of a collection or of a nested association path fetched eagerly by the query, or null if there is none
+     */
+    protected String findEagerCollectionFetch() {
+        for (Map.Entry<String, FetchType> entry : fetchStrategies.entrySet()) {
+            if(entry.getValue() == FetchType.EAGER && entry.getKey().indexOf('.') > -1) {
+                return entry.getKey();
+            }
+        }
+        if(entity != null) {
+            for (PersistentProperty property : entity.getPersistentProperties()) {
+                if(property instanceof ToMany && fetchStrategy(property.getName()) == FetchType.EAGER) {
+                    return property.getName();
+                }
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Applies the projections, result transformer, default sort order and fetch strategies to the criteria
+     *
+     * @return The number of projections
+     */
+    protected int prepareCriteriaForList() {
         int projectionLength = 0;
         if (hibernateProjectionList != null) {
             org.hibernate.criterion.ProjectionList projectionList = hibernateProjectionList.getHibernateProjectionList();
@@ -667,9 +756,7 @@ public abstract class AbstractHibernateQuery extends Query {
 
         applyDefaultSortOrderAndCaching();
         applyFetchStrategies();
-
-
-        return criteria.list();
+        return projectionLength;
     }
 
     protected void applyDefaultSortOrderAndCaching() {
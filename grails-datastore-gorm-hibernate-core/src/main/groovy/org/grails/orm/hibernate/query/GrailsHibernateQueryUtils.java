@@ -1,5 +1,7 @@
 package org.grails.orm.hibernate.query;
 
+import org.grails.datastore.gorm.query.KeysetPagination;
+import org.grails.datastore.mapping.query.Query;
 import org.grails.datastore.mapping.reflect.ClassUtils;
 import org.grails.orm.hibernate.cfg.AbstractGrailsDomainBinder;
 import org.grails.orm.hibernate.cfg.Mapping;
@@ -12,11 +14,16 @@ import org.hibernate.Criteria;
 import org.hibernate.FetchMode;
 import org.hibernate.FlushMode;
 import org.hibernate.LockMode;
+import org.hibernate.criterion.Criterion;
+import org.hibernate.criterion.Junction;
 import org.hibernate.criterion.Order;
+import org.hibernate.criterion.Restrictions;
 import org.springframework.core.convert.ConversionService;
 import org.springframework.util.ReflectionUtils;
 
 import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Map;
 
 
@@ -88,8 +95,10 @@ public class GrailsHibernateQueryUtils {
         }
 
         final Object sortObj = argMap.get(DynamicFinder.ARGUMENT_SORT);
+        final Object after = argMap.get(DynamicFinder.ARGUMENT_AFTER);
+        final List<Query.Order> orders = new ArrayList<Query.Order>();
         if (sortObj != null) {
-            boolean ignoreCase = true;
+            boolean ignoreCase = after == null;
             Object caseArg = argMap.get(DynamicFinder.ARGUMENT_IGNORE_CASE);
             if (caseArg instanceof Boolean) {
                 ignoreCase = (Boolean) caseArg;
@@ -99,11 +108,13 @@ public class GrailsHibernateQueryUtils {
                 for (Object sort : sortMap.keySet()) {
                     final String order = DynamicFinder.ORDER_DESC.equalsIgnoreCase((String) sortMap.get(sort)) ? DynamicFinder.ORDER_DESC : DynamicFinder.ORDER_ASC;
                     addOrderPossiblyNested(c, entity, (String) sort, order, ignoreCase);
+                    orders.add(toOrder((String) sort, order, ignoreCase));
                 }
             } else {
                 final String sort = (String) sortObj;
                 final String order = DynamicFinder.ORDER_DESC.equalsIgnoreCase(orderParam) ? DynamicFinder.ORDER_DESC : DynamicFinder.ORDER_ASC;
                 addOrderPossiblyNested( c, entity, sort, order, ignoreCase);
+                orders.add(toOrder(sort, order, ignoreCase));
             }
         }
         else if (useDefaultMapping) {
@@ -112,10 +123,64 @@ public class GrailsHibernateQueryUtils {
                 Map sortMap = m.getSort().getNamesAndDirections();
                 for (Object sort : sortMap.keySet()) {
                     final String order = DynamicFinder.ORDER_DESC.equalsIgnoreCase((String) sortMap.get(sort)) ? DynamicFinder.ORDER_DESC : DynamicFinder.ORDER_ASC;
-                    addOrderPossiblyNested(c, entity, (String) sort, order, true);
+                    addOrderPossiblyNested(c, entity, (String) sort, order, after == null);
+                    orders.add(toOrder((String) sort, order, after == null));
                 }
             }
         }
+
+        if (after != null) {
+            applyKeysetPagination(entity, c, orders, after);
+        }
+    }
+
+    /**
+     * Restricts the criteria to the results following the given last seen result in the order of the criteria,
+     * adding the identifier as the last order if the criteria is not already ordered by it.
+     *
+     * @see DynamicFinder#ARGUMENT_AFTER
+     */
+    private static void applyKeysetPagination(PersistentEntity entity, Criteria c, List<Query.Order> orders, Object after) {
+        KeysetPagination keyset = new KeysetPagination(entity, orders, after);
+        List<Query.Order> keys = keyset.getOrders();
+        for (int i = orders.size(); i < keys.size(); i++) {
+            Query.Order key = keys.get(i);
+            addOrder(c, key.getProperty(), key.getDirection() == Query.Order.Direction.DESC ? DynamicFinder.ORDER_DESC : DynamicFinder.ORDER_ASC, false);
+        }
+
+        c.add(toHibernateCriterion(keyset.toCriterion()));
+    }
+
+    /**
+     * Converts the criterion built by {@link KeysetPagination#toCriterion()}, which consists of junctions of
+     * equals, greater than and less than restrictions, into a Hibernate criterion
+     */
+    private static Criterion toHibernateCriterion(Query.Criterion criterion) {
+        if (criterion instanceof Query.Disjunction || criterion instanceof Query.Conjunction) {
+            Junction junction = criterion instanceof Query.Disjunction ? Restrictions.disjunction() : Restrictions.conjunction();
+            for (Query.Criterion nested : ((Query.Junction) criterion).getCriteria()) {
+                junction.add(toHibernateCriterion(nested));
+            }
+            return junction;
+        }
+        if (criterion instanceof Query.Equals) {
+            Query.Equals eq = (Query.Equals) criterion;
+            return Restrictions.eq(eq.getProperty(), eq.getValue());
+        }
+        if (criterion instanceof Query.GreaterThan) {
+            Query.GreaterThan gt = (Query.GreaterThan) criterion;
+            return Restrictions.gt(gt.getProperty(), gt.getValue());
+        }
+        if (criterion instanceof Query.LessThan) {
+            Query.LessThan lt = (Query.LessThan) criterion;
+            return Restrictions.lt(lt.getProperty(), lt.getValue());
+        }
+        throw new IllegalArgumentException("Unsupported keyset pagination criterion [" + criterion + "]");
+    }
+
+    private static Query.Order toOrder(String sort, String order, boolean ignoreCase) {
+        Query.Order o = DynamicFinder.ORDER_DESC.equals(order) ? Query.Order.desc(sort) : Query.Order.asc(sort);
+        return ignoreCase ? o.ignoreCase() : o;
     }
 
     /**
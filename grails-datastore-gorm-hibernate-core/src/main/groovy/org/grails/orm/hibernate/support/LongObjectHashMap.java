@@ -0,0 +1,108 @@
+/*
+ * Copyright 2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.grails.orm.hibernate.support;
+
+/**
+ * An open addressing hash map with primitive long keys, used to look up instances by numeric identifier without
+ * boxing the identifiers or allocating an entry per instance.
+ *
+ * @author Graeme Rocher
+ * @since 6.0
+ */
+public class LongObjectHashMap<V> {
+
+    private long[] keys;
+    private Object[] values;
+    private int size;
+    private int mask;
+
+    /**
+     * @param expectedSize The number of entries expected to be stored
+     */
+    public LongObjectHashMap(int expectedSize) {
+        int capacity = Integer.highestOneBit(Math.max(4, expectedSize) * 2 - 1) << 1;
+        keys = new long[capacity];
+        values = new Object[capacity];
+        mask = capacity - 1;
+    }
+
+    /**
+     * @return The number of entries
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * @param key The key
+     * @return The value for the key or null if there is none
+     */
+    @SuppressWarnings("unchecked")
+    public V get(long key) {
+        for (int i = index(key); values[i] != null; i = (i + 1) & mask) {
+            if (keys[i] == key) {
+                return (V) values[i];
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Stores the value for the key, replacing any previous value
+     *
+     * @param key The key
+     * @param value The value, which cannot be null
+     */
+    public void put(long key, V value) {
+        if (value == null) {
+            throw new IllegalArgumentException("Argument [value] cannot be null");
+        }
+        int i = index(key);
+        while (values[i] != null) {
+            if (keys[i] == key) {
+                values[i] = value;
+                return;
+            }
+            i = (i + 1) & mask;
+        }
+        keys[i] = key;
+        values[i] = value;
+        // keep the load factor at or below one half
+        if (++size * 2 > keys.length) {
+            resize();
+        }
+    }
+
+    private int index(long key) {
+        long hash = key * 0x9E3779B97F4A7C15L;
+        return (int) (hash ^ (hash >>> 32)) & mask;
+    }
+
+    @SuppressWarnings("unchecked")
+    private void resize() {
+        long[] oldKeys = keys;
+        Object[] oldValues = values;
+        keys = new long[oldKeys.length * 2];
+        values = new Object[oldValues.length * 2];
+        mask = keys.length - 1;
+        size = 0;
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldValues[i] != null) {
+                put(oldKeys[i], (V) oldValues[i]);
+            }
+        }
+    }
+}
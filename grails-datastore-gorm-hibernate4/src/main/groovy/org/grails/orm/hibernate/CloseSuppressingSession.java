@@ -0,0 +1,219 @@
+/*
+ * Copyright 2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.grails.orm.hibernate;
+
+import javassist.ClassPool;
+import javassist.CtClass;
+import javassist.CtField;
+import javassist.CtMethod;
+import javassist.CtNewConstructor;
+import javassist.CtNewMethod;
+import javassist.LoaderClassPath;
+import javassist.Modifier;
+import javassist.NotFoundException;
+import javassist.bytecode.AccessFlag;
+import org.hibernate.Criteria;
+import org.hibernate.Query;
+import org.hibernate.Session;
+import org.hibernate.engine.spi.SessionImplementor;
+import org.hibernate.event.spi.EventSource;
+import org.springframework.util.ClassUtils;
+
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Method;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Base class of the close-suppressing Session wrappers exposed by {@link GrailsHibernateTemplate} to callback code.
+ *
+ * <p>The concrete subclasses are generated with Javassist once for each combination of Session interfaces
+ * (Session, Session and EventSource or Session and SessionImplementor) and implement every interface method as a
+ * direct call on the target Session, so no reflection is involved once a wrapper has been created. Calls to close()
+ * are suppressed and returned Query and Criteria objects are prepared by the template.</p>
+ *
+ * @author Graeme Rocher
+ * @since 6.0
+ */
+public abstract class CloseSuppressingSession {
+
+    private static final ConcurrentMap<List<Class<?>>, Constructor<? extends CloseSuppressingSession>> CONSTRUCTORS =
+            new ConcurrentHashMap<List<Class<?>>, Constructor<? extends CloseSuppressingSession>>();
+    private static final AtomicInteger COUNTER = new AtomicInteger();
+
+    protected final GrailsHibernateTemplate template;
+    protected final Session target;
+
+    protected CloseSuppressingSession(GrailsHibernateTemplate template, Session target) {
+        this.template = template;
+        this.target = target;
+    }
+
+    /**
+     * @return The Session calls are delegated to
+     */
+    public Session getTargetSession() {
+        return target;
+    }
+
+    /**
+     * Prepares a Query or Criteria returned by the target Session
+     *
+     * @param result The result of the call on the target Session
+     * @return The result
+     */
+    protected Object prepareResult(Object result) {
+        if (result instanceof Query) {
+            template.prepareQuery((Query) result);
+        }
+        if (result instanceof Criteria) {
+            template.prepareCriteria((Criteria) result);
+        }
+        return result;
+    }
+
+    @Override
+    public String toString() {
+        return target.toString();
+    }
+
+    /**
+     * Creates a close-suppressing wrapper for the given session
+     *
+     * @param template The template that prepares queries and criteria
+     * @param session The session to wrap
+     * @return The wrapper, which implements the same Session interfaces as the session
+     */
+    public static Session create(GrailsHibernateTemplate template, Session session) {
+        List<Class<?>> sessionIfcs;
+        if (session instanceof EventSource) {
+            sessionIfcs = Arrays.<Class<?>>asList(Session.class, EventSource.class);
+        } else if (session instanceof SessionImplementor) {
+            sessionIfcs = Arrays.<Class<?>>asList(Session.class, SessionImplementor.class);
+        } else {
+            sessionIfcs = Arrays.<Class<?>>asList(Session.class);
+        }
+
+        Constructor<? extends CloseSuppressingSession> constructor = CONSTRUCTORS.get(sessionIfcs);
+        if (constructor == null) {
+            constructor = generate(sessionIfcs);
+            Constructor<? extends CloseSuppressingSession> existing = CONSTRUCTORS.putIfAbsent(sessionIfcs, constructor);
+            if (existing != null) {
+                constructor = existing;
+            }
+        }
+        try {
+            return (Session) constructor.newInstance(template, session);
+        } catch (Exception e) {
+            throw new IllegalStateException("Cannot create close-suppressing session: " + e.getMessage(), e);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Constructor<? extends CloseSuppressingSession> generate(List<Class<?>> sessionIfcs) {
+        ClassLoader classLoader = CloseSuppressingSession.class.getClassLoader();
+        ClassPool pool = new ClassPool(true);
+        pool.appendClassPath(new LoaderClassPath(classLoader));
+        String className = CloseSuppressingSession.class.getName() + "$$" + COUNTER.incrementAndGet();
+        try {
+            CtClass ctClass = pool.makeClass(className, pool.get(CloseSuppressingSession.class.getName()));
+            for (int i = 0; i < sessionIfcs.size(); i++) {
+                String ifcName = sessionIfcs.get(i).getName();
+                ctClass.addInterface(pool.get(ifcName));
+                ctClass.addField(CtField.make("private final " + ifcName + " delegate" + i + ";", ctClass));
+            }
+
+            StringBuilder constructorBody = new StringBuilder("{ super($1, $2); ");
+            for (int i = 0; i < sessionIfcs.size(); i++) {
+                constructorBody.append("this.delegate").append(i).append(" = (").append(sessionIfcs.get(i).getName()).append(") $2; ");
+            }
+            constructorBody.append('}');
+            ctClass.addConstructor(CtNewConstructor.make(
+                    new CtClass[]{pool.get(GrailsHibernateTemplate.class.getName()), pool.get(Session.class.getName())},
+                    new CtClass[0], constructorBody.toString(), ctClass));
+
+            Set<String> generated = new HashSet<String>();
+            Set<String> generatedSignatures = new HashSet<String>();
+            for (int i = 0; i < sessionIfcs.size(); i++) {
+                for (Method method : sessionIfcs.get(i).getMethods()) {
+                    String signature = method.getName() + Arrays.toString(method.getParameterTypes());
+                    if (!generated.add(signature + method.getReturnType().getName())) {
+                        // methods inherited from several interfaces are only implemented once
+                        continue;
+                    }
+                    CtMethod ctMethod = CtNewMethod.make(Modifier.PUBLIC,
+                            toCtClass(pool, method.getReturnType()), method.getName(),
+                            toCtClasses(pool, method.getParameterTypes()), toCtClasses(pool, method.getExceptionTypes()),
+                            createBody(method, "delegate" + delegateIndex(sessionIfcs, method)), ctClass);
+                    if (!generatedSignatures.add(signature)) {
+                        // a covariant variant of a method that is already implemented
+                        ctMethod.getMethodInfo().setAccessFlags(ctMethod.getMethodInfo().getAccessFlags() | AccessFlag.BRIDGE | AccessFlag.SYNTHETIC);
+                    }
+                    ctClass.addMethod(ctMethod);
+                }
+            }
+
+            Class<?> generatedClass = ctClass.toClass(classLoader, CloseSuppressingSession.class.getProtectionDomain());
+            ctClass.detach();
+            return (Constructor<? extends CloseSuppressingSession>) generatedClass.getConstructor(GrailsHibernateTemplate.class, Session.class);
+        } catch (Exception e) {
+            throw new IllegalStateException("Cannot generate close-suppressing session class for " + sessionIfcs + ": " + e.getMessage(), e);
+        }
+    }
+
+    private static String createBody(Method method, String delegate) {
+        Class<?> returnType = method.getReturnType();
+        if (method.getName().equals("close") && method.getParameterTypes().length == 0) {
+            // Handle close method: suppress, not valid.
+            return returnType == void.class ? "{ }" : "{ return null; }";
+        }
+        String call = delegate + "." + method.getName() + "($$)";
+        if (returnType == void.class) {
+            return "{ " + call + "; }";
+        }
+        if (Query.class.isAssignableFrom(returnType) || Criteria.class.isAssignableFrom(returnType)) {
+            // Applies to createQuery, getNamedQuery, createSQLQuery, createFilter and createCriteria.
+            return "{ return ($r) prepareResult(" + call + "); }";
+        }
+        return "{ return ($r) " + call + "; }";
+    }
+
+    private static int delegateIndex(List<Class<?>> sessionIfcs, Method method) {
+        for (int i = 0; i < sessionIfcs.size(); i++) {
+            if (method.getDeclaringClass().isAssignableFrom(sessionIfcs.get(i))) {
+                return i;
+            }
+        }
+        throw new IllegalStateException("Method " + method + " is not declared by " + sessionIfcs);
+    }
+
+    private static CtClass toCtClass(ClassPool pool, Class<?> type) throws NotFoundException {
+        return pool.get(ClassUtils.getQualifiedName(type));
+    }
+
+    private static CtClass[] toCtClasses(ClassPool pool, Class<?>[] types) throws NotFoundException {
+        CtClass[] ctClasses = new CtClass[types.length];
+        for (int i = 0; i < types.length; i++) {
+            ctClasses[i] = toCtClass(pool, types[i]);
+        }
+        return ctClasses;
+    }
+}
@@ -107,6 +107,8 @@ public class EventListenerIntegrator implements Integrator {
 
         // register workaround for GRAILS-8988 (do nullability checks for inserts in last PreInsertEventListener)
         ClosureEventTriggeringInterceptor.addNullabilityCheckerPreInsertEventListener(listenerRegistry);
+        // discard the index of queued update actions kept by ClosureEventListener once a flush completes
+        ClosureEventTriggeringInterceptor.addUpdateActionIndexFlushEventListener(listenerRegistry);
     }
 
     protected <T> void appendListeners(EventListenerRegistry listenerRegistry,
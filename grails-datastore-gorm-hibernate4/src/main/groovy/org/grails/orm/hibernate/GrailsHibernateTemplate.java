@@ -22,8 +22,6 @@ import org.codehaus.groovy.runtime.DefaultGroovyMethods;
 import org.hibernate.*;
 import org.hibernate.engine.jdbc.connections.internal.DatasourceConnectionProviderImpl;
 import org.hibernate.engine.jdbc.connections.spi.ConnectionProvider;
-import org.hibernate.engine.spi.SessionImplementor;
-import org.hibernate.event.spi.EventSource;
 import org.hibernate.exception.GenericJDBCException;
 import org.hibernate.internal.SessionFactoryImpl;
 import org.springframework.dao.DataAccessException;
@@ -33,14 +31,11 @@ import org.springframework.jdbc.support.SQLErrorCodeSQLExceptionTranslator;
 import org.springframework.jdbc.support.SQLExceptionTranslator;
 import org.springframework.orm.hibernate4.SessionFactoryUtils;
 import org.springframework.orm.hibernate4.SessionHolder;
+import org.springframework.transaction.support.TransactionSynchronizationAdapter;
 import org.springframework.transaction.support.TransactionSynchronizationManager;
 import org.springframework.util.Assert;
 
 import java.io.Serializable;
-import java.lang.reflect.InvocationHandler;
-import java.lang.reflect.InvocationTargetException;
-import java.lang.reflect.Method;
-import java.lang.reflect.Proxy;
 import java.sql.SQLException;
 import java.util.ArrayList;
 import java.util.Collection;
@@ -62,6 +57,8 @@ public class GrailsHibernateTemplate implements IHibernateTemplate {
     protected SQLExceptionTranslator jdbcExceptionTranslator;
     protected int flushMode = FLUSH_AUTO;
     private boolean applyFlushModeOnlyToNonExistingTransactions = false;
+    // the key of the close-suppressing Session bound for the current transaction synchronization
+    private final Object exposedSessionKey = new Object();
 
     public static interface HibernateCallback<T> {
         T doInHibernate(Session session) throws HibernateException, SQLException;
@@ -192,7 +189,7 @@ public class GrailsHibernateTemplate implements IHibernateTemplate {
             if (shouldPassReadOnlyToHibernate()) {
                 session.setDefaultReadOnly(true);
             }
-            Session sessionToExpose = (enforceNativeSession || exposeNativeSession ? session : createSessionProxy(session));
+            Session sessionToExpose = (enforceNativeSession || exposeNativeSession ? session : getCloseSuppressingSession(session, existingTransaction));
             T result = action.doInHibernate(sessionToExpose);
             flushIfNecessary(session, existingTransaction);
             return result;
@@ -229,27 +226,48 @@ public class GrailsHibernateTemplate implements IHibernateTemplate {
     }
 
     /**
-     * Create a close-suppressing proxy for the given Hibernate Session. The
-     * proxy also prepares returned Query and Criteria objects.
+     * Obtains the close-suppressing Session exposed to callback code. The wrapper of a thread-bound Session is
+     * created once per transaction synchronization and reused by every operation within it. It is unbound when the
+     * synchronization completes, so it never outlives the Session it wraps.
      *
-     * @param session the Hibernate Session to create a proxy for
-     * @return the Session proxy
+     * @param session the Hibernate Session
+     * @param existingTransaction whether the Session is bound to the thread
+     * @return the close-suppressing Session
+     * @see #createSessionProxy
+     */
+    protected Session getCloseSuppressingSession(Session session, boolean existingTransaction) {
+        if (!existingTransaction || !TransactionSynchronizationManager.isSynchronizationActive()) {
+            return createSessionProxy(session);
+        }
+        Session exposed = (Session) TransactionSynchronizationManager.getResource(exposedSessionKey);
+        if (exposed instanceof CloseSuppressingSession && ((CloseSuppressingSession) exposed).getTargetSession() == session) {
+            return exposed;
+        }
+        if (exposed != null) {
+            // the bound Session was replaced within the same synchronization
+            TransactionSynchronizationManager.unbindResource(exposedSessionKey);
+        }
+        exposed = createSessionProxy(session);
+        if (exposed instanceof CloseSuppressingSession) {
+            TransactionSynchronizationManager.bindResource(exposedSessionKey, exposed);
+            TransactionSynchronizationManager.registerSynchronization(new ExposedSessionSynchronization(exposedSessionKey, exposed));
+        }
+        return exposed;
+    }
+
+    /**
+     * Create a close-suppressing wrapper for the given Hibernate Session. The
+     * wrapper also prepares returned Query and Criteria objects and calls the
+     * Session directly rather than through a reflective proxy.
+     *
+     * @param session the Hibernate Session to create a wrapper for
+     * @return the Session wrapper
      * @see org.hibernate.Session#close()
      * @see #prepareQuery
      * @see #prepareCriteria
      */
     protected Session createSessionProxy(Session session) {
-        Class<?>[] sessionIfcs = null;
-        Class<?> mainIfc = Session.class;
-        if (session instanceof EventSource) {
-            sessionIfcs = new Class[]{mainIfc, EventSource.class};
-        } else if (session instanceof SessionImplementor) {
-            sessionIfcs = new Class[]{mainIfc, SessionImplementor.class};
-        } else {
-            sessionIfcs = new Class[]{mainIfc};
-        }
-        return (Session) Proxy.newProxyInstance(session.getClass().getClassLoader(), sessionIfcs,
-                new CloseSuppressingInvocationHandler(session));
+        return CloseSuppressingSession.create(this, session);
     }
 
     public <T> T get(final Class<T> entityClass, final Serializable id) throws DataAccessException {
@@ -403,51 +421,39 @@ public class GrailsHibernateTemplate implements IHibernateTemplate {
     }
 
     /**
-     * Invocation handler that suppresses close calls on Hibernate Sessions.
-     * Also prepares returned Query and Criteria objects.
-     *
-     * @see org.hibernate.Session#close
+     * Unbinds the close-suppressing Session exposed for a transaction synchronization when it completes, and while
+     * the transaction is suspended
      */
-    protected class CloseSuppressingInvocationHandler implements InvocationHandler {
+    private static class ExposedSessionSynchronization extends TransactionSynchronizationAdapter {
 
-        protected final Session target;
+        private final Object key;
+        private final Session exposedSession;
 
-        protected CloseSuppressingInvocationHandler(Session target) {
-            this.target = target;
+        ExposedSessionSynchronization(Object key, Session exposedSession) {
+            this.key = key;
+            this.exposedSession = exposedSession;
         }
 
-        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
-            // Invocation on Session interface coming in...
+        @Override
+        public void suspend() {
+            unbind();
+        }
 
-            if (method.getName().equals("equals")) {
-                // Only consider equal when proxies are identical.
-                return (proxy == args[0]);
-            }
-            if (method.getName().equals("hashCode")) {
-                // Use hashCode of Session proxy.
-                return System.identityHashCode(proxy);
-            }
-            if (method.getName().equals("close")) {
-                // Handle close method: suppress, not valid.
-                return null;
+        @Override
+        public void resume() {
+            if (!TransactionSynchronizationManager.hasResource(key)) {
+                TransactionSynchronizationManager.bindResource(key, exposedSession);
             }
+        }
 
-            // Invoke method on target Session.
-            try {
-                Object retVal = method.invoke(target, args);
-
-                // If return value is a Query or Criteria, apply transaction timeout.
-                // Applies to createQuery, getNamedQuery, createCriteria.
-                if (retVal instanceof Query) {
-                    prepareQuery(((Query) retVal));
-                }
-                if (retVal instanceof Criteria) {
-                    prepareCriteria(((Criteria) retVal));
-                }
+        @Override
+        public void afterCompletion(int status) {
+            unbind();
+        }
 
-                return retVal;
-            } catch (InvocationTargetException ex) {
-                throw ex.getTargetException();
+        private void unbind() {
+            if (TransactionSynchronizationManager.getResource(key) == exposedSession) {
+                TransactionSynchronizationManager.unbindResource(key);
             }
         }
     }
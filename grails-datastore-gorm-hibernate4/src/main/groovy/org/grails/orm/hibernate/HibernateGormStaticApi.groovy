@@ -79,7 +79,7 @@ class HibernateGormStaticApi<D> extends AbstractHibernateGormStaticApi<D> {
 
             params = params ? new HashMap(params) : Collections.emptyMap()
             setResultTransformer(c)
-            if(params.containsKey(DynamicFinder.ARGUMENT_MAX)) {
+            if(params.containsKey(DynamicFinder.ARGUMENT_MAX) && params.get(DynamicFinder.ARGUMENT_AFTER) == null) {
 
                 c.setMaxResults(Integer.MAX_VALUE)
                 GrailsHibernateQueryUtils.populateArgumentsForCriteria(persistentEntity, c, params, datastore.mappingContext.conversionService, true)
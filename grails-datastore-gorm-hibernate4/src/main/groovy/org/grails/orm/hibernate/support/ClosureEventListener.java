@@ -17,11 +17,15 @@ package org.grails.orm.hibernate.support;
 
 import groovy.lang.*;
 
+import java.lang.ref.WeakReference;
 import java.lang.reflect.Field;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.WeakHashMap;
 
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
@@ -69,6 +73,13 @@ public class ClosureEventListener implements SaveOrUpdateEventListener,
     private static final long serialVersionUID = 1;
     protected static final Log LOG = LogFactory.getLog(ClosureEventListener.class);
 
+    /**
+     * The indexes of the queued update actions, shared by the listeners of all domain classes and weakly keyed by the
+     * action queue of the session that queued them
+     */
+    private static final Map<ActionQueue, UpdateActionIndex> UPDATE_ACTION_INDEXES =
+            Collections.synchronizedMap(new WeakHashMap<ActionQueue, UpdateActionIndex>());
+
     final EventTriggerCaller saveOrUpdateCaller;
     final EventTriggerCaller beforeInsertCaller;
     final EventTriggerCaller preLoadEventCaller;
@@ -86,6 +97,7 @@ public class ClosureEventListener implements SaveOrUpdateEventListener,
     boolean failOnErrorEnabled = false;
     Map validateParams;
     final TimestampProvider timestampProvider;
+    private volatile PersisterProperties persisterProperties;
 
     public ClosureEventListener(Class<?> domainClazz, boolean failOnError, List failOnErrorPackages) {
         this(domainClazz, failOnError, failOnErrorPackages, new DefaultTimestampProvider());
@@ -169,45 +181,80 @@ public class ClosureEventListener implements SaveOrUpdateEventListener,
 
     private Field actionQueueUpdatesField;
     private Field entityUpdateActionStateField;
-    
-    private void synchronizePersisterState(AbstractPreDatabaseOperationEvent event, Object[] state) {
+
+    /**
+     * Copies the values of the properties the event may have changed to the state that is going to be persisted
+     *
+     * @param event The event
+     * @param state The state
+     * @param timestampsOnly Whether only the timestamp properties were changed, in which case the other properties are not compared
+     */
+    private void synchronizePersisterState(AbstractPreDatabaseOperationEvent event, Object[] state, boolean timestampsOnly) {
         Object entity = event.getEntity();
         EntityPersister persister = event.getPersister();
-        
-        String[] propertyNames = persister.getPropertyNames();
-        HashMap<Integer, Object> changedState=new HashMap<Integer, Object>();
-        for (int i = 0; i < propertyNames.length; i++) {
-            String p = propertyNames[i];
-            MetaProperty metaProperty = domainMetaClass.getMetaProperty(p);
-            if (ClosureEventTriggeringInterceptor.IGNORED.contains(p) || metaProperty == null) {
-                continue;
+        PersisterProperties properties = getPersisterProperties(persister);
+
+        ChangedState changedState = null;
+        if (timestampsOnly) {
+            changedState = synchronizeProperty(properties, entity, state, properties.dateCreatedIndex, changedState);
+            changedState = synchronizeProperty(properties, entity, state, properties.lastUpdatedIndex, changedState);
+        }
+        else {
+            for (int i = 0; i < state.length; i++) {
+                changedState = synchronizeProperty(properties, entity, state, i, changedState);
+            }
+        }
+
+        if (changedState != null) {
+            for (int i = 0; i < changedState.size; i++) {
+                persister.setPropertyValue(entity, changedState.indices[i], changedState.values[i]);
             }
-            Object value = metaProperty.getProperty(entity);
-            if(state[i] != value) {
-                changedState.put(i, value);
+            synchronizeEntityUpdateActionState(event, entity, changedState);
+        }
+    }
+
+    private ChangedState synchronizeProperty(PersisterProperties properties, Object entity, Object[] state, int index, ChangedState changedState) {
+        if (index < 0 || !properties.isReadable(index)) {
+            return changedState;
+        }
+        Object value = properties.read(entity, index);
+        if (state[index] != value) {
+            if (changedState == null) {
+                changedState = new ChangedState(state.length);
             }
-            state[i] = value;
-            persister.setPropertyValue(entity, i, value);
+            changedState.add(index, value);
+            state[index] = value;
         }
-        
-        synchronizeEntityUpdateActionState(event, entity, changedState);
+        return changedState;
+    }
+
+    private PersisterProperties getPersisterProperties(EntityPersister persister) {
+        PersisterProperties properties = persisterProperties;
+        if (properties == null || properties.persister != persister) {
+            properties = new PersisterProperties(persister, domainMetaClass);
+            persisterProperties = properties;
+        }
+        return properties;
     }
 
     protected void synchronizeEntityUpdateActionState(AbstractPreDatabaseOperationEvent event, Object entity,
-            HashMap<Integer, Object> changedState) {
-        if(actionQueueUpdatesField != null && event instanceof PreInsertEvent && changedState.size() > 0) {
+            ChangedState changedState) {
+        if(actionQueueUpdatesField != null && event instanceof PreInsertEvent && changedState.size > 0) {
             try {
-                ExecutableList<EntityUpdateAction> updates = (ExecutableList<EntityUpdateAction>)actionQueueUpdatesField.get(event.getSource().getActionQueue());
-                if(updates != null) {
-                    for (EntityUpdateAction updateAction : updates) {
-                        if(updateAction.getInstance() == entity) {
-                            Object[] updateState = (Object[])entityUpdateActionStateField.get(updateAction);
-                            if (updateState != null) {
-                                for(Map.Entry<Integer, Object> entry : changedState.entrySet()) {
-                                    updateState[entry.getKey()] = entry.getValue();
-                                }
-                            }
-                        }
+                ActionQueue actionQueue = event.getSource().getActionQueue();
+                ExecutableList<EntityUpdateAction> updates = (ExecutableList<EntityUpdateAction>)actionQueueUpdatesField.get(actionQueue);
+                if(updates == null || updates.isEmpty()) {
+                    UPDATE_ACTION_INDEXES.remove(actionQueue);
+                }
+                else {
+                    // the index is only reused while the updates it has indexed are still queued
+                    UpdateActionIndex index = UPDATE_ACTION_INDEXES.get(actionQueue);
+                    if (index == null || !index.isIndexOf(updates)) {
+                        index = new UpdateActionIndex(updates);
+                        UPDATE_ACTION_INDEXES.put(actionQueue, index);
+                    }
+                    for (EntityUpdateAction updateAction : index.findActions(updates, entity)) {
+                        synchronizeEntityUpdateActionState(updateAction, changedState);
                     }
                 }
             }
@@ -217,6 +264,25 @@ public class ClosureEventListener implements SaveOrUpdateEventListener,
         }
      }
 
+    /**
+     * Discards the index of the update actions queued in the given action queue. Called once a flush completes, as
+     * the queued updates have then been executed
+     *
+     * @param actionQueue The action queue of the session
+     */
+    static void clearUpdateActionIndex(ActionQueue actionQueue) {
+        UPDATE_ACTION_INDEXES.remove(actionQueue);
+    }
+
+    private void synchronizeEntityUpdateActionState(EntityUpdateAction updateAction, ChangedState changedState) throws IllegalAccessException {
+        Object[] updateState = (Object[])entityUpdateActionStateField.get(updateAction);
+        if (updateState != null) {
+            for (int i = 0; i < changedState.size; i++) {
+                updateState[changedState.indices[i]] = changedState.values[i];
+            }
+        }
+    }
+
     public void onPreLoad(final PreLoadEvent event) {
         if (preLoadEventCaller == null) {
             return;
@@ -316,7 +382,7 @@ public class ClosureEventListener implements SaveOrUpdateEventListener,
                 boolean evict = false;
                 if (preUpdateEventListener != null) {
                     evict = preUpdateEventListener.call(entity);
-                    synchronizePersisterState(event, event.getState());
+                    synchronizePersisterState(event, event.getState(), false);
                 }
                 handleTimestampingBeforeUpdate(event, entity);
                 if(!evict) {
@@ -352,10 +418,12 @@ public class ClosureEventListener implements SaveOrUpdateEventListener,
                     }
                     synchronizeState = true;
                 }
+                // without a beforeInsert event only the timestamps can have changed
+                boolean timestampsOnly = !synchronizeState;
                 synchronizeState = handleTimestampingBeforeInsert(entity, synchronizeState);
 
                 if (synchronizeState) {
-                    synchronizePersisterState(event, event.getState());
+                    synchronizePersisterState(event, event.getState(), timestampsOnly);
                 }
 
                 return doValidate(entity);
@@ -387,12 +455,12 @@ public class ClosureEventListener implements SaveOrUpdateEventListener,
         if (shouldTimestamp) {
             Class<?> dateCreatedType = null;
             Object timestamp = null;
-            String[] propertyNames = event.getPersister().getPropertyNames();
+            PersisterProperties properties = getPersisterProperties(event.getPersister());
             if (dateCreatedProperty != null && dateCreatedProperty.getProperty(entity)==null) {
                 dateCreatedType = dateCreatedProperty.getType();
                 timestamp = timestampProvider.createTimestamp(dateCreatedType);
                 dateCreatedProperty.setProperty(entity, timestamp);
-                event.getState()[ Arrays.asList(propertyNames).indexOf(GormProperties.DATE_CREATED) ] = timestamp;
+                event.getState()[ properties.dateCreatedIndex ] = timestamp;
             }
             if (lastUpdatedProperty != null) {
                 Class<?> lastUpdateType = lastUpdatedProperty.getType();
@@ -400,7 +468,7 @@ public class ClosureEventListener implements SaveOrUpdateEventListener,
                     timestamp = timestampProvider.createTimestamp(lastUpdateType);
                 }
                 lastUpdatedProperty.setProperty(entity, timestamp);
-                event.getState()[ Arrays.asList(propertyNames).indexOf( GormProperties.LAST_UPDATED) ] = timestamp;
+                event.getState()[ properties.lastUpdatedIndex ] = timestamp;
             }
         }
     }
@@ -426,4 +494,148 @@ public class ClosureEventListener implements SaveOrUpdateEventListener,
         }
         return synchronizeState;
     }
+
+    /**
+     * The values of the properties changed by an event, by index of the property in the persister
+     */
+    protected static class ChangedState {
+        int[] indices;
+        Object[] values;
+        int size;
+
+        ChangedState(int capacity) {
+            int initialCapacity = Math.min(capacity, 4);
+            indices = new int[initialCapacity];
+            values = new Object[initialCapacity];
+        }
+
+        void add(int index, Object value) {
+            if (size == indices.length) {
+                int newLength = Math.max(size * 2, 1);
+                indices = Arrays.copyOf(indices, newLength);
+                values = Arrays.copyOf(values, newLength);
+            }
+            indices[size] = index;
+            values[size] = value;
+            size++;
+        }
+    }
+
+    /**
+     * The meta properties of the properties of a persister, resolved once per persister
+     */
+    private static class PersisterProperties {
+        final EntityPersister persister;
+        final MetaProperty[] metaProperties;
+        final int dateCreatedIndex;
+        final int lastUpdatedIndex;
+
+        PersisterProperties(EntityPersister persister, MetaClass metaClass) {
+            this.persister = persister;
+            String[] propertyNames = persister.getPropertyNames();
+            metaProperties = new MetaProperty[propertyNames.length];
+            int dateCreated = -1;
+            int lastUpdated = -1;
+            for (int i = 0; i < propertyNames.length; i++) {
+                String name = propertyNames[i];
+                if (GormProperties.DATE_CREATED.equals(name)) {
+                    dateCreated = i;
+                }
+                else if (GormProperties.LAST_UPDATED.equals(name)) {
+                    lastUpdated = i;
+                }
+                if (!ClosureEventTriggeringInterceptor.IGNORED.contains(name)) {
+                    metaProperties[i] = metaClass.getMetaProperty(name);
+                }
+            }
+            dateCreatedIndex = dateCreated;
+            lastUpdatedIndex = lastUpdated;
+        }
+
+        boolean isReadable(int index) {
+            return metaProperties[index] != null;
+        }
+
+        Object read(Object entity, int index) {
+            return metaProperties[index].getProperty(entity);
+        }
+    }
+
+    /**
+     * Maps the entities of the update actions queued in the action queue of a session to the positions of their actions
+     * in the queue. Actions added to the queue since the last lookup are indexed incrementally, so inserting many
+     * entities in one flush doesn't walk the whole queue for every insert. Entities are keyed by their identity hash
+     * code and neither the entities nor the actions are referenced strongly, since both reference the session, which
+     * would keep the weakly keyed action queue reachable. The index is rebuilt as soon as the queue no longer holds the
+     * actions it has indexed at their indexed positions, which happens once the updates are sorted or executed
+     */
+    private static class UpdateActionIndex {
+        private final WeakReference<ExecutableList<EntityUpdateAction>> updatesReference;
+        private final Map<Integer, Object> positionsByEntity = new HashMap<Integer, Object>();
+        private int indexedCount;
+        private WeakReference<EntityUpdateAction> lastIndexedAction;
+
+        UpdateActionIndex(ExecutableList<EntityUpdateAction> updates) {
+            this.updatesReference = new WeakReference<ExecutableList<EntityUpdateAction>>(updates);
+        }
+
+        /**
+         * @return Whether this index is still valid for the given queued updates
+         */
+        boolean isIndexOf(ExecutableList<EntityUpdateAction> updates) {
+            if (updatesReference.get() != updates) {
+                return false;
+            }
+            // a cleared and refilled queue holds new actions
+            return indexedCount == 0 || (updates.size() >= indexedCount && updates.get(indexedCount - 1) == lastIndexedAction.get());
+        }
+
+        /**
+         * @return The actions queued for the entity
+         */
+        List<EntityUpdateAction> findActions(ExecutableList<EntityUpdateAction> updates, Object entity) {
+            int size = updates.size();
+            for (int i = indexedCount; i < size; i++) {
+                Integer key = System.identityHashCode(updates.get(i).getInstance());
+                Object existing = positionsByEntity.get(key);
+                if (existing == null) {
+                    positionsByEntity.put(key, i);
+                }
+                else if (existing instanceof Integer) {
+                    List<Integer> positions = new ArrayList<Integer>(2);
+                    positions.add((Integer) existing);
+                    positions.add(i);
+                    positionsByEntity.put(key, positions);
+                }
+                else {
+                    ((List<Integer>) existing).add(i);
+                }
+            }
+            if (size > indexedCount) {
+                lastIndexedAction = new WeakReference<EntityUpdateAction>(updates.get(size - 1));
+            }
+            indexedCount = size;
+
+            int hash = System.identityHashCode(entity);
+            Object positions = positionsByEntity.get(hash);
+            if (positions == null) {
+                return Collections.emptyList();
+            }
+            List<EntityUpdateAction> actions = new ArrayList<EntityUpdateAction>(1);
+            for (Integer position : positions instanceof Integer ? Collections.singletonList((Integer) positions) : (List<Integer>) positions) {
+                EntityUpdateAction action = updates.get(position);
+                Object instance = action.getInstance();
+                if (System.identityHashCode(instance) != hash) {
+                    // the queue was sorted since the actions were indexed
+                    positionsByEntity.clear();
+                    indexedCount = 0;
+                    return findActions(updates, entity);
+                }
+                if (instance == entity) {
+                    actions.add(action);
+                }
+            }
+            return actions;
+        }
+    }
 }
@@ -30,7 +30,11 @@ import org.hibernate.engine.internal.Nullability;
 import org.hibernate.event.internal.DefaultSaveOrUpdateEventListener;
 import org.hibernate.event.service.spi.EventListenerRegistry;
 import org.hibernate.event.spi.AbstractEvent;
+import org.hibernate.event.spi.AutoFlushEvent;
+import org.hibernate.event.spi.AutoFlushEventListener;
 import org.hibernate.event.spi.EventType;
+import org.hibernate.event.spi.FlushEvent;
+import org.hibernate.event.spi.FlushEventListener;
 import org.hibernate.event.spi.PostDeleteEvent;
 import org.hibernate.event.spi.PostDeleteEventListener;
 import org.hibernate.event.spi.PostInsertEvent;
@@ -208,6 +212,30 @@ public class ClosureEventTriggeringInterceptor extends DefaultSaveOrUpdateEventL
         }
     }
 
+    /**
+     * Appends a listener that discards the index of the queued update actions of a session once a flush completes,
+     * whatever the types of the flushed entities
+     *
+     * @param listenerRegistry The listener registry
+     */
+    public static final void addUpdateActionIndexFlushEventListener(EventListenerRegistry listenerRegistry) {
+        listenerRegistry.getEventListenerGroup(EventType.FLUSH).appendListener(UPDATE_ACTION_INDEX_FLUSH_INSTANCE);
+        listenerRegistry.getEventListenerGroup(EventType.AUTO_FLUSH).appendListener(UPDATE_ACTION_INDEX_FLUSH_INSTANCE);
+    }
+
+    private static final UpdateActionIndexFlushEventListener UPDATE_ACTION_INDEX_FLUSH_INSTANCE = new UpdateActionIndexFlushEventListener();
+
+    @SuppressWarnings("serial")
+    private static class UpdateActionIndexFlushEventListener implements FlushEventListener, AutoFlushEventListener {
+        public void onFlush(FlushEvent event) {
+            ClosureEventListener.clearUpdateActionIndex(event.getSession().getActionQueue());
+        }
+
+        public void onAutoFlush(AutoFlushEvent event) {
+            ClosureEventListener.clearUpdateActionIndex(event.getSession().getActionQueue());
+        }
+    }
+
     /**
      * Prevents hitting the database for an extra check if the row exists in the database.
      *
@@ -0,0 +1,55 @@
+package org.grails.orm.hibernate
+
+import grails.gorm.tests.Plant
+import org.hibernate.Criteria
+import org.hibernate.Session
+import org.hibernate.event.spi.EventSource
+import org.springframework.transaction.support.TransactionSynchronization
+import org.springframework.transaction.support.TransactionSynchronizationManager
+
+class CloseSuppressingSessionSpec extends GormSpec {
+
+    void "Test the template exposes a close-suppressing session that is reused for the bound session"() {
+        given:"A template that does not expose the native session"
+        def template = new GrailsHibernateTemplate(sessionFactory)
+        template.exposeNativeSession = false
+        template.cacheQueries = true
+        List<Session> exposed = []
+
+        when:"Two operations close the exposed session"
+        2.times {
+            template.execute({ Session s ->
+                exposed << s
+                s.close()
+                null
+            } as GrailsHibernateTemplate.HibernateCallback)
+        }
+
+        then:"The same wrapper is exposed and the bound session is not closed"
+        exposed[0] instanceof CloseSuppressingSession
+        exposed[0] instanceof EventSource
+        exposed[0].is(exposed[1])
+        ((CloseSuppressingSession)exposed[0]).targetSession.is(sessionFactory.currentSession)
+        sessionFactory.currentSession.isOpen()
+
+        when:"A criteria is created and executed through the exposed session"
+        new Plant(name: "Cabbage").save(flush: true)
+        Criteria criteria = template.execute({ Session s -> s.createCriteria(Plant) } as GrailsHibernateTemplate.HibernateCallback)
+
+        then:"The criteria is prepared by the template"
+        criteria.@cacheable
+        criteria.list()*.name == ["Cabbage"]
+
+        when:"The transaction synchronization completes"
+        TransactionSynchronizationManager.synchronizations.findAll { it.class.simpleName == 'ExposedSessionSynchronization' }*.afterCompletion(TransactionSynchronization.STATUS_COMMITTED)
+
+        then:"The wrapper is no longer bound and a new one is exposed by the next operation"
+        !TransactionSynchronizationManager.hasResource(template.@exposedSessionKey)
+        !template.execute({ Session s -> s } as GrailsHibernateTemplate.HibernateCallback).is(exposed[0])
+    }
+
+    @Override
+    List getDomainClasses() {
+        [Plant]
+    }
+}
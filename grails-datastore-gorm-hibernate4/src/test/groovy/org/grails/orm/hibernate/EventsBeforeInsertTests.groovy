@@ -24,9 +24,41 @@ class EventsBeforeInsertTests extends AbstractGrailsHibernateTests {
         assertEquals "news", e.moduleName
     }
 
+    @Test
+    void testBeforeInsertEventWithManyInsertsInOneSession() {
+        200.times {
+            def e = BeforeInsertExample.newInstance()
+            e.news = BeforeInsertArticle.newInstance()
+            assertNotNull e.save()
+        }
+        100.times {
+            assertNotNull BeforeInsertTimestamped.newInstance(name: "Timestamped $it").save()
+        }
+        session.flush()
+        session.clear()
+
+        assertEquals 200, BeforeInsertExample.countByModuleName("news")
+        assertEquals 100, BeforeInsertTimestamped.list().count { it.dateCreated != null && it.lastUpdated != null }
+    }
+
+    @Test
+    void testBeforeInsertEventAcrossSeveralFlushesOfOneSession() {
+        3.times { flush ->
+            50.times {
+                def e = BeforeInsertExample.newInstance()
+                e.news = BeforeInsertArticle.newInstance()
+                assertNotNull e.save()
+            }
+            session.flush()
+        }
+        session.clear()
+
+        assertEquals 150, BeforeInsertExample.countByModuleName("news")
+    }
+
     @Override
     protected getDomainClasses() {
-        [BeforeInsertExample, BeforeInsertArticle]
+        [BeforeInsertExample, BeforeInsertArticle, BeforeInsertTimestamped]
     }
 }
 @Entity
@@ -59,3 +91,12 @@ class BeforeInsertArticle {
     Long version
     static belongsTo = BeforeInsertExample
 }
+
+@Entity
+class BeforeInsertTimestamped {
+    Long id
+    Long version
+    String name
+    Date dateCreated
+    Date lastUpdated
+}
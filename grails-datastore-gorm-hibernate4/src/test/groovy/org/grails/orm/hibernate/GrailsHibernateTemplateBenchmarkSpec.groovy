@@ -0,0 +1,62 @@
+package org.grails.orm.hibernate
+
+import grails.gorm.tests.Plant
+import org.hibernate.Session
+import org.slf4j.Logger
+import org.slf4j.LoggerFactory
+import spock.lang.Requires
+
+/**
+ * Microbenchmark of the overhead of {@link GrailsHibernateTemplate} per call, with and without exposing the native
+ * session. Enabled with -Dgorm.hibernate.benchmark=true, the number of calls is set with
+ * -Dgorm.hibernate.benchmark.operations (100000 by default).
+ *
+ * @author Graeme Rocher
+ */
+@Requires({ Boolean.getBoolean("gorm.hibernate.benchmark") })
+class GrailsHibernateTemplateBenchmarkSpec extends GormSpec {
+
+    static final Logger LOG = LoggerFactory.getLogger(GrailsHibernateTemplateBenchmarkSpec)
+    static final int OPERATIONS = Integer.getInteger("gorm.hibernate.benchmark.operations", 100000)
+    static final int WARMUP_OPERATIONS = 10000
+
+    void "Test the overhead per call of the template"() {
+        given:"A persisted instance"
+        Plant plant = new Plant(name: "Cabbage").save(flush: true)
+        def nativeTemplate = new GrailsHibernateTemplate(sessionFactory)
+        def wrappingTemplate = new GrailsHibernateTemplate(sessionFactory)
+        wrappingTemplate.exposeNativeSession = false
+
+        when:"The instance is retrieved through the session directly and through both templates"
+        Session session = sessionFactory.currentSession
+        long direct = measure("Session.get") { session.get(Plant, plant.id) }
+        long nativeSession = measure("template.get with native session") { nativeTemplate.get(Plant, plant.id) }
+        long closeSuppressing = measure("template.get with close-suppressing session") { wrappingTemplate.get(Plant, plant.id) }
+        LOG.info(String.format("Overhead of the close-suppressing session: %.1f ns per call", (closeSuppressing - nativeSession) / (double) OPERATIONS))
+
+        then:"Every call succeeded"
+        direct > 0
+        nativeSession > 0
+        closeSuppressing > 0
+    }
+
+    protected long measure(String name, Closure operation) {
+        for(int i = 0; i < WARMUP_OPERATIONS; i++) {
+            operation.call()
+        }
+        long begin = System.nanoTime()
+        for(int i = 0; i < OPERATIONS; i++) {
+            if(operation.call() == null) {
+                throw new IllegalStateException("$name returned null")
+            }
+        }
+        long elapsed = System.nanoTime() - begin
+        LOG.info(String.format("%s: %d calls in %d ms, %.1f ns per call", name, OPERATIONS, (long) (elapsed / 1e6d), elapsed / (double) OPERATIONS))
+        return elapsed
+    }
+
+    @Override
+    List getDomainClasses() {
+        [Plant]
+    }
+}
@@ -21,6 +21,13 @@ class PersistenceMethodTests extends AbstractGrailsHibernateTests {
         [PersistentMethodTests, PersistentMethodTestsDescendent]
     }
 
+    @Override
+    protected ConfigObject getConfig() {
+        new ConfigSlurper().parse('''
+grails.hibernate.getAll.chunkSize = 3
+''')
+    }
+
     @Test
     void testSavePersistentMethod() {
         // init spring config
@@ -466,6 +473,47 @@ class PersistenceMethodTests extends AbstractGrailsHibernateTests {
         assertNull returnList[2]
     }
 
+    @Test
+    void testGetAllWithInstancesInSession() {
+        (1..5).each { i ->
+            new PersistentMethodTests(id: i, firstName: "fred$i", lastName: "flintstone").save(flush: true)
+        }
+        session.clear()
+
+        def loaded = PersistentMethodTests.get(2)
+        assertNotNull loaded
+
+        def returnList = PersistentMethodTests.getAll([4, 2, 9, 4, 1])
+        assertEquals ArrayList, returnList.getClass()
+        assertEquals 5, returnList.size()
+        assertEquals "fred4", returnList[0].firstName
+        // the instance already in the session is returned rather than a new copy
+        assertSame loaded, returnList[1]
+        assertNull returnList[2]
+        assertSame returnList[0], returnList[3]
+        assertEquals "fred1", returnList[4].firstName
+    }
+
+    @Test
+    void testGetAllInSeveralChunks() {
+        assertEquals 3, hibernateDatastore.getAllChunkSize
+
+        (1..8).each { i ->
+            new PersistentMethodTests(id: i, firstName: "fred$i", lastName: "flintstone").save(flush: true)
+        }
+        session.clear()
+
+        // more identifiers than fit in one chunk, with duplicates across chunks and missing identifiers
+        def ids = [7, 2, 99, 7, 5, 1, 100, 3, 8, 2]
+        def returnList = PersistentMethodTests.getAll(ids)
+        assertEquals ids.size(), returnList.size()
+        assertEquals(["fred7", "fred2", null, "fred7", "fred5", "fred1", null, "fred3", "fred8", "fred2"], returnList.collect { it?.firstName })
+        assertNull returnList[2]
+        assertNull returnList[6]
+        assertSame returnList[0], returnList[3]
+        assertSame returnList[1], returnList[9]
+    }
+
     @Test
     void testDiscardMethod() {
         def domainClass = ga.getDomainClass(PersistentMethodTests.name).clazz
@@ -37,7 +37,6 @@ import org.grails.datastore.gorm.events.ConfigurableApplicationEventPublisher
 import org.grails.datastore.gorm.events.DefaultApplicationEventPublisher
 import org.grails.gorm.rx.events.DomainEventListener
 import org.springframework.context.ApplicationEvent
-import org.springframework.context.ApplicationEventPublisher
 import org.springframework.core.env.PropertyResolver
 import rx.Observable
 
@@ -176,12 +175,20 @@ abstract class AbstractRxDatastoreClient<T> implements RxDatastoreClient<T>, RxD
                 def id = proxyHandler.getIdentifier(o) ?: reflector.getIdentifier(o)
                 if(id != null) {
 
-                    def ea = ctx.createEntityAccess(entity, o)
-                    def preDeleteEvent = new PreDeleteEvent(this, entity, ea)
-                    eventPublisher?.publishEvent(preDeleteEvent)
-                    if(!preDeleteEvent.isCancelled()) {
+                    boolean hasPreDeleteListeners = hasListeners(PreDeleteEvent)
+                    boolean hasPostDeleteListeners = hasListeners(PostDeleteEvent)
+                    def ea = hasPreDeleteListeners || hasPostDeleteListeners ? ctx.createEntityAccess(entity, o) : null
+                    boolean cancelled = false
+                    if(hasPreDeleteListeners) {
+                        def preDeleteEvent = new PreDeleteEvent(this, entity, ea)
+                        eventPublisher.publishEvent(preDeleteEvent)
+                        cancelled = preDeleteEvent.isCancelled()
+                    }
+                    if(!cancelled) {
                         batchOperation.addDelete(entity, id, o)
-                        postEvents.add new PostDeleteEvent(this, entity, ea)
+                        if(hasPostDeleteListeners) {
+                            postEvents.add new PostDeleteEvent(this, entity, ea)
+                        }
                     }
                 }
             }
@@ -259,7 +266,7 @@ abstract class AbstractRxDatastoreClient<T> implements RxDatastoreClient<T>, RxD
 
     protected Observable<List<Serializable>> persistAllInternal(Iterable instances, boolean isInsert, Map<String, Object> arguments) {
         MappingContext ctx = this.mappingContext
-        ApplicationEventPublisher eventPublisher = this.eventPublisher
+        ConfigurableApplicationEventPublisher eventPublisher = this.eventPublisher
 
         def proxyHandler = ctx.getProxyHandler()
         if (instances != null) {
@@ -278,12 +285,12 @@ abstract class AbstractRxDatastoreClient<T> implements RxDatastoreClient<T>, RxD
 
                 boolean hasId = id != null
                 if (hasId && !isInsert) {
-                    def preUpdateEvent = new PreUpdateEvent(this, entity, entityAccess)
-                    eventPublisher?.publishEvent(preUpdateEvent)
-                    if (!preUpdateEvent.isCancelled()) {
+                    if (publishPreUpdateEvent(entity, entityAccess)) {
                         processAssociations(entity, id, o, entityReflector, batchOperation, postEvents)
                         batchOperation.addUpdate(entity, id, o)
-                        postEvents.add(new PostUpdateEvent(this, entity, entityAccess))
+                        if (hasListeners(PostUpdateEvent)) {
+                            postEvents.add(new PostUpdateEvent(this, entity, entityAccess))
+                        }
                     }
                 } else {
                     if(!hasId) {
@@ -301,12 +308,12 @@ abstract class AbstractRxDatastoreClient<T> implements RxDatastoreClient<T>, RxD
                         }
 
                     }
-                    def preInsertEvent = new PreInsertEvent(this, entity, entityAccess)
-                    eventPublisher?.publishEvent(preInsertEvent)
-                    if (!preInsertEvent.isCancelled()) {
+                    if (publishPreInsertEvent(entity, entityAccess)) {
                         processAssociations(entity, id, o, entityReflector, batchOperation, postEvents)
                         batchOperation.addInsert(entity, id, o)
-                        postEvents.add(new PostInsertEvent(this, entity, entityAccess))
+                        if (hasListeners(PostInsertEvent)) {
+                            postEvents.add(new PostInsertEvent(this, entity, entityAccess))
+                        }
                     }
                 }
                 identifiers.add(id)
@@ -392,26 +399,66 @@ abstract class AbstractRxDatastoreClient<T> implements RxDatastoreClient<T>, RxD
             associatedId = generateIdentifier(associatedEntity, associatedObject, associationReflector)
         }
 
-        def preInsertEvent = new PreInsertEvent(this, associatedEntity, associationAccess)
-        eventPublisher?.publishEvent(preInsertEvent)
-        if (!preInsertEvent.isCancelled()) {
+        if (publishPreInsertEvent(associatedEntity, associationAccess)) {
             operation.addInsert(associatedEntity, associatedId, associatedObject)
-            postEvents.add(new PostInsertEvent(this, associatedEntity, associationAccess))
+            if (hasListeners(PostInsertEvent)) {
+                postEvents.add(new PostInsertEvent(this, associatedEntity, associationAccess))
+            }
             processAssociations(associatedEntity, associatedId, associatedObject, associationReflector, operation, postEvents)
         }
     }
 
     protected void scheduleUpdate(PersistentEntity associatedEntity, EntityAccess associationAccess, Serializable associatedId, DirtyCheckable associatedObject, EntityReflector associationReflector, BatchOperation operation, List<ApplicationEvent> postEvents) {
-        def preUpdateEvent = new PreUpdateEvent(this, associatedEntity, associationAccess)
-        eventPublisher?.publishEvent(preUpdateEvent)
-        if (!preUpdateEvent.isCancelled()) {
+        if (publishPreUpdateEvent(associatedEntity, associationAccess)) {
             operation.addUpdate(associatedEntity, associatedId, associatedObject)
-            postEvents.add(new PostUpdateEvent(this, associatedEntity, associationAccess))
+            if (hasListeners(PostUpdateEvent)) {
+                postEvents.add(new PostUpdateEvent(this, associatedEntity, associationAccess))
+            }
 
             processAssociations(associatedEntity, associatedId, associatedObject, associationReflector, operation, postEvents)
         }
     }
 
+    /**
+     * Whether any listener is registered for events of the given type published by this client. Used to avoid
+     * creating events that nobody receives.
+     *
+     * @param eventType The event type
+     * @return True if there are listeners
+     */
+    protected boolean hasListeners(Class<? extends ApplicationEvent> eventType) {
+        ConfigurableApplicationEventPublisher publisher = eventPublisher
+        return publisher != null && publisher.hasListeners(eventType, getClass())
+    }
+
+    /**
+     * Publishes a {@link PreInsertEvent} if there are listeners for it
+     *
+     * @return False if a listener cancelled the insert
+     */
+    protected boolean publishPreInsertEvent(PersistentEntity entity, EntityAccess entityAccess) {
+        if(hasListeners(PreInsertEvent)) {
+            def preInsertEvent = new PreInsertEvent(this, entity, entityAccess)
+            eventPublisher.publishEvent(preInsertEvent)
+            return !preInsertEvent.isCancelled()
+        }
+        return true
+    }
+
+    /**
+     * Publishes a {@link PreUpdateEvent} if there are listeners for it
+     *
+     * @return False if a listener cancelled the update
+     */
+    protected boolean publishPreUpdateEvent(PersistentEntity entity, EntityAccess entityAccess) {
+        if(hasListeners(PreUpdateEvent)) {
+            def preUpdateEvent = new PreUpdateEvent(this, entity, entityAccess)
+            eventPublisher.publishEvent(preUpdateEvent)
+            return !preUpdateEvent.isCancelled()
+        }
+        return true
+    }
+
     protected void activeDirtyChecking(object) {
         if (object instanceof DirtyCheckable) {
             def dirtyCheckable = (DirtyCheckable) object
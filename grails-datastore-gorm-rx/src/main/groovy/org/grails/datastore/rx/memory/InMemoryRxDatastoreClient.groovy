@@ -0,0 +1,421 @@
+package org.grails.datastore.rx.memory
+
+import grails.gorm.rx.collection.RxUnidirectionalCollection
+import groovy.transform.CompileStatic
+import org.grails.datastore.mapping.collection.PersistentCollection
+import org.grails.datastore.mapping.core.connections.ConnectionSource
+import org.grails.datastore.mapping.core.connections.ConnectionSourceSettings
+import org.grails.datastore.mapping.core.connections.DefaultConnectionSource
+import org.grails.datastore.mapping.core.connections.SingletonConnectionSources
+import org.grails.datastore.mapping.keyvalue.mapping.config.KeyValueMappingContext
+import org.grails.datastore.mapping.model.MappingContext
+import org.grails.datastore.mapping.model.PersistentEntity
+import org.grails.datastore.mapping.model.PersistentProperty
+import org.grails.datastore.mapping.model.ValueGenerator
+import org.grails.datastore.mapping.model.types.ManyToOne
+import org.grails.datastore.mapping.model.types.ToMany
+import org.grails.datastore.mapping.model.types.ToOne
+import org.grails.datastore.mapping.proxy.ProxyHandler
+import org.grails.datastore.mapping.query.Query
+import org.grails.datastore.mapping.reflect.EntityReflector
+import org.grails.datastore.rx.AbstractRxDatastoreClient
+import org.grails.datastore.rx.batch.BatchOperation
+import org.grails.datastore.rx.collection.RxPersistentList
+import org.grails.datastore.rx.collection.RxPersistentSet
+import org.grails.datastore.rx.collection.RxPersistentSortedSet
+import org.grails.datastore.rx.query.QueryState
+import org.grails.gorm.rx.api.RxGormEnhancer
+import org.springframework.core.env.StandardEnvironment
+import rx.Observable
+import rx.Scheduler
+import rx.functions.Func0
+import rx.schedulers.Schedulers
+
+import java.util.concurrent.ConcurrentHashMap
+import java.util.concurrent.ConcurrentMap
+import java.util.concurrent.atomic.AtomicLong
+
+/**
+ * An {@link org.grails.datastore.rx.RxDatastoreClient} that keeps entities in memory.
+ *
+ * Entities are stored with the same structure as the simple map datastore: a map of families, one per root entity,
+ * each mapping identifiers to entries that hold the property values of an instance. Associations are stored as
+ * identifiers. Entries are never modified once written, they are replaced with compare-and-set operations, so
+ * reads and writes don't take any lock.
+ *
+ * Queries and batch operations are executed on the configured {@link Scheduler}, which allows the reactive API to be
+ * exercised, tuned and benchmarked in process without a database.
+ *
+ * @author Graeme Rocher
+ * @since 6.0
+ */
+@CompileStatic
+class InMemoryRxDatastoreClient extends AbstractRxDatastoreClient<Map<String, Map>> {
+
+    /**
+     * The key of the entry value that holds the name of the entity of an entry
+     */
+    static final String ENTITY_KEY = "_class"
+
+    protected final ConcurrentMap<String, Map> backingMap
+    protected final ConcurrentMap<String, AtomicLong> identifierSequences = new ConcurrentHashMap<String, AtomicLong>()
+
+    /**
+     * The scheduler queries and batch operations are executed on
+     */
+    Scheduler scheduler
+
+    /**
+     * Whether blocking operations are allowed
+     */
+    boolean allowBlockingOperations = true
+
+    /**
+     * Creates a client for the given classes that executes operations on the computation scheduler
+     *
+     * @param classes The persistent classes
+     */
+    InMemoryRxDatastoreClient(Class... classes) {
+        this(createMappingContext(classes), Schedulers.computation())
+    }
+
+    /**
+     * Creates a client for the given mapping context
+     *
+     * @param mappingContext The mapping context
+     * @param scheduler The scheduler operations are executed on
+     */
+    InMemoryRxDatastoreClient(MappingContext mappingContext, Scheduler scheduler = Schedulers.computation()) {
+        this(new ConcurrentHashMap<String, Map>(), mappingContext, scheduler)
+    }
+
+    /**
+     * Creates a client that stores entities in the given map
+     *
+     * @param backingMap The map of families to entries
+     * @param mappingContext The mapping context
+     * @param scheduler The scheduler operations are executed on
+     */
+    InMemoryRxDatastoreClient(ConcurrentMap<String, Map> backingMap, MappingContext mappingContext, Scheduler scheduler) {
+        super(new SingletonConnectionSources<Map<String, Map>, ConnectionSourceSettings>(
+                new DefaultConnectionSource<Map<String, Map>, ConnectionSourceSettings>(ConnectionSource.DEFAULT, backingMap, new ConnectionSourceSettings()),
+                new StandardEnvironment()), mappingContext)
+        this.backingMap = backingMap
+        this.scheduler = scheduler
+        initDefaultEventListeners(eventPublisher)
+        for(entity in mappingContext.persistentEntities) {
+            RxGormEnhancer.registerEntity(entity, this)
+        }
+    }
+
+    protected static MappingContext createMappingContext(Class... classes) {
+        def mappingContext = new KeyValueMappingContext("")
+        mappingContext.addPersistentEntities(classes)
+        return mappingContext
+    }
+
+    @Override
+    Map<String, Map> getNativeInterface() {
+        return backingMap
+    }
+
+    /**
+     * Removes all the stored entities
+     */
+    void clearData() {
+        backingMap.clear()
+        identifierSequences.clear()
+    }
+
+    /**
+     * Obtains the entries of the family of the given entity
+     *
+     * @param entity The entity
+     * @return A map of identifiers to entries
+     */
+    ConcurrentMap<Serializable, Map<String, Object>> getFamily(PersistentEntity entity) {
+        String name = entity.rootEntity.name
+        Map family = backingMap.get(name)
+        if(family == null) {
+            family = new ConcurrentHashMap<Serializable, Map<String, Object>>()
+            Map existing = backingMap.putIfAbsent(name, family)
+            if(existing != null) {
+                family = existing
+            }
+        }
+        return (ConcurrentMap<Serializable, Map<String, Object>>)family
+    }
+
+    /**
+     * Executes the observable returned by the given factory on the scheduler of this client when subscribed to
+     *
+     * @param observableFactory The factory
+     * @return The observable
+     */
+    public <R> Observable<R> execute(Func0<Observable<R>> observableFactory) {
+        return Observable.defer(observableFactory).subscribeOn(scheduler)
+    }
+
+    @Override
+    Observable<Number> batchWrite(BatchOperation operation) {
+        return execute({
+            int count = 0
+            for(inserts in operation.inserts.entrySet()) {
+                count += writeEntries(inserts.key, inserts.value.values())
+            }
+            for(updates in operation.updates.entrySet()) {
+                count += writeEntries(updates.key, updates.value.values())
+            }
+            count += deleteEntries(operation)
+            return Observable.just((Number)count)
+        } as Func0<Observable<Number>>)
+    }
+
+    @Override
+    Observable<Number> batchDelete(BatchOperation operation) {
+        return execute({
+            return Observable.just((Number)deleteEntries(operation))
+        } as Func0<Observable<Number>>)
+    }
+
+    @Override
+    Serializable generateIdentifier(PersistentEntity entity, Object instance, EntityReflector reflector) {
+        def identity = entity.identity
+        Serializable id
+        if(String.isAssignableFrom(identity.type) || identity.mapping.generator == ValueGenerator.UUID) {
+            id = UUID.randomUUID().toString()
+        }
+        else {
+            id = nextIdentifier(entity)
+        }
+        if(!identity.type.isInstance(id)) {
+            id = (Serializable)mappingContext.conversionService.convert(id, identity.type)
+        }
+        reflector.setIdentifier(instance, id)
+        return id
+    }
+
+    @Override
+    Query createEntityQuery(PersistentEntity entity, QueryState queryState, Map arguments) {
+        return new InMemoryRxQuery(this, entity, queryState)
+    }
+
+    @Override
+    void doClose() {
+        clearData()
+    }
+
+    /**
+     * Creates an instance from an entry, or returns the instance already loaded by the query
+     *
+     * @param entity The entity queried
+     * @param id The identifier
+     * @param entry The entry
+     * @param queryState The query state
+     * @return The instance
+     */
+    Object createInstance(PersistentEntity entity, Serializable id, Map<String, Object> entry, QueryState queryState) {
+        PersistentEntity concreteEntity = getEntryEntity(entity, entry)
+        Class type = concreteEntity.javaClass
+        Object instance = queryState.getLoadedEntity(type, id)
+        if(instance != null) {
+            return instance
+        }
+
+        instance = concreteEntity.newInstance()
+        EntityReflector reflector = mappingContext.getEntityReflector(concreteEntity)
+        reflector.setIdentifier(instance, id)
+        queryState.addLoadedEntity(type, id, instance)
+        for(PersistentProperty property in concreteEntity.persistentProperties) {
+            String name = property.name
+            Object value = entry.get(name)
+            if((property instanceof ToOne) && !((ToOne)property).isEmbedded()) {
+                ToOne toOne = (ToOne)property
+                Class associatedType = toOne.associatedEntity.javaClass
+                if(toOne.isForeignKeyInChild()) {
+                    Query query = createQuery(associatedType, queryState).eq(toOne.inverseSide.name, id)
+                    reflector.setProperty(instance, name, proxy(query, queryState))
+                }
+                else if(value != null) {
+                    Object associated = queryState.getLoadedEntity(associatedType, (Serializable)value)
+                    reflector.setProperty(instance, name, associated != null ? associated : proxy(associatedType, (Serializable)value, queryState))
+                }
+            }
+            else if(property instanceof ToMany) {
+                reflector.setProperty(instance, name, createCollection((ToMany)property, id, (List<Serializable>)value, queryState))
+            }
+            else if(value != null) {
+                reflector.setProperty(instance, name, value)
+            }
+        }
+        activeDirtyChecking(instance)
+        return instance
+    }
+
+    /**
+     * Obtains the entity an entry was created from
+     *
+     * @param entity The entity queried
+     * @param entry The entry
+     * @return The entity of the entry
+     */
+    PersistentEntity getEntryEntity(PersistentEntity entity, Map<String, Object> entry) {
+        String entityName = (String)entry.get(ENTITY_KEY)
+        if(entityName == null || entityName == entity.name) {
+            return entity
+        }
+        PersistentEntity entryEntity = mappingContext.getPersistentEntity(entityName)
+        return entryEntity != null ? entryEntity : entity
+    }
+
+    /**
+     * Resolves the identifier of an associated instance or proxy
+     *
+     * @param object The object
+     * @return The identifier or null if the object is not persistent
+     */
+    Serializable getAssociationIdentifier(Object object) {
+        ProxyHandler proxyHandler = mappingContext.proxyHandler
+        if(proxyHandler.isProxy(object)) {
+            return proxyHandler.getIdentifier(object)
+        }
+        PersistentEntity entity = mappingContext.getPersistentEntityForClass(proxyHandler.getProxiedClass(object))
+        return entity != null ? mappingContext.getEntityReflector(entity).getIdentifier(object) : null
+    }
+
+    protected int writeEntries(PersistentEntity entity, Collection<BatchOperation.EntityOperation> operations) {
+        EntityReflector reflector = mappingContext.getEntityReflector(entity)
+        ConcurrentMap<Serializable, Map<String, Object>> family = getFamily(entity)
+        for(operation in operations) {
+            Object object = operation.object
+            Serializable id = reflector.getIdentifier(object)
+            if(id == null) {
+                // natively generated identifiers are assigned when the entry is written
+                id = generateIdentifier(entity, object, reflector)
+            }
+            writeEntry(family, entity, reflector, object, id)
+            activeDirtyChecking(object)
+        }
+        return operations.size()
+    }
+
+    /**
+     * Writes the entry of an instance, retrying if the previous entry, from which the keys of inverse collections are
+     * carried over, is replaced or removed concurrently
+     */
+    protected void writeEntry(ConcurrentMap<Serializable, Map<String, Object>> family, PersistentEntity entity, EntityReflector reflector, Object object, Serializable id) {
+        while(true) {
+            Map<String, Object> previousEntry = family.get(id)
+            Map<String, Object> entry = createEntry(entity, reflector, object, id, previousEntry)
+            if(previousEntry == null) {
+                if(family.putIfAbsent(id, entry) == null) {
+                    return
+                }
+            }
+            else if(family.replace(id, previousEntry, entry)) {
+                return
+            }
+        }
+    }
+
+    protected int deleteEntries(BatchOperation operation) {
+        int count = 0
+        for(deletes in operation.deletes.entrySet()) {
+            ConcurrentMap<Serializable, Map<String, Object>> family = getFamily(deletes.key)
+            for(id in deletes.value.keySet()) {
+                if(family.remove(id) != null) {
+                    count++
+                }
+            }
+        }
+        return count
+    }
+
+    protected Map<String, Object> createEntry(PersistentEntity entity, EntityReflector reflector, Object object, Serializable id, Map<String, Object> previousEntry) {
+        Map<String, Object> entry = new HashMap<String, Object>()
+        entry.put(ENTITY_KEY, entity.name)
+        entry.put(entity.identity.name, id)
+        for(PersistentProperty property in entity.persistentProperties) {
+            String name = property.name
+            Object value = reflector.getProperty(object, name)
+            if((property instanceof ToOne) && !((ToOne)property).isEmbedded()) {
+                if(!((ToOne)property).isForeignKeyInChild()) {
+                    entry.put(name, value != null ? getAssociationIdentifier(value) : null)
+                }
+            }
+            else if(property instanceof ToMany) {
+                if(!isForeignKeyInChild((ToMany)property)) {
+                    entry.put(name, getAssociationKeys(value, previousEntry != null ? (List<Serializable>)previousEntry.get(name) : null))
+                }
+            }
+            else {
+                entry.put(name, value)
+            }
+        }
+        return entry
+    }
+
+    protected List<Serializable> getAssociationKeys(Object collection, List<Serializable> previousKeys) {
+        if(collection == null) {
+            return null
+        }
+        if((collection instanceof PersistentCollection) && !((PersistentCollection)collection).isInitialized()) {
+            if(collection instanceof RxUnidirectionalCollection) {
+                return ((RxUnidirectionalCollection)collection).associationKeys
+            }
+            return previousKeys
+        }
+        List<Serializable> keys = new ArrayList<Serializable>()
+        for(associated in (Iterable)collection) {
+            Serializable key = getAssociationIdentifier(associated)
+            if(key != null) {
+                keys.add(key)
+            }
+        }
+        return keys
+    }
+
+    protected Collection createCollection(ToMany association, Serializable id, List<Serializable> keys, QueryState queryState) {
+        if(isForeignKeyInChild(association)) {
+            switch(association.type) {
+                case SortedSet:
+                    return new RxPersistentSortedSet(this, association, id, queryState)
+                case List:
+                    return new RxPersistentList(this, association, id, queryState)
+                default:
+                    return new RxPersistentSet(this, association, id, queryState)
+            }
+        }
+        else {
+            List<Serializable> associationKeys = keys != null ? keys : Collections.<Serializable>emptyList()
+            switch(association.type) {
+                case SortedSet:
+                    return new RxPersistentSortedSet(this, association, associationKeys, queryState)
+                case List:
+                    return new RxPersistentList(this, association, associationKeys, queryState)
+                default:
+                    return new RxPersistentSet(this, association, associationKeys, queryState)
+            }
+        }
+    }
+
+    /**
+     * Whether the foreign key of a one-to-many association is stored by the child
+     */
+    protected boolean isForeignKeyInChild(ToMany association) {
+        return association.isBidirectional() && (association.inverseSide instanceof ManyToOne)
+    }
+
+    protected Serializable nextIdentifier(PersistentEntity entity) {
+        String family = entity.rootEntity.name
+        AtomicLong sequence = identifierSequences.get(family)
+        if(sequence == null) {
+            sequence = new AtomicLong()
+            AtomicLong existing = identifierSequences.putIfAbsent(family, sequence)
+            if(existing != null) {
+                sequence = existing
+            }
+        }
+        return sequence.incrementAndGet()
+    }
+}
@@ -0,0 +1,441 @@
+package org.grails.datastore.rx.memory
+
+import groovy.transform.CompileStatic
+import org.codehaus.groovy.runtime.typehandling.DefaultTypeTransformation
+import org.grails.datastore.mapping.model.PersistentEntity
+import org.grails.datastore.mapping.model.PersistentProperty
+import org.grails.datastore.mapping.model.types.ToOne
+import org.grails.datastore.mapping.query.Query
+import org.grails.datastore.rx.query.QueryState
+import org.grails.datastore.rx.query.RxQuery
+import org.grails.datastore.rx.query.RxQueryUtils
+import rx.Observable
+import rx.functions.Func0
+
+import java.util.concurrent.ConcurrentMap
+import java.util.regex.Pattern
+
+/**
+ * A {@link RxQuery} that evaluates its criteria against the entries of an {@link InMemoryRxDatastoreClient}
+ *
+ * @author Graeme Rocher
+ * @since 6.0
+ */
+@CompileStatic
+class InMemoryRxQuery extends Query implements RxQuery {
+
+    protected final InMemoryRxDatastoreClient datastoreClient
+    protected final QueryState queryState
+    private final Map<Query.Criterion, Pattern> patterns = new IdentityHashMap<Query.Criterion, Pattern>()
+
+    InMemoryRxQuery(InMemoryRxDatastoreClient datastoreClient, PersistentEntity entity, QueryState queryState = new QueryState()) {
+        super(null, entity)
+        this.datastoreClient = datastoreClient
+        this.queryState = queryState
+    }
+
+    @Override
+    List list() {
+        // there is no session to flush or publish events to
+        return executeQuery(entity, criteria)
+    }
+
+    @Override
+    Observable findAll() {
+        Observable observable = datastoreClient.execute({
+            return Observable.from(list())
+        } as Func0<Observable>)
+        if(projections.isEmpty()) {
+            observable = RxQueryUtils.processFetchStrategies(datastoreClient, observable, entity, fetchStrategies, queryState)
+        }
+        return observable
+    }
+
+    /**
+     * The arguments have already been applied to the query by the RxGORM API, so they are ignored
+     */
+    @Override
+    Observable findAll(Map<String, Object> queryArguments) {
+        return findAll()
+    }
+
+    @Override
+    Observable singleResult() {
+        return datastoreClient.execute({
+            List results = list()
+            return !results.isEmpty() && results.get(0) != null ? Observable.just(results.get(0)) : Observable.empty()
+        } as Func0<Observable>)
+    }
+
+    @Override
+    Observable singleResult(Map<String, Object> queryArguments) {
+        return singleResult()
+    }
+
+    @Override
+    Observable<Number> updateAll(Map properties) {
+        return datastoreClient.execute({
+            Map<String, Object> values = new HashMap<String, Object>()
+            for(property in properties.entrySet()) {
+                String name = property.key.toString()
+                Object value = property.value
+                values.put(name, isAssociation(name) && value != null ? datastoreClient.getAssociationIdentifier(value) : value)
+            }
+            ConcurrentMap<Serializable, Map<String, Object>> family = datastoreClient.getFamily(getEntity())
+            int count = 0
+            for(entry in findEntries()) {
+                Map<String, Object> updated = new HashMap<String, Object>(entry.value)
+                updated.putAll(values)
+                // an entry that was replaced concurrently is not updated
+                if(family.replace(entry.key, entry.value, updated)) {
+                    count++
+                }
+            }
+            return Observable.just((Number)count)
+        } as Func0<Observable<Number>>)
+    }
+
+    @Override
+    Observable<Number> deleteAll() {
+        return datastoreClient.execute({
+            ConcurrentMap<Serializable, Map<String, Object>> family = datastoreClient.getFamily(getEntity())
+            int count = 0
+            for(entry in findEntries()) {
+                if(family.remove(entry.key, entry.value)) {
+                    count++
+                }
+            }
+            return Observable.just((Number)count)
+        } as Func0<Observable<Number>>)
+    }
+
+    @Override
+    protected List executeQuery(PersistentEntity entity, Query.Junction criteria) {
+        List<Map.Entry<Serializable, Map<String, Object>>> entries = findEntries()
+        if(!projections.isEmpty()) {
+            return project(entries)
+        }
+        List results = new ArrayList(entries.size())
+        for(entry in entries) {
+            results.add(datastoreClient.createInstance(entity, entry.key, entry.value, queryState))
+        }
+        return results
+    }
+
+    /**
+     * Finds the entries matching the criteria, in the order and range of the query
+     */
+    protected List<Map.Entry<Serializable, Map<String, Object>>> findEntries() {
+        ConcurrentMap<Serializable, Map<String, Object>> family = datastoreClient.getFamily(entity)
+        List<Map.Entry<Serializable, Map<String, Object>>> entries = new ArrayList<Map.Entry<Serializable, Map<String, Object>>>()
+
+        Object id = getIdentifierRestriction()
+        if(id != null) {
+            // lookups by identifier don't have to scan the family
+            Serializable key = convertIdentifier(id)
+            Map<String, Object> entry = family.get(key)
+            if(entry != null && isOfEntity(entry)) {
+                entries.add(new AbstractMap.SimpleImmutableEntry<Serializable, Map<String, Object>>(key, entry))
+            }
+            return entries
+        }
+
+        for(entry in family.entrySet()) {
+            if(isOfEntity(entry.value) && matches(criteria, entry.value)) {
+                entries.add(entry)
+            }
+        }
+        if(!orderBy.isEmpty()) {
+            Collections.sort(entries, { Map.Entry<Serializable, Map<String, Object>> e1, Map.Entry<Serializable, Map<String, Object>> e2 ->
+                compareEntries(e1.value, e2.value)
+            } as Comparator<Map.Entry<Serializable, Map<String, Object>>>)
+        }
+        int from = Math.min(Math.max(offset, 0), entries.size())
+        int to = max > -1 ? Math.min(from + max, entries.size()) : entries.size()
+        return from == 0 && to == entries.size() ? entries : new ArrayList<Map.Entry<Serializable, Map<String, Object>>>(entries.subList(from, to))
+    }
+
+    /**
+     * @return The identifier if the query is a single restriction on the identifier
+     */
+    protected Object getIdentifierRestriction() {
+        List<Query.Criterion> criterionList = criteria.criteria
+        if(!(criteria instanceof Query.Conjunction) || criterionList.size() != 1) {
+            return null
+        }
+        Query.Criterion criterion = criterionList.get(0)
+        if(criterion instanceof Query.IdEquals) {
+            return ((Query.IdEquals)criterion).value
+        }
+        if(criterion.getClass() == Query.Equals && ((Query.Equals)criterion).property == entity.identity.name) {
+            return ((Query.Equals)criterion).value
+        }
+        return null
+    }
+
+    protected Serializable convertIdentifier(Object id) {
+        id = resolveIdIfEntity(id)
+        Class identityType = entity.identity.type
+        if(id != null && !identityType.isInstance(id)) {
+            def conversionService = entity.mappingContext.conversionService
+            if(conversionService.canConvert(id.getClass(), identityType)) {
+                id = conversionService.convert(id, identityType)
+            }
+        }
+        return (Serializable)id
+    }
+
+    protected boolean isOfEntity(Map<String, Object> entry) {
+        if(entity.isRoot()) {
+            return true
+        }
+        return entity.javaClass.isAssignableFrom(datastoreClient.getEntryEntity(entity, entry).javaClass)
+    }
+
+    protected boolean matches(Query.Criterion criterion, Map<String, Object> entry) {
+        if(criterion instanceof Query.Junction) {
+            List<Query.Criterion> criterionList = ((Query.Junction)criterion).criteria
+            boolean disjunction = criterion instanceof Query.Disjunction
+            boolean negation = criterion instanceof Query.Negation
+            for(Query.Criterion c in criterionList) {
+                boolean matched = matches(c, entry)
+                if(disjunction && matched) {
+                    return true
+                }
+                else if(negation && matched) {
+                    return false
+                }
+                else if(!disjunction && !negation && !matched) {
+                    return false
+                }
+            }
+            return !disjunction || criterionList.isEmpty()
+        }
+        else if(criterion instanceof Query.IdEquals) {
+            return isEqual(entry.get(entity.identity.name), convertIdentifier(((Query.IdEquals)criterion).value))
+        }
+        else if(criterion instanceof Query.PropertyComparisonCriterion) {
+            Query.PropertyComparisonCriterion pcc = (Query.PropertyComparisonCriterion)criterion
+            return matchesComparison(pcc, getValue(entry, pcc.property), getValue(entry, pcc.otherProperty))
+        }
+        else if(criterion instanceof Query.IsNull) {
+            return getValue(entry, ((Query.IsNull)criterion).property) == null
+        }
+        else if(criterion instanceof Query.IsNotNull) {
+            return getValue(entry, ((Query.IsNotNull)criterion).property) != null
+        }
+        else if(criterion instanceof Query.In) {
+            Query.In in = (Query.In)criterion
+            if(in.subquery != null) {
+                throw new UnsupportedOperationException("Subqueries are not supported by the in-memory client")
+            }
+            Object value = getValue(entry, in.property)
+            for(v in in.values) {
+                if(isEqual(value, resolveIdIfEntity(v))) {
+                    return true
+                }
+            }
+            return false
+        }
+        else if(criterion instanceof Query.Between) {
+            Query.Between between = (Query.Between)criterion
+            Object value = getValue(entry, between.property)
+            return value != null && compare(value, between.from) >= 0 && compare(value, between.to) <= 0
+        }
+        else if(criterion instanceof Query.Like) {
+            Object value = getValue(entry, ((Query.Like)criterion).property)
+            return value != null && getPattern((Query.Like)criterion).matcher(value.toString()).matches()
+        }
+        else if((criterion instanceof Query.PropertyCriterion) && !(criterion instanceof Query.SubqueryCriterion)) {
+            Query.PropertyCriterion pc = (Query.PropertyCriterion)criterion
+            return matchesComparison(pc, getValue(entry, pc.property), resolveIdIfEntity(pc.value))
+        }
+        throw new UnsupportedOperationException("Criterion [${criterion.getClass().simpleName}] is not supported by the in-memory client")
+    }
+
+    protected boolean matchesComparison(Query.Criterion criterion, Object value, Object other) {
+        if((criterion instanceof Query.Equals) || (criterion instanceof Query.EqualsProperty)) {
+            return isEqual(value, other)
+        }
+        else if((criterion instanceof Query.NotEquals) || (criterion instanceof Query.NotEqualsProperty)) {
+            return !isEqual(value, other)
+        }
+        if(value == null || other == null) {
+            return false
+        }
+        else if((criterion instanceof Query.GreaterThan) || (criterion instanceof Query.GreaterThanProperty)) {
+            return compare(value, other) > 0
+        }
+        else if((criterion instanceof Query.GreaterThanEquals) || (criterion instanceof Query.GreaterThanEqualsProperty)) {
+            return compare(value, other) >= 0
+        }
+        else if((criterion instanceof Query.LessThan) || (criterion instanceof Query.LessThanProperty)) {
+            return compare(value, other) < 0
+        }
+        else if((criterion instanceof Query.LessThanEquals) || (criterion instanceof Query.LessThanEqualsProperty)) {
+            return compare(value, other) <= 0
+        }
+        throw new UnsupportedOperationException("Criterion [${criterion.getClass().simpleName}] is not supported by the in-memory client")
+    }
+
+    protected Object getValue(Map<String, Object> entry, String property) {
+        if(entry.containsKey(property)) {
+            return entry.get(property)
+        }
+        return property == 'id' ? entry.get(entity.identity.name) : null
+    }
+
+    protected boolean isAssociation(String property) {
+        PersistentProperty persistentProperty = entity.getPropertyByName(property)
+        return (persistentProperty instanceof ToOne) && !((ToOne)persistentProperty).isEmbedded()
+    }
+
+    protected Pattern getPattern(Query.Like like) {
+        Pattern pattern = patterns.get(like)
+        if(pattern == null) {
+            if(like instanceof Query.RLike) {
+                pattern = Pattern.compile(like.pattern)
+            }
+            else {
+                StringBuilder regex = new StringBuilder()
+                StringBuilder literal = new StringBuilder()
+                for(char c in like.pattern.toCharArray()) {
+                    if(c == ('%' as char) || c == ('_' as char)) {
+                        if(literal.length() > 0) {
+                            regex.append(Pattern.quote(literal.toString()))
+                            literal.setLength(0)
+                        }
+                        regex.append(c == ('%' as char) ? '.*' : '.')
+                    }
+                    else {
+                        literal.append(c)
+                    }
+                }
+                if(literal.length() > 0) {
+                    regex.append(Pattern.quote(literal.toString()))
+                }
+                int flags = like instanceof Query.ILike ? Pattern.CASE_INSENSITIVE | Pattern.UNICODE_CASE : 0
+                pattern = Pattern.compile(regex.toString(), flags | Pattern.DOTALL)
+            }
+            patterns.put(like, pattern)
+        }
+        return pattern
+    }
+
+    protected int compareEntries(Map<String, Object> entry1, Map<String, Object> entry2) {
+        for(order in orderBy) {
+            Object v1 = getValue(entry1, order.property)
+            Object v2 = getValue(entry2, order.property)
+            if(order.isIgnoreCase() && (v1 instanceof CharSequence) && (v2 instanceof CharSequence)) {
+                v1 = v1.toString().toLowerCase()
+                v2 = v2.toString().toLowerCase()
+            }
+            int result
+            if(v1 == null || v2 == null) {
+                // nulls come first in ascending order
+                result = v1 == null ? (v2 == null ? 0 : -1) : 1
+            }
+            else {
+                result = compare(v1, v2)
+            }
+            if(result != 0) {
+                return order.direction == Query.Order.Direction.DESC ? -result : result
+            }
+        }
+        return 0
+    }
+
+    protected List project(List<Map.Entry<Serializable, Map<String, Object>>> entries) {
+        List<Query.Projection> projectionList = projections.projectionList
+        List<List> columns = new ArrayList<List>(projectionList.size())
+        for(projection in projectionList) {
+            columns.add(projectColumn(projection, entries))
+        }
+        if(columns.size() == 1) {
+            return columns.get(0)
+        }
+
+        int rowCount = 0
+        for(column in columns) {
+            rowCount = Math.max(rowCount, column.size())
+        }
+        List rows = new ArrayList(rowCount)
+        for(int i = 0; i < rowCount; i++) {
+            List row = new ArrayList(columns.size())
+            for(column in columns) {
+                row.add(i < column.size() ? column.get(i) : null)
+            }
+            rows.add(row)
+        }
+        return rows
+    }
+
+    protected List projectColumn(Query.Projection projection, List<Map.Entry<Serializable, Map<String, Object>>> entries) {
+        if(projection instanceof Query.CountProjection) {
+            return Collections.singletonList((Object)entries.size())
+        }
+        else if(projection instanceof Query.IdProjection) {
+            List ids = new ArrayList(entries.size())
+            for(entry in entries) {
+                ids.add(entry.key)
+            }
+            return ids
+        }
+        else if(projection instanceof Query.PropertyProjection) {
+            String property = ((Query.PropertyProjection)projection).propertyName
+            List values = new ArrayList(entries.size())
+            for(entry in entries) {
+                values.add(getValue(entry.value, property))
+            }
+            if(projection instanceof Query.CountDistinctProjection) {
+                return Collections.singletonList((Object)new HashSet(values).size())
+            }
+            else if(projection instanceof Query.MinProjection || projection instanceof Query.MaxProjection) {
+                boolean min = projection instanceof Query.MinProjection
+                Object result = null
+                for(value in values) {
+                    if(value != null && (result == null || (min ? compare(value, result) < 0 : compare(value, result) > 0))) {
+                        result = value
+                    }
+                }
+                return Collections.singletonList(result)
+            }
+            else if(projection instanceof Query.SumProjection || projection instanceof Query.AvgProjection) {
+                Number sum = null
+                int count = 0
+                for(value in values) {
+                    if(value instanceof Number) {
+                        sum = sum == null ? (Number)value : sum + (Number)value
+                        count++
+                    }
+                }
+                if(projection instanceof Query.AvgProjection) {
+                    return Collections.singletonList((Object)(count > 0 ? sum.doubleValue() / count : null))
+                }
+                return Collections.singletonList((Object)sum)
+            }
+            else if(projection instanceof Query.DistinctPropertyProjection) {
+                values = new ArrayList(new LinkedHashSet(values))
+            }
+            if(isAssociation(property)) {
+                // associations are stored as identifiers, return proxies like a query for the associated entity would
+                Class associatedType = ((ToOne)entity.getPropertyByName(property)).associatedEntity.javaClass
+                List proxies = new ArrayList(values.size())
+                for(value in values) {
+                    proxies.add(value != null ? datastoreClient.proxy(associatedType, (Serializable)value, queryState) : null)
+                }
+                return proxies
+            }
+            return values
+        }
+        throw new UnsupportedOperationException("Projection [${projection.getClass().simpleName}] is not supported by the in-memory client")
+    }
+
+    protected static boolean isEqual(Object value, Object other) {
+        return DefaultTypeTransformation.compareEqual(value, other)
+    }
+
+    protected static int compare(Object value, Object other) {
+        return DefaultTypeTransformation.compareTo(value, other)
+    }
+}
@@ -0,0 +1,142 @@
+package org.grails.datastore.rx.memory
+
+import org.grails.datastore.mapping.query.Query
+import org.grails.datastore.rx.query.RxQuery
+import org.slf4j.Logger
+import org.slf4j.LoggerFactory
+import spock.lang.AutoCleanup
+import spock.lang.Requires
+import spock.lang.Shared
+import spock.lang.Specification
+
+import java.util.concurrent.Callable
+import java.util.concurrent.ConcurrentLinkedQueue
+import java.util.concurrent.CountDownLatch
+import java.util.concurrent.ExecutorService
+import java.util.concurrent.Executors
+import java.util.concurrent.Future
+import java.util.concurrent.ThreadLocalRandom
+import java.util.concurrent.atomic.AtomicInteger
+
+/**
+ * Stress test of the in-memory client that measures the throughput and latency of persistAll, get and queries with
+ * concurrent subscribers. Enabled with -Dgorm.rx.benchmark=true, the number of subscribers is set with
+ * -Dgorm.rx.benchmark.subscribers (8 by default) and the number of operations of each subscriber with
+ * -Dgorm.rx.benchmark.operations (1000 by default).
+ *
+ * @author Graeme Rocher
+ */
+@Requires({ Boolean.getBoolean("gorm.rx.benchmark") })
+class InMemoryRxDatastoreClientBenchmarkSpec extends Specification {
+
+    static final Logger LOG = LoggerFactory.getLogger(InMemoryRxDatastoreClientBenchmarkSpec)
+    static final int SUBSCRIBERS = Integer.getInteger("gorm.rx.benchmark.subscribers", 8)
+    static final int OPERATIONS = Integer.getInteger("gorm.rx.benchmark.operations", 1000)
+    static final int BATCH_SIZE = 10
+    static final int WARMUP_OPERATIONS = 100
+
+    @Shared @AutoCleanup InMemoryRxDatastoreClient client = new InMemoryRxDatastoreClient(MemoryAuthor, MemoryBook)
+
+    void "Test throughput and latency of persistAll, get and queries with concurrent subscribers"() {
+        given:
+        Queue<Serializable> identifiers = new ConcurrentLinkedQueue<Serializable>()
+
+        when:"Batches of authors are persisted concurrently"
+        Result persistAll = measure("persistAll", OPERATIONS) { int subscriber, int operation ->
+            List authors = (0..<BATCH_SIZE).collect { int i -> new MemoryAuthor(name: "Author $subscriber-$operation-$i", age: i) }
+            List<Serializable> ids = client.persistAll(authors).toBlocking().first()
+            identifiers.addAll(ids)
+            ids.size() == BATCH_SIZE
+        }
+        Query count = client.createQuery(MemoryAuthor)
+        count.projections().count()
+
+        then:"No operation failed and every author is stored"
+        persistAll.errors == 0
+        ((RxQuery)count).singleResult().toBlocking().first() == identifiers.size()
+
+        when:"Authors are retrieved concurrently"
+        List<Serializable> ids = new ArrayList<Serializable>(identifiers)
+        Result get = measure("get", OPERATIONS) { int subscriber, int operation ->
+            Serializable id = ids.get(ThreadLocalRandom.current().nextInt(ids.size()))
+            client.get(MemoryAuthor, id).toBlocking().first().id == id
+        }
+
+        then:"Every author is found"
+        get.errors == 0
+
+        when:"Authors are queried concurrently"
+        // queries scan every stored author, so fewer of them are executed
+        Result query = measure("query", Math.max(1, OPERATIONS.intdiv(10) as int)) { int subscriber, int operation ->
+            int age = ThreadLocalRandom.current().nextInt(BATCH_SIZE)
+            Query q = client.createQuery(MemoryAuthor).eq("age", age).max(BATCH_SIZE)
+            List<MemoryAuthor> authors = ((RxQuery)q).findAll().toList().toBlocking().first()
+            authors.size() == BATCH_SIZE && authors.every { it.age == age }
+        }
+
+        then:"The queries return the matching authors"
+        query.errors == 0
+    }
+
+    protected Result measure(String name, int operations, Closure<Boolean> operation) {
+        for(int i = 0; i < Math.min(WARMUP_OPERATIONS, operations); i++) {
+            operation.call(-1, i)
+        }
+
+        ExecutorService executor = Executors.newFixedThreadPool(SUBSCRIBERS)
+        CountDownLatch start = new CountDownLatch(1)
+        AtomicInteger errors = new AtomicInteger()
+        long[][] latencies = new long[SUBSCRIBERS][operations]
+        try {
+            List<Future> futures = (0..<SUBSCRIBERS).collect { int subscriber ->
+                executor.submit({
+                    start.await()
+                    for(int i = 0; i < operations; i++) {
+                        long begin = System.nanoTime()
+                        try {
+                            if(!operation.call(subscriber, i)) {
+                                errors.incrementAndGet()
+                            }
+                        } catch (Throwable e) {
+                            errors.incrementAndGet()
+                        }
+                        latencies[subscriber][i] = System.nanoTime() - begin
+                    }
+                    return null
+                } as Callable)
+            }
+            long begin = System.nanoTime()
+            start.countDown()
+            futures*.get()
+            long elapsed = System.nanoTime() - begin
+
+            def result = new Result(name: name, operations: SUBSCRIBERS * operations, errors: errors.get(), elapsed: elapsed, latencies: latencies.flatten().sort() as long[])
+            LOG.info(result.toString())
+            return result
+        } finally {
+            executor.shutdownNow()
+        }
+    }
+
+    static class Result {
+        String name
+        int operations
+        int errors
+        long elapsed
+        long[] latencies
+
+        double getThroughput() {
+            operations / (elapsed / 1e9d)
+        }
+
+        double percentile(double percentile) {
+            latencies[Math.min(latencies.length - 1, (int) (latencies.length * percentile))] / 1e3d
+        }
+
+        @Override
+        String toString() {
+            String.format("%s with %d subscribers: %d operations in %d ms, %.0f ops/s, latency p50 %.1f us, p99 %.1f us, max %.1f us, %d errors",
+                    name, SUBSCRIBERS, operations, (long) (elapsed / 1e6d), throughput, percentile(0.5d), percentile(0.99d), percentile(1.0d), errors)
+        }
+    }
+}
@@ -0,0 +1,145 @@
+package org.grails.datastore.rx.memory
+
+import grails.gorm.annotation.Entity
+import grails.gorm.rx.RxEntity
+import grails.gorm.rx.collection.ObservableCollection
+import grails.gorm.rx.proxy.ObservableProxy
+import org.grails.datastore.mapping.query.Query
+import org.grails.datastore.rx.query.RxQuery
+import rx.schedulers.Schedulers
+import spock.lang.AutoCleanup
+import spock.lang.Shared
+import spock.lang.Specification
+
+import java.util.concurrent.Executors
+import java.util.concurrent.ThreadFactory
+
+class InMemoryRxDatastoreClientSpec extends Specification {
+
+    @Shared @AutoCleanup InMemoryRxDatastoreClient client = new InMemoryRxDatastoreClient(MemoryAuthor, MemoryBook)
+
+    void cleanup() {
+        client.clearData()
+    }
+
+    void "Test persist and get an instance"() {
+        when:"An author is persisted"
+        def author = new MemoryAuthor(name: "Stephen King", age: 70)
+        client.persist(author).toBlocking().first()
+
+        then:"An identifier is assigned"
+        author.id != null
+
+        when:"The author is retrieved"
+        MemoryAuthor found = client.get(MemoryAuthor, author.id).toBlocking().first()
+
+        then:"A new instance is created from the stored entry"
+        !found.is(author)
+        found.id == author.id
+        found.name == "Stephen King"
+        found.age == 70
+
+        when:"The author is deleted"
+        boolean deleted = client.delete(found).toBlocking().first()
+
+        then:"It can no longer be retrieved"
+        deleted
+        client.get(MemoryAuthor, author.id).toList().toBlocking().first().isEmpty()
+    }
+
+    void "Test query criteria, ordering, projections and bulk operations"() {
+        given:"Some authors"
+        client.persistAll([
+                new MemoryAuthor(name: "Stephen King", age: 70),
+                new MemoryAuthor(name: "Stephen Fry", age: 60),
+                new MemoryAuthor(name: "Neil Gaiman", age: 57)
+        ]).toBlocking().first()
+
+        when:"The authors are queried with a pattern and ordered"
+        Query query = client.createQuery(MemoryAuthor).like("name", "Stephen%").order(Query.Order.desc("age"))
+        List<MemoryAuthor> results = ((RxQuery)query).findAll().toList().toBlocking().first()
+
+        then:"The matching authors are returned in order"
+        results*.name == ["Stephen King", "Stephen Fry"]
+
+        when:"A count projection is used"
+        query = client.createQuery(MemoryAuthor).gt("age", 58)
+        query.projections().count()
+
+        then:"The number of matching authors is returned"
+        ((RxQuery)query).singleResult().toBlocking().first() == 2
+
+        when:"Authors are updated with a query"
+        query = client.createQuery(MemoryAuthor).eq("name", "Neil Gaiman")
+        Number updated = ((RxQuery)query).updateAll(age: 58).toBlocking().first()
+
+        then:"The stored entries are updated"
+        updated == 1
+        ((RxQuery)client.createQuery(MemoryAuthor).eq("age", 58)).singleResult().toBlocking().first().name == "Neil Gaiman"
+
+        when:"Authors are deleted with a query"
+        Number deleted = ((RxQuery)client.createQuery(MemoryAuthor).ilike("name", "stephen%")).deleteAll().toBlocking().first()
+
+        then:"Only the others remain"
+        deleted == 2
+        ((RxQuery)client.createQuery(MemoryAuthor)).findAll().toList().toBlocking().first()*.name == ["Neil Gaiman"]
+    }
+
+    void "Test associations are loaded reactively"() {
+        given:"An author with a book"
+        def author = new MemoryAuthor(name: "Neil Gaiman", age: 57)
+        author.books = [new MemoryBook(title: "Coraline", author: author)] as Set
+        client.persist(author).toBlocking().first()
+
+        when:"The book is queried"
+        MemoryBook book = ((RxQuery)client.createQuery(MemoryBook).eq("title", "Coraline")).singleResult().toBlocking().first()
+
+        then:"Its author is a proxy that can be observed"
+        book.author instanceof ObservableProxy
+        ((ObservableProxy)book.author).toObservable().toBlocking().first().name == "Neil Gaiman"
+
+        when:"The author is retrieved"
+        MemoryAuthor found = client.get(MemoryAuthor, author.id).toBlocking().first()
+
+        then:"The books can be observed"
+        ((ObservableCollection)found.books).toListObservable().toBlocking().first()*.title == ["Coraline"]
+    }
+
+    void "Test operations are executed on the configured scheduler"() {
+        given:"A scheduler with a named thread"
+        def executor = Executors.newSingleThreadExecutor({ Runnable r -> new Thread(r, "in-memory-rx") } as ThreadFactory)
+        def originalScheduler = client.scheduler
+        client.scheduler = Schedulers.from(executor)
+
+        when:"An author is persisted and retrieved"
+        String persistThread = client.persist(new MemoryAuthor(name: "Terry Pratchett")).map { Thread.currentThread().name }.toBlocking().first()
+        String queryThread = ((RxQuery)client.createQuery(MemoryAuthor)).findAll().map { Thread.currentThread().name }.toBlocking().first()
+
+        then:"The operations are executed on the scheduler"
+        persistThread == "in-memory-rx"
+        queryThread == "in-memory-rx"
+
+        cleanup:
+        client.scheduler = originalScheduler
+        executor.shutdown()
+    }
+}
+
+@Entity
+class MemoryAuthor implements RxEntity<MemoryAuthor> {
+    Long id
+    String name
+    Integer age
+    Set<MemoryBook> books
+
+    static hasMany = [books: MemoryBook]
+}
+
+@Entity
+class MemoryBook implements RxEntity<MemoryBook> {
+    Long id
+    String title
+    MemoryAuthor author
+
+    static belongsTo = [author: MemoryAuthor]
+}
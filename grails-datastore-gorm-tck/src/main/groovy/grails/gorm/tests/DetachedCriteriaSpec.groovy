@@ -133,6 +133,53 @@ class DetachedCriteriaSpec extends GormDatastoreSpec {
         then:"The number of iterations is correct"
             total == 4
     }
+
+    void "Test eachBatch of detached criteria"() {
+        given:"A bunch of people"
+            createPeople()
+
+        when:"A detached criteria is created that matches the last name and then processed in batches"
+            def criteria = new DetachedCriteria(Person).build {
+                eq 'lastName', 'Simpson'
+            }
+            List<Integer> batchSizes = []
+            List<String> firstNames = []
+            criteria.eachBatch(3) { List<Person> people ->
+                batchSizes << people.size()
+                firstNames.addAll(people*.firstName)
+            }
+
+        then:"Every matching instance is processed in batches of the given size"
+            batchSizes == [3, 1]
+            firstNames.sort() == ["Bart", "Homer", "Lisa", "Marge"]
+
+        when:"The batches are restricted with pagination arguments"
+            batchSizes = []
+            criteria.eachBatch(2, [offset: 1, max: 2]) { List<Person> people ->
+                batchSizes << people.size()
+            }
+
+        then:"Only the requested page is processed"
+            batchSizes == [2]
+    }
+
+    void "Test eachBatch leaves the order of a query unchanged"() {
+        given:"A bunch of people and a query without an order"
+            createPeople()
+            def query = session.createQuery(Person)
+            query.eq('lastName', 'Simpson')
+
+        when:"The query is processed in batches"
+            int total = 0
+            query.eachBatch(3) { List<Person> people ->
+                total += people.size()
+            }
+
+        then:"Every match is processed and no order was left on the query"
+            total == 4
+            query.orderBy.isEmpty()
+    }
+
     void "Test dynamic finder on detached criteria"() {
         given:"A bunch of people"
             createPeople()
@@ -96,6 +96,25 @@ class GormEnhancerSpec extends GormDatastoreSpec {
             2 == results.size()
     }
 
+    void "Test getAll() method returns results in order and reuses instances held by the session"() {
+        given:
+            def age = 40
+            def ids = []
+            ["Bob", "Fred", "Barney"].each {
+                ids.add(new TestEntity(name:it, age: age++, child:new ChildEntity(name:"$it Child")).save(flush:true).id)
+            }
+            session.clear()
+            def fred = TestEntity.get(ids[1])
+
+        when:
+            def results = TestEntity.getAll(ids[2], ids[1], ids[0], ids[2])
+
+        then:
+            results*.name == ["Barney", "Fred", "Bob", "Barney"]
+            results[1].is(fred)
+            results[0].is(results[3])
+    }
+
     void "Test ident() method"() {
         given:
             def t
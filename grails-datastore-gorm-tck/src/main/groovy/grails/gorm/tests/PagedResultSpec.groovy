@@ -1,5 +1,7 @@
 package grails.gorm.tests
 
+import grails.gorm.DetachedCriteria
+
 class PagedResultSpec extends GormDatastoreSpec {
 
     void "Test that a paged result list is returned from the list() method with pagination params"() {
@@ -34,6 +36,34 @@ class PagedResultSpec extends GormDatastoreSpec {
             results.totalCount == 4
     }
 
+    void "Test that results following the last seen result are returned with keyset pagination"() {
+        given:"Some people"
+            createPeople()
+            new Person(firstName: "Maggie", lastName: "Simpson", age:40).save(flush:true)
+
+        when:"The list method is used with the last seen result"
+            def first = Person.list(sort:'age', order:'desc', max:3)
+            def results = Person.list(sort:'age', order:'desc', max:3, after:first[-1])
+
+        then:"The next page is returned, using the identifier to order people of the same age"
+            first*.firstName == ["Homer", "Fred", "Marge"]
+            results*.firstName == ["Maggie", "Barney", "Bart"]
+
+        when:"A detached criteria is used with the values of the sort keys of the last seen result"
+            results = new DetachedCriteria(Person).build {
+                eq 'lastName', 'Simpson'
+            }.list(sort:'age', max:2, after:[age:9, id:results[-1].id])
+
+        then:"The next page is returned"
+            results*.firstName == ["Marge", "Maggie"]
+
+        when:"A dynamic finder is used with the last seen result"
+            results = Person.findAllByLastName("Simpson", [sort:'firstName', after:results[-1]])
+
+        then:"The next page is returned"
+            results*.firstName == ["Marge"]
+    }
+
     protected void createPeople() {
         new Person(firstName: "Homer", lastName: "Simpson", age:45).save()
         new Person(firstName: "Marge", lastName: "Simpson", age:40).save()
@@ -0,0 +1,95 @@
+package grails.gorm.tests
+
+import org.grails.datastore.mapping.keyvalue.mapping.config.KeyValueMappingContext
+import org.grails.datastore.mapping.model.AbstractMappingContext
+import org.grails.datastore.mapping.reflect.ClassPropertyFetcher
+import org.grails.datastore.mapping.reflect.FieldEntityAccess
+import org.slf4j.Logger
+import org.slf4j.LoggerFactory
+import spock.lang.Requires
+
+/**
+ * Measures the time taken to initialize a mapping context with a few hundred generated entities, sequentially and
+ * in parallel. Enabled with -Dgorm.benchmark=true, the number of entities is set with
+ * -Dgorm.benchmark.entities (300 by default).
+ *
+ * @author Graeme Rocher
+ */
+@Requires({ Boolean.getBoolean("gorm.benchmark") })
+class MappingContextStartupSpec extends GormDatastoreSpec {
+
+    static final Logger LOG = LoggerFactory.getLogger(MappingContextStartupSpec)
+    static final int ENTITY_COUNT = Integer.getInteger("gorm.benchmark.entities", 300)
+    static final int ITERATIONS = 3
+    static final int HIERARCHY_SIZE = 5
+
+    void "Test startup time of a mapping context with many entities"() {
+        given:"A few hundred entities with inheritance and associations"
+            List<Class> classes = generateEntities(ENTITY_COUNT)
+
+        when:"The entities are initialized sequentially and in parallel"
+            AbstractMappingContext sequential = null
+            AbstractMappingContext parallel = null
+            long sequentialTime = Long.MAX_VALUE
+            long parallelTime = Long.MAX_VALUE
+            ITERATIONS.times {
+                sequential = createMappingContext(false)
+                sequentialTime = Math.min(sequentialTime, time { sequential.addPersistentEntities(classes as Class[]) })
+                parallel = createMappingContext(true)
+                parallelTime = Math.min(parallelTime, time { parallel.addPersistentEntities(classes as Class[]) })
+            }
+            LOG.info("Initialized ${classes.size()} entities with ${sequential.getClass().simpleName}: sequential ${sequentialTime}ms, parallel ${parallelTime}ms")
+
+        then:"Both modes produce the same model"
+            parallel.persistentEntities.size() == sequential.persistentEntities.size()
+            classes.every { Class type ->
+                def expected = sequential.getPersistentEntity(type.name)
+                def actual = parallel.getPersistentEntity(type.name)
+                actual.reflector != null &&
+                    actual.persistentPropertyNames as Set == expected.persistentPropertyNames as Set &&
+                    actual.rootEntity.name == expected.rootEntity.name &&
+                    parallel.getChildEntities(actual)*.name as Set == sequential.getChildEntities(expected)*.name as Set
+            }
+    }
+
+    protected AbstractMappingContext createMappingContext(boolean parallelInitialization) {
+        // start from cold caches so that each run pays for the introspection of the classes
+        ClassPropertyFetcher.clearCache()
+        FieldEntityAccess.clearReflectors()
+        AbstractMappingContext context
+        try {
+            context = (AbstractMappingContext) session.mappingContext.getClass().newInstance()
+        } catch (Exception e) {
+            context = new KeyValueMappingContext("startup")
+        }
+        context.parallelInitialization = parallelInitialization
+        return context
+    }
+
+    protected List<Class> generateEntities(int count) {
+        StringBuilder source = new StringBuilder('package grails.gorm.tests.startup\n\nimport grails.persistence.Entity\n')
+        for (int i = 0; i < count; i++) {
+            int root = i - (i % HIERARCHY_SIZE)
+            source << '\n@Entity\n'
+            if (i == root) {
+                source << "class StartupEntity$i {\n    Long id\n    Long version\n"
+                if (root >= HIERARCHY_SIZE) {
+                    source << "    StartupEntity${root - HIERARCHY_SIZE} previous\n"
+                }
+            }
+            else {
+                source << "class StartupEntity$i extends StartupEntity${i - 1} {\n"
+            }
+            source << "    String name$i\n    Integer count$i\n    Date date$i\n}\n"
+        }
+        def classLoader = new GroovyClassLoader(getClass().classLoader)
+        classLoader.parseClass(source.toString(), 'StartupEntities.groovy')
+        return (0..<count).collect { int i -> classLoader.loadClass("grails.gorm.tests.startup.StartupEntity$i") }
+    }
+
+    protected long time(Closure callable) {
+        long start = System.currentTimeMillis()
+        callable.call()
+        return System.currentTimeMillis() - start
+    }
+}
@@ -0,0 +1,79 @@
+package org.grails.datastore.gorm
+
+import grails.gorm.tests.GormDatastoreSpec
+import grails.persistence.Entity
+import org.grails.datastore.mapping.core.AbstractSession
+
+/**
+ * Tests that pending inserts and updates flushed in batches behave like those executed one by one
+ */
+class BatchedFlushSpec extends GormDatastoreSpec {
+
+    void "Test inserts and updates are flushed in batches"() {
+        given:
+            ((AbstractSession) session).flushBatchSize = 2
+
+        when:"More entities than the batch size are inserted"
+            def items = (1..5).collect { new BatchFlushItem(name: "Item $it").save() }
+            session.flush()
+            session.clear()
+
+        then:
+            BatchFlushItem.count() == 5
+            BatchFlushItem.findByName("Item 3") != null
+            items*.id.toSet().size() == 5
+
+        when:"They are updated"
+            BatchFlushItem.list().each { it.name = it.name.toUpperCase(); it.save() }
+            session.flush()
+            session.clear()
+
+        then:
+            BatchFlushItem.list()*.name.sort() == (1..5).collect { "ITEM $it" }
+            BatchFlushItem.findByName("Item 3") == null
+    }
+
+    void "Test vetoed inserts in a batch are not stored"() {
+        given:
+            ((AbstractSession) session).flushBatchSize = 10
+
+        when:
+            new BatchFlushItem(name: "First").save()
+            new BatchFlushItem(name: "Vetoed").save()
+            new BatchFlushItem(name: "Last").save()
+            session.flush()
+            session.clear()
+
+        then:
+            BatchFlushItem.list()*.name.sort() == ["First", "Last"]
+    }
+
+    void "Test the flush batch size must be positive"() {
+        when:
+            ((AbstractSession) session).flushBatchSize = 0
+
+        then:
+            thrown IllegalArgumentException
+    }
+
+    @Override
+    List getDomainClasses() {
+        [BatchFlushItem]
+    }
+}
+
+@Entity
+class BatchFlushItem {
+    Long id
+    String name
+
+    def beforeInsert() {
+        if (name == "Vetoed") {
+            return false
+        }
+    }
+
+    static mapping = {
+        name index:true
+    }
+}
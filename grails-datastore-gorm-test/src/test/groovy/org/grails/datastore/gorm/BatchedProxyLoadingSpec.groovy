@@ -0,0 +1,121 @@
+package org.grails.datastore.gorm
+
+import grails.gorm.tests.GormDatastoreSpec
+import grails.persistence.Entity
+import org.grails.datastore.gorm.proxy.GroovyProxyFactory
+import org.grails.datastore.mapping.proxy.JavassistProxyFactory
+import org.grails.datastore.mapping.proxy.ProxyBatchLoader
+import org.grails.datastore.mapping.proxy.ProxyFactory
+import spock.lang.Unroll
+
+class BatchedProxyLoadingSpec extends GormDatastoreSpec {
+
+    @Override
+    List getDomainClasses() {
+        [BatchedOwner, BatchedPet]
+    }
+
+    @Unroll
+    void "Test initializing a proxy loads the targets of other proxies with #proxyFactory.class.simpleName"() {
+        given:"A proxy factory and a few owners"
+            def mappingContext = session.mappingContext
+            def originalProxyFactory = mappingContext.proxyFactory
+            mappingContext.proxyFactory = proxyFactory
+            List<Serializable> ids = (1..5).collect { new BatchedOwner(name: "Owner $it").save().id }
+            session.flush()
+            session.clear()
+
+        when:"Proxies to the owners are created and one of them is initialized"
+            def proxies = ids.collect { session.proxy(BatchedOwner, it) }
+            def name = proxies[0].name
+
+        then:"The targets of the other proxies are loaded up to the batch size"
+            name == "Owner 1"
+            ProxyBatchLoader.getBatchSize(session, BatchedOwner) == 3
+            session.isCached(BatchedOwner, ids[1])
+            session.isCached(BatchedOwner, ids[2])
+            !session.isCached(BatchedOwner, ids[3])
+            proxies*.name == (1..5).collect { "Owner $it" }
+
+        cleanup:
+            mappingContext.proxyFactory = originalProxyFactory
+
+        where:
+            proxyFactory << [new JavassistProxyFactory(), new GroovyProxyFactory()] as List<ProxyFactory>
+    }
+
+    void "Test clearing the session discards the keys of pending proxies"() {
+        given:"A few owners"
+            List<Serializable> ids = (1..3).collect { new BatchedOwner(name: "Owner $it").save().id }
+            session.flush()
+            session.clear()
+
+        when:"Proxies to the owners are created and the session is cleared"
+            ids.collect { session.proxy(BatchedOwner, it) }
+            def loader = session.getSessionProperty(ProxyBatchLoader.SESSION_PROPERTY)
+            session.clear()
+
+        then:"The loader of the session is discarded"
+            loader != null
+            session.getSessionProperty(ProxyBatchLoader.SESSION_PROPERTY) == null
+
+        when:"A proxy created after the session was cleared is initialized"
+            def name = session.proxy(BatchedOwner, ids[0]).name
+
+        then:"The proxies created before the session was cleared are not loaded with it"
+            name == "Owner 1"
+            !session.isCached(BatchedOwner, ids[1])
+            !session.isCached(BatchedOwner, ids[2])
+    }
+
+    void "Test the target of a missing key is not taken from the other results of the batch"() {
+        given:"A few owners"
+            List<Serializable> ids = (1..2).collect { new BatchedOwner(name: "Owner $it").save().id }
+            session.flush()
+            session.clear()
+
+        when:"Proxies to the owners and to a missing owner are created and the missing one is retrieved"
+            ids.collect { session.proxy(BatchedOwner, it) }
+            session.proxy(BatchedOwner, 999L)
+            def target = ProxyBatchLoader.retrieve(session, BatchedOwner, 999L)
+
+        then:"No target is found although the other owners of the batch were loaded"
+            target == null
+            session.isCached(BatchedOwner, ids[0])
+            session.isCached(BatchedOwner, ids[1])
+    }
+
+    void "Test proxies of entities without a batch size are loaded one at a time"() {
+        given:"A few pets"
+            List<Serializable> ids = (1..3).collect { new BatchedPet(name: "Pet $it").save().id }
+            session.flush()
+            session.clear()
+
+        when:"Proxies to the pets are created and one of them is initialized"
+            def proxies = ids.collect { session.proxy(BatchedPet, it) }
+            def name = proxies[0].name
+
+        then:"Only its target is loaded"
+            name == "Pet 1"
+            ProxyBatchLoader.getBatchSize(session, BatchedPet) == 1
+            !session.isCached(BatchedPet, ids[1])
+    }
+}
+
+@Entity
+class BatchedOwner {
+    Long id
+    Long version
+    String name
+
+    static mapping = {
+        batchSize 3
+    }
+}
+
+@Entity
+class BatchedPet {
+    Long id
+    Long version
+    String name
+}
@@ -0,0 +1,130 @@
+package org.grails.datastore.gorm
+
+import grails.gorm.tests.GormDatastoreSpec
+import grails.persistence.Entity
+import org.grails.datastore.gorm.validation.constraints.builtin.UniqueConstraint
+import org.grails.datastore.mapping.validation.ValidationErrors
+import org.springframework.context.support.StaticMessageSource
+
+class BuiltinUniqueConstraintSpec extends GormDatastoreSpec {
+
+    @Override
+    List getDomainClasses() {
+        [UniqueAccount]
+    }
+
+    void "Test the unique constraint is only checked for changed values"() {
+        given:"An existing account and a constraint"
+            new UniqueAccount(login: "foo").save(flush: true)
+            def account = new UniqueAccount(login: "bar").save(flush: true)
+            def constraint = new UniqueConstraint(UniqueAccount, "login", true, new StaticMessageSource())
+
+        when:"A new account with an existing login is validated"
+            def duplicate = new UniqueAccount(login: "foo")
+            def errors = new ValidationErrors(duplicate)
+            constraint.validate(duplicate, duplicate.login, errors)
+
+        then:"It is rejected"
+            errors.hasFieldErrors("login")
+
+        when:"An existing account is validated again"
+            errors = new ValidationErrors(account)
+            constraint.validate(account, account.login, errors)
+
+        then:"The account itself does not count as a duplicate"
+            !errors.hasErrors()
+
+        when:"The login of an account that tracks changes is unchanged"
+            account.trackChanges()
+            errors = new ValidationErrors(account)
+            constraint.validate(account, "foo", errors)
+
+        then:"The check is skipped"
+            !errors.hasErrors()
+
+        when:"The login is changed to an existing one"
+            account.login = "foo"
+            errors = new ValidationErrors(account)
+            constraint.validate(account, account.login, errors)
+
+        then:"It is rejected"
+            errors.hasFieldErrors("login")
+    }
+
+    void "Test an existing instance with a changed unique property passes when revalidated"() {
+        given:"An existing account and a constraint"
+            new UniqueAccount(login: "foo").save(flush: true)
+            def account = new UniqueAccount(login: "bar").save(flush: true)
+            def constraint = new UniqueConstraint(UniqueAccount, "login", true, new StaticMessageSource())
+
+        when:"The login is marked as changed so that the datastore is queried"
+            account.trackChanges()
+            account.markDirty("login")
+            def errors = new ValidationErrors(account)
+            constraint.validate(account, account.login, errors)
+
+        then:"The only match is the account itself so it is not rejected"
+            !errors.hasErrors()
+
+        when:"The account is revalidated in batched mode"
+            errors = new ValidationErrors(account)
+            UniqueConstraint.withBatchedChecks([account]) {
+                constraint.validate(account, account.login, errors)
+            }
+
+        then:"It is not rejected either"
+            !errors.hasErrors()
+    }
+
+    void "Test the unique constraint checks a batch of instances"() {
+        given:"An existing account and a constraint"
+            def existing = new UniqueAccount(login: "foo").save(flush: true)
+            existing.markDirty("login")
+            def constraint = new UniqueConstraint(UniqueAccount, "login", true, new StaticMessageSource())
+            def accounts = [new UniqueAccount(login: "foo"), new UniqueAccount(login: "baz"), existing]
+
+        when:"The accounts are validated in batched mode"
+            List<ValidationErrors> errors = UniqueConstraint.withBatchedChecks(accounts) {
+                accounts.collect { UniqueAccount account ->
+                    def accountErrors = new ValidationErrors(account)
+                    constraint.validate(account, account.login, accountErrors)
+                    accountErrors
+                }
+            }
+
+        then:"Only the new account with an existing login is rejected"
+            errors[0].hasFieldErrors("login")
+            !errors[1].hasErrors()
+            !errors[2].hasErrors()
+    }
+
+    void "Test instances of a batch saved within the batch are seen by the other instances of the batch"() {
+        given:"New accounts with the same login and a constraint"
+            def constraint = new UniqueConstraint(UniqueAccount, "login", true, new StaticMessageSource())
+            def accounts = [new UniqueAccount(login: "qux"), new UniqueAccount(login: "qux")]
+
+        when:"Each account is validated and saved in batched mode"
+            List<ValidationErrors> errors = UniqueConstraint.withBatchedChecks(accounts) {
+                accounts.collect { UniqueAccount account ->
+                    def accountErrors = new ValidationErrors(account)
+                    constraint.validate(account, account.login, accountErrors)
+                    if(!accountErrors.hasErrors()) {
+                        account.save(flush: true, validate: false)
+                    }
+                    accountErrors
+                }
+            }
+
+        then:"The second account is rejected although the login was queried before the first one was saved"
+            !errors[0].hasErrors()
+            errors[1].hasFieldErrors("login")
+            UniqueAccount.countByLogin("qux") == 1
+    }
+}
+
+@Entity
+class UniqueAccount {
+    Long id
+    Long version
+    String login
+}
@@ -0,0 +1,62 @@
+package org.grails.datastore.gorm
+
+import java.util.concurrent.Callable
+import java.util.concurrent.Executors
+
+import grails.gorm.tests.GormDatastoreSpec
+import grails.gorm.tests.TestEntity
+import org.grails.datastore.mapping.simple.SimpleMapDatastore
+
+/**
+ * Tests that identifiers generated by the simple map datastore are unique across sessions and threads
+ */
+class ConcurrentIdentifierGenerationSpec extends GormDatastoreSpec {
+
+    void "Test identifiers are not restarted for each session"() {
+        given:
+            def datastore = (SimpleMapDatastore) session.datastore
+
+        when:
+            def first = new TestEntity(name: "Bob").save(flush: true)
+            def other = datastore.connect()
+            def entity = new TestEntity(name: "Fred")
+            other.persist(entity)
+            other.flush()
+            other.disconnect()
+
+        then:
+            first.id == 1L
+            entity.id == 2L
+    }
+
+    void "Test identifiers are unique when inserting from many threads"() {
+        given:
+            def datastore = (SimpleMapDatastore) session.datastore
+            datastore.identifierBlockSize = 16
+            def pool = Executors.newFixedThreadPool(8)
+
+        when:
+            def futures = (1..8).collect { int thread ->
+                pool.submit({
+                    def threadSession = datastore.connect()
+                    try {
+                        (1..100).collect { int i ->
+                            threadSession.persist(new TestEntity(name: "Entity $thread-$i"))
+                        }
+                    }
+                    finally {
+                        threadSession.disconnect()
+                    }
+                } as Callable)
+            }
+            def ids = futures.collectMany { it.get() }
+
+        then:
+            ids.size() == 800
+            ids.toSet().size() == 800
+            ids.max() <= 8 * 112
+
+        cleanup:
+            pool?.shutdown()
+    }
+}
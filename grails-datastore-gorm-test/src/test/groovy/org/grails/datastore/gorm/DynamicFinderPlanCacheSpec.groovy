@@ -0,0 +1,55 @@
+package org.grails.datastore.gorm
+
+import grails.gorm.tests.GormDatastoreSpec
+import grails.gorm.tests.TestEntity
+import org.grails.datastore.gorm.finders.DynamicFinder
+import org.grails.datastore.gorm.finders.FindAllByFinder
+
+/**
+ * Tests that dynamic finder method names are parsed once and the resulting plans reused
+ */
+class DynamicFinderPlanCacheSpec extends GormDatastoreSpec {
+
+    void "Test finder plans are cached per entity and method name"() {
+        given:
+            new TestEntity(name: "Bob", age: 40).save(flush: true)
+            new TestEntity(name: "Fred", age: 45).save(flush: true)
+            DynamicFinder finder = (DynamicFinder) GormEnhancer.findStaticApi(TestEntity).gormDynamicFinders.find { it instanceof FindAllByFinder }
+            def misses = finder.planCacheMisses
+            def hits = finder.planCacheHits
+
+        when:
+            def first = TestEntity.findAllByNameAndAgeGreaterThan("Bob", 30)
+            def second = TestEntity.findAllByNameAndAgeGreaterThan("Fred", 44)
+
+        then:
+            first*.name == ["Bob"]
+            second*.name == ["Fred"]
+            finder.planCacheMisses == misses + 1
+            finder.planCacheHits == hits + 1
+
+        and:
+            def plan = finder.getFinderPlan(TestEntity, "findAllByNameAndAgeGreaterThan")
+            plan.operator == "And"
+            plan.expressions*.propertyName == ["name", "age"]
+            plan.argumentsRequired == 2
+    }
+
+    void "Test plans are bounded per entity"() {
+        given:
+            DynamicFinder finder = (DynamicFinder) GormEnhancer.findStaticApi(TestEntity).gormDynamicFinders.find { it instanceof FindAllByFinder }
+            finder.finderPlanCacheSize = 1
+
+        when:
+            finder.getFinderPlan(TestEntity, "findAllByName")
+            finder.getFinderPlan(TestEntity, "findAllByAge")
+            def misses = finder.planCacheMisses
+            finder.getFinderPlan(TestEntity, "findAllByName")
+
+        then:
+            finder.planCacheMisses == misses + 1
+
+        cleanup:
+            finder.finderPlanCacheSize = DynamicFinder.DEFAULT_FINDER_PLAN_CACHE_SIZE
+    }
+}
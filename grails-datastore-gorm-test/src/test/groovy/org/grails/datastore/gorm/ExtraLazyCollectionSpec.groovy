@@ -0,0 +1,80 @@
+package org.grails.datastore.gorm
+
+import grails.gorm.tests.GormDatastoreSpec
+import grails.persistence.Entity
+import org.grails.datastore.mapping.collection.PersistentCollection
+import org.grails.datastore.mapping.collection.PersistentSet
+
+class ExtraLazyCollectionSpec extends GormDatastoreSpec {
+
+    @Override
+    List getDomainClasses() {
+        [ExtraLazyLibrary, ExtraLazyBook]
+    }
+
+    void "Test an extra lazy collection is not initialized to answer its size and membership"() {
+        given:"A library with some books"
+            def library = new ExtraLazyLibrary(name: "Central")
+            10.times { library.addToBooks(new ExtraLazyBook(title: "Book $it")) }
+            library.save(flush: true)
+            session.clear()
+
+        when:"The size of the books is obtained"
+            library = ExtraLazyLibrary.get(library.id)
+            def books = library.books
+
+        then:"The collection is not initialized"
+            books instanceof PersistentSet
+            books.extraLazy
+            books.size() == 10
+            !books.empty
+            !((PersistentCollection)books).initialized
+
+        when:"Membership is checked"
+            def book = ExtraLazyBook.findByTitle("Book 3")
+
+        then:"The collection is still not initialized"
+            books.contains(book)
+            !books.contains(new ExtraLazyBook(title: "Book 3"))
+            !((PersistentCollection)books).initialized
+
+        when:"The books are iterated in pages"
+            books.pageSize = 3
+            def titles = books.collect { it.title }
+
+        then:"All the books are loaded without initializing the collection"
+            titles.sort() == (0..9).collect { "Book $it" }.sort()
+            !((PersistentCollection)books).initialized
+
+        when:"The collection is modified"
+            books.add(new ExtraLazyBook(title: "Book 10", library: library))
+
+        then:"It is initialized"
+            ((PersistentCollection)books).initialized
+            books.size() == 11
+    }
+}
+
+@Entity
+class ExtraLazyLibrary {
+    Long id
+    Long version
+    String name
+    Set books
+
+    static hasMany = [books: ExtraLazyBook]
+
+    static mapping = {
+        books extraLazy: true
+    }
+}
+
+@Entity
+class ExtraLazyBook {
+    Long id
+    Long version
+    String title
+    ExtraLazyLibrary library
+
+    static belongsTo = [library: ExtraLazyLibrary]
+}
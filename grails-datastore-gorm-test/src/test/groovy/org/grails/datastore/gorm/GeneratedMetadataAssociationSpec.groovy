@@ -0,0 +1,69 @@
+package org.grails.datastore.gorm
+
+import grails.persistence.Entity
+import org.grails.datastore.mapping.keyvalue.mapping.config.KeyValueMappingContext
+import org.grails.datastore.mapping.model.PersistentEntity
+import org.grails.datastore.mapping.model.types.ManyToOne
+import org.grails.datastore.mapping.model.types.OneToMany
+import org.grails.datastore.mapping.reflect.ClassPropertyFetcher
+import org.grails.datastore.mapping.reflect.FieldEntityAccess
+import org.grails.datastore.mapping.reflect.GeneratedPropertyMetadata
+import spock.lang.Specification
+
+/**
+ * Tests that associations are resolved from the metadata generated at compile time without introspecting the entities
+ */
+class GeneratedMetadataAssociationSpec extends Specification {
+
+    void cleanup() {
+        ClassPropertyFetcher.clearCache()
+        FieldEntityAccess.clearReflectors()
+    }
+
+    void "Test a bidirectional association is resolved without introspecting either entity"() {
+        given:"A mapping context that uses the generated metadata and cold caches"
+            ClassPropertyFetcher.clearCache()
+            FieldEntityAccess.clearReflectors()
+            def mappingContext = new KeyValueMappingContext("test")
+            mappingContext.useGeneratedMetadata = true
+
+        when:"An associated pair of entities is mapped"
+            mappingContext.addPersistentEntities(MetadataAuthor, MetadataBook)
+            PersistentEntity author = mappingContext.getPersistentEntity(MetadataAuthor.name)
+            PersistentEntity book = mappingContext.getPersistentEntity(MetadataBook.name)
+
+        then:"The metadata was generated for both entities"
+            GeneratedPropertyMetadata.forClass(MetadataAuthor).available
+            GeneratedPropertyMetadata.forClass(MetadataBook).available
+
+        and:"The association is bidirectional"
+            author.getPropertyByName("books") instanceof OneToMany
+            author.getPropertyByName("books").referencedPropertyName == "author"
+            book.getPropertyByName("author") instanceof ManyToOne
+            book.getPropertyByName("author").referencedPropertyName == "books"
+            author.reflector != null
+            book.reflector != null
+
+        and:"Neither entity class was introspected"
+            !isIntrospected(MetadataAuthor)
+            !isIntrospected(MetadataBook)
+    }
+
+    protected boolean isIntrospected(Class type) {
+        ClassPropertyFetcher.forClass(type).@beanIntrospection != null
+    }
+}
+
+@Entity
+class MetadataAuthor {
+    Long id
+    String name
+    static hasMany = [books: MetadataBook]
+}
+
+@Entity
+class MetadataBook {
+    Long id
+    String title
+    static belongsTo = [author: MetadataAuthor]
+}
@@ -0,0 +1,105 @@
+package org.grails.datastore.gorm
+
+import grails.persistence.Entity
+import org.grails.datastore.mapping.core.AbstractSession
+import org.grails.datastore.mapping.core.DatastoreUtils
+import org.grails.datastore.mapping.core.Session
+import org.grails.datastore.mapping.engine.NativeEntryEntityPersister
+import org.grails.datastore.mapping.engine.Persister
+import org.grails.datastore.mapping.keyvalue.mapping.config.KeyValueMappingContext
+import org.grails.datastore.mapping.model.MappingContext
+import org.grails.datastore.mapping.model.PersistentEntity
+import org.grails.datastore.mapping.simple.SimpleMapDatastore
+import org.grails.datastore.mapping.simple.SimpleMapSession
+import org.grails.datastore.mapping.simple.engine.SimpleMapEntityPersister
+import org.grails.datastore.mapping.transactions.DatastoreTransactionManager
+import org.springframework.context.ApplicationEventPublisher
+import org.springframework.context.support.GenericApplicationContext
+import org.springframework.core.env.PropertyResolver
+import spock.lang.Specification
+
+/**
+ * Tests that flushing in batches retains a persister's override of executeInsert
+ */
+class OverriddenInsertFlushSpec extends Specification {
+
+    RecordingDatastore datastore
+    Session session
+
+    void setup() {
+        def ctx = new GenericApplicationContext()
+        ctx.refresh()
+        datastore = new RecordingDatastore(new KeyValueMappingContext(""), ctx)
+        datastore.mappingContext.addPersistentEntity(OverriddenInsertItem)
+        new GormEnhancer(datastore, new DatastoreTransactionManager(datastore: datastore)).enhance()
+        session = datastore.connect()
+        DatastoreUtils.bindSession session
+    }
+
+    void cleanup() {
+        session.disconnect()
+        DatastoreUtils.unbindSession session
+    }
+
+    void "Test inserts flushed in a batch go through an overridden executeInsert"() {
+        given:
+            ((AbstractSession) session).flushBatchSize = 10
+
+        when:"Several entities are inserted in one flush"
+            (1..3).each { new OverriddenInsertItem(name: "Item $it").save() }
+            session.flush()
+            session.clear()
+
+        then:"The override is called for every insert and the entities are stored"
+            datastore.insertedNames == ["Item 1", "Item 2", "Item 3"]
+            OverriddenInsertItem.count() == 3
+    }
+}
+
+class RecordingDatastore extends SimpleMapDatastore {
+    List<String> insertedNames = []
+
+    RecordingDatastore(MappingContext mappingContext, GenericApplicationContext ctx) {
+        super(mappingContext, ctx)
+    }
+
+    @Override
+    protected Session createSession(PropertyResolver connectionDetails) {
+        return new RecordingSession(this)
+    }
+}
+
+class RecordingSession extends SimpleMapSession {
+
+    RecordingSession(RecordingDatastore datastore) {
+        super(datastore, datastore.mappingContext, datastore.applicationEventPublisher)
+    }
+
+    @Override
+    protected Persister createPersister(Class cls, MappingContext mappingContext) {
+        PersistentEntity entity = mappingContext.getPersistentEntity(cls.name)
+        return entity == null ? null : new RecordingPersister(mappingContext, entity, this, (RecordingDatastore) getDatastore(), publisher)
+    }
+}
+
+class RecordingPersister extends SimpleMapEntityPersister {
+
+    final RecordingDatastore recordingDatastore
+
+    RecordingPersister(MappingContext context, PersistentEntity entity, Session session, RecordingDatastore datastore, ApplicationEventPublisher publisher) {
+        super(context, entity, session, datastore, publisher)
+        this.recordingDatastore = datastore
+    }
+
+    @Override
+    protected executeInsert(PersistentEntity persistentEntity, NativeEntryEntityPersister.NativeEntryModifyingEntityAccess entityAccess, id, e) {
+        recordingDatastore.insertedNames << (String) entityAccess.getProperty("name")
+        return super.executeInsert(persistentEntity, entityAccess, id, e)
+    }
+}
+
+@Entity
+class OverriddenInsertItem {
+    Long id
+    String name
+}
@@ -0,0 +1,68 @@
+package org.grails.datastore.gorm
+
+import grails.gorm.tests.GormDatastoreSpec
+import grails.gorm.tests.TestEntity
+
+/**
+ * Tests that queries answered by the property indices of the simple map datastore stay in sync with the data
+ */
+class PropertyIndexQuerySpec extends GormDatastoreSpec {
+
+    void "Test range queries reflect updated values"() {
+        given:
+            def bob = new TestEntity(name: "Bob", age: 30).save(flush: true)
+            new TestEntity(name: "Fred", age: 40).save(flush: true)
+            session.clear()
+
+        when:
+            bob = TestEntity.get(bob.id)
+            bob.age = 50
+            bob.save(flush: true)
+            session.clear()
+
+        then:
+            TestEntity.findAllByAgeLessThan(35).isEmpty()
+            TestEntity.findAllByAgeGreaterThan(45)*.name == ["Bob"]
+            TestEntity.findAllByAgeBetween(35, 55)*.name as Set == ["Bob", "Fred"] as Set
+            TestEntity.countByAgeGreaterThanEquals(40L) == 2
+    }
+
+    void "Test deleted entities are removed from the indices"() {
+        given:
+            def bob = new TestEntity(name: "Bob", age: 30).save(flush: true)
+            new TestEntity(name: "Fred", age: 40).save(flush: true)
+
+        when:
+            bob.delete(flush: true)
+            session.clear()
+
+        then:
+            TestEntity.findAllByAgeLessThanEquals(40)*.name == ["Fred"]
+            TestEntity.findAllByName("Bob").isEmpty()
+            TestEntity.findAllByNameLike("B%").isEmpty()
+    }
+
+    void "Test range queries do not match null values whether or not they use the index"() {
+        given:
+            new TestEntity(name: "Bob", age: 30).save(flush: true)
+            new TestEntity(name: null, age: null).save(flush: true, validate: false)
+            session.clear()
+
+        expect:"Queries answered by the index do not match null values"
+            TestEntity.findAllByAgeLessThan(35)*.name == ["Bob"]
+            TestEntity.findAllByAgeLessThanEquals(30)*.name == ["Bob"]
+            TestEntity.findAllByNameGreaterThan("A")*.name == ["Bob"]
+
+        and:"Neither do queries that apply a function and scan the entities"
+            TestEntity.where { upper(name) > "A" }.list()*.name == ["Bob"]
+    }
+
+    void "Test in query uses the equality index"() {
+        given:
+            ["Bob", "Fred", "Barney"].each { new TestEntity(name: it, age: 30).save(flush: true) }
+            session.clear()
+
+        expect:
+            TestEntity.findAllByNameInList(["Bob", "Barney", "Bob"])*.name as Set == ["Bob", "Barney"] as Set
+    }
+}
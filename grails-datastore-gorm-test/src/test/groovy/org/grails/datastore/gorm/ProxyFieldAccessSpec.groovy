@@ -0,0 +1,49 @@
+package org.grails.datastore.gorm
+
+import grails.gorm.tests.GormDatastoreSpec
+import grails.persistence.Entity
+import org.grails.datastore.mapping.proxy.JavassistProxyFactory
+import org.grails.datastore.mapping.reflect.GeneratedFieldAccess
+
+/**
+ * Tests that reading a proxy through the generated field accessors doesn't initialize it
+ */
+class ProxyFieldAccessSpec extends GormDatastoreSpec {
+
+    @Override
+    List getDomainClasses() {
+        [ProxiedVisitor]
+    }
+
+    void "Test the generated field accessors of a javassist proxy are not intercepted"() {
+        given:"A javassist proxy to a saved entity"
+            def mappingContext = session.mappingContext
+            def originalProxyFactory = mappingContext.proxyFactory
+            def proxyFactory = new JavassistProxyFactory()
+            mappingContext.proxyFactory = proxyFactory
+            def id = new ProxiedVisitor(name: "Bob").save(flush: true).id
+            session.clear()
+            def proxy = session.proxy(ProxiedVisitor, id)
+
+        when:"The proxy is read and written through the reflector of its entity"
+            def reflector = mappingContext.getPersistentEntity(ProxiedVisitor.name).reflector
+            def name = reflector.getProperty(proxy, "name")
+            reflector.setProperty(proxy, "name", "Fred")
+
+        then:"The fields of the proxy itself are accessed and the proxy is not initialized"
+            proxy instanceof GeneratedFieldAccess
+            name == null
+            !proxyFactory.isInitialized(proxy)
+            !session.isCached(ProxiedVisitor, id)
+
+        cleanup:
+            mappingContext.proxyFactory = originalProxyFactory
+    }
+}
+
+@Entity
+class ProxiedVisitor {
+    Long id
+    Long version
+    String name
+}
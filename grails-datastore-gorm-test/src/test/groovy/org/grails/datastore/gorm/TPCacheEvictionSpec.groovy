@@ -0,0 +1,97 @@
+package org.grails.datastore.gorm
+
+import grails.gorm.DetachedCriteria
+import grails.persistence.Entity
+import org.grails.datastore.mapping.cache.impl.BoundedTPCacheAdapter
+import org.grails.datastore.mapping.cache.impl.TPCacheAdapterRepositoryImpl
+import org.grails.datastore.mapping.core.DatastoreUtils
+import org.grails.datastore.mapping.core.Session
+import org.grails.datastore.mapping.keyvalue.mapping.config.KeyValueMappingContext
+import org.grails.datastore.mapping.simple.SimpleMapDatastore
+import org.grails.datastore.mapping.transactions.DatastoreTransactionManager
+import org.springframework.context.support.GenericApplicationContext
+import spock.lang.Specification
+
+class TPCacheEvictionSpec extends Specification {
+
+    BoundedTPCacheAdapter<Map> cacheAdapter = new BoundedTPCacheAdapter<Map>(100)
+    Session session
+
+    void setup() {
+        def ctx = new GenericApplicationContext()
+        ctx.refresh()
+        def cacheAdapterRepository = new TPCacheAdapterRepositoryImpl<Map>()
+        cacheAdapterRepository.setTPCacheAdapter(CachedBook, cacheAdapter)
+        def datastore = new SimpleMapDatastore(new KeyValueMappingContext(""), ctx, cacheAdapterRepository)
+        datastore.mappingContext.addPersistentEntity(CachedBook)
+        new GormEnhancer(datastore, new DatastoreTransactionManager(datastore: datastore)).enhance()
+        session = datastore.connect()
+        DatastoreUtils.bindSession session
+    }
+
+    void cleanup() {
+        session.disconnect()
+        DatastoreUtils.unbindSession session
+    }
+
+    void "Test a deleted instance is evicted from the cache"() {
+        given:"Cached books"
+            def book = new CachedBook(title: "The Stand").save(flush: true)
+            new CachedBook(title: "It").save(flush: true)
+            session.clear()
+
+        expect:"The entries are cached"
+            cacheAdapter.getCachedEntry(book.id) != null
+            cacheAdapter.size() == 2
+
+        when:"A book is deleted"
+            CachedBook.get(book.id).delete(flush: true)
+            session.clear()
+
+        then:"Its entry is evicted and it is not returned"
+            cacheAdapter.getCachedEntry(book.id) == null
+            CachedBook.get(book.id) == null
+            cacheAdapter.size() == 1
+    }
+
+    void "Test the cache is cleared by a bulk update"() {
+        given:"A cached book and a stale entry"
+            def book = new CachedBook(title: "The Stand").save(flush: true)
+            session.clear()
+            cacheAdapter.cacheEntry(999L, [title: "Stale"])
+
+        when:"Books are updated in bulk"
+            long updated = new DetachedCriteria(CachedBook).build { eq 'title', "The Stand" }.updateAll(title: "The Shining")
+            session.flush()
+            session.clear()
+
+        then:"No stale entry is returned"
+            updated == 1
+            cacheAdapter.getCachedEntry(999L) == null
+            CachedBook.get(book.id).title == "The Shining"
+    }
+
+    void "Test the cache is cleared by a bulk delete"() {
+        given:"Cached books"
+            def book = new CachedBook(title: "The Stand").save(flush: true)
+            def other = new CachedBook(title: "It").save(flush: true)
+            session.clear()
+
+        when:"The books are deleted in bulk"
+            long deleted = new DetachedCriteria(CachedBook).deleteAll()
+            session.flush()
+            session.clear()
+
+        then:"The cache is empty and the books are not returned"
+            deleted == 2
+            cacheAdapter.size() == 0
+            CachedBook.get(book.id) == null
+            CachedBook.get(other.id) == null
+    }
+}
+
+@Entity
+class CachedBook {
+    Long id
+    String title
+}
@@ -2,6 +2,8 @@ package grails.gorm.validation
 
 import groovy.transform.CompileStatic
 import org.grails.datastore.gorm.validation.constraints.eval.ConstraintsEvaluator
+import org.grails.datastore.mapping.collection.PersistentCollection
+import org.grails.datastore.mapping.dirty.checking.DirtyCheckable
 import org.grails.datastore.mapping.model.MappingContext
 import org.grails.datastore.mapping.model.PersistentEntity
 import org.grails.datastore.mapping.model.PersistentProperty
@@ -18,6 +20,12 @@ import org.springframework.validation.FieldError
 /**
  * A Validator that validates a {@link org.grails.datastore.mapping.model.PersistentEntity} against known constraints
  *
+ * If {@link #validateChangedPropertiesOnly} is enabled, instances that are {@link DirtyCheckable} and track changes
+ * only have the constraints of their changed properties evaluated, and validation only cascades into associated
+ * instances that have changed. Associated instances that do not track changes are validated only if the collection
+ * they belong to is dirty. Instances that do not track changes, or that were marked dirty as a whole, are always
+ * validated completely.
+ *
  * @author Graeme Rocher
  * @since 6.0
  */
@@ -34,8 +42,19 @@ class PersistentEntityValidator implements CascadingValidator, ConstrainedEntity
     final Class targetClass
     final Map<String, ConstrainedProperty> constrainedProperties
 
+    /**
+     * Whether to only validate the changed properties and associations of instances that track changes
+     */
+    boolean validateChangedPropertiesOnly = false
+
     protected final ProxyHandler proxyHandler
 
+    // the persistent properties and their constraints (or null), followed by the constrained properties that are not persistent
+    private final PersistentProperty[] persistentProperties
+    private final ConstrainedProperty[] persistentPropertyConstraints
+    private final String[] otherConstrainedPropertyNames
+    private final ConstrainedProperty[] otherPropertyConstraints
+
     PersistentEntityValidator(PersistentEntity entity, MessageSource messageSource, ConstraintsEvaluator constraintsEvaluator) {
         this.entity = entity
         this.messageSource = messageSource
@@ -45,10 +64,25 @@ class PersistentEntityValidator implements CascadingValidator, ConstrainedEntity
         this.proxyHandler = mappingContext.getProxyHandler()
 
         def evaluated = constraintsEvaluator.evaluate(targetClass)
-        this.constrainedProperties = Collections.unmodifiableMap(evaluated)
-        if(constrainedProperties == null) {
+        if(evaluated == null) {
             throw new IllegalStateException("Constraint evaluator returned null for class: $targetClass")
         }
+        this.constrainedProperties = Collections.unmodifiableMap(evaluated)
+
+        List<PersistentProperty> properties = entity.persistentProperties
+        this.persistentProperties = properties.toArray(new PersistentProperty[properties.size()])
+        this.persistentPropertyConstraints = new ConstrainedProperty[persistentProperties.length]
+        Set<String> otherPropertyNames = new LinkedHashSet<>(constrainedProperties.keySet())
+        for(int i = 0; i < persistentProperties.length; i++) {
+            String propertyName = persistentProperties[i].name
+            persistentPropertyConstraints[i] = constrainedProperties.get(propertyName)
+            otherPropertyNames.remove(propertyName)
+        }
+        this.otherConstrainedPropertyNames = otherPropertyNames.toArray(new String[otherPropertyNames.size()])
+        this.otherPropertyConstraints = new ConstrainedProperty[otherConstrainedPropertyNames.length]
+        for(int i = 0; i < otherConstrainedPropertyNames.length; i++) {
+            otherPropertyConstraints[i] = constrainedProperties.get(otherConstrainedPropertyNames[i])
+        }
     }
 
     @Override
@@ -57,16 +91,15 @@ class PersistentEntityValidator implements CascadingValidator, ConstrainedEntity
             throw new IllegalArgumentException("Argument [$obj] is not an instance of [$targetClass] which this validator is configured for")
         }
 
-
-        Map<String, ConstrainedProperty> constrainedProperties = this.constrainedProperties
-        Set<String> constrainedPropertyNames = new HashSet<>(constrainedProperties.keySet())
-
-        for(PersistentProperty pp in entity.persistentProperties) {
+        DirtyCheckable changes = getTrackedChanges(obj)
+        PersistentProperty[] persistentProperties = this.persistentProperties
+        for(int i = 0; i < persistentProperties.length; i++) {
+            PersistentProperty pp = persistentProperties[i]
             def propertyName = pp.name
 
-            ConstrainedProperty constrainedProperty = constrainedProperties.get(propertyName)
+            ConstrainedProperty constrainedProperty = persistentPropertyConstraints[i]
 
-            if(constrainedProperty != null) {
+            if(constrainedProperty != null && (changes == null || changes.hasChanged(propertyName))) {
                 validatePropertyWithConstraint(obj, propertyName, entityReflector, errors, constrainedProperty)
             }
 
@@ -76,17 +109,48 @@ class PersistentEntityValidator implements CascadingValidator, ConstrainedEntity
                     cascadeToAssociativeProperty(obj, errors, entityReflector, association)
                 }
             }
+        }
 
-            constrainedPropertyNames.remove(propertyName)
+        String[] otherPropertyNames = this.otherConstrainedPropertyNames
+        for(int i = 0; i < otherPropertyNames.length; i++) {
+            ConstrainedProperty constrainedProperty = otherPropertyConstraints[i]
+            String propertyName = otherPropertyNames[i]
+            if(constrainedProperty != null && (changes == null || changes.hasChanged(propertyName))) {
+                validatePropertyWithConstraint(obj, propertyName, entityReflector, errors, constrainedProperty)
+            }
         }
 
-        for(String remainingProperty in constrainedPropertyNames) {
-            ConstrainedProperty constrainedProperty = constrainedProperties.get(remainingProperty)
-            if(remainingProperty != null) {
-                validatePropertyWithConstraint(obj, remainingProperty, entityReflector, errors, constrainedProperty)
+    }
+
+    /**
+     * Returns the instance whose changed properties are to be validated, if only changed properties are validated
+     *
+     * @param obj The instance
+     * @return The instance as a {@link DirtyCheckable} or null if all the properties of the instance are to be validated
+     */
+    protected DirtyCheckable getTrackedChanges(Object obj) {
+        if(validateChangedPropertiesOnly && (obj instanceof DirtyCheckable)) {
+            DirtyCheckable dirtyCheckable = (DirtyCheckable)obj
+            if(dirtyCheckable.tracksPropertyChanges()) {
+                return dirtyCheckable
             }
         }
+        return null
+    }
 
+    /**
+     * Whether validation can skip the given associated instance. An instance that tracks its changes is never skipped,
+     * even if it is unchanged, since its own associations may have changed. Only its changed properties are validated.
+     *
+     * @param associatedObject The associated instance
+     * @param collectionChanged Whether the collection or property the instance was obtained from has changed
+     * @return True if the instance is to be skipped
+     */
+    protected boolean isUnchanged(Object associatedObject, boolean collectionChanged) {
+        if(!validateChangedPropertiesOnly || associatedObject instanceof DirtyCheckable) {
+            return false
+        }
+        return !collectionChanged
     }
 
     /**
@@ -105,7 +169,7 @@ class PersistentEntityValidator implements CascadingValidator, ConstrainedEntity
         if (association instanceof ToOne) {
             Object associatedObject = reflector.getProperty(parent, propertyName)
 
-            if(proxyHandler?.isInitialized(associatedObject)) {
+            if(proxyHandler?.isInitialized(associatedObject) && !isUnchanged(associatedObject, true)) {
                 cascadeValidationToOne(parent, propertyName, (ToOne)association, errors, reflector, associatedObject, null)
             }
         }
@@ -131,23 +195,33 @@ class PersistentEntityValidator implements CascadingValidator, ConstrainedEntity
             return
         }
 
+        // elements that do not track changes can only have changed if elements were added to or removed from the collection
+        boolean collectionChanged = !(collection instanceof PersistentCollection) || ((PersistentCollection)collection).isDirty()
         if (collection instanceof List || collection instanceof SortedSet) {
             int idx = 0;
             for (Object associatedObject : ((Collection)collection)) {
-                cascadeValidationToOne(parentObject, propertyName, association, errors, entityReflector,associatedObject, idx++)
+                int index = idx++
+                if (!isUnchanged(associatedObject, collectionChanged)) {
+                    cascadeValidationToOne(parentObject, propertyName, association, errors, entityReflector, associatedObject, index)
+                }
             }
         }
         else if (collection instanceof Collection) {
             Integer index = 0;
             for (Object associatedObject : ((Collection)collection)) {
-                cascadeValidationToOne(parentObject, propertyName, association, errors, entityReflector,associatedObject, index++)
+                Integer current = index++
+                if (!isUnchanged(associatedObject, collectionChanged)) {
+                    cascadeValidationToOne(parentObject, propertyName, association, errors, entityReflector, associatedObject, current)
+                }
             }
         }
         else if (collection instanceof Map) {
 
             for (Object entryObject in ((Map) collection).entrySet()) {
                 Map.Entry entry = (Map.Entry) entryObject;
-                cascadeValidationToOne(parentObject, propertyName, association, errors, entityReflector, entry.value, entry.key)
+                if (!isUnchanged(entry.value, collectionChanged)) {
+                    cascadeValidationToOne(parentObject, propertyName, association, errors, entityReflector, entry.value, entry.key)
+                }
             }
         }
     }
@@ -185,32 +259,36 @@ class PersistentEntityValidator implements CascadingValidator, ConstrainedEntity
             otherSide = association.getInverseSide()
         }
 
-        Map associatedConstrainedProperties
+        PersistentProperty[] associatedPersistentProperties
+        ConstrainedProperty[] associatedPropertyConstraints
 
         def validator = mappingContext.getEntityValidator(associatedEntity)
         if(validator instanceof PersistentEntityValidator) {
-            associatedConstrainedProperties = ((PersistentEntityValidator)validator).getConstrainedProperties()
+            PersistentEntityValidator associatedValidator = (PersistentEntityValidator)validator
+            associatedPersistentProperties = associatedValidator.persistentProperties
+            associatedPropertyConstraints = associatedValidator.persistentPropertyConstraints
         }
         else {
-            associatedConstrainedProperties = Collections.<String, ConstrainedProperty>emptyMap()
+            List<PersistentProperty> properties = associatedEntity.getPersistentProperties()
+            associatedPersistentProperties = properties.toArray(new PersistentProperty[properties.size()])
+            associatedPropertyConstraints = new ConstrainedProperty[associatedPersistentProperties.length]
         }
 
-
-        List<PersistentProperty> associatedPersistentProperties = associatedEntity.getPersistentProperties()
+        DirtyCheckable changes = getTrackedChanges(associatedObject)
         String nestedPath = errors.getNestedPath()
         try {
             errors.setNestedPath(buildNestedPath(nestedPath, propertyName, indexOrKey));
 
-            for (PersistentProperty associatedPersistentProperty : associatedPersistentProperties) {
+            for (int i = 0; i < associatedPersistentProperties.length; i++) {
+                PersistentProperty associatedPersistentProperty = associatedPersistentProperties[i]
                 if (associatedPersistentProperty.equals(otherSide)) continue;
                 if (association.isEmbedded() && EMBEDDED_EXCLUDES.contains(associatedPersistentProperty.getName())) {
                     continue
                 }
 
                 String associatedPropertyName = associatedPersistentProperty.getName();
-                if (associatedConstrainedProperties.containsKey(associatedPropertyName)) {
-
-                    ConstrainedProperty associatedConstrainedProperty = associatedConstrainedProperties.get(associatedPropertyName)
+                ConstrainedProperty associatedConstrainedProperty = associatedPropertyConstraints[i]
+                if (associatedConstrainedProperty != null && (changes == null || changes.hasChanged(associatedPropertyName))) {
                     validatePropertyWithConstraint(associatedObject, errors.getNestedPath() + associatedPropertyName, associatedReflector, errors, associatedConstrainedProperty)
                 }
 
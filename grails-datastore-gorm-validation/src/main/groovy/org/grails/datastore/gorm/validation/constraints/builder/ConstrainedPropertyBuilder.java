@@ -11,9 +11,11 @@ import groovy.util.BuilderSupport;
 import org.grails.datastore.gorm.validation.constraints.registry.ConstraintRegistry;
 import grails.gorm.validation.DefaultConstrainedProperty;
 import org.grails.datastore.gorm.validation.constraints.eval.DefaultConstraintEvaluator;
+import org.grails.datastore.mapping.model.AbstractMappingContext;
 import org.grails.datastore.mapping.model.MappingContext;
 import org.grails.datastore.mapping.model.config.GormProperties;
 import org.grails.datastore.mapping.reflect.ClassPropertyFetcher;
+import org.grails.datastore.mapping.reflect.GeneratedPropertyMetadata;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.InvalidPropertyException;
@@ -40,6 +42,7 @@ public class ConstrainedPropertyBuilder extends BuilderSupport {
     private final ConstraintRegistry constraintRegistry;
     private final MappingContext mappingContext;
     private final Map<String, Object> defaultConstraints;
+    private final boolean useGeneratedMetadata;
 
 
     public ConstrainedPropertyBuilder(MappingContext mappingContext, ConstraintRegistry constraintRegistry, Class targetClass, Map<String, Object> defaultConstraints) {
@@ -49,6 +52,7 @@ public class ConstrainedPropertyBuilder extends BuilderSupport {
         targetMetaClass = GroovySystem.getMetaClassRegistry().getMetaClass(targetClass);
         this.constraintRegistry = constraintRegistry;
         this.defaultConstraints = defaultConstraints;
+        this.useGeneratedMetadata = mappingContext instanceof AbstractMappingContext && ((AbstractMappingContext) mappingContext).isUseGeneratedMetadata();
     }
 
     public String getSharedConstraint(String propertyName) {
@@ -95,7 +99,7 @@ public class ConstrainedPropertyBuilder extends BuilderSupport {
                 cp = (DefaultConstrainedProperty)constrainedProperties.get(property);
             }
             else {
-                Class<?> propertyType = classPropertyFetcher.getPropertyType(property);
+                Class<?> propertyType = getPropertyType(property);
                 if (propertyType == null) {
                     throw new MissingMethodException(property, targetClass, new Object[]{attributes}, true);
                 }
@@ -147,6 +151,17 @@ public class ConstrainedPropertyBuilder extends BuilderSupport {
         }
     }
 
+    private Class<?> getPropertyType(String property) {
+        if (useGeneratedMetadata) {
+            // the metadata generated at compile time avoids introspecting the class for its persistent properties
+            PropertyDescriptor descriptor = GeneratedPropertyMetadata.forClass(targetClass).getPropertyDescriptor(property);
+            if (descriptor != null) {
+                return descriptor.getPropertyType();
+            }
+        }
+        return classPropertyFetcher.getPropertyType(property);
+    }
+
     @SuppressWarnings("rawtypes")
     @Override
     protected Object createNode(Object name, Map attributes, Object value) {
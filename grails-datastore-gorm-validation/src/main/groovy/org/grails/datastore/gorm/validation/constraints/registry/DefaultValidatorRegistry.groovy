@@ -5,6 +5,7 @@ import grails.gorm.validation.exceptions.ValidationConfigurationException
 import groovy.transform.CompileStatic
 import org.grails.datastore.gorm.validation.constraints.eval.ConstraintsEvaluator
 import org.grails.datastore.gorm.validation.constraints.eval.DefaultConstraintEvaluator
+import org.grails.datastore.mapping.config.Settings
 import org.grails.datastore.mapping.model.MappingContext
 import org.grails.datastore.mapping.model.PersistentEntity
 import org.grails.datastore.mapping.reflect.ClosureToMapPopulator
@@ -31,12 +32,14 @@ class DefaultValidatorRegistry implements ValidatorRegistry, ConstraintRegistry
     final ConstraintsEvaluator constraintsEvaluator
     final @Delegate ConstraintRegistry constraintRegistry
     final MessageSource messageSource
+    final boolean validateChangedPropertiesOnly
 
     DefaultValidatorRegistry(MappingContext mappingContext, PropertyResolver configuration = new StandardEnvironment(), MessageSource messageSource = new StaticMessageSource()) {
         this.constraintRegistry = new DefaultConstraintRegistry(messageSource)
         this.messageSource = messageSource
         Map<String, Object> defaultConstraintsMap = resolveDefaultConstraints(configuration)
         this.constraintsEvaluator = new DefaultConstraintEvaluator(constraintRegistry, mappingContext, defaultConstraintsMap)
+        this.validateChangedPropertiesOnly = configuration.getProperty(Settings.SETTING_VALIDATE_CHANGED_PROPERTIES_ONLY, Boolean, false)
     }
 
     protected Map<String, Object> resolveDefaultConstraints(PropertyResolver configuration) {
@@ -60,7 +63,9 @@ class DefaultValidatorRegistry implements ValidatorRegistry, ConstraintRegistry
             return validator
         }
         else {
-            validator = new PersistentEntityValidator(entity, messageSource, constraintsEvaluator)
+            PersistentEntityValidator entityValidator = new PersistentEntityValidator(entity, messageSource, constraintsEvaluator)
+            entityValidator.validateChangedPropertiesOnly = validateChangedPropertiesOnly
+            validator = entityValidator
             validatorMap.put(entity, validator)
         }
         return validator
@@ -1,6 +1,7 @@
 package grails.gorm.validation
 
 import org.grails.datastore.gorm.validation.constraints.registry.DefaultValidatorRegistry
+import org.grails.datastore.mapping.dirty.checking.DirtyCheckable
 import org.grails.datastore.mapping.keyvalue.mapping.config.KeyValueMappingContext
 import org.grails.datastore.mapping.model.MappingContext
 import org.grails.datastore.mapping.validation.ValidationErrors
@@ -33,6 +34,93 @@ class ValidatorRegistrySpec extends Specification {
         errors.allErrors.size() == 2
 
     }
+
+    void "test constraints are evaluated with and without the generated metadata"() {
+        given:"A mapping context that uses the metadata generated at compile time"
+        KeyValueMappingContext mappingContext = new KeyValueMappingContext("test")
+        mappingContext.useGeneratedMetadata = useGeneratedMetadata
+        def entity = mappingContext.addPersistentEntity(Person)
+
+        when:"A validator is created"
+        PersistentEntityValidator validator = (PersistentEntityValidator)new DefaultValidatorRegistry(mappingContext).getValidator(entity)
+
+        then:"The constrained properties are resolved"
+        mappingContext.useGeneratedMetadata == useGeneratedMetadata
+        validator.constrainedProperties.town.propertyType == String
+        validator.constrainedProperties.age.propertyType == Integer
+        validator.constrainedProperties.country.propertyType == String
+
+        where:
+        useGeneratedMetadata << [true, false]
+    }
+
+    void "test only changed properties and associations are validated"() {
+        given:"A validator that only validates changes"
+        MappingContext mappingContext = new KeyValueMappingContext("test")
+        def entity = mappingContext.addPersistentEntities(Team, Coach).find { it.javaClass == Team }
+        PersistentEntityValidator validator = (PersistentEntityValidator)new DefaultValidatorRegistry(mappingContext).getValidator(entity)
+        validator.validateChangedPropertiesOnly = true
+
+        when:"An instance that does not track changes is validated"
+        def team = new Team(coach: new Coach())
+        def errors = new ValidationErrors(team, Team.simpleName)
+        validator.validate(team, errors)
+
+        then:"All of its properties and associations are validated"
+        errors.getFieldError('name')
+        errors.getFieldError('coach.name')
+
+        when:"The instances track changes and are unchanged"
+        team.trackChanges()
+        team.coach.trackChanges()
+        errors = new ValidationErrors(team, Team.simpleName)
+        validator.validate(team, errors)
+
+        then:"Nothing is validated"
+        !errors.hasErrors()
+
+        when:"A property of the associated instance changes"
+        team.coach.markDirty('name', 'Bob')
+        errors = new ValidationErrors(team, Team.simpleName)
+        validator.validate(team, errors)
+
+        then:"Only the changed property is validated"
+        !errors.getFieldError('name')
+        errors.getFieldError('coach.name')
+
+        when:"The instance is marked dirty as a whole"
+        team.markDirty()
+        errors = new ValidationErrors(team, Team.simpleName)
+        validator.validate(team, errors)
+
+        then:"All of its properties are validated"
+        errors.getFieldError('name')
+    }
+
+    void "test changes are validated through unchanged instances of an aggregate"() {
+        given:"A validator that only validates changes of a three level aggregate"
+        MappingContext mappingContext = new KeyValueMappingContext("test")
+        def entity = mappingContext.addPersistentEntities(League, Club, Player).find { it.javaClass == League }
+        PersistentEntityValidator validator = (PersistentEntityValidator)new DefaultValidatorRegistry(mappingContext).getValidator(entity)
+        validator.validateChangedPropertiesOnly = true
+
+        when:"Only a property of the instance at the third level changes"
+        def league = new League(club: new Club(captain: new Player()))
+        league.trackChanges()
+        league.club.trackChanges()
+        league.club.captain.trackChanges()
+        league.club.captain.markDirty('name', 'Bob')
+        def errors = new ValidationErrors(league, League.simpleName)
+        validator.validate(league, errors)
+
+        then:"The changed property is validated through the unchanged instance at the second level"
+        !league.club.hasChanged()
+        errors.getFieldError('club.captain.name')
+
+        and:"The unchanged properties are not validated"
+        !errors.getFieldError('name')
+        !errors.getFieldError('club.name')
+    }
 }
 
 @Entity
@@ -50,4 +138,49 @@ class Person {
     }
 }
 
+@Entity
+class Team implements DirtyCheckable {
+    Long id
+    Long version
+    String name
+    Coach coach
+}
+
+@Entity
+class Coach implements DirtyCheckable {
+    Long id
+    Long version
+    String name
+    Team team
 
+    static belongsTo = [team: Team]
+}
+
+@Entity
+class League implements DirtyCheckable {
+    Long id
+    Long version
+    String name
+    Club club
+}
+
+@Entity
+class Club implements DirtyCheckable {
+    Long id
+    Long version
+    String name
+    Player captain
+    League league
+
+    static belongsTo = [league: League]
+}
+
+@Entity
+class Player implements DirtyCheckable {
+    Long id
+    Long version
+    String name
+    Club club
+
+    static belongsTo = [club: Club]
+}
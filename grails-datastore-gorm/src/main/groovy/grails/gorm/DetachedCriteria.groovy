@@ -119,7 +119,7 @@ class DetachedCriteria<T> extends AbstractDetachedCriteria<T> implements GormOpe
      */
     List<T> list(Map args = Collections.emptyMap(), @DelegatesTo(DetachedCriteria) Closure additionalCriteria = null) {
         (List)withPopulatedQuery(args, additionalCriteria) { Query query ->
-            if (args?.max) {
+            if (args?.max && args.get(DynamicFinder.ARGUMENT_AFTER) == null) {
                 return new PagedResultList(query)
             }
             return query.list()
@@ -135,6 +135,33 @@ class DetachedCriteria<T> extends AbstractDetachedCriteria<T> implements GormOpe
         list(Collections.emptyMap(), additionalCriteria)
     }
 
+    /**
+     * Iterates over the records matching the criterion contained within this DetachedCriteria instance in batches,
+     * without loading them all into memory. Once a batch has been processed the session is flushed and the
+     * instances of the batch are evicted from it. Datastores that support cursors scroll through the results,
+     * others page through them.
+     *
+     * @param batchSize The number of instances in each batch
+     * @param args The arguments
+     * @param callable The closure, called with the list of instances of each batch
+     */
+    void eachBatch(int batchSize, Map args, Closure callable) {
+        withPopulatedQuery(args, null) { Query query ->
+            query.eachBatch(batchSize, callable)
+        }
+    }
+
+    /**
+     * Iterates over the records matching the criterion contained within this DetachedCriteria instance in batches
+     *
+     * @param batchSize The number of instances in each batch
+     * @param callable The closure, called with the list of instances of each batch
+     * @see #eachBatch(int, Map, Closure)
+     */
+    void eachBatch(int batchSize, Closure callable) {
+        eachBatch(batchSize, Collections.emptyMap(), callable)
+    }
+
     @Override
     Iterator<T> iterator() {
         return list().iterator()
@@ -11,6 +11,7 @@ import org.codehaus.groovy.control.SourceUnit
 import org.codehaus.groovy.syntax.Token
 import org.codehaus.groovy.syntax.Types
 import org.grails.datastore.mapping.dirty.checking.DirtyCheckable
+import org.grails.datastore.mapping.dirty.checking.DirtyPropertyOrdinals
 import org.grails.datastore.mapping.model.config.GormProperties
 import org.grails.datastore.mapping.reflect.AstUtils
 import org.grails.datastore.mapping.reflect.NameUtils
@@ -23,6 +24,9 @@ import static org.grails.datastore.mapping.reflect.AstUtils.*
  * Transforms a domain class making it possible for the domain class to take responsibility of tracking changes to itself, thus removing the responsibility from the ORM system which would have to maintain parallel state
  * and compare the state of the domain class to the stored state. With this transformation the storage of the state is not necessary as the state is kept in the domain class itself
  *
+ * Each tracked property is assigned an ordinal, see {@link DirtyPropertyOrdinals}, which the generated setters pass to {@link DirtyCheckable} along with
+ * the old value so that changes can be tracked in a bitmask. Custom setters mark the property by name instead
+ *
  * @author Graeme Rocher
  * @since 2.0
  */
@@ -44,7 +48,13 @@ class DirtyCheckingTransformer implements CompilationUnitAware {
         // First add a local field that will store the change tracking state. The field is a simple list of property names that have changed
         // the field is only added to root clauses that extend from java.lang.Object
         final changeTrackableClassNode = new ClassNode(DirtyCheckable).getPlainNodeReference()
-        final markDirtyMethodNode = changeTrackableClassNode.getMethod(METHOD_NAME_MARK_DIRTY, new Parameter(ClassHelper.STRING_TYPE, "propertyName"), new Parameter(ClassHelper.OBJECT_TYPE, "newValue"))
+        final markDirtyMethodNode = changeTrackableClassNode.getMethod(METHOD_NAME_MARK_DIRTY, new Parameter(ClassHelper.int_TYPE, "ordinal"), new Parameter(ClassHelper.STRING_TYPE, "propertyName"), new Parameter(ClassHelper.OBJECT_TYPE, "newValue"), new Parameter(ClassHelper.OBJECT_TYPE, "oldValue"))
+        final markDirtyByNameMethodNode = changeTrackableClassNode.getMethod(METHOD_NAME_MARK_DIRTY, new Parameter(ClassHelper.STRING_TYPE, "propertyName"), new Parameter(ClassHelper.OBJECT_TYPE, "newValue"))
+
+        if(classNode.getDeclaredField(DirtyPropertyOrdinals.ORDINAL_BASE) != null) {
+            // already transformed
+            return
+        }
 
 
         def superClass = classNode.getSuperClass()
@@ -70,6 +80,11 @@ class DirtyCheckingTransformer implements CompilationUnitAware {
         final propertyNodes = classNode.getProperties()
 
         Map<String, GetterAndSetter> gettersAndSetters = [:]
+        // the ordinals of the properties tracked by this class, relative to the ordinals of the super classes
+        Map<String, Integer> ordinals = new LinkedHashMap<String, Integer>()
+        def dirtyPropertyOrdinalsClassNode = ClassHelper.make(DirtyPropertyOrdinals)
+        FieldNode ordinalBaseField = classNode.addField(DirtyPropertyOrdinals.ORDINAL_BASE, PRIVATE | STATIC | FINAL, ClassHelper.int_TYPE,
+                new StaticMethodCallExpression(dirtyPropertyOrdinalsClassNode, "getOrdinalBase", new ArgumentListExpression(new ClassExpression(classNode.getPlainNodeReference()))))
 
         for (MethodNode mn in classNode.methods) {
             final methodName = mn.name
@@ -126,7 +141,8 @@ class DirtyCheckingTransformer implements CompilationUnitAware {
                     final setterName = NameUtils.getSetterName(propertyName)
                     final setterParameter = new Parameter(returnType, propertyName)
                     final setterBody = new BlockStatement()
-                    MethodCallExpression markDirtyMethodCall = createMarkDirtyMethodCall(markDirtyMethodNode, propertyName, setterParameter)
+                    int ordinal = getOrdinal(ordinals, propertyName)
+                    MethodCallExpression markDirtyMethodCall = createMarkDirtyMethodCall(markDirtyMethodNode, ordinalBaseField, ordinal, propertyName, setterParameter, new FieldExpression(propertyField))
                     setterBody.addStatement(new ExpressionStatement(markDirtyMethodCall))
                     setterBody.addStatement(  new ExpressionStatement(
                             new BinaryExpression(new PropertyExpression(new VariableExpression("this"), propertyField.name),
@@ -139,7 +155,8 @@ class DirtyCheckingTransformer implements CompilationUnitAware {
                 }
                 else if(getterAndSetter.hasBoth()) {
                     // if both a setter and getter are present, we get hold of the setter and weave the markDirty method call into it
-                    weaveIntoExistingSetter(propertyName, getterAndSetter, markDirtyMethodNode)
+                    getOrdinal(ordinals, propertyName)
+                    weaveIntoExistingSetter(propertyName, getterAndSetter, markDirtyByNameMethodNode)
                 }
                 else {
                     // there isn't both a getter and a setter then this is not a candidate for persistence, so we eliminate it from change tracking
@@ -150,10 +167,14 @@ class DirtyCheckingTransformer implements CompilationUnitAware {
 
         // We also need to search properties that are represented as getters with setters. This requires going through all the methods and finding getter/setter pairs that are public
         gettersAndSetters.each { String propertyName, GetterAndSetter getterAndSetter ->
-            if(!NameUtils.isConfigurational(propertyName) && getterAndSetter.hasBoth()) {
-                weaveIntoExistingSetter(propertyName, getterAndSetter, markDirtyMethodNode)
+            if(!NameUtils.isConfigurational(propertyName) && getterAndSetter.hasBoth() && !ordinals.containsKey(propertyName)) {
+                getOrdinal(ordinals, propertyName)
+                weaveIntoExistingSetter(propertyName, getterAndSetter, markDirtyByNameMethodNode)
             }
         }
+
+        List<Expression> propertyNames = ordinals.keySet().collect { String name -> (Expression)new ConstantExpression(name) }
+        classNode.addField(DirtyPropertyOrdinals.PROPERTY_NAMES, PUBLIC | STATIC | FINAL, ClassHelper.STRING_TYPE.makeArray(), new ArrayExpression(ClassHelper.STRING_TYPE, propertyNames))
     }
 
     void performInjection(SourceUnit source, GeneratorContext context, ClassNode classNode) {
@@ -194,26 +215,42 @@ class DirtyCheckingTransformer implements CompilationUnitAware {
 
         return copiedReturnType;
     }
+    /**
+     * Weaves a call to markDirty(propertyName, newValue) into a custom setter. The old value is only read from the getter
+     * once changes are tracked, so getters with side effects are not called when the instance is created, bound or loaded
+     */
     protected void weaveIntoExistingSetter(String propertyName, GetterAndSetter getterAndSetter, MethodNode markDirtyMethodNode) {
         final setterMethod = getterAndSetter.setter
         if(setterMethod.annotations.any { AnnotationNode an -> an.classNode.name == 'grails.persistence.PersistenceMethod'} ) return
 
         final currentBody = setterMethod.code
         final setterParameter = setterMethod.getParameters()[0]
-        MethodCallExpression markDirtyMethodCall = createMarkDirtyMethodCall(markDirtyMethodNode, propertyName, setterParameter)
+        def args = new ArgumentListExpression(new ConstantExpression(propertyName), new VariableExpression(setterParameter))
+        final markDirtyMethodCall = new MethodCallExpression(new VariableExpression("this"), markDirtyMethodNode.name, args)
+        markDirtyMethodCall.methodTarget = markDirtyMethodNode
         final newBody = new BlockStatement()
         newBody.addStatement(new ExpressionStatement(markDirtyMethodCall))
         newBody.addStatement(currentBody)
         setterMethod.code = newBody
     }
 
-    protected MethodCallExpression createMarkDirtyMethodCall(MethodNode markDirtyMethodNode, String propertyName, Variable value) {
-        def args = new ArgumentListExpression(new ConstantExpression(propertyName), new VariableExpression(value))
+    protected MethodCallExpression createMarkDirtyMethodCall(MethodNode markDirtyMethodNode, FieldNode ordinalBaseField, int ordinal, String propertyName, Variable value, Expression oldValue) {
+        def ordinalExpression = new BinaryExpression(new FieldExpression(ordinalBaseField), Token.newSymbol(Types.PLUS, 0, 0), new ConstantExpression(ordinal, true))
+        def args = new ArgumentListExpression(ordinalExpression, new ConstantExpression(propertyName), new VariableExpression(value), oldValue)
         final markDirtyMethodCall = new MethodCallExpression(new VariableExpression("this"), markDirtyMethodNode.name, args)
         markDirtyMethodCall.methodTarget = markDirtyMethodNode
         markDirtyMethodCall
     }
 
+    protected int getOrdinal(Map<String, Integer> ordinals, String propertyName) {
+        Integer ordinal = ordinals.get(propertyName)
+        if(ordinal == null) {
+            ordinal = ordinals.size()
+            ordinals.put(propertyName, ordinal)
+        }
+        return ordinal
+    }
+
     protected GetterAndSetter getGetterAndSetterForPropertyName(LinkedHashMap<String, GetterAndSetter> gettersAndSetters, String propertyName) {
         def getterAndSetter = gettersAndSetters[propertyName]
         if (getterAndSetter == null) {
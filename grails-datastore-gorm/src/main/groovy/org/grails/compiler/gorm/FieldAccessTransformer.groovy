@@ -0,0 +1,150 @@
+package org.grails.compiler.gorm
+
+import groovy.transform.CompileStatic
+import org.codehaus.groovy.ast.ClassHelper
+import org.codehaus.groovy.ast.ClassNode
+import org.codehaus.groovy.ast.FieldNode
+import org.codehaus.groovy.ast.Parameter
+import org.codehaus.groovy.ast.expr.ArgumentListExpression
+import org.codehaus.groovy.ast.expr.ArrayExpression
+import org.codehaus.groovy.ast.expr.BinaryExpression
+import org.codehaus.groovy.ast.expr.BooleanExpression
+import org.codehaus.groovy.ast.expr.CastExpression
+import org.codehaus.groovy.ast.expr.ConstantExpression
+import org.codehaus.groovy.ast.expr.ConstructorCallExpression
+import org.codehaus.groovy.ast.expr.Expression
+import org.codehaus.groovy.ast.expr.FieldExpression
+import org.codehaus.groovy.ast.expr.MethodCallExpression
+import org.codehaus.groovy.ast.expr.VariableExpression
+import org.codehaus.groovy.ast.stmt.BlockStatement
+import org.codehaus.groovy.ast.stmt.EmptyStatement
+import org.codehaus.groovy.ast.stmt.ExpressionStatement
+import org.codehaus.groovy.ast.stmt.IfStatement
+import org.codehaus.groovy.ast.stmt.ReturnStatement
+import org.codehaus.groovy.ast.stmt.Statement
+import org.codehaus.groovy.ast.stmt.ThrowStatement
+import org.codehaus.groovy.syntax.Token
+import org.codehaus.groovy.syntax.Types
+import org.grails.datastore.mapping.reflect.AstUtils
+import org.grails.datastore.mapping.reflect.GeneratedFieldAccess
+
+import static java.lang.reflect.Modifier.*
+
+/**
+ * Generates the accessors of {@link GeneratedFieldAccess} for the fields declared by an entity class, so that the
+ * entity reflector can read and write them without reflection. Each accessor compares the index against the indices
+ * of the fields declared by the class and delegates to the super class for the remaining indices.
+ *
+ * The index of the first field of a class is derived from its depth in the class hierarchy, so that the indices of
+ * the fields of a class do not depend on the number of fields of its super classes.
+ *
+ * The accessors compare the index with each field index in turn rather than using a switch statement. Groovy compiles
+ * a switch to a sequence of isCase calls on boxed values, whereas each comparison here is a primitive int comparison.
+ *
+ * @author Graeme Rocher
+ * @since 6.0
+ */
+@CompileStatic
+class FieldAccessTransformer {
+
+    private static final ClassNode GENERATED_FIELD_ACCESS_CLASS_NODE = ClassHelper.make(GeneratedFieldAccess).getPlainNodeReference()
+    private static final ClassNode ILLEGAL_ARGUMENT_EXCEPTION_CLASS_NODE = ClassHelper.make(IllegalArgumentException)
+    private static final int INDEX_BASE_SHIFT = 16
+
+    void performInjection(ClassNode classNode) {
+        if(classNode.getDeclaredField(GeneratedFieldAccess.FIELD_NAMES) != null) {
+            return
+        }
+
+        List<FieldNode> fields = classNode.getFields().findAll { FieldNode field -> isAccessibleField(field) }
+        int base = getIndexBase(classNode)
+        boolean hasGeneratedParent = hasGeneratedParent(classNode)
+
+        if(!classNode.implementsInterface(GENERATED_FIELD_ACCESS_CLASS_NODE)) {
+            classNode.addInterface(GENERATED_FIELD_ACCESS_CLASS_NODE)
+        }
+
+        List<Expression> names = fields.collect { FieldNode field -> (Expression)new ConstantExpression(field.name) }
+        classNode.addField(GeneratedFieldAccess.FIELD_NAMES, PUBLIC | STATIC | FINAL, ClassHelper.STRING_TYPE.makeArray(), new ArrayExpression(ClassHelper.STRING_TYPE, names))
+        classNode.addField(GeneratedFieldAccess.FIELD_INDEX_BASE, PUBLIC | STATIC | FINAL, ClassHelper.int_TYPE, new ConstantExpression(base, true))
+
+        addReadMethod(classNode, fields, base, hasGeneratedParent)
+        addWriteMethod(classNode, fields, base, hasGeneratedParent)
+    }
+
+    protected boolean isAccessibleField(FieldNode field) {
+        String name = field.name
+        int modifiers = field.modifiers
+        return !isStatic(modifiers) && !isFinal(modifiers) && !isTransient(modifiers) && !field.isSynthetic() &&
+                name.indexOf('$') == -1 && !name.contains('__')
+    }
+
+    protected int getIndexBase(ClassNode classNode) {
+        int depth = 0
+        ClassNode superClass = classNode.getSuperClass()
+        while(superClass != null) {
+            depth++
+            superClass = superClass.getSuperClass()
+        }
+        return depth << INDEX_BASE_SHIFT
+    }
+
+    protected boolean hasGeneratedParent(ClassNode classNode) {
+        ClassNode superClass = classNode.getSuperClass()
+        while(superClass != null && superClass != AstUtils.OBJECT_CLASS_NODE) {
+            // entities compiled along with this class are transformed too, precompiled ones must already have the accessors
+            if(superClass.implementsInterface(GENERATED_FIELD_ACCESS_CLASS_NODE) || (superClass.isPrimaryClassNode() && AstUtils.isDomainClass(superClass))) {
+                return true
+            }
+            superClass = superClass.getSuperClass()
+        }
+        return false
+    }
+
+    private void addReadMethod(ClassNode classNode, List<FieldNode> fields, int base, boolean hasGeneratedParent) {
+        String methodName = '$readField'
+        Parameter indexParameter = new Parameter(ClassHelper.int_TYPE, "index")
+        BlockStatement body = new BlockStatement()
+        for(int i = 0; i < fields.size(); i++) {
+            FieldNode field = fields.get(i)
+            body.addStatement(new IfStatement(indexEquals(indexParameter, base + i), new ReturnStatement(new FieldExpression(field)), EmptyStatement.INSTANCE))
+        }
+        MethodCallExpression superCall = new MethodCallExpression(VariableExpression.SUPER_EXPRESSION, methodName, new ArgumentListExpression(new VariableExpression(indexParameter)))
+        body.addStatement(hasGeneratedParent ? new ReturnStatement(superCall) : throwUnknownIndex(indexParameter))
+        classNode.addMethod(methodName, PUBLIC, AstUtils.OBJECT_CLASS_NODE, [indexParameter] as Parameter[], null, body)
+    }
+
+    private void addWriteMethod(ClassNode classNode, List<FieldNode> fields, int base, boolean hasGeneratedParent) {
+        String methodName = '$writeField'
+        Parameter indexParameter = new Parameter(ClassHelper.int_TYPE, "index")
+        Parameter valueParameter = new Parameter(AstUtils.OBJECT_CLASS_NODE, "value")
+        BlockStatement body = new BlockStatement()
+        for(int i = 0; i < fields.size(); i++) {
+            FieldNode field = fields.get(i)
+            BlockStatement assignment = new BlockStatement()
+            assignment.addStatement(new ExpressionStatement(
+                    new BinaryExpression(new FieldExpression(field), Token.newSymbol(Types.EQUAL, 0, 0), new CastExpression(field.type.getPlainNodeReference(), new VariableExpression(valueParameter)))
+            ))
+            assignment.addStatement(ReturnStatement.RETURN_NULL_OR_VOID)
+            body.addStatement(new IfStatement(indexEquals(indexParameter, base + i), assignment, EmptyStatement.INSTANCE))
+        }
+        if(hasGeneratedParent) {
+            body.addStatement(new ExpressionStatement(
+                    new MethodCallExpression(VariableExpression.SUPER_EXPRESSION, methodName, new ArgumentListExpression(new VariableExpression(indexParameter), new VariableExpression(valueParameter)))
+            ))
+        }
+        else {
+            body.addStatement(throwUnknownIndex(indexParameter))
+        }
+        classNode.addMethod(methodName, PUBLIC, ClassHelper.VOID_TYPE, [indexParameter, valueParameter] as Parameter[], null, body)
+    }
+
+    private static BooleanExpression indexEquals(Parameter indexParameter, int index) {
+        new BooleanExpression(new BinaryExpression(new VariableExpression(indexParameter), Token.newSymbol(Types.COMPARE_EQUAL, 0, 0), new ConstantExpression(index, true)))
+    }
+
+    private static Statement throwUnknownIndex(Parameter indexParameter) {
+        Expression message = new BinaryExpression(new ConstantExpression("No field accessor generated for index "), Token.newSymbol(Types.PLUS, 0, 0), new VariableExpression(indexParameter))
+        new ThrowStatement(new ConstructorCallExpression(ILLEGAL_ARGUMENT_EXCEPTION_CLASS_NODE, new ArgumentListExpression(message)))
+    }
+}
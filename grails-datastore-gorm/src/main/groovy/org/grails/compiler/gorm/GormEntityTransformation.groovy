@@ -71,6 +71,7 @@ import java.lang.reflect.Modifier
  * - Association id getter methods ('userId' for 'user' association)<br>
  * - Adds the GormEntity and GormValidateable traits<br>
  * - Named query methods<br>
+ * - Field accessors used by the entity reflector instead of reflection<br>
  *
  * @author Graeme Rocher
  * @since 5.0
@@ -175,6 +176,10 @@ class GormEntityTransformation implements CompilationUnitAware,ASTTransformation
 
         // inject associations
         injectAssociations(classNode, addToMethodNode, removeFromMethodNode, getAssociationMethodNode)
+
+        // generate accessors for the fields, now that id, version and association properties are present
+        new FieldAccessTransformer().performInjection(classNode)
+
         // convert the methodMissing and propertyMissing implementations to $static_methodMissing and $static_propertyMissing for the static versions
         def methodMissingBody = new BlockStatement()
         def methodNameParam = new Parameter(ClassHelper.make(String), "name")
@@ -273,6 +278,8 @@ class GormEntityTransformation implements CompilationUnitAware,ASTTransformation
             classNode.putNodeMetaData(AstUtils.TRANSFORM_APPLIED_MARKER, Boolean.TRUE)
         }
 
+        // record the property accessors last, so that those of the applied traits are included
+        new PropertyMetadataTransformer().performInjection(classNode)
 
     }
 
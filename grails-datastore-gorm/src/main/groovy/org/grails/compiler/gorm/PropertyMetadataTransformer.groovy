@@ -0,0 +1,108 @@
+package org.grails.compiler.gorm
+
+import groovy.transform.CompileStatic
+import org.codehaus.groovy.ast.ClassHelper
+import org.codehaus.groovy.ast.ClassNode
+import org.codehaus.groovy.ast.MethodNode
+import org.codehaus.groovy.ast.PropertyNode
+import org.codehaus.groovy.ast.expr.ArrayExpression
+import org.codehaus.groovy.ast.expr.ConstantExpression
+import org.codehaus.groovy.ast.expr.Expression
+import org.codehaus.groovy.transform.trait.Traits
+import org.grails.datastore.mapping.reflect.AstUtils
+import org.grails.datastore.mapping.reflect.GeneratedPropertyMetadata
+import org.grails.datastore.mapping.reflect.NameUtils
+
+import static java.lang.reflect.Modifier.*
+
+/**
+ * Records the getter and setter names of the readable and writable properties of an entity class in a static field,
+ * so that the property descriptors of the class can be created at runtime without the bean introspection of the
+ * class. See {@link GeneratedPropertyMetadata}.
+ *
+ * The metadata is not generated if traits that are not applied by the time the transformation runs could contribute
+ * further properties.
+ *
+ * @author Graeme Rocher
+ * @since 6.0
+ */
+@CompileStatic
+class PropertyMetadataTransformer {
+
+    private static final String GET_PREFIX = "get"
+    private static final String IS_PREFIX = "is"
+    private static final String SET_PREFIX = "set"
+
+    void performInjection(ClassNode classNode) {
+        if(classNode.getDeclaredField(GeneratedPropertyMetadata.PROPERTY_ACCESSORS) != null) {
+            return
+        }
+        if(!Boolean.TRUE.equals(classNode.getNodeMetaData(AstUtils.TRANSFORM_APPLIED_MARKER)) && hasUnappliedTraits(classNode)) {
+            return
+        }
+
+        // ordered by property name, an "is" getter takes precedence like it does for the bean introspection
+        Map<String, String[]> accessorsByProperty = new TreeMap<String, String[]>()
+        for(PropertyNode property in classNode.getProperties()) {
+            if(property.isStatic() || isFinal(property.field.modifiers) || property.name.indexOf('$') > -1) {
+                continue
+            }
+            boolean isBoolean = property.type == ClassHelper.boolean_TYPE
+            addAccessors(accessorsByProperty, NameUtils.getGetterName(property.name, isBoolean), NameUtils.getSetterName(property.name))
+        }
+        for(MethodNode method in classNode.getMethods()) {
+            String suffix = getPropertySuffix(method)
+            if(suffix != null && hasSetter(classNode, SET_PREFIX + suffix)) {
+                addAccessors(accessorsByProperty, method.name, SET_PREFIX + suffix)
+            }
+        }
+
+        List<Expression> accessors = []
+        for(String[] pair in accessorsByProperty.values()) {
+            accessors.add(new ConstantExpression(pair[0]))
+            accessors.add(new ConstantExpression(pair[1]))
+        }
+        classNode.addField(GeneratedPropertyMetadata.PROPERTY_ACCESSORS, PUBLIC | STATIC | FINAL, ClassHelper.STRING_TYPE.makeArray(), new ArrayExpression(ClassHelper.STRING_TYPE, accessors))
+    }
+
+    protected boolean hasUnappliedTraits(ClassNode classNode) {
+        for(ClassNode iface in classNode.getAllInterfaces()) {
+            String name = iface.name
+            if(Traits.isTrait(iface) && !name.startsWith('org.grails.datastore.') && !name.startsWith('grails.gorm.')) {
+                return true
+            }
+        }
+        return false
+    }
+
+    private static void addAccessors(Map<String, String[]> accessorsByProperty, String getterName, String setterName) {
+        String propertyName = NameUtils.getPropertyNameForGetterOrSetter(getterName)
+        String[] existing = accessorsByProperty.get(propertyName)
+        if(existing == null || !existing[0].startsWith(IS_PREFIX)) {
+            accessorsByProperty.put(propertyName, [getterName, setterName] as String[])
+        }
+    }
+
+    private static String getPropertySuffix(MethodNode method) {
+        String name = method.name
+        if(!method.isPublic() || method.isStatic() || method.isSynthetic() || method.parameters.length != 0 || name.indexOf('$') > -1) {
+            return null
+        }
+        if(name.startsWith(GET_PREFIX) && name.length() > GET_PREFIX.length() && method.returnType != ClassHelper.VOID_TYPE) {
+            return name.substring(GET_PREFIX.length())
+        }
+        if(name.startsWith(IS_PREFIX) && name.length() > IS_PREFIX.length() && method.returnType == ClassHelper.boolean_TYPE) {
+            return name.substring(IS_PREFIX.length())
+        }
+        return null
+    }
+
+    private static boolean hasSetter(ClassNode classNode, String setterName) {
+        for(MethodNode setter in classNode.getMethods(setterName)) {
+            if(setter.isPublic() && !setter.isStatic() && setter.parameters.length == 1) {
+                return true
+            }
+        }
+        return false
+    }
+}
@@ -545,7 +545,7 @@ class GormStaticApi<D> extends AbstractGormApi<D> implements GormAllOperations<D
         (List<D>)execute ({ Session session ->
             Query q = session.createQuery(persistentClass)
             DynamicFinder.populateArgumentsForCriteria(persistentClass, q, params)
-            if (params?.max) {
+            if (params?.max && params.get(DynamicFinder.ARGUMENT_AFTER) == null) {
                 return new PagedResultList(q)
             }
             return q.list()
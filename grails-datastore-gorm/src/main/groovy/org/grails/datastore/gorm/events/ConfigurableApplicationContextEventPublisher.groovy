@@ -25,6 +25,12 @@ class ConfigurableApplicationContextEventPublisher implements ConfigurableApplic
         this.applicationContext.addApplicationListener(listener)
     }
 
+    @Override
+    boolean hasListeners(Class<? extends ApplicationEvent> eventType, Class<?> sourceType) {
+        // listener resolution is up to the application context
+        return true
+    }
+
     @Override
     void publishEvent(ApplicationEvent event) {
         this.applicationContext.publishEvent(event)
@@ -1,5 +1,6 @@
 package org.grails.datastore.gorm.events
 
+import org.springframework.context.ApplicationEvent
 import org.springframework.context.ApplicationEventPublisher
 import org.springframework.context.ApplicationListener
 
@@ -17,4 +18,14 @@ interface ConfigurableApplicationEventPublisher extends ApplicationEventPublishe
      * @param listener The application listener
      */
     void addApplicationListener(ApplicationListener<?> listener)
+
+    /**
+     * Whether any listener would receive an event of the given type from the given source. Allows callers to skip
+     * creating events nobody listens to.
+     *
+     * @param eventType The event type
+     * @param sourceType The type of the event source
+     * @return True if there are listeners, or if the publisher cannot tell
+     */
+    boolean hasListeners(Class<? extends ApplicationEvent> eventType, Class<?> sourceType)
 }
\ No newline at end of file
@@ -1,26 +1,102 @@
 package org.grails.datastore.gorm.events
 
+import groovy.transform.CompileStatic
+import groovy.transform.EqualsAndHashCode
+
+import java.util.concurrent.ConcurrentHashMap
+import java.util.concurrent.CopyOnWriteArrayList
+
 import org.springframework.context.ApplicationEvent
 import org.springframework.context.ApplicationListener
+import org.springframework.context.event.SmartApplicationListener
+import org.springframework.core.GenericTypeResolver
 
 /**
- * Simple implementation that just iterates over a sequence of listeners
+ * Simple implementation that dispatches events to the registered listeners that support them.
+ *
+ * The listeners supporting a given event type and source type are resolved on first use and cached until
+ * a new listener is added, so publishing an event only touches the listeners interested in it.
  *
  * @author Graeme Rocher
  * @since 6.0
  */
+@CompileStatic
 class DefaultApplicationEventPublisher implements ConfigurableApplicationEventPublisher {
 
-    private List<ApplicationListener> applicationListeners = []
+    private static final ApplicationListener[] NO_LISTENERS = new ApplicationListener[0]
+
+    private final List<ApplicationListener> applicationListeners = new CopyOnWriteArrayList<ApplicationListener>()
+    private volatile Map<ListenerCacheKey, ApplicationListener[]> listenerCache = new ConcurrentHashMap<ListenerCacheKey, ApplicationListener[]>()
+
     @Override
     void publishEvent(ApplicationEvent event) {
-        for(listener in applicationListeners) {
+        ApplicationListener[] listeners = getApplicationListeners(event.getClass(), event.getSource()?.getClass())
+        for(listener in listeners) {
             listener.onApplicationEvent(event)
         }
     }
 
+    @Override
+    boolean hasListeners(Class<? extends ApplicationEvent> eventType, Class<?> sourceType) {
+        getApplicationListeners(eventType, sourceType).length > 0
+    }
+
     @Override
     void addApplicationListener(ApplicationListener<?> listener) {
         applicationListeners.add(listener)
+        // rebuilt lazily on the next publish
+        listenerCache = new ConcurrentHashMap<ListenerCacheKey, ApplicationListener[]>()
+    }
+
+    /**
+     * Obtains the listeners that support the given event and source type
+     *
+     * @param eventType The event type
+     * @param sourceType The type of the event source
+     * @return The listeners, in the order they were added
+     */
+    protected ApplicationListener[] getApplicationListeners(Class<? extends ApplicationEvent> eventType, Class<?> sourceType) {
+        Map<ListenerCacheKey, ApplicationListener[]> cache = listenerCache
+        ListenerCacheKey key = new ListenerCacheKey(eventType, sourceType)
+        ApplicationListener[] listeners = cache.get(key)
+        if(listeners == null) {
+            List<ApplicationListener> supporting = []
+            for(listener in applicationListeners) {
+                if(supportsEvent(listener, eventType, sourceType)) {
+                    supporting.add(listener)
+                }
+            }
+            listeners = supporting.isEmpty() ? NO_LISTENERS : supporting.toArray(new ApplicationListener[supporting.size()])
+            cache.put(key, listeners)
+        }
+        return listeners
+    }
+
+    /**
+     * Whether the given listener supports the given event and source type
+     *
+     * @param listener The listener
+     * @param eventType The event type
+     * @param sourceType The type of the event source
+     * @return True if it does
+     */
+    protected boolean supportsEvent(ApplicationListener listener, Class<? extends ApplicationEvent> eventType, Class<?> sourceType) {
+        if(listener instanceof SmartApplicationListener) {
+            SmartApplicationListener smartListener = (SmartApplicationListener)listener
+            return smartListener.supportsEventType(eventType) && (sourceType == null || smartListener.supportsSourceType(sourceType))
+        }
+        Class<?> declaredEventType = GenericTypeResolver.resolveTypeArgument(listener.getClass(), ApplicationListener)
+        return declaredEventType == null || declaredEventType.isAssignableFrom(eventType)
+    }
+
+    @EqualsAndHashCode
+    private static class ListenerCacheKey {
+        final Class eventType
+        final Class sourceType
+
+        ListenerCacheKey(Class eventType, Class sourceType) {
+            this.eventType = eventType
+            this.sourceType = sourceType
+        }
     }
 }
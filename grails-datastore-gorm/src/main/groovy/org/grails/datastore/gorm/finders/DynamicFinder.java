@@ -20,6 +20,9 @@ import groovy.lang.MissingMethodException;
 
 import java.lang.reflect.Constructor;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
@@ -42,6 +45,7 @@ import org.grails.datastore.gorm.finders.MethodExpression.LessThanEquals;
 import org.grails.datastore.gorm.finders.MethodExpression.Like;
 import org.grails.datastore.gorm.finders.MethodExpression.NotEqual;
 import org.grails.datastore.gorm.finders.MethodExpression.Rlike;
+import org.grails.datastore.gorm.query.KeysetPagination;
 import org.grails.datastore.gorm.query.criteria.AbstractDetachedCriteria;
 import org.grails.datastore.mapping.core.Datastore;
 import org.grails.datastore.mapping.model.MappingContext;
@@ -75,14 +79,28 @@ public abstract class DynamicFinder extends AbstractFinder implements QueryBuild
     public static final String ARGUMENT_IGNORE_CASE = "ignoreCase";
     public static final String ARGUMENT_CACHE = "cache";
     public static final String ARGUMENT_LOCK = "lock";
+    /**
+     * The last seen result for keyset pagination, either an instance or a map of the values of the sort keys.
+     * The results are restricted to those that follow it in the order of the query, with the identifier used as a
+     * tiebreaker, instead of skipping an offset. Sorting is case sensitive unless ignoreCase is specified, which is
+     * not supported, and a paged list does not query the total count.
+     */
+    public static final String ARGUMENT_AFTER = "after";
 
 
 
+    public static final int DEFAULT_FINDER_PLAN_CACHE_SIZE = 256;
+
     protected Pattern pattern;
     private Pattern[] operatorPatterns;
     private String[] operators;
+    private final ConcurrentMap<Class, Map<String, DynamicFinderPlan>> finderPlans = new ConcurrentHashMap<Class, Map<String, DynamicFinderPlan>>();
+    private final AtomicLong planCacheHits = new AtomicLong();
+    private final AtomicLong planCacheMisses = new AtomicLong();
+    private volatile int finderPlanCacheSize = DEFAULT_FINDER_PLAN_CACHE_SIZE;
 
     private static Pattern methodExpressinPattern;
+    private static volatile int methodExpressionsVersion;
     private static final Object[] EMPTY_OBJECT_ARRAY = {};
 
     private static final String NOT = "Not";
@@ -113,6 +131,8 @@ public abstract class DynamicFinder extends AbstractFinder implements QueryBuild
     static void resetMethodExpressionPattern() {
         String expressionPattern = DefaultGroovyMethods.join((Iterable)methodExpressions.keySet(), "|");
         methodExpressinPattern = Pattern.compile("\\p{Upper}[\\p{Lower}\\d]+(" + expressionPattern + ")");
+        // invalidates finder plans parsed with the previous method expressions
+        methodExpressionsVersion++;
     }
 
     protected DynamicFinder(final Pattern pattern, final String[] operators, final Datastore datastore) {
@@ -163,6 +183,7 @@ public abstract class DynamicFinder extends AbstractFinder implements QueryBuild
 
     public void setPattern(String pattern) {
         this.pattern = Pattern.compile(pattern);
+        finderPlans.clear();
     }
 
     public boolean isMethodMatch(String methodName) {
@@ -185,21 +206,144 @@ public abstract class DynamicFinder extends AbstractFinder implements QueryBuild
     public DynamicFinderInvocation createFinderInvocation(Class clazz, String methodName,
             Closure additionalCriteria, Object[] arguments) {
 
-        List expressions = new ArrayList();
         if (arguments == null) arguments = EMPTY_OBJECT_ARRAY;
         else {
             Object[] tmp = new Object[arguments.length];
             System.arraycopy(arguments,0,tmp, 0, arguments.length);
             arguments = tmp;
         }
+
+        DynamicFinderPlan plan = getFinderPlan(clazz, methodName);
+        PersistentEntity persistentEntity = plan.getPersistentEntity();
+        if (persistentEntity == null) {
+            persistentEntity = mappingContext.getPersistentEntity(clazz.getName());
+        }
+
+        List<MethodExpression> expressions = new ArrayList<MethodExpression>(plan.getExpressions().size() + 1);
+        int totalRequiredArguments = 0;
+
+        DynamicFinderPlan.Expression booleanPlan = plan.getBooleanExpression();
+        if (booleanPlan != null) {
+            MethodExpression booleanExpression = newMethodExpression(clazz, booleanPlan);
+            booleanExpression.setArguments(new Object[]{plan.getBooleanValue()});
+            expressions.add(booleanExpression);
+        }
+
+        if (plan.isSolo()) {
+            DynamicFinderPlan.Expression soloPlan = plan.getExpressions().get(0);
+            MethodExpression solo = newMethodExpression(clazz, soloPlan);
+
+            final int requiredArguments = soloPlan.getArgumentsRequired();
+            if (requiredArguments  > arguments.length) {
+                throw new MissingMethodException(methodName,clazz,arguments);
+            }
+
+            totalRequiredArguments += requiredArguments;
+            solo = getInitializedExpression(solo, arguments);
+            try {
+                solo.convertArguments(persistentEntity);
+            } catch (ConversionException e) {
+                if (!(persistentEntity.getPropertyByName(solo.propertyName) instanceof Basic)) {
+                    throw new MissingMethodException(methodName, clazz, arguments);
+                }
+            }
+            expressions.add(solo);
+        }
+        else {
+            // loop through query parameters and create expressions
+            // calculating the number of arguments required for the expression
+            int argumentCursor = 0;
+            for (DynamicFinderPlan.Expression expressionPlan : plan.getExpressions()) {
+                MethodExpression currentExpression = newMethodExpression(clazz, expressionPlan);
+                final int requiredArgs = expressionPlan.getArgumentsRequired();
+                // populate the arguments into the GrailsExpression from the argument list
+                Object[] currentArguments = new Object[requiredArgs];
+                if ((argumentCursor + requiredArgs) > arguments.length) {
+                    throw new MissingMethodException(methodName, clazz, arguments);
+                }
+
+                for (int k = 0; k < requiredArgs; k++, argumentCursor++) {
+                    currentArguments[k] = arguments[argumentCursor];
+                }
+                currentExpression = getInitializedExpression(currentExpression, currentArguments);
+
+                try {
+                    currentExpression.convertArguments(persistentEntity);
+                } catch (ConversionException e) {
+                    throw new MissingMethodException(methodName, clazz, arguments);
+                }
+
+                // add to list of expressions
+                totalRequiredArguments += currentExpression.argumentsRequired;
+                expressions.add(currentExpression);
+            }
+        }
+
+        // if the total of all the arguments necessary does not equal the number of arguments
+        // throw exception
+        if (totalRequiredArguments > arguments.length) {
+            throw new MissingMethodException(methodName,clazz,arguments);
+        }
+
+        // calculate the remaining arguments
+        Object[] remainingArguments = new Object[arguments.length - totalRequiredArguments];
+        if (remainingArguments.length > 0) {
+            for (int i = 0, j = totalRequiredArguments; i < remainingArguments.length; i++,j++) {
+                remainingArguments[i] = arguments[j];
+            }
+        }
+
+        return new DynamicFinderInvocation(clazz, methodName, remainingArguments,
+                expressions, additionalCriteria, plan.getOperator());
+    }
+
+    /**
+     * Obtains the parsed plan for the given finder method, parsing the method name only if there is no cached plan for it yet.
+     *
+     * @param clazz The entity class
+     * @param methodName The finder method name
+     * @return The plan
+     */
+    public DynamicFinderPlan getFinderPlan(Class clazz, String methodName) {
+        Map<String, DynamicFinderPlan> entityPlans = finderPlans.get(clazz);
+        if (entityPlans == null) {
+            entityPlans = createFinderPlanCache();
+            Map<String, DynamicFinderPlan> existing = finderPlans.putIfAbsent(clazz, entityPlans);
+            if (existing != null) {
+                entityPlans = existing;
+            }
+        }
+
+        DynamicFinderPlan plan = entityPlans.get(methodName);
+        if (plan != null && plan.getVersion() == methodExpressionsVersion) {
+            planCacheHits.incrementAndGet();
+            return plan;
+        }
+
+        planCacheMisses.incrementAndGet();
+        plan = createFinderPlan(clazz, methodName);
+        entityPlans.put(methodName, plan);
+        return plan;
+    }
+
+    /**
+     * Parses the given finder method name into a plan
+     *
+     * @param clazz The entity class
+     * @param methodName The finder method name
+     * @return The plan
+     */
+    protected DynamicFinderPlan createFinderPlan(Class clazz, String methodName) {
+        final int version = methodExpressionsVersion;
+        List<DynamicFinderPlan.Expression> expressions = new ArrayList<DynamicFinderPlan.Expression>();
         Matcher match = pattern.matcher(methodName);
         // find match
         match.find();
 
-        String[] queryParameters;
-        int totalRequiredArguments = 0;
         // get the sequence clauses
         final String querySequence;
+        DynamicFinderPlan.Expression booleanExpression = null;
+        Boolean booleanValue = null;
         int groupCount = match.groupCount();
         if (groupCount == 6) {
             String booleanProperty = match.group(3);
@@ -210,14 +354,12 @@ public abstract class DynamicFinder extends AbstractFinder implements QueryBuild
             else {
                 querySequence = match.group(5);
             }
-            Boolean arg = Boolean.TRUE;
+            booleanValue = Boolean.TRUE;
             if (booleanProperty.matches("Not[A-Z].*")) {
                 booleanProperty = booleanProperty.substring(3);
-                arg = Boolean.FALSE;
+                booleanValue = Boolean.FALSE;
             }
-            MethodExpression booleanExpression = findMethodExpression(clazz, booleanProperty);
-            booleanExpression.setArguments(new Object[]{arg});
-            expressions.add(booleanExpression);
+            booleanExpression = new DynamicFinderPlan.Expression(booleanProperty, findMethodExpression(clazz, booleanProperty));
         }
         else {
             querySequence = match.group(2);
@@ -232,80 +374,67 @@ public abstract class DynamicFinder extends AbstractFinder implements QueryBuild
                     containsOperator = true;
                     operatorInUse = operators[i];
 
-                    queryParameters = querySequence.split(operatorInUse);
-
-                    // loop through query parameters and create expressions
-                    // calculating the number of arguments required for the expression
-                    int argumentCursor = 0;
+                    String[] queryParameters = querySequence.split(operatorInUse);
                     for (String queryParameter : queryParameters) {
-                        MethodExpression currentExpression = findMethodExpression(clazz, queryParameter);
-                        final int requiredArgs = currentExpression.getArgumentsRequired();
-                        // populate the arguments into the GrailsExpression from the argument list
-                        Object[] currentArguments = new Object[requiredArgs];
-                        if ((argumentCursor + requiredArgs) > arguments.length) {
-                            throw new MissingMethodException(methodName, clazz, arguments);
-                        }
-
-                        for (int k = 0; k < requiredArgs; k++, argumentCursor++) {
-                            currentArguments[k] = arguments[argumentCursor];
-                        }
-                        currentExpression = getInitializedExpression(currentExpression, currentArguments);
-                        PersistentEntity persistentEntity = mappingContext.getPersistentEntity(clazz.getName());
-
-                        try {
-                            currentExpression.convertArguments(persistentEntity);
-                        } catch (ConversionException e) {
-                            throw new MissingMethodException(methodName, clazz, arguments);
-                        }
-
-                        // add to list of expressions
-                        totalRequiredArguments += currentExpression.argumentsRequired;
-                        expressions.add(currentExpression);
+                        expressions.add(new DynamicFinderPlan.Expression(queryParameter, findMethodExpression(clazz, queryParameter)));
                     }
                     break;
                 }
             }
         }
         // otherwise there is only one expression
-        if (!containsOperator && querySequence != null) {
-            MethodExpression solo =findMethodExpression(clazz,querySequence);
-
-            final int requiredArguments = solo.getArgumentsRequired();
-            if (requiredArguments  > arguments.length) {
-                throw new MissingMethodException(methodName,clazz,arguments);
-            }
-
-            totalRequiredArguments += requiredArguments;
-            Object[] soloArgs = new Object[requiredArguments];
-            System.arraycopy(arguments, 0, soloArgs, 0, requiredArguments);
-            solo = getInitializedExpression(solo, arguments);
-            PersistentEntity persistentEntity = mappingContext.getPersistentEntity(clazz.getName());
-            try {
-                solo.convertArguments(persistentEntity);
-            } catch (ConversionException e) {
-                if (!(persistentEntity.getPropertyByName(solo.propertyName) instanceof Basic)) {
-                    throw new MissingMethodException(methodName, clazz, arguments);
-                }
-            }
-            expressions.add(solo);
+        boolean solo = !containsOperator && querySequence != null;
+        if (solo) {
+            expressions.add(new DynamicFinderPlan.Expression(querySequence, findMethodExpression(clazz, querySequence)));
         }
 
-        // if the total of all the arguments necessary does not equal the number of arguments
-        // throw exception
-        if (totalRequiredArguments > arguments.length) {
-            throw new MissingMethodException(methodName,clazz,arguments);
+        PersistentEntity persistentEntity = mappingContext.getPersistentEntity(clazz.getName());
+        return new DynamicFinderPlan(clazz, methodName, operatorInUse, persistentEntity,
+                booleanExpression, booleanValue, expressions, solo, version);
+    }
+
+    private MethodExpression newMethodExpression(Class clazz, DynamicFinderPlan.Expression expressionPlan) {
+        MethodExpression expression = expressionPlan.newExpression(clazz);
+        if (expression == null) {
+            expression = findMethodExpression(clazz, expressionPlan.getQueryParameter());
         }
+        return expression;
+    }
 
-        // calculate the remaining arguments
-        Object[] remainingArguments = new Object[arguments.length - totalRequiredArguments];
-        if (remainingArguments.length > 0) {
-            for (int i = 0, j = totalRequiredArguments; i < remainingArguments.length; i++,j++) {
-                remainingArguments[i] = arguments[j];
+    private Map<String, DynamicFinderPlan> createFinderPlanCache() {
+        return Collections.synchronizedMap(new LinkedHashMap<String, DynamicFinderPlan>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, DynamicFinderPlan> eldest) {
+                return size() > finderPlanCacheSize;
             }
-        }
+        });
+    }
 
-        return new DynamicFinderInvocation(clazz, methodName, remainingArguments,
-                expressions, additionalCriteria, operatorInUse);
+    /**
+     * Sets the maximum number of parsed finder plans kept per entity
+     *
+     * @param finderPlanCacheSize The maximum number of plans
+     */
+    public void setFinderPlanCacheSize(int finderPlanCacheSize) {
+        this.finderPlanCacheSize = finderPlanCacheSize;
+    }
+
+    public int getFinderPlanCacheSize() {
+        return finderPlanCacheSize;
+    }
+
+    /**
+     * @return The number of invocations that reused a cached finder plan
+     */
+    public long getPlanCacheHits() {
+        return planCacheHits.get();
+    }
+
+    /**
+     * @return The number of invocations that had to parse the method name
+     */
+    public long getPlanCacheMisses() {
+        return planCacheMisses.get();
     }
 
     /**
@@ -483,7 +612,8 @@ public abstract class DynamicFinder extends AbstractFinder implements QueryBuild
             q.offset(offset);
         }
         Object sortObject = argMap.get(ARGUMENT_SORT);
-        boolean ignoreCase = !argMap.containsKey(ARGUMENT_IGNORE_CASE) || ClassUtils.getBooleanFromMap(ARGUMENT_IGNORE_CASE, argMap);
+        Object after = argMap.get(ARGUMENT_AFTER);
+        boolean ignoreCase = argMap.containsKey(ARGUMENT_IGNORE_CASE) ? ClassUtils.getBooleanFromMap(ARGUMENT_IGNORE_CASE, argMap) : after == null;
 
         if (sortObject != null) {
             if(sortObject instanceof CharSequence) {
@@ -498,12 +628,35 @@ public abstract class DynamicFinder extends AbstractFinder implements QueryBuild
             }
         }
 
+        if (after != null) {
+            applyKeysetPagination(q, after);
+        }
+
         if (q instanceof QueryArgumentsAware) {
             ((QueryArgumentsAware)q).setArguments(argMap);
         }
     }
 
 
+    /**
+     * Restricts the query to the results following the given last seen result in the order of the query, adding
+     * the identifier as the last order if the query is not already ordered by it
+     *
+     * @param q The query
+     * @param after The last seen result, either an instance or a map of the values of the sort keys
+     * @see #ARGUMENT_AFTER
+     */
+    public static void applyKeysetPagination(Query q, Object after) {
+        List<Query.Order> orders = q.getOrderBy();
+        int ordered = orders.size();
+        KeysetPagination keyset = new KeysetPagination(q.getEntity(), orders, after);
+        List<Query.Order> keys = keyset.getOrders();
+        for (int i = ordered; i < keys.size(); i++) {
+            q.order(keys.get(i));
+        }
+        q.add(keyset.toCriterion());
+    }
+
     private static void addSimpleSort(Query q, String sort, String order, boolean ignoreCase) {
         Query.Order o;
         if (ORDER_DESC.equalsIgnoreCase(order)) {
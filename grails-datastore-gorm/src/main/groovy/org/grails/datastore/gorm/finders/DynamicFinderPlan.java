@@ -0,0 +1,179 @@
+/* Copyright (C) 2016 original authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.grails.datastore.gorm.finders;
+
+import java.lang.reflect.Constructor;
+import java.util.Collections;
+import java.util.List;
+
+import org.grails.datastore.mapping.model.PersistentEntity;
+
+/**
+ * The parsed form of a dynamic finder method name such as <code>findAllByTitleAndAuthor</code>. A plan is immutable and
+ * is computed once per entity and method name by {@link DynamicFinder}, so that repeated invocations only have to bind
+ * their arguments to new {@link MethodExpression} instances.
+ *
+ * @author Graeme Rocher
+ * @since 6.0
+ */
+@SuppressWarnings("rawtypes")
+public class DynamicFinderPlan {
+
+    private final Class javaClass;
+    private final String methodName;
+    private final String operator;
+    private final PersistentEntity persistentEntity;
+    private final Expression booleanExpression;
+    private final Boolean booleanValue;
+    private final List<Expression> expressions;
+    private final boolean solo;
+    private final int version;
+
+    DynamicFinderPlan(Class javaClass, String methodName, String operator, PersistentEntity persistentEntity,
+                      Expression booleanExpression, Boolean booleanValue, List<Expression> expressions, boolean solo, int version) {
+        this.javaClass = javaClass;
+        this.methodName = methodName;
+        this.operator = operator;
+        this.persistentEntity = persistentEntity;
+        this.booleanExpression = booleanExpression;
+        this.booleanValue = booleanValue;
+        this.expressions = Collections.unmodifiableList(expressions);
+        this.solo = solo;
+        this.version = version;
+    }
+
+    public Class getJavaClass() {
+        return javaClass;
+    }
+
+    public String getMethodName() {
+        return methodName;
+    }
+
+    /**
+     * @return The operator (And / Or) joining the expressions or null if there is a single expression
+     */
+    public String getOperator() {
+        return operator;
+    }
+
+    /**
+     * @return The entity queried or null if the class was not a persistent entity when the plan was created
+     */
+    public PersistentEntity getPersistentEntity() {
+        return persistentEntity;
+    }
+
+    /**
+     * @return The expression of boolean finders such as <code>findAllActiveBy</code>, which takes no arguments, or null
+     */
+    public Expression getBooleanExpression() {
+        return booleanExpression;
+    }
+
+    /**
+     * @return The value the boolean expression is compared with, false if the boolean property was prefixed with <code>Not</code>
+     */
+    public Boolean getBooleanValue() {
+        return booleanValue;
+    }
+
+    /**
+     * @return The expressions bound to the arguments of the method, in order
+     */
+    public List<Expression> getExpressions() {
+        return expressions;
+    }
+
+    /**
+     * @return Whether the method consists of a single expression without an operator
+     */
+    public boolean isSolo() {
+        return solo;
+    }
+
+    /**
+     * @return The total number of arguments the expressions require
+     */
+    public int getArgumentsRequired() {
+        int total = 0;
+        for (Expression expression : expressions) {
+            total += expression.getArgumentsRequired();
+        }
+        return total;
+    }
+
+    int getVersion() {
+        return version;
+    }
+
+    /**
+     * A single parsed expression of a finder plan
+     */
+    public static class Expression {
+        private final String queryParameter;
+        private final String propertyName;
+        private final int argumentsRequired;
+        private final Class<? extends MethodExpression> type;
+        private final Constructor constructor;
+
+        Expression(String queryParameter, MethodExpression prototype) {
+            this.queryParameter = queryParameter;
+            this.propertyName = prototype.getPropertyName();
+            this.argumentsRequired = prototype.getArgumentsRequired();
+            this.type = prototype.getClass();
+            Constructor c;
+            try {
+                c = type.getConstructor(Class.class, String.class);
+            } catch (NoSuchMethodException e) {
+                c = null;
+            }
+            this.constructor = c;
+        }
+
+        /**
+         * @return The part of the method name this expression was parsed from
+         */
+        public String getQueryParameter() {
+            return queryParameter;
+        }
+
+        public String getPropertyName() {
+            return propertyName;
+        }
+
+        public int getArgumentsRequired() {
+            return argumentsRequired;
+        }
+
+        public Class<? extends MethodExpression> getType() {
+            return type;
+        }
+
+        /**
+         * @return A new, unbound method expression or null if the expression type cannot be instantiated directly
+         */
+        MethodExpression newExpression(Class targetClass) {
+            if (constructor == null) {
+                return null;
+            }
+            try {
+                return (MethodExpression) constructor.newInstance(targetClass, propertyName);
+            } catch (Exception e) {
+                return null;
+            }
+        }
+    }
+}
@@ -20,6 +20,7 @@ import org.codehaus.groovy.runtime.HandleMetaClass
 import org.grails.datastore.mapping.core.Session
 import org.grails.datastore.mapping.engine.AssociationQueryExecutor
 import org.grails.datastore.mapping.engine.EntityPersister
+import org.grails.datastore.mapping.proxy.ProxyBatchLoader
 import org.grails.datastore.mapping.proxy.ProxyFactory
 import org.grails.datastore.mapping.reflect.ClassPropertyFetcher
 
@@ -101,6 +102,7 @@ class GroovyProxyFactory implements ProxyFactory {
             // call DefaultGroovyMethods.setMetaClass
             proxy.metaClass = metaClass
         }
+        ProxyBatchLoader.register(session, type, key)
         return proxy
     }
 
@@ -20,6 +20,7 @@ import groovy.lang.MetaClass;
 import java.io.Serializable;
 
 import org.grails.datastore.mapping.core.Session;
+import org.grails.datastore.mapping.proxy.ProxyBatchLoader;
 import org.springframework.dao.DataIntegrityViolationException;
 
 /**
@@ -63,7 +64,7 @@ public class ProxyInstanceMetaClass extends DelegatingMetaClass {
      */
     public Object getProxyTarget() {
         if (proxyTarget == null) {
-            proxyTarget = session.retrieve(getTheClass(), getKey());
+            proxyTarget = ProxyBatchLoader.retrieve(session, getTheClass(), getKey());
             if (proxyTarget == null) {
                 throw new DataIntegrityViolationException(
                         "Error loading association [" + getKey() + "] of type [" + getTheClass() +
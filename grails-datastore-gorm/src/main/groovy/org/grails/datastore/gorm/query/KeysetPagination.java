@@ -0,0 +1,155 @@
+/*
+ * Copyright 2016 original authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.grails.datastore.gorm.query;
+
+import org.grails.datastore.mapping.model.MappingContext;
+import org.grails.datastore.mapping.model.PersistentEntity;
+import org.grails.datastore.mapping.model.PersistentProperty;
+import org.grails.datastore.mapping.query.Query;
+import org.grails.datastore.mapping.query.Restrictions;
+import org.grails.datastore.mapping.reflect.EntityReflector;
+import org.springframework.core.convert.ConversionService;
+import org.springframework.util.ClassUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Support for keyset (seek) pagination. Rather than skipping a number of results, the query is restricted to the
+ * results that follow the last one seen in the order of the query, which databases can answer from an index no
+ * matter how deep the page is.
+ *
+ * <p>The sort keys are the ordered properties followed by the identifier as a tiebreaker, and the values of the last
+ * seen result are obtained either from an instance of the entity or from a map of property name to value. For keys
+ * k1..kn the restriction is (k1 &gt; v1) or (k1 = v1 and k2 &gt; v2) or ... with &lt; used for descending keys.</p>
+ *
+ * @author Graeme Rocher
+ * @since 6.0
+ */
+public class KeysetPagination {
+
+    private final List<Query.Order> orders;
+    private final Object[] values;
+
+    /**
+     * @param entity The entity that is queried
+     * @param orders The orders of the query, which are not modified
+     * @param after The last seen result, either an instance of the entity or a map of the values of the sort keys
+     */
+    public KeysetPagination(PersistentEntity entity, List<Query.Order> orders, Object after) {
+        this.orders = resolveOrders(entity, orders);
+        this.values = resolveValues(entity, this.orders, after);
+    }
+
+    /**
+     * @return The sort keys, which are the orders of the query followed by the identifier if it is not ordered by it
+     */
+    public List<Query.Order> getOrders() {
+        return orders;
+    }
+
+    /**
+     * @return The values of the sort keys of the last seen result
+     */
+    public Object[] getValues() {
+        return values;
+    }
+
+    /**
+     * @return The criterion that restricts a query to the results following the last seen result
+     */
+    public Query.Criterion toCriterion() {
+        Query.Disjunction disjunction = new Query.Disjunction();
+        for (int i = 0; i < orders.size(); i++) {
+            Query.Conjunction conjunction = new Query.Conjunction();
+            for (int j = 0; j < i; j++) {
+                conjunction.add(Restrictions.eq(orders.get(j).getProperty(), values[j]));
+            }
+            Query.Order order = orders.get(i);
+            conjunction.add(order.getDirection() == Query.Order.Direction.DESC ?
+                    Restrictions.lt(order.getProperty(), values[i]) :
+                    Restrictions.gt(order.getProperty(), values[i]));
+            disjunction.add(conjunction);
+        }
+        return disjunction;
+    }
+
+    private static List<Query.Order> resolveOrders(PersistentEntity entity, List<Query.Order> orders) {
+        PersistentProperty identity = entity.getIdentity();
+        if (identity == null) {
+            throw new IllegalArgumentException("Keyset pagination is not supported for entity [" + entity.getName() + "] without a single identifier");
+        }
+        List<Query.Order> keys = new ArrayList<Query.Order>(orders.size() + 1);
+        boolean orderedByIdentity = false;
+        for (Query.Order order : orders) {
+            String property = order.getProperty();
+            if (order.isIgnoreCase()) {
+                throw new IllegalArgumentException("Keyset pagination does not support case insensitive sorting by property [" + property + "]");
+            }
+            if (property.indexOf('.') > -1 || (!property.equals(identity.getName()) && entity.getPropertyByName(property) == null)) {
+                throw new IllegalArgumentException("Keyset pagination only supports sorting by properties of entity [" + entity.getName() + "], not [" + property + "]");
+            }
+            if (property.equals(identity.getName())) {
+                orderedByIdentity = true;
+            }
+            keys.add(order);
+        }
+        if (!orderedByIdentity) {
+            keys.add(Query.Order.asc(identity.getName()));
+        }
+        return keys;
+    }
+
+    private static Object[] resolveValues(PersistentEntity entity, List<Query.Order> keys, Object after) {
+        MappingContext mappingContext = entity.getMappingContext();
+        ConversionService conversionService = mappingContext.getConversionService();
+        EntityReflector reflector = null;
+        if (!(after instanceof Map)) {
+            if (!entity.isInstance(after)) {
+                throw new IllegalArgumentException("The last seen result must be an instance of [" + entity.getName() + "] or a map of the sort keys, not [" + after + "]");
+            }
+            reflector = mappingContext.getEntityReflector(entity);
+        }
+
+        String identityName = entity.getIdentity().getName();
+        Object[] values = new Object[keys.size()];
+        for (int i = 0; i < keys.size(); i++) {
+            String property = keys.get(i).getProperty();
+            Object value;
+            if (reflector == null) {
+                value = ((Map) after).get(property);
+            }
+            else if (property.equals(identityName)) {
+                value = reflector.getIdentifier(after);
+            }
+            else {
+                value = reflector.getProperty(after, property);
+            }
+            if (value == null) {
+                throw new IllegalArgumentException("The last seen result has no value for the sort key [" + property + "]");
+            }
+
+            PersistentProperty persistentProperty = property.equals(identityName) ? entity.getIdentity() : entity.getPropertyByName(property);
+            Class<?> type = ClassUtils.resolvePrimitiveIfNecessary(persistentProperty.getType());
+            if (!type.isInstance(value) && conversionService.canConvert(value.getClass(), type)) {
+                value = conversionService.convert(value, type);
+            }
+            values[i] = value;
+        }
+        return values;
+    }
+}
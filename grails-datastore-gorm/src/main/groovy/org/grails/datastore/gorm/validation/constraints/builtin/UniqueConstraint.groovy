@@ -1,10 +1,11 @@
 package org.grails.datastore.gorm.validation.constraints.builtin
 
 import groovy.transform.CompileStatic
+import grails.gorm.DetachedCriteria
 import org.grails.datastore.gorm.GormEnhancer
-import org.grails.datastore.gorm.GormStaticApi
 import org.grails.datastore.gorm.validation.constraints.AbstractConstraint
-import org.grails.datastore.mapping.query.api.BuildableCriteria
+import org.grails.datastore.mapping.dirty.checking.DirtyCheckable
+import org.grails.datastore.mapping.model.PersistentEntity
 import org.grails.datastore.mapping.reflect.EntityReflector
 import org.springframework.context.MessageSource
 import org.springframework.validation.Errors
@@ -12,6 +13,13 @@ import org.springframework.validation.Errors
 /**
  * A constraint that validates for the presence of an existing object (uniqueness)
  *
+ * The check is skipped for persistent instances that are {@link DirtyCheckable} and whose unique property and
+ * uniqueness group are unchanged, and otherwise only queries the identifiers of at most two matching instances.
+ * Within {@link #withBatchedChecks(java.util.Collection, groovy.lang.Closure)} the values of a unique property
+ * without a uniqueness group are checked for all the given instances with a single query. Since instances saved
+ * within the batch are not seen by that query, the values accepted for the instances of the batch are recorded, and
+ * an instance of the batch whose value was already accepted for another instance of the batch is rejected.
+ *
  * @author Graeme Rocher
  * @since 6.0
  *
@@ -21,6 +29,13 @@ class UniqueConstraint extends AbstractConstraint {
 
     public static final String NAME = "unique"
 
+    /**
+     * The maximum number of values checked by a single query in batched mode
+     */
+    public static final int BATCH_QUERY_SIZE = 500
+
+    private static final ThreadLocal<UniqueCheckBatch> CURRENT_BATCH = new ThreadLocal<UniqueCheckBatch>()
+
     protected List group = []
 
     UniqueConstraint(Class<?> constraintOwningClass, String constraintPropertyName, Object constraintParameter, MessageSource messageSource) {
@@ -35,6 +50,29 @@ class UniqueConstraint extends AbstractConstraint {
         }
     }
 
+    /**
+     * Executes the given closure, typically validating the given instances, checking the unique properties of the
+     * instances with one query per property instead of one query per instance
+     *
+     * @param instances The instances that are going to be validated
+     * @param callable The closure
+     * @return The result of the closure
+     */
+    static <T> T withBatchedChecks(Collection instances, Closure<T> callable) {
+        UniqueCheckBatch previous = CURRENT_BATCH.get()
+        CURRENT_BATCH.set(new UniqueCheckBatch(instances))
+        try {
+            return callable.call()
+        } finally {
+            if(previous != null) {
+                CURRENT_BATCH.set(previous)
+            }
+            else {
+                CURRENT_BATCH.remove()
+            }
+        }
+    }
+
     @Override
     protected Object validateParameter(Object constraintParameter) {
         return constraintParameter instanceof Boolean || constraintParameter instanceof Iterable || constraintParameter instanceof CharSequence
@@ -43,31 +81,58 @@ class UniqueConstraint extends AbstractConstraint {
     @Override
     protected void processValidate(Object target, Object propertyValue, Errors errors) {
 
-        GormStaticApi staticApi = GormEnhancer.findStaticApi(constraintOwningClass)
-        BuildableCriteria criteria = staticApi.createCriteria()
-        EntityReflector reflector = staticApi.getGormPersistentEntity().getReflector()
-
-        def existing = criteria.get {
-            eq(constraintPropertyName, propertyValue)
+        PersistentEntity entity = GormEnhancer.findStaticApi(constraintOwningClass).getGormPersistentEntity()
+        EntityReflector reflector = entity.getReflector()
+        def targetId = reflector.getIdentifier(target)
+        if(targetId != null && isUnchanged(target)) {
+            return
+        }
 
-            if(!group.isEmpty()) {
-                for(prop in group) {
-                    def propName = prop.toString()
-                    def value = reflector.getProperty(target, propName)
-                    if(value != null) {
-                        eq propertyName, value
-                    }
+        boolean exists
+        UniqueCheckBatch batch = CURRENT_BATCH.get()
+        if(batch != null && group.isEmpty() && batch.contains(target)) {
+            exists = getExistingIdentifiers(batch, entity, reflector, propertyValue).any { it != targetId } ||
+                    !batch.accept(constraintOwningClass.name + '.' + constraintPropertyName, propertyValue, target, reflector, constraintPropertyName)
+        }
+        else {
+            DetachedCriteria criteria = new DetachedCriteria(constraintOwningClass)
+            criteria.eq(constraintPropertyName, propertyValue)
+            for(prop in group) {
+                def propName = prop.toString()
+                def value = reflector.getProperty(target, propName)
+                if(value != null) {
+                    criteria.eq propName, value
                 }
             }
+            criteria = criteria.id()
+            // one of the matches may be the instance itself
+            exists = criteria.list(max: 2).any { it != targetId }
+        }
+
+        if(exists) {
+            def args = [constraintPropertyName, constraintOwningClass, propertyValue] as Object[]
+            rejectValue(target, errors, "unique", args, getDefaultMessage("default.not.unique.message"))
+        }
+    }
+
+    /**
+     * @param target The instance
+     * @return Whether the unique property and the properties of its uniqueness group are known to be unchanged
+     */
+    protected boolean isUnchanged(Object target) {
+        if(!(target instanceof DirtyCheckable)) {
+            return false
+        }
+        DirtyCheckable dirtyCheckable = (DirtyCheckable)target
+        if(dirtyCheckable.hasChanged(constraintPropertyName)) {
+            return false
         }
-        if(existing != null) {
-            def targetId = reflector.getIdentifier(target)
-            def existingId = reflector.getIdentifier(existing)
-            if(targetId != existingId) {
-                def args = [constraintPropertyName, constraintOwningClass, propertyValue] as Object[]
-                rejectValue(target, errors, "unique", args, getDefaultMessage("default.not.unique.message"))
+        for(prop in group) {
+            if(dirtyCheckable.hasChanged(prop.toString())) {
+                return false
             }
         }
+        return true
     }
 
     @Override
@@ -79,4 +144,85 @@ class UniqueConstraint extends AbstractConstraint {
     String getName() {
         return NAME
     }
+
+    private List<Object> getExistingIdentifiers(UniqueCheckBatch batch, PersistentEntity entity, EntityReflector reflector, Object value) {
+        String key = constraintOwningClass.name + '.' + constraintPropertyName
+        Map<Object, List<Object>> identifiersByValue = batch.identifiersByProperty.get(key)
+        if(identifiersByValue == null) {
+            identifiersByValue = queryExistingIdentifiers(batch, entity, reflector)
+            batch.identifiersByProperty.put(key, identifiersByValue)
+        }
+        List<Object> identifiers = identifiersByValue.get(value)
+        return identifiers != null ? identifiers : Collections.emptyList()
+    }
+
+    private Map<Object, List<Object>> queryExistingIdentifiers(UniqueCheckBatch batch, PersistentEntity entity, EntityReflector reflector) {
+        Set<Object> values = new LinkedHashSet<Object>()
+        for(instance in batch.instances) {
+            if(constraintOwningClass.isInstance(instance)) {
+                def value = reflector.getProperty(instance, constraintPropertyName)
+                if(value != null && !(reflector.getIdentifier(instance) != null && isUnchanged(instance))) {
+                    values.add(value)
+                }
+            }
+        }
+
+        Map<Object, List<Object>> identifiersByValue = [:]
+        List<Object> valueList = new ArrayList<Object>(values)
+        for(int i = 0; i < valueList.size(); i += BATCH_QUERY_SIZE) {
+            DetachedCriteria criteria = new DetachedCriteria(constraintOwningClass)
+            criteria.inList(constraintPropertyName, valueList.subList(i, Math.min(i + BATCH_QUERY_SIZE, valueList.size())))
+            criteria = criteria.property(entity.identity.name).property(constraintPropertyName)
+            for(row in criteria.list()) {
+                // depending on the datastore each row is either an array or a list of the projected values
+                List columns = row instanceof Object[] ? Arrays.asList((Object[])row) : (List)row
+                List<Object> identifiers = identifiersByValue.get(columns[1])
+                if(identifiers == null) {
+                    identifiers = new ArrayList<Object>(1)
+                    identifiersByValue.put(columns[1], identifiers)
+                }
+                identifiers.add(columns[0])
+            }
+        }
+        return identifiersByValue
+    }
+
+    /**
+     * The instances validated within {@link UniqueConstraint#withBatchedChecks(java.util.Collection, groovy.lang.Closure)},
+     * the identifiers of the existing instances by the values of their unique properties and the instances of the
+     * batch whose values were accepted
+     */
+    private static class UniqueCheckBatch {
+        final Set<Object> instances = Collections.newSetFromMap(new IdentityHashMap<Object, Boolean>())
+        final Map<String, Map<Object, List<Object>>> identifiersByProperty = [:]
+        final Map<String, Map<Object, Object>> acceptedByProperty = [:]
+
+        UniqueCheckBatch(Collection instances) {
+            this.instances.addAll(instances)
+        }
+
+        boolean contains(Object instance) {
+            instances.contains(instance)
+        }
+
+        /**
+         * Records the value of an instance of the batch as accepted, unless it was accepted for another instance of the
+         * batch that still holds it
+         *
+         * @return Whether the value is accepted for the instance
+         */
+        boolean accept(String key, Object value, Object instance, EntityReflector reflector, String propertyName) {
+            Map<Object, Object> acceptedByValue = acceptedByProperty.get(key)
+            if(acceptedByValue == null) {
+                acceptedByValue = [:]
+                acceptedByProperty.put(key, acceptedByValue)
+            }
+            Object accepted = acceptedByValue.get(value)
+            if(accepted != null && !accepted.is(instance) && reflector.getProperty(accepted, propertyName) == value) {
+                return false
+            }
+            acceptedByValue.put(value, instance)
+            return true
+        }
+    }
 }
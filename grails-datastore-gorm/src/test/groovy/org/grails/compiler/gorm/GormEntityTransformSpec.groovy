@@ -4,7 +4,12 @@ import org.codehaus.groovy.ast.ClassNode
 import org.grails.datastore.gorm.GormEntity
 import org.grails.datastore.gorm.GormValidateable
 import org.grails.datastore.mapping.dirty.checking.DirtyCheckable
+import org.grails.datastore.mapping.reflect.GeneratedFieldAccess
+import org.grails.datastore.mapping.reflect.GeneratedPropertyMetadata
 import spock.lang.Specification
+
+import java.beans.Introspector
+import java.beans.PropertyDescriptor
 /*
  * Copyright 2014 original authors
  *
@@ -68,6 +73,108 @@ class Foo {
         thrown MissingPropertyException
     }
 
+    void "Test field accessors are generated for declared fields"() {
+        given:
+        def gcl = new GroovyClassLoader()
+        gcl.parseClass('''
+import grails.gorm.annotation.Entity
+
+@Entity
+class Animal {
+    String name
+    int legs
+}
+
+@Entity
+class Bird extends Animal {
+    boolean flies
+    double wingSpan
+}
+''')
+        def animalClass = gcl.loadClass('Animal')
+        def bird = gcl.loadClass('Bird').newInstance()
+        List<String> animalFields = animalClass.getField(GeneratedFieldAccess.FIELD_NAMES).get(null) as List
+        int animalBase = animalClass.getField(GeneratedFieldAccess.FIELD_INDEX_BASE).getInt(null)
+        List<String> birdFields = bird.getClass().getField(GeneratedFieldAccess.FIELD_NAMES).get(null) as List
+        int birdBase = bird.getClass().getField(GeneratedFieldAccess.FIELD_INDEX_BASE).getInt(null)
+        int nameIndex = animalBase + animalFields.indexOf('name')
+        int legsIndex = animalBase + animalFields.indexOf('legs')
+        int fliesIndex = birdBase + birdFields.indexOf('flies')
+        int wingSpanIndex = birdBase + birdFields.indexOf('wingSpan')
+
+        when:"Fields of the class and its parent are written through the accessors"
+        bird.trackChanges()
+        bird.$writeField(nameIndex, "Robin")
+        bird.$writeField(legsIndex, 2)
+        bird.$writeField(fliesIndex, true)
+        bird.$writeField(wingSpanIndex, 0.3d)
+
+        then:"They can be read back"
+        bird instanceof GeneratedFieldAccess
+        animalFields.containsAll(['id', 'version', 'name', 'legs'])
+        birdFields == ['flies', 'wingSpan']
+        bird.name == "Robin"
+        bird.$readField(nameIndex) == "Robin"
+        bird.$readField(legsIndex) == 2
+        bird.$readField(fliesIndex) == true
+        bird.$readField(wingSpanIndex) == 0.3d
+
+        and:"Writing a field does not mark it dirty"
+        !bird.hasChanged()
+
+        when:"An index that belongs to no field is used"
+        bird.$readField(birdBase + birdFields.size())
+
+        then:
+        thrown IllegalArgumentException
+    }
+
+    void "Test property metadata matches the bean introspection of the entity"() {
+        given:
+        def gcl = new GroovyClassLoader()
+        gcl.parseClass('''
+import grails.gorm.annotation.Entity
+
+@Entity
+class Vehicle {
+    String make
+    boolean electric
+    final String code = "V"
+    transient String notes
+
+    private Integer wheels
+    Integer getWheels() { wheels }
+    void setWheels(Integer wheels) { this.wheels = wheels }
+
+    String getDescription() { "$make" }
+}
+
+@Entity
+class Van extends Vehicle {
+    Double capacity
+}
+''')
+        def vanClass = gcl.loadClass('Van')
+
+        when:"The metadata of the entity is obtained"
+        def metadata = GeneratedPropertyMetadata.forClass(vanClass)
+        def introspected = Introspector.getBeanInfo(vanClass).propertyDescriptors.findAll { PropertyDescriptor pd ->
+            pd.readMethod != null && pd.writeMethod != null && pd.name != 'metaClass'
+        }
+
+        then:"It lists the readable and writable properties of the class hierarchy in the same order"
+        metadata.available
+        metadata.propertyDescriptors*.name == introspected*.name
+        metadata.propertyDescriptors*.propertyType == introspected*.propertyType
+        metadata.getPropertyDescriptor('electric').readMethod.name == 'isElectric'
+        metadata.getPropertyDescriptor('wheels') != null
+        metadata.getPropertyDescriptor('description') == null
+        metadata.getPropertyDescriptor('code') == null
+
+        and:"Classes without metadata fall back to introspection"
+        !GeneratedPropertyMetadata.forClass(String).available
+    }
+
 }
 
 @Entity
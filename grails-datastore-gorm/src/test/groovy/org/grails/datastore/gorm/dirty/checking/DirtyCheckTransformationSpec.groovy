@@ -2,6 +2,7 @@ package org.grails.datastore.gorm.dirty.checking
 
 import grails.gorm.dirty.checking.DirtyCheck
 import org.grails.datastore.mapping.dirty.checking.DirtyCheckable
+import org.grails.datastore.mapping.dirty.checking.DirtyPropertyOrdinals
 import spock.lang.Ignore
 import spock.lang.Specification
 import spock.lang.Issue
@@ -213,6 +214,87 @@ class FundProduct {
             b.hasChanged()
             b.hasChanged("age")
     }
+
+    void "Test properties are assigned ordinals across the class hierarchy"() {
+        when:"The ordinals of a subclass are obtained"
+            def ordinals = DirtyPropertyOrdinals.forClass(KidsBook)
+
+        then:"The properties of the super class come first"
+            ordinals.size() == 5
+            ordinals.getOrdinal("title") == 0
+            ordinals.getOrdinal("releaseDate") == 1
+            ordinals.getOrdinal("author") == 3
+            ordinals.getOrdinal("age") == 4
+            ordinals.getOrdinal("notAProperty") == -1
+    }
+
+    void "Test changes to inherited and declared properties are tracked by ordinal"() {
+        given:
+            def b = new KidsBook(title: "The Hobbit", age: 8)
+            b.author = "Tolkien"
+            b.trackChanges()
+
+        when:"Properties of the class and its super class are changed"
+            b.age = 10
+            b.author = "J.R.R. Tolkien"
+            b.title = "The Hobbit, or There and Back Again"
+            b.title = "Changed again"
+
+        then:"The changes and the first original values are tracked"
+            b.hasChanged()
+            b.hasChanged("age")
+            b.hasChanged("author")
+            !b.hasChanged("releaseDate")
+            b.listDirtyPropertyNames() == ['title', 'author', 'age']
+            b.getOriginalValue("title") == "The Hobbit"
+            b.getOriginalValue("author") == "Tolkien"
+            b.getOriginalValue("age") == 8
+            b.getOriginalValue("releaseDate") == null
+
+        when:"A property without an ordinal is marked dirty by name"
+            b.markDirty("other", "new", "old")
+
+        then:"It is tracked by name"
+            b.hasChanged("other")
+            b.getOriginalValue("other") == "old"
+            b.listDirtyPropertyNames() == ['title', 'author', 'age', 'other']
+
+        when:"Changes are tracked again"
+            b.trackChanges()
+
+        then:"There are no changes"
+            !b.hasChanged()
+            b.listDirtyPropertyNames().isEmpty()
+            b.getOriginalValue("title") == null
+    }
+
+    void "Test whether changes are tracked by property"() {
+        given:
+            def b = new Book(title: "The Stand")
+
+        expect:"An instance that does not track changes does not track them by property"
+            !b.tracksPropertyChanges()
+
+        when:"Changes are tracked and a property changes"
+            b.trackChanges()
+            b.title = "It"
+
+        then:"They are tracked by property"
+            b.tracksPropertyChanges()
+
+        when:"The instance is marked dirty as a whole"
+            b.markDirty()
+
+        then:"They are no longer tracked by property"
+            !b.tracksPropertyChanges()
+            b.listDirtyPropertyNames() == ['title']
+
+        when:"Changes are tracked again"
+            b.trackChanges()
+
+        then:"They are tracked by property"
+            b.tracksPropertyChanges()
+    }
 }
 
 @DirtyCheck
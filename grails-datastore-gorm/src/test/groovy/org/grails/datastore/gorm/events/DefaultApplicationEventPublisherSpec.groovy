@@ -0,0 +1,78 @@
+package org.grails.datastore.gorm.events
+
+import org.springframework.context.ApplicationEvent
+import org.springframework.context.ApplicationListener
+import org.springframework.context.event.SmartApplicationListener
+
+import spock.lang.Specification
+
+class DefaultApplicationEventPublisherSpec extends Specification {
+
+    DefaultApplicationEventPublisher publisher = new DefaultApplicationEventPublisher()
+
+    def "events are only dispatched to listeners supporting the event type"() {
+        given:
+        def received = []
+        publisher.addApplicationListener(new ApplicationListener<FirstEvent>() {
+            void onApplicationEvent(FirstEvent event) { received << "first" }
+        })
+        publisher.addApplicationListener(new ApplicationListener<SecondEvent>() {
+            void onApplicationEvent(SecondEvent event) { received << "second" }
+        })
+
+        when:
+        publisher.publishEvent(new FirstEvent(this))
+        publisher.publishEvent(new FirstEvent(this))
+
+        then:
+        received == ["first", "first"]
+        publisher.hasListeners(SecondEvent, getClass())
+    }
+
+    def "listeners added after an event was published are picked up"() {
+        given:
+        def received = []
+        publisher.publishEvent(new FirstEvent(this))
+
+        expect:
+        !publisher.hasListeners(FirstEvent, getClass())
+
+        when:
+        publisher.addApplicationListener(new ApplicationListener<FirstEvent>() {
+            void onApplicationEvent(FirstEvent event) { received << event }
+        })
+        publisher.publishEvent(new FirstEvent(this))
+
+        then:
+        received.size() == 1
+        publisher.hasListeners(FirstEvent, getClass())
+    }
+
+    def "smart listeners are filtered by source type"() {
+        given:
+        def received = []
+        publisher.addApplicationListener(new SmartApplicationListener() {
+            boolean supportsEventType(Class<? extends ApplicationEvent> eventType) { FirstEvent.isAssignableFrom(eventType) }
+            boolean supportsSourceType(Class<?> sourceType) { sourceType == String }
+            int getOrder() { 0 }
+            void onApplicationEvent(ApplicationEvent event) { received << event.source }
+        })
+
+        when:
+        publisher.publishEvent(new FirstEvent("source"))
+        publisher.publishEvent(new FirstEvent(1))
+
+        then:
+        received == ["source"]
+        !publisher.hasListeners(FirstEvent, Integer)
+        !publisher.hasListeners(SecondEvent, String)
+    }
+
+    static class FirstEvent extends ApplicationEvent {
+        FirstEvent(Object source) { super(source) }
+    }
+
+    static class SecondEvent extends ApplicationEvent {
+        SecondEvent(Object source) { super(source) }
+    }
+}
@@ -16,7 +16,10 @@ package org.grails.datastore.mapping.simple;
 
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
 
+import org.grails.datastore.mapping.cache.TPCacheAdapterRepository;
 import org.grails.datastore.mapping.core.AbstractDatastore;
 import org.grails.datastore.mapping.core.Session;
 import org.grails.datastore.mapping.keyvalue.mapping.config.KeyValueMappingContext;
@@ -35,6 +38,8 @@ import org.springframework.core.env.PropertyResolver;
 public class SimpleMapDatastore extends AbstractDatastore {
     private Map<String, Map> datastore = new ConcurrentHashMap<String, Map>();
     private Map indices = new ConcurrentHashMap();
+    private final ConcurrentMap<String, AtomicLong> identifierSequences = new ConcurrentHashMap<String, AtomicLong>();
+    private int identifierBlockSize = 1;
 
     /**
      * Creates a map based datastore backing onto the specified map
@@ -54,7 +59,18 @@ public class SimpleMapDatastore extends AbstractDatastore {
      * @param mappingContext The mapping context
      */
     public SimpleMapDatastore(MappingContext mappingContext, ConfigurableApplicationContext ctx) {
-        super(mappingContext, ctx.getEnvironment(), ctx);
+        this(mappingContext, ctx, null);
+    }
+
+    /**
+     * Creates a map based datastore for the specified mapping context that caches entries in third party caches
+     *
+     * @param mappingContext The mapping context
+     * @param ctx the application context
+     * @param cacheAdapterRepository The repository of the third party cache adapters of the entities, can be null
+     */
+    public SimpleMapDatastore(MappingContext mappingContext, ConfigurableApplicationContext ctx, TPCacheAdapterRepository cacheAdapterRepository) {
+        super(mappingContext, ctx.getEnvironment(), ctx, cacheAdapterRepository);
         initializeConverters(getMappingContext());
     }
 
@@ -66,10 +82,57 @@ public class SimpleMapDatastore extends AbstractDatastore {
         this(new KeyValueMappingContext(""), ctx);
     }
 
+    /**
+     * @return The repository of the third party cache adapters of the entities or null if entries are not cached
+     */
+    public TPCacheAdapterRepository getCacheAdapterRepository() {
+        return cacheAdapterRepository;
+    }
+
     public Map getIndices() {
         return indices;
     }
 
+    /**
+     * @return The number of identifiers a session reserves at once for each entity family
+     */
+    public int getIdentifierBlockSize() {
+        return identifierBlockSize;
+    }
+
+    /**
+     * Sets the number of identifiers a session reserves at once for each entity family. The default of 1 hands out
+     * consecutive identifiers, larger blocks avoid contention on the shared sequence when inserting from many threads
+     * at the cost of gaps in the identifiers.
+     *
+     * @param identifierBlockSize The block size
+     */
+    public void setIdentifierBlockSize(int identifierBlockSize) {
+        if (identifierBlockSize < 1) {
+            throw new IllegalArgumentException("Identifier block size must be at least 1");
+        }
+        this.identifierBlockSize = identifierBlockSize;
+    }
+
+    /**
+     * Atomically reserves a block of identifiers for the given family. The sequence is shared by all sessions of this datastore.
+     *
+     * @param family The family
+     * @param count The number of identifiers to reserve
+     * @return The first identifier of the reserved block
+     */
+    public long allocateIdentifiers(String family, int count) {
+        AtomicLong sequence = identifierSequences.get(family);
+        if (sequence == null) {
+            sequence = new AtomicLong();
+            AtomicLong existing = identifierSequences.putIfAbsent(family, sequence);
+            if (existing != null) {
+                sequence = existing;
+            }
+        }
+        return sequence.getAndAdd(count) + 1;
+    }
+
     @Override
     protected Session createSession(PropertyResolver connectionDetails) {
         return new SimpleMapSession(this, getMappingContext(), getApplicationEventPublisher());
@@ -82,5 +145,6 @@ public class SimpleMapDatastore extends AbstractDatastore {
     public void clearData() {
         datastore.clear();
         indices.clear();
+        identifierSequences.clear();
     }
 }
@@ -37,7 +37,7 @@ public class SimpleMapSession extends AbstractSession<Map> {
 
     public SimpleMapSession(SimpleMapDatastore datastore, MappingContext mappingContext,
                ApplicationEventPublisher publisher) {
-        super(datastore, mappingContext, publisher);
+        super(datastore, mappingContext, publisher, datastore.getCacheAdapterRepository());
         this.datastore = datastore.getBackingMap();
     }
 
@@ -28,6 +28,7 @@ import org.grails.datastore.mapping.model.PersistentEntity
 import org.grails.datastore.mapping.model.PersistentProperty
 import org.grails.datastore.mapping.model.types.Association
 import org.grails.datastore.mapping.model.types.ManyToMany
+import org.grails.datastore.mapping.model.types.ToOne
 import org.grails.datastore.mapping.query.Query
 import org.grails.datastore.mapping.simple.SimpleMapDatastore
 import org.grails.datastore.mapping.simple.query.SimpleMapQuery
@@ -44,23 +45,18 @@ class SimpleMapEntityPersister extends AbstractKeyValueEntityPersister<Map, Obje
 
     Map<String, Map> datastore
     Map indices
-    def lastKey
     String family
+    private SimpleMapDatastore simpleMapDatastore
+    private long nextKey = 1
+    private long lastReservedKey = 0
 
     SimpleMapEntityPersister(MappingContext context, PersistentEntity entity, Session session,
                              SimpleMapDatastore datastore, ApplicationEventPublisher publisher) {
-        super(context, entity, session, publisher)
+        super(context, entity, session, publisher, datastore.cacheAdapterRepository)
         this.datastore = datastore.backingMap
         this.indices = datastore.indices
+        this.simpleMapDatastore = datastore
         family = getFamily(entity, entity.getMapping())
-        final identity = entity.getIdentity()
-        def idType = identity?.type
-        if (idType == Integer) {
-            lastKey = 0
-        }
-        else {
-            lastKey = 0L
-        }
         if (this.datastore[family] == null) this.datastore[family] = [:]
     }
 
@@ -78,7 +74,7 @@ class SimpleMapEntityPersister extends AbstractKeyValueEntityPersister<Map, Obje
     }
 
     protected void deleteEntry(String family, key, entry) {
-        datastore[family].remove(key)
+        deindexEntry(key, datastore[family].remove(key))
         def parent = persistentEntity.parentEntity
         while (parent != null) {
             def f = getFamily(parent, parent.mapping)
@@ -87,37 +83,48 @@ class SimpleMapEntityPersister extends AbstractKeyValueEntityPersister<Map, Obje
         }
     }
 
+    /**
+     * Removes the values of a deleted entry from the property indices so that they do not return stale keys
+     */
+    protected void deindexEntry(key, Map nativeEntry) {
+        if (nativeEntry == null) {
+            return
+        }
+
+        for (PersistentProperty property in persistentEntity.persistentProperties) {
+            if ((property instanceof Association) && !(property instanceof ToOne)) {
+                continue
+            }
+            def value = nativeEntry[getPropertyKey(property)]
+            if (value != null) {
+                getPropertyIndexer(property).deindex(value, key)
+            }
+        }
+        if (persistentEntity.identity != null) {
+            getPropertyIndexer(persistentEntity.identity).deindex(key, key)
+        }
+    }
+
     @Override
     protected boolean isPropertyIndexed(Property mappedProperty) {
         return true // index all
     }
 
     PropertyValueIndexer getPropertyIndexer(PersistentProperty property) {
+        final String indexRoot = getIndexRoot(property)
+        final SimpleMapPropertyIndex propertyIndex = getPropertyIndex(indexRoot)
         return new PropertyValueIndexer() {
 
             String getIndexRoot() {
-                return "~${property.owner.rootEntity.name}:${property.name}"
+                return indexRoot
             }
 
             void deindex(value, primaryKey) {
-                def index = getIndexName(value)
-                def indexed = indices[index]
-                if (indexed) {
-                    indexed.remove(primaryKey)
-                }
+                propertyIndex.deindex(getValueKey(value), value, primaryKey)
             }
 
             void index(value, primaryKey) {
-
-                def index = getIndexName(value)
-                def indexed = indices[index]
-                if (indexed == null) {
-                    indexed = []
-                    indices[index] = indexed
-                }
-                if (!indexed.contains(primaryKey)) {
-                    indexed << primaryKey
-                }
+                propertyIndex.index(getValueKey(value), value, primaryKey)
             }
 
             List query(value) {
@@ -125,9 +132,7 @@ class SimpleMapEntityPersister extends AbstractKeyValueEntityPersister<Map, Obje
             }
 
             List query(value, int offset, int max) {
-                def index = getIndexName(value)
-
-                def indexed = indices[index]
+                def indexed = propertyIndex.query(getValueKey(value))
                 if (!indexed) {
                     return Collections.emptyList()
                 }
@@ -135,9 +140,45 @@ class SimpleMapEntityPersister extends AbstractKeyValueEntityPersister<Map, Obje
             }
 
             String getIndexName(value) {
-                return "${indexRoot}:$value"
+                return "${indexRoot}:${getValueKey(value)}"
+            }
+
+            private String getValueKey(value) {
+                return "$value".toString()
+            }
+        }
+    }
+
+    /**
+     * Obtains the shared index for the given property, used for range and pattern queries
+     *
+     * @param property The property
+     * @return The index
+     */
+    SimpleMapPropertyIndex getPropertyIndex(PersistentProperty property) {
+        return getPropertyIndex(getIndexRoot(property))
+    }
+
+    protected String getIndexRoot(PersistentProperty property) {
+        return "~${property.owner.rootEntity.name}:${property.name}"
+    }
+
+    /**
+     * Obtains the shared index for the given index root, creating it if necessary
+     *
+     * @param indexRoot The index root
+     * @return The index
+     */
+    protected SimpleMapPropertyIndex getPropertyIndex(String indexRoot) {
+        def index = indices[indexRoot]
+        if (index == null) {
+            index = new SimpleMapPropertyIndex()
+            def existing = indices.putIfAbsent(indexRoot, index)
+            if (existing != null) {
+                index = existing
             }
         }
+        return (SimpleMapPropertyIndex)index
     }
 
     AssociationIndexer getAssociationIndexer(Map nativeEntry, Association association) {
@@ -257,21 +298,36 @@ class SimpleMapEntityPersister extends AbstractKeyValueEntityPersister<Map, Obje
         return null
     }
 
+    @Override
+    protected Map<Serializable, Map> retrieveEntries(PersistentEntity persistentEntity, String family, List<Serializable> keys) {
+        Map familyMap = datastore[family]
+        Map<Serializable, Map> entries = [:]
+        for (key in keys) {
+            Map entry = familyMap.get(key)
+            if (entry != null) {
+                // copies for the same reason as retrieveEntry
+                entries.put(key, new LinkedHashMap<>(entry))
+            }
+        }
+        return entries
+    }
+
     protected generateIdentifier(PersistentEntity persistentEntity, Map id) {
         final isRoot = persistentEntity.root
         final type = isRoot ? persistentEntity.identity.type : persistentEntity.rootEntity.identity.type
         if ((String.isAssignableFrom(type)) || (Number.isAssignableFrom(type))) {
-            def key
+            long key
             if (isRoot) {
-                key = ++lastKey
-
+                key = nextIdentifier()
             }
             else {
                 def root = persistentEntity.rootEntity
-                session.getPersister(root).lastKey++
-                key = session.getPersister(root).lastKey
+                key = ((SimpleMapEntityPersister)session.getPersister(root)).nextIdentifier()
+            }
+            if (type == String) {
+                return String.valueOf(key)
             }
-            return type == String ? key.toString() : key
+            return Integer.isAssignableFrom(type) ? (int)key : key
         }
         else if (UUID.isAssignableFrom(type)) {
           return UUID.randomUUID()
@@ -285,6 +341,21 @@ class SimpleMapEntityPersister extends AbstractKeyValueEntityPersister<Map, Obje
         }
     }
 
+    /**
+     * Obtains the next identifier for the family of this persister. Identifiers are reserved in blocks from the
+     * sequence shared by all sessions of the datastore, so identifiers are never handed out twice.
+     *
+     * @return The next identifier
+     */
+    protected long nextIdentifier() {
+        if (nextKey > lastReservedKey) {
+            int blockSize = simpleMapDatastore.identifierBlockSize
+            nextKey = simpleMapDatastore.allocateIdentifiers(family, blockSize)
+            lastReservedKey = nextKey + blockSize - 1
+        }
+        return nextKey++
+    }
+
     protected storeEntry(PersistentEntity persistentEntity, EntityAccess entityAccess, storeId, Map nativeEntry) {
         if (!persistentEntity.root) {
             nativeEntry.discriminator = persistentEntity.discriminator
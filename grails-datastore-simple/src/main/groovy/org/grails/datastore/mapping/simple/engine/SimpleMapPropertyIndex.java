@@ -0,0 +1,186 @@
+/* Copyright (C) 2016 original authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.grails.datastore.mapping.simple.engine;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.regex.Pattern;
+
+import org.codehaus.groovy.runtime.typehandling.DefaultTypeTransformation;
+
+/**
+ * An in-memory secondary index for a single property of an entity stored in the {@link org.grails.datastore.mapping.simple.SimpleMapDatastore}.
+ *
+ * Keys are held in hash sets keyed by the string form of the value for equality and pattern lookups, and in an ordered map keyed
+ * by the value itself for range lookups. If the indexed values turn out not to be mutually comparable the ordered map is discarded
+ * and {@link #queryRange(Object, boolean, Object, boolean)} returns null so that the caller can fall back to a scan.
+ *
+ * @author Graeme Rocher
+ * @since 6.0
+ */
+@SuppressWarnings({"rawtypes", "unchecked"})
+public class SimpleMapPropertyIndex {
+
+    private static final Comparator VALUE_COMPARATOR = new Comparator() {
+        public int compare(Object o1, Object o2) {
+            return DefaultTypeTransformation.compareTo(o1, o2);
+        }
+    };
+
+    private final Map<String, Set<Object>> keysByValue = new HashMap<String, Set<Object>>();
+    private NavigableMap<Object, Set<Object>> keysByOrderedValue = new TreeMap<Object, Set<Object>>(VALUE_COMPARATOR);
+
+    /**
+     * Indexes the given key against the value
+     *
+     * @param valueKey The string form of the value
+     * @param value The value
+     * @param primaryKey The key
+     */
+    public synchronized void index(String valueKey, Object value, Object primaryKey) {
+        Set<Object> keys = keysByValue.get(valueKey);
+        if (keys == null) {
+            keys = new LinkedHashSet<Object>();
+            keysByValue.put(valueKey, keys);
+        }
+        keys.add(primaryKey);
+
+        if (keysByOrderedValue != null && value != null) {
+            if (!(value instanceof Comparable)) {
+                keysByOrderedValue = null;
+                return;
+            }
+            try {
+                Set<Object> orderedKeys = keysByOrderedValue.get(value);
+                if (orderedKeys == null) {
+                    orderedKeys = new LinkedHashSet<Object>();
+                    keysByOrderedValue.put(value, orderedKeys);
+                }
+                orderedKeys.add(primaryKey);
+            } catch (RuntimeException e) {
+                // values of incompatible types, range queries will have to scan
+                keysByOrderedValue = null;
+            }
+        }
+    }
+
+    /**
+     * Removes the given key from the index of the value
+     *
+     * @param valueKey The string form of the value
+     * @param value The value
+     * @param primaryKey The key
+     */
+    public synchronized void deindex(String valueKey, Object value, Object primaryKey) {
+        Set<Object> keys = keysByValue.get(valueKey);
+        if (keys != null) {
+            keys.remove(primaryKey);
+            if (keys.isEmpty()) {
+                keysByValue.remove(valueKey);
+            }
+        }
+
+        if (keysByOrderedValue != null && value instanceof Comparable) {
+            try {
+                Set<Object> orderedKeys = keysByOrderedValue.get(value);
+                if (orderedKeys != null) {
+                    orderedKeys.remove(primaryKey);
+                    if (orderedKeys.isEmpty()) {
+                        keysByOrderedValue.remove(value);
+                    }
+                }
+            } catch (RuntimeException e) {
+                keysByOrderedValue = null;
+            }
+        }
+    }
+
+    /**
+     * @param valueKey The string form of the value
+     * @return The keys indexed against the value, in insertion order
+     */
+    public synchronized List<Object> query(String valueKey) {
+        Set<Object> keys = keysByValue.get(valueKey);
+        if (keys == null) {
+            return Collections.emptyList();
+        }
+        return new ArrayList<Object>(keys);
+    }
+
+    /**
+     * @param pattern The pattern to match the string form of the values against
+     * @return The keys of all values that match the pattern
+     */
+    public synchronized List<Object> queryMatching(Pattern pattern) {
+        Set<Object> result = new LinkedHashSet<Object>();
+        for (Map.Entry<String, Set<Object>> entry : keysByValue.entrySet()) {
+            if (pattern.matcher(entry.getKey()).matches()) {
+                result.addAll(entry.getValue());
+            }
+        }
+        return new ArrayList<Object>(result);
+    }
+
+    /**
+     * Queries the ordered index for a range of values. A null bound leaves that end of the range open.
+     *
+     * @param from The lower bound or null
+     * @param fromInclusive Whether the lower bound is inclusive
+     * @param to The upper bound or null
+     * @param toInclusive Whether the upper bound is inclusive
+     * @return The keys of all values within the range in value order or null if the index cannot answer range queries
+     */
+    public synchronized List<Object> queryRange(Object from, boolean fromInclusive, Object to, boolean toInclusive) {
+        if (keysByOrderedValue == null) {
+            return null;
+        }
+        try {
+            NavigableMap<Object, Set<Object>> range = keysByOrderedValue;
+            if (from != null && to != null) {
+                if (VALUE_COMPARATOR.compare(from, to) > 0) {
+                    return Collections.emptyList();
+                }
+                range = range.subMap(from, fromInclusive, to, toInclusive);
+            }
+            else if (from != null) {
+                range = range.tailMap(from, fromInclusive);
+            }
+            else if (to != null) {
+                range = range.headMap(to, toInclusive);
+            }
+            return flatten(range.values());
+        } catch (RuntimeException e) {
+            // the bounds are not comparable with the indexed values
+            return null;
+        }
+    }
+
+    private List<Object> flatten(Collection<Set<Object>> keySets) {
+        List<Object> result = new ArrayList<Object>();
+        for (Set<Object> keys : keySets) {
+            result.addAll(keys);
+        }
+        return result;
+    }
+}
@@ -25,7 +25,6 @@ import org.grails.datastore.mapping.model.types.Custom
 import org.grails.datastore.mapping.model.types.ToOne
 import org.grails.datastore.mapping.query.AssociationQuery
 import org.grails.datastore.mapping.query.Query
-import org.grails.datastore.mapping.query.Restrictions
 import org.grails.datastore.mapping.query.api.QueryableCriteria
 import org.grails.datastore.mapping.query.criteria.FunctionCallingCriterion
 import org.grails.datastore.mapping.simple.SimpleMapSession
@@ -468,21 +467,8 @@ class SimpleMapQuery extends Query {
             return negateResults(indexed)
         },
         (Query.Like): { Query.Like like, PersistentProperty property ->
-            def indexer = entityPersister.getPropertyIndexer(property)
-
-            def root = indexer.indexRoot
             def regexFormat = like.pattern.replaceAll('%', '.*?')
-            def pattern = "${root}:${regexFormat}"
-            def matchingIndices = entityPersister.indices.findAll { key, value ->
-                key ==~ pattern
-            }
-
-            Set result = []
-            for (indexed in matchingIndices) {
-                result.addAll(indexed.value)
-            }
-
-            return result.toList()
+            return entityPersister.getPropertyIndex(property).queryMatching(Pattern.compile(regexFormat))
         },
         (Query.ILike): { Query.ILike like, PersistentProperty property ->
             def regexFormat = like.pattern.replaceAll('%', '.*?')
@@ -493,32 +479,29 @@ class SimpleMapQuery extends Query {
             return executeLikeWithRegex(entityPersister, property, regexFormat)
         },
         (Query.In): { Query.In inList, PersistentProperty property ->
-            def disjunction = new Query.Disjunction()
+            def equalsHandler = handlers[Query.Equals]
+            Set result = new LinkedHashSet()
             for (value in inList.values) {
-                disjunction.add(Restrictions.eq(inList.name, value))
+                result.addAll(equalsHandler.call(new Query.Equals(inList.name, value), property))
             }
-
-            executeSubQueryInternal(disjunction, disjunction.criteria)
+            return result.toList()
         },
         (Query.Between): { Query.Between between, PersistentProperty property, Closure function = null, boolean onValue = false ->
             def from = between.from
             def to = between.to
             def name = between.property
-            def allEntities = datastore[family]
 
-            if (function != null) {
-                allEntities.findAll { function(resolveIfEmbedded(name, it.value)) >= from && function(resolveIfEmbedded(name, it.value)) <= to }.collect { it.key }
-            }
-            else {
-                allEntities.findAll { resolveIfEmbedded(name, it.value) >= from && resolveIfEmbedded(name, it.value) <= to }.collect { it.key }
+            queryRange(property, name, from, true, to, true, function) {
+                scanRange(name, function) { it >= from && it <= to }
             }
         },
         (Query.GreaterThan): { Query.GreaterThan gt, PersistentProperty property, Closure function = null, boolean onValue = false ->
             def name = gt.property
             final value = subqueryIfNecessary(gt)
-            def allEntities = datastore[family]
 
-            allEntities.findAll { (function != null ? function(resolveIfEmbedded(name, it.value)) : resolveIfEmbedded(name, it.value)) > value }.collect { it.key }
+            queryRange(property, name, value, false, null, false, function) {
+                scanRange(name, function) { it > value }
+            }
         },
         (Query.GreaterThanProperty): { Query.GreaterThanProperty gt, PersistentProperty property, Closure function = null, boolean onValue = false ->
             def name = gt.property
@@ -595,23 +578,26 @@ class SimpleMapQuery extends Query {
         (Query.GreaterThanEquals): { Query.GreaterThanEquals gt, PersistentProperty property ->
             def name = gt.property
             final value = subqueryIfNecessary(gt)
-            def allEntities = datastore[family]
 
-            allEntities.findAll { resolveIfEmbedded(name, it.value) >= value }.collect { it.key }
+            queryRange(property, name, value, true, null, false, null) {
+                scanRange(name, null) { it >= value }
+            }
         },
         (Query.LessThan): { Query.LessThan lt, PersistentProperty property ->
             def name = lt.property
             final value = subqueryIfNecessary(lt)
-            def allEntities = datastore[family]
 
-            allEntities.findAll { resolveIfEmbedded(name, it.value) < value }.collect { it.key }
+            queryRange(property, name, null, false, value, false, null) {
+                scanRange(name, null) { it < value }
+            }
         },
         (Query.LessThanEquals): { Query.LessThanEquals lte, PersistentProperty property ->
             def name = lte.property
             final value = subqueryIfNecessary(lte)
-            def allEntities = datastore[family]
 
-            allEntities.findAll { resolveIfEmbedded(name, it.value) <= value }.collect { it.key }
+            queryRange(property, name, null, false, value, true, null) {
+                scanRange(name, null) { it <= value }
+            }
         }
     ]
 
@@ -648,20 +634,50 @@ class SimpleMapQuery extends Query {
     }
 
     protected List executeLikeWithRegex(SimpleMapEntityPersister entityPersister, PersistentProperty property, regexFormat) {
-        def indexer = entityPersister.getPropertyIndexer(property)
-
-        def root = indexer.indexRoot
-        def pattern = Pattern.compile("${root}:${regexFormat}", Pattern.CASE_INSENSITIVE)
-        def matchingIndices = entityPersister.indices.findAll { key, value ->
-            pattern.matcher(key).matches()
-        }
+        def pattern = Pattern.compile(regexFormat.toString(), Pattern.CASE_INSENSITIVE)
+        return entityPersister.getPropertyIndex(property).queryMatching(pattern)
+    }
 
-        Set result = []
-        for (indexed in matchingIndices) {
-            result.addAll(indexed.value)
+    /**
+     * Answers a range query from the ordered property index. If the index cannot be used, because the query
+     * applies a function, targets an embedded property or the values are not comparable, the scan is used instead.
+     * Neither the index nor the scan match entities whose property value is null.
+     *
+     * @param property The property
+     * @param propertyName The property name used in the criterion
+     * @param from The lower bound or null if the range is open at the lower end
+     * @param fromInclusive Whether the lower bound is inclusive
+     * @param to The upper bound or null if the range is open at the upper end
+     * @param toInclusive Whether the upper bound is inclusive
+     * @param function The function applied to the property, if any
+     * @param scan Closure that computes the result by scanning the entities
+     * @return The matching keys
+     */
+    protected List queryRange(PersistentProperty property, String propertyName, from, boolean fromInclusive, to, boolean toInclusive, Closure function, Closure scan) {
+        if (function == null && (from != null || to != null) && !propertyName.contains('.')) {
+            List keys = entityPersister.getPropertyIndex(property).queryRange(from, fromInclusive, to, toInclusive)
+            if (keys != null) {
+                return keys
+            }
         }
+        return scan.call()
+    }
 
-        return result.toList()
+    /**
+     * Scans the entities for those whose property value is not null and satisfies the condition. Null values are
+     * skipped because the ordered property index does not hold them.
+     *
+     * @param propertyName The property name used in the criterion
+     * @param function The function to apply to the property value, if any
+     * @param condition Closure that receives the value and returns whether it is in the range
+     * @return The matching keys
+     */
+    protected List scanRange(String propertyName, Closure function, Closure<Boolean> condition) {
+        def allEntities = datastore[family]
+        allEntities.findAll {
+            def value = resolveIfEmbedded(propertyName, it.value)
+            value != null && condition.call(function != null ? function(value) : value)
+        }.collect { it.key }
     }
 
     private ArrayList negateResults(List results) {